@@ -102,7 +102,7 @@ StrategyUpdate<DecisionAlternative_NONE>> {
                 if (state.isNull(tmpValue)) {
                     isSubclass = true;  //the null value belongs to all classes
                 } else {
-                    final Objekt objS = state.getObject(tmpValue);
+                    final Objekt objS = state.getObjectReadOnly(tmpValue);
                     String classS = objS.getType();
                     isSubclass = state.getClassHierarchy().isSubclass(classS, this.data.className());
                 }
@@ -63,6 +63,6 @@ final class Algo_GETSTATIC extends Algo_GETX {
             failExecution(e);
         }
 
-        return state.getKlass(fieldClassName);
+        return state.getKlassReadOnly(fieldClassName);
     }
 }
@@ -105,7 +105,7 @@ public final class Algo_INIT {
     private State createInitialState(ExecutionContext ctx) 
     throws InvalidClassFileFactoryClassException, InitializationException, 
     DecisionException, ClasspathException {
-        final State state = new State(ctx.maxSimpleArrayLength, ctx.maxHeapSize, ctx.classpath, ctx.classFileFactoryClass, ctx.expansionBackdoor, ctx.calc);
+        final State state = new State(ctx.maxSimpleArrayLength, ctx.maxHeapSize, ctx.classpath, ctx.classFileFactoryClass, ctx.expansionBackdoor, ctx.calc, ctx.copyOnWriteStates);
 
         //pushes a frame for the root method (and possibly triggers)
         invokeRootMethod(state, ctx);
@@ -169,7 +169,7 @@ public final class Algo_INIT {
             //TODO instead of assuming that {ROOT}:this exists and create the frame, use lazy initialization also on {ROOT}:this, for homogeneity and to explore a wider range of alternatives  
             final ReferenceSymbolic rootThis = state.pushFrameSymbolic(ctx.rootMethodSignature);
             if (rootThis != null) {
-                final String className = state.getObject(rootThis).getType();
+                final String className = state.getObjectReadOnly(rootThis).getType();
                 final DecisionAlternative_XLOAD_GETX_Expands rootExpansion = ctx.decisionProcedure.getRootDecisionAlternative(rootThis, className);
                 ctx.triggerManager.loadTriggerFramesRoot(state, rootExpansion);
             }
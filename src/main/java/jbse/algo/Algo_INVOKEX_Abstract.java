@@ -114,7 +114,7 @@ StrategyUpdate<DecisionAlternative_NONE>> {
                 }
                 
                 //second run-time exception
-                if (!hier.isSubclass(state.getObject(receiver).getType(), this.methodSignatureResolved.getClassName())) {
+                if (!hier.isSubclass(state.getObjectReadOnly(receiver).getType(), this.methodSignatureResolved.getClassName())) {
                     throwNew(state, INCOMPATIBLE_CLASS_CHANGE_ERROR);
                     exitFromAlgorithm();
                 }
@@ -151,7 +151,7 @@ StrategyUpdate<DecisionAlternative_NONE>> {
                     hier.isSubclass(currentClass, this.methodSignatureResolved.getClassName())) {
                     final ClassFile classFileCurrent = hier.getClassFile(currentClass);
                     final boolean samePackage = classFileCurrent.getPackageName().equals(classFileResolved.getPackageName());
-                    final String receiverClass = state.getObject(receiver).getType();                    
+                    final String receiverClass = state.getObjectReadOnly(receiver).getType();                    
                     if (!samePackage && !hier.isSubclass(receiverClass, currentClass)) {
                         throwNew(state, ILLEGAL_ACCESS_ERROR);
                         exitFromAlgorithm();
@@ -203,7 +203,7 @@ StrategyUpdate<DecisionAlternative_NONE>> {
                     hier.isSubclass(currentClass, this.methodSignatureResolved.getClassName())) {
                     final ClassFile classFileCurrent = hier.getClassFile(currentClass);
                     final boolean samePackage = classFileCurrent.getPackageName().equals(classFileResolved.getPackageName());
-                    final String receiverClass = state.getObject(receiver).getType();                    
+                    final String receiverClass = state.getObjectReadOnly(receiver).getType();                    
                     if (!samePackage && !hier.isSubclass(receiverClass, currentClass)) {
                         throwNew(state, ILLEGAL_ACCESS_ERROR);
                         exitFromAlgorithm();
@@ -228,7 +228,7 @@ StrategyUpdate<DecisionAlternative_NONE>> {
             final String receiverClassName;
             if (isVirtualInterface) {
                 final Reference thisRef = state.peekReceiverArg(this.methodSignatureResolved);
-                receiverClassName = state.getObject(thisRef).getType();
+                receiverClassName = state.getObjectReadOnly(thisRef).getType();
             } else {
                 receiverClassName = null;
             }
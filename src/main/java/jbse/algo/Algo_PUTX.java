@@ -127,7 +127,7 @@ StrategyUpdate<DecisionAlternative_NONE>> {
                 } else if (isReference(valueType)) {
                     final Reference refToPut = (Reference) this.valueToPut;
                     if (!state.isNull(refToPut)) {
-                        final String valueObjectType = state.getObject(refToPut).getType();
+                        final String valueObjectType = state.getObjectReadOnly(refToPut).getType();
                         if (!state.getClassHierarchy().isAssignmentCompatible(valueObjectType, className(fieldType))) {
                             throwVerifyError(state);
                             exitFromAlgorithm();
@@ -96,7 +96,7 @@ StrategyUpdate_XALOAD> {
             }
 
             //object check
-            if (!(state.getObject(this.myObjectRef) instanceof Array)) {
+            if (!(state.getObjectReadOnly(this.myObjectRef) instanceof Array)) {
                 throwVerifyError(state);
                 exitFromAlgorithm();
             }
@@ -126,7 +126,7 @@ StrategyUpdate_XALOAD> {
                 final Primitive arrayOffset = offsets.remove();
                 Array arrayToProcess = null; //to keep the compiler happy
                 try {
-                    arrayToProcess = (Array) state.getObject(refToArrayToProcess);
+                    arrayToProcess = (Array) state.getObjectReadOnly(refToArrayToProcess);
                 } catch (ClassCastException exc) {
                     //this should never happen
                     failExecution(exc);
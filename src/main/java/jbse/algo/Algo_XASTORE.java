@@ -92,7 +92,7 @@ StrategyUpdate<DecisionAlternative_XASTORE>> {
                         exitFromAlgorithm();
                     }
                     final Reference valueToStoreRef = (Reference) value;
-                    final Objekt o = state.getObject(valueToStoreRef);
+                    final Objekt o = state.getObjectReadOnly(valueToStoreRef);
                     final ClassHierarchy hier = state.getClassHierarchy();
                     if (state.isNull(valueToStoreRef) ||
                         hier.isAssignmentCompatible(o.getType(), className(arrayMemberType))) {
@@ -95,7 +95,7 @@ StrategyUpdate<DecisionAlternative_NONE>> {
                 } else if (isReference(valueType)) {
                     final Reference refToReturn = (Reference) this.valueToReturn;
                     if (!state.isNull(refToReturn)) {
-                        final String valueObjectType = state.getObject(refToReturn).getType();
+                        final String valueObjectType = state.getObjectReadOnly(refToReturn).getType();
                         if (!state.getClassHierarchy().isAssignmentCompatible(valueObjectType, className(destinationType))) {
                             throwVerifyError(state);
                             exitFromAlgorithm();
@@ -75,7 +75,7 @@ UP extends StrategyUpdate<R>> extends Algorithm<D, R, DE, RE, UP> {
         //to have nonnegative length
         if (isArray(classNameOfTargetObject)) {
             try {
-                final Array targetObject = (Array) state.getObject(referenceToExpand);
+                final Array targetObject = (Array) state.getObjectReadOnly(referenceToExpand);
                 final Primitive lengthPositive = targetObject.getLength().ge(state.getCalculator().valInt(0));
                 state.assume(this.ctx.decisionProcedure.simplify(lengthPositive));
             } catch (InvalidOperandException | InvalidTypeException e) {
@@ -17,11 +17,13 @@ import static jbse.algo.Overrides.ALGO_JAVA_CLASS_ISINSTANCE;
 import static jbse.algo.Overrides.ALGO_JAVA_CLASS_ISINTERFACE;
 import static jbse.algo.Overrides.ALGO_JAVA_CLASS_ISPRIMITIVE;
 import static jbse.algo.Overrides.ALGO_JAVA_CLASSLOADER_NATIVELIBRARY_LOAD;
+import static jbse.algo.Overrides.ALGO_JAVA_INTEGER_TOSTRING;
 import static jbse.algo.Overrides.ALGO_JAVA_METHODHANDLENATIVES_RESOLVE;
 import static jbse.algo.Overrides.ALGO_JAVA_OBJECT_CLONE;
 import static jbse.algo.Overrides.ALGO_JAVA_OBJECT_GETCLASS;
 import static jbse.algo.Overrides.ALGO_JAVA_OBJECT_HASHCODE;
 import static jbse.algo.Overrides.ALGO_JAVA_REFLECT_ARRAY_NEWARRAY;
+import static jbse.algo.Overrides.ALGO_JAVA_STRING_EQUALS;
 import static jbse.algo.Overrides.ALGO_JAVA_STRING_HASHCODE;
 import static jbse.algo.Overrides.ALGO_JAVA_STRING_INTERN;
 import static jbse.algo.Overrides.ALGO_JAVA_STRINGBUILDER_APPEND;
@@ -199,6 +201,7 @@ import static jbse.bc.Signatures.JAVA_FINALIZER_FINALIZERTHREAD;
 import static jbse.bc.Signatures.JAVA_FINALREFERENCE;
 import static jbse.bc.Signatures.JAVA_FLOAT;
 import static jbse.bc.Signatures.JAVA_FLOAT_FLOATTORAWINTBITS;
+import static jbse.bc.Signatures.JAVA_INTEGER_TOSTRING;
 import static jbse.bc.Signatures.JAVA_HASHMAP;
 import static jbse.bc.Signatures.JAVA_HASHMAP_NODE;
 import static jbse.bc.Signatures.JAVA_HASHSET;
@@ -296,6 +299,7 @@ import static jbse.bc.Signatures.JAVA_STRICTMATH_TAN;
 import static jbse.bc.Signatures.JAVA_STRICTMATH_TANH;
 import static jbse.bc.Signatures.JAVA_STRING;
 import static jbse.bc.Signatures.JAVA_STRING_CASEINSCOMP;
+import static jbse.bc.Signatures.JAVA_STRING_EQUALS;
 import static jbse.bc.Signatures.JAVA_STRING_HASHCODE;
 import static jbse.bc.Signatures.JAVA_STRING_INTERN;
 import static jbse.bc.Signatures.JAVA_STRINGBUILDER;
@@ -461,6 +465,7 @@ import jbse.mem.State;
 import jbse.rules.TriggerRulesRepo;
 import jbse.tree.DecisionAlternative;
 import jbse.tree.DecisionAlternativeComparators;
+import jbse.tree.ExplorationStrategy;
 import jbse.tree.StateTree;
 import jbse.tree.StateTree.BreadthMode;
 import jbse.tree.StateTree.StateIdentificationMode;
@@ -481,6 +486,9 @@ public final class ExecutionContext {
     /** The maximum heap size expressed as maximum number of objects. Used during initialization. */
     public final long maxHeapSize;
     
+    /** Whether the states must be cloned with copy-on-write. Used during initialization. */
+    public final boolean copyOnWriteStates;
+    
     /** The {@link Classpath}. Used during initialization. */
     public final Classpath classpath;
 
@@ -553,6 +561,8 @@ public final class ExecutionContext {
      *        to be granted simple representation.
      * @param maxHeapSize a {@code long}, the maximum size of the
      *        heap expressed as maximum number of objects it can store.
+     * @param copyOnWriteStates a {@code boolean}, whether the states 
+     *        must be cloned with copy-on-write.
      * @param classpath a {@link Classpath} object, containing 
      *        information about the classpath of the symbolic execution.
      * @param rootMethodSignature the {@link Signature} of the root method
@@ -561,6 +571,8 @@ public final class ExecutionContext {
      * @param decisionProcedure a {@link DecisionProcedureAlgorithms}.
      * @param stateIdentificationMode a {@link StateIdentificationMode}.
      * @param breadthMode a {@link BreadthMode}.
+     * @param explorationStrategy an empty {@link ExplorationStrategy}, 
+     *        determining the exploration order of the pending branches.
      * @param classFileFactoryClass a {@link Class}{@code <? extends }{@link ClassFileFactory}{@code >}
      *        that will be instantiated by the engine to retrieve classfiles. It must 
      *        provide a parameterless public constructor.
@@ -578,12 +590,14 @@ public final class ExecutionContext {
     public ExecutionContext(State initialState,
                             int maxSimpleArrayLength,
                             long maxHeapSize,
+                            boolean copyOnWriteStates,
                             Classpath classpath,
                             Signature rootMethodSignature,
                             Calculator calc, 
                             DecisionProcedureAlgorithms decisionProcedure,
                             StateIdentificationMode stateIdentificationMode,
                             BreadthMode breadthMode,
+                            ExplorationStrategy explorationStrategy,
                             Class<? extends ClassFileFactory> classFileFactoryClass, 
                             Map<String, Set<String>> expansionBackdoor,
                             TriggerRulesRepo rulesTrigger,
@@ -591,11 +605,12 @@ public final class ExecutionContext {
         this.initialState = initialState;
         this.maxSimpleArrayLength = maxSimpleArrayLength;
         this.maxHeapSize = maxHeapSize;
+        this.copyOnWriteStates = copyOnWriteStates;
         this.classpath = classpath;
         this.rootMethodSignature = rootMethodSignature;
         this.calc = calc;
         this.decisionProcedure = decisionProcedure;
-        this.stateTree = new StateTree(stateIdentificationMode, breadthMode);
+        this.stateTree = new StateTree(stateIdentificationMode, breadthMode, explorationStrategy);
         this.classFileFactoryClass = classFileFactoryClass;
         this.expansionBackdoor = new HashMap<>(expansionBackdoor);      //safety copy
         this.triggerManager = new TriggerManager(rulesTrigger.clone()); //safety copy
@@ -634,6 +649,7 @@ public final class ExecutionContext {
             addMetaOverridden(JAVA_FILEINPUTSTREAM_INITIDS,                       ALGO_INVOKEMETA_PURE);
             addMetaOverridden(JAVA_FILEOUTPUTSTREAM_INITIDS,                      ALGO_INVOKEMETA_PURE);
             addMetaOverridden(JAVA_FLOAT_FLOATTORAWINTBITS,                       ALGO_INVOKEMETA_PURE);
+            addMetaOverridden(JAVA_INTEGER_TOSTRING,                              ALGO_JAVA_INTEGER_TOSTRING);
             addBaseOverridden(JAVA_METHODHANDLENATIVES_GETCONSTANT,               BASE_JAVA_METHODHANDLENATIVES_GETCONSTANT);
             addMetaOverridden(JAVA_METHODHANDLENATIVES_REGISTERNATIVES,           ALGO_INVOKEMETA_PURE);
             addMetaOverridden(JAVA_METHODHANDLENATIVES_RESOLVE,                   ALGO_JAVA_METHODHANDLENATIVES_RESOLVE);
@@ -664,6 +680,7 @@ public final class ExecutionContext {
             addMetaOverridden(JAVA_STRICTMATH_SQRT,                               ALGO_INVOKEMETA_PURE);
             addMetaOverridden(JAVA_STRICTMATH_TAN,                                ALGO_INVOKEMETA_PURE);
             addMetaOverridden(JAVA_STRICTMATH_TANH,                               ALGO_INVOKEMETA_PURE);
+            addMetaOverridden(JAVA_STRING_EQUALS,                                 ALGO_JAVA_STRING_EQUALS);
             addMetaOverridden(JAVA_STRING_HASHCODE,                               ALGO_JAVA_STRING_HASHCODE);
             addMetaOverridden(JAVA_STRING_INTERN,                                 ALGO_JAVA_STRING_INTERN);
             addMetaOverridden(JAVA_STRINGBUILDER_APPEND_BOOLEAN,                  ALGO_JAVA_STRINGBUILDER_APPEND);
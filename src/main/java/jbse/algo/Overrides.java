@@ -49,11 +49,13 @@ public final class Overrides {
     public static final String ALGO_JAVA_CLASS_ISINTERFACE              = internalClassName(jbse.algo.meta.Algo_JAVA_CLASS_ISINTERFACE.class.getCanonicalName());
     public static final String ALGO_JAVA_CLASS_ISPRIMITIVE              = internalClassName(jbse.algo.meta.Algo_JAVA_CLASS_ISPRIMITIVE.class.getCanonicalName());
     public static final String ALGO_JAVA_CLASSLOADER_NATIVELIBRARY_LOAD = internalClassName(jbse.algo.meta.Algo_JAVA_CLASSLOADER_NATIVELIBRARY_LOAD.class.getCanonicalName());
+    public static final String ALGO_JAVA_INTEGER_TOSTRING               = internalClassName(jbse.algo.meta.Algo_JAVA_INTEGER_TOSTRING.class.getCanonicalName());
     public static final String ALGO_JAVA_METHODHANDLENATIVES_RESOLVE    = internalClassName(jbse.algo.meta.Algo_JAVA_METHODHANDLENATIVES_RESOLVE.class.getCanonicalName());
     public static final String ALGO_JAVA_OBJECT_CLONE                   = internalClassName(jbse.algo.meta.Algo_JAVA_OBJECT_CLONE.class.getCanonicalName());
     public static final String ALGO_JAVA_OBJECT_GETCLASS                = internalClassName(jbse.algo.meta.Algo_JAVA_OBJECT_GETCLASS.class.getCanonicalName());
     public static final String ALGO_JAVA_OBJECT_HASHCODE                = internalClassName(jbse.algo.meta.Algo_JAVA_OBJECT_HASHCODE.class.getCanonicalName());
     public static final String ALGO_JAVA_REFLECT_ARRAY_NEWARRAY         = internalClassName(jbse.algo.meta.Algo_JAVA_REFLECT_ARRAY_NEWARRAY.class.getCanonicalName());
+    public static final String ALGO_JAVA_STRING_EQUALS                  = internalClassName(jbse.algo.meta.Algo_JAVA_STRING_EQUALS.class.getCanonicalName());
     public static final String ALGO_JAVA_STRING_HASHCODE                = internalClassName(jbse.algo.meta.Algo_JAVA_STRING_HASHCODE.class.getCanonicalName());
     public static final String ALGO_JAVA_STRING_INTERN                  = internalClassName(jbse.algo.meta.Algo_JAVA_STRING_INTERN.class.getCanonicalName());
     public static final String ALGO_JAVA_STRINGBUILDER_APPEND           = internalClassName(jbse.algo.meta.Algo_JAVA_STRINGBUILDER_APPEND.class.getCanonicalName());
@@ -135,7 +135,7 @@ public class TriggerManager {
         if (da instanceof DecisionAlternative_XYLOAD_GETX_Aliases) {
             final DecisionAlternative_XYLOAD_GETX_Aliases daa = (DecisionAlternative_XYLOAD_GETX_Aliases) da;
             final ReferenceSymbolic ref = daa.getValueToLoad();
-            final Objekt o = s.getObject(new ReferenceConcrete(daa.getAliasPosition()));
+            final Objekt o = s.getObjectReadOnly(new ReferenceConcrete(daa.getAliasPosition()));
             final ArrayList<TriggerRuleAliases> rulesNonMax = rulesRepo.matchingTriggerRulesAliasesNonMax(ref);
             final ArrayList<TriggerRuleAliases> rulesMax = rulesRepo.matchingTriggerRulesAliasesMax(ref);
             final ArrayList<TriggerRule> retVal = new ArrayList<>();
@@ -175,7 +175,8 @@ public class Util {
      * @param ref a {@link Reference}.
      * @return a {@link String} corresponding to the {@code value} of 
      *         the {@link Instance} referred by {@code ref}, 
-     *         or {@code null} if such {@link Instance}'s 
+     *         or {@code null} if {@code ref} does not refer
+     *         to an {@link Instance}, or such {@link Instance}'s 
      *         {@link Instance#getType() type} is not 
      *         {@code "java/lang/String"}, or its {@code value}
      *         is not a concrete array of {@code char}s.
@@ -183,10 +184,14 @@ public class Util {
     public static String valueString(State s, Reference ref) {
         final Instance i;
         try {
-            i = (Instance) s.getObject(ref);
+            i = (Instance) s.getObjectReadOnly(ref);
         } catch (ClassCastException e) {
             return null;
         }
+        if (i == null) {
+            //this happens when ref is null, or symbolic and unresolved
+            return null;
+        }
         return valueString(s, i);
     }
     
@@ -206,7 +211,7 @@ public class Util {
     public static String valueString(State s, Instance i) {
         if (i.getType().equals(JAVA_STRING)) {
             final Reference valueRef = (Reference) i.getFieldValue(JAVA_STRING_VALUE);
-            final Array value = (Array) s.getObject(valueRef);
+            final Array value = (Array) s.getObjectReadOnly(valueRef);
             if (value == null) {
                 //this happens when valueRef is symbolic and unresolved
                 return null;
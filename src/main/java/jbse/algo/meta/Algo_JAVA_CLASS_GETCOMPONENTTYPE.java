@@ -53,7 +53,7 @@ public final class Algo_JAVA_CLASS_GETCOMPONENTTYPE extends Algo_INVOKEMETA_Nonb
         try {           
             //gets the canonical name of the primitive type and converts it to a string
             final Reference classRef = (Reference) this.data.operand(0);
-            final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObject(classRef);
+            final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObjectReadOnly(classRef);
             final String className = clazz.representedClass();
             if (isArray(className)) {
                 final String componentTypeName = getArrayMemberType(className);
@@ -78,7 +78,7 @@ public final class Algo_JAVA_CLASS_GETDECLAREDCONSTRUCTORS0 extends Algo_INVOKEM
         try {           
             //gets the classfile for the class represented by 'this'
             final Reference classRef = (Reference) this.data.operand(0);
-            final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObject(classRef);
+            final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObjectReadOnly(classRef);
             final String className = clazz.representedClass();
             this.cf = (clazz.isPrimitive() ? 
                        state.getClassHierarchy().getClassFilePrimitive(className) :
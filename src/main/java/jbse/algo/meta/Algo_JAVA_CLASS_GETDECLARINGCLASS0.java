@@ -60,7 +60,7 @@ public final class Algo_JAVA_CLASS_GETDECLARINGCLASS0 extends Algo_INVOKEMETA_No
                 failExecution("The 'this' parameter to java.lang.Class.getDeclaringClass0 method is null.");
             }
             //TODO the next cast fails if javaClassRef is symbolic and expanded to a regular Instance. Handle the case.
-            final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObject(javaClassRef);
+            final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObjectReadOnly(javaClassRef);
             if (clazz == null) {
                 //this should never happen
                 failExecution("The 'this' parameter to java.lang.Class.getDeclaringClass0 method is symbolic and unresolved.");
@@ -55,7 +55,7 @@ public final class Algo_JAVA_CLASS_GETENCLOSINGMETHOD0 extends Algo_INVOKEMETA_N
         try {           
             //gets the classfile represented by the "this" parameter
             final Reference classRef = (Reference) this.data.operand(0);
-            final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObject(classRef); //TODO check that operand is concrete and not null
+            final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObjectReadOnly(classRef); //TODO check that operand is concrete and not null
             final String className = clazz.representedClass();
             final ClassFile cf = (clazz.isPrimitive() ? 
                                   state.getClassHierarchy().getClassFilePrimitive(className) : 
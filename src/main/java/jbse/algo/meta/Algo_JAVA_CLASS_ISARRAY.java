@@ -40,7 +40,7 @@ public final class Algo_JAVA_CLASS_ISARRAY extends Algo_INVOKEMETA_Nonbranching
                 failExecution("The 'this' parameter to java.lang.Class.isArray method is null.");
             }
             //TODO the next cast fails if javaClassRef is symbolic and expanded to a regular Instance. Handle the case.
-            final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObject(javaClassRef);
+            final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObjectReadOnly(javaClassRef);
             if (clazz == null) {
                 //this should never happen
                 failExecution("The 'this' parameter to java.lang.Class.isArray method is symbolic and unresolved.");
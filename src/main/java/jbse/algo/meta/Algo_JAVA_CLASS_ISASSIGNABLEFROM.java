@@ -43,7 +43,7 @@ public final class Algo_JAVA_CLASS_ISASSIGNABLEFROM extends Algo_INVOKEMETA_Nonb
                 failExecution("The 'this' parameter to java.lang.Class.isInstance method is null.");
             }
             //TODO the next cast fails if javaClassRef is symbolic and expanded to a regular Instance. Handle the case.
-            final Instance_JAVA_CLASS javaClassThis = (Instance_JAVA_CLASS) state.getObject(javaClassRefThis);
+            final Instance_JAVA_CLASS javaClassThis = (Instance_JAVA_CLASS) state.getObjectReadOnly(javaClassRefThis);
             if (javaClassThis == null) {
                 //this should never happen
                 failExecution("The 'this' parameter to java.lang.Class.isInstance method is symbolic and unresolved.");
@@ -57,7 +57,7 @@ public final class Algo_JAVA_CLASS_ISASSIGNABLEFROM extends Algo_INVOKEMETA_Nonb
                 exitFromAlgorithm();
             }
             //TODO the next cast fails if javaClassRef is symbolic and expanded to a regular Instance. Handle the case.
-            final Instance_JAVA_CLASS javaClassOther = (Instance_JAVA_CLASS) state.getObject(javaClassRefThis);
+            final Instance_JAVA_CLASS javaClassOther = (Instance_JAVA_CLASS) state.getObjectReadOnly(javaClassRefThis);
             if (javaClassOther == null) {
                 //this should never happen
                 failExecution("The class parameter to java.lang.Class.isInstance method is symbolic and unresolved.");
@@ -41,7 +41,7 @@ public final class Algo_JAVA_CLASS_ISINSTANCE extends Algo_INVOKEMETA_Nonbranchi
                 failExecution("The 'this' parameter to java.lang.Class.isInstance method is null.");
             }
             //TODO the next cast fails if javaClassRef is symbolic and expanded to a regular Instance. Handle the case.
-            final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObject(javaClassRef);
+            final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObjectReadOnly(javaClassRef);
             if (clazz == null) {
                 //this should never happen
                 failExecution("The 'this' parameter to java.lang.Class.isInstance method is symbolic and unresolved.");
@@ -58,7 +58,7 @@ public final class Algo_JAVA_CLASS_ISINSTANCE extends Algo_INVOKEMETA_Nonbranchi
                 //checks whether the object's class is a subclass 
                 //of the class name from the constant pool
                 final ClassHierarchy hier = state.getClassHierarchy();
-                final Objekt obj = state.getObject(objRef);
+                final Objekt obj = state.getObjectReadOnly(objRef);
                 final String objClass = obj.getType();
                 this.valToPush = state.getCalculator().valInt(hier.isSubclass(objClass, representedClass) ? 1 : 0);
             }
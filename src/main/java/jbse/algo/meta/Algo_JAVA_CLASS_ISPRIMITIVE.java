@@ -30,7 +30,7 @@ public final class Algo_JAVA_CLASS_ISPRIMITIVE extends Algo_INVOKEMETA_Nonbranch
     @Override
     protected void cookMore(State state) throws InterruptException {
         try {
-            final Instance_JAVA_CLASS thisObject = (Instance_JAVA_CLASS) state.getObject((Reference) this.data.operand(0));
+            final Instance_JAVA_CLASS thisObject = (Instance_JAVA_CLASS) state.getObjectReadOnly((Reference) this.data.operand(0));
             if (thisObject == null) {
                 //this should never happen
                 failExecution("violated invariant (unexpected heap access with symbolic unresolved reference)");
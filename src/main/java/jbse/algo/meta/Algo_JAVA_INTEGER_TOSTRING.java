@@ -0,0 +1,69 @@
+package jbse.algo.meta;
+
+import static jbse.algo.Util.continueWithBaseLevelImpl;
+import static jbse.algo.Util.exitFromAlgorithm;
+import static jbse.algo.Util.throwNew;
+import static jbse.algo.Util.throwVerifyError;
+import static jbse.bc.Signatures.OUT_OF_MEMORY_ERROR;
+
+import java.util.function.Supplier;
+
+import jbse.algo.Algo_INVOKEMETA_Nonbranching;
+import jbse.algo.InterruptException;
+import jbse.mem.State;
+import jbse.mem.exc.HeapMemoryExhaustedException;
+import jbse.mem.exc.ThreadStackEmptyException;
+import jbse.val.Primitive;
+import jbse.val.ReferenceConcrete;
+import jbse.val.Simplex;
+
+/**
+ * Meta-level implementation of {@link java.lang.Integer#toString(int)}.
+ * When the parameter is concrete the string is calculated natively,
+ * and a new {@code java.lang.String} with it is created in the heap,
+ * as the base-level implementation does (except for 
+ * {@link Integer#MIN_VALUE}, whose string is a literal); otherwise 
+ * the base-level implementation is executed.
+ */
+public final class Algo_JAVA_INTEGER_TOSTRING extends Algo_INVOKEMETA_Nonbranching {
+    private int toConvert; //set by cookMore
+
+    @Override
+    protected Supplier<Integer> numOperands() {
+        return () -> 1;
+    }
+
+    @Override
+    protected void cookMore(State state) throws InterruptException {
+        try {
+            final Primitive toConvert = (Primitive) this.data.operand(0);
+            if (toConvert.isSymbolic()) {
+                continueWithBaseLevelImpl(state, this.isInterface, this.isSpecial, this.isStatic); //executes the original Integer.toString implementation
+            }
+            this.toConvert = ((Simplex) toConvert).intValue();
+        } catch (ClassCastException e) {
+            throwVerifyError(state);
+            exitFromAlgorithm();
+        }
+    }
+
+    @Override
+    protected void update(State state) throws ThreadStackEmptyException, InterruptException {
+        try {
+            final String stringified = Integer.toString(this.toConvert);
+            final ReferenceConcrete refStringified;
+            if (this.toConvert == Integer.MIN_VALUE) {
+                //the base-level implementation returns a string literal
+                state.ensureStringLiteral(stringified);
+                refStringified = state.referenceToStringLiteral(stringified);
+            } else {
+                //the base-level implementation returns a new string
+                refStringified = state.createString(stringified);
+            }
+            state.pushOperand(refStringified);
+        } catch (HeapMemoryExhaustedException e) {
+            throwNew(state, OUT_OF_MEMORY_ERROR);
+            exitFromAlgorithm();
+        }
+    }
+}
@@ -47,7 +47,7 @@ public final class Algo_JAVA_OBJECT_GETCLASS extends Algo_INVOKEMETA_Nonbranchin
                 //this should never happen
                 failExecution("The 'this' parameter to java.lang.Object.getClass method is null.");
             }
-            final Objekt thisObj = state.getObject(thisRef);
+            final Objekt thisObj = state.getObjectReadOnly(thisRef);
             if (thisObj == null) {
                 //this should never happen
                 failExecution("The 'this' parameter to java.lang.Object.getClass method is symbolic and unresolved.");
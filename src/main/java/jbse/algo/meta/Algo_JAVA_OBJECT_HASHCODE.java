@@ -29,7 +29,7 @@ public final class Algo_JAVA_OBJECT_HASHCODE extends Algo_INVOKEMETA_Nonbranchin
     throws ThreadStackEmptyException, InterruptException {
         try {
             final Reference thisReference = (Reference) this.data.operand(0);
-            final Objekt thisObjekt = state.getObject(thisReference);
+            final Objekt thisObjekt = state.getObjectReadOnly(thisReference);
 
             //gets the hash code stored in the objekt and returns it
             final Primitive hashCode = thisObjekt.getObjektDefaultHashCode();
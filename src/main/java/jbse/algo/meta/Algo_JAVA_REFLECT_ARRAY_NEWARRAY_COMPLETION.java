@@ -59,14 +59,14 @@ public final class Algo_JAVA_REFLECT_ARRAY_NEWARRAY_COMPLETION extends Algo_XNEW
                 exitFromAlgorithm();
             }
             //TODO the next cast fails if javaClassRef is symbolic and expanded to a regular Instance. Handle the case.
-            final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObject(refToClass);
+            final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObjectReadOnly(refToClass);
             if (clazz == null) {
                 //this should never happen
                 failExecution("the first parameter to java.lang.reflect.Array.newArray method is symbolic and unresolved");
             }
             final Reference refToVoidClass = state.referenceToInstance_JAVA_CLASS_primitive("void");
             if (refToVoidClass != null) {
-                final Instance_JAVA_CLASS voidClass = (Instance_JAVA_CLASS) state.getObject(refToVoidClass);
+                final Instance_JAVA_CLASS voidClass = (Instance_JAVA_CLASS) state.getObjectReadOnly(refToVoidClass);
                 if (clazz == voidClass) {
                     throwNew(state, ILLEGAL_ARGUMENT_EXCEPTION);
                     exitFromAlgorithm();
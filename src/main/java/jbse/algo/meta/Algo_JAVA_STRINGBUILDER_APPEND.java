@@ -19,11 +19,21 @@ import jbse.mem.State;
 import jbse.mem.exc.HeapMemoryExhaustedException;
 import jbse.mem.exc.InvalidProgramCounterException;
 import jbse.mem.exc.ThreadStackEmptyException;
+import jbse.common.Type;
 import jbse.val.Primitive;
 import jbse.val.ReferenceConcrete;
+import jbse.val.Simplex;
 
 /**
- * Meta-level implementation of the many {@link java.lang.StringBuilder#append}.
+ * Meta-level implementation of the many {@link java.lang.StringBuilder#append}
+ * with a primitive parameter. The primitive is converted to a string
+ * literal at the meta level (symbolic primitives are converted to
+ * their textual representation), and then the literal is appended 
+ * by invoking {@link java.lang.StringBuilder#append(String)}, 
+ * thus avoiding to interpret the base-level conversion 
+ * (e.g., {@code Integer.getChars}) bytecode by bytecode. Concrete 
+ * {@code float}s and {@code double}s are appended by the base-level
+ * implementation.
  * 
  * @author Pietro Braione
  */
@@ -37,21 +47,20 @@ public final class Algo_JAVA_STRINGBUILDER_APPEND extends Algo_INVOKEMETA_Nonbra
     protected void cookMore(State state) throws ThreadStackEmptyException, InterruptException {
         try {
             final Primitive toAppend = (Primitive) this.data.operand(1);
-            if (toAppend.isSymbolic()) {
-                final String stringifiedSymbol = toAppend.toString();
-                state.ensureStringLiteral(stringifiedSymbol);
-                final ReferenceConcrete refStringifiedSymbol = state.referenceToStringLiteral(stringifiedSymbol);
-                state.pushOperand(this.data.operand(0)); //this
-                state.pushOperand(refStringifiedSymbol);
-                final Snippet snippet = state.snippetFactory()
-                    .op_invokevirtual(JAVA_STRINGBUILDER_APPEND_STRING)
-                    .op_return()
-                    .mk();
-                state.pushSnippetFrame(snippet, INVOKESPECIALSTATICVIRTUAL_OFFSET);
-                exitFromAlgorithm();
-            } else {
+            final String stringified = (toAppend.isSymbolic() ? toAppend.toString() : stringify((Simplex) toAppend));
+            if (stringified == null) {
                 continueWithBaseLevelImpl(state, this.isInterface, this.isSpecial, this.isStatic); //executes the original StringBuilder.append implementation
             }
+            state.ensureStringLiteral(stringified);
+            final ReferenceConcrete refStringified = state.referenceToStringLiteral(stringified);
+            state.pushOperand(this.data.operand(0)); //this
+            state.pushOperand(refStringified);
+            final Snippet snippet = state.snippetFactory()
+                .op_invokevirtual(JAVA_STRINGBUILDER_APPEND_STRING)
+                .op_return()
+                .mk();
+            state.pushSnippetFrame(snippet, INVOKESPECIALSTATICVIRTUAL_OFFSET);
+            exitFromAlgorithm();
         } catch (HeapMemoryExhaustedException e) {
             throwNew(state, OUT_OF_MEMORY_ERROR);
             exitFromAlgorithm();
@@ -64,6 +73,35 @@ public final class Algo_JAVA_STRINGBUILDER_APPEND extends Algo_INVOKEMETA_Nonbra
         }
     }
 
+    /**
+     * Converts a concrete value to a string natively, 
+     * as the base-level {@code append} method would do.
+     * 
+     * @param toAppend the {@link Simplex} to be appended.
+     * @return a {@link String}, or {@code null} if the 
+     *         parameter of the invoked method is not a 
+     *         {@code boolean}, {@code char}, {@code int}
+     *         or {@code long}.
+     */
+    private String stringify(Simplex toAppend) {
+        switch (this.data.signature().getDescriptor().charAt(1)) {
+        case Type.BOOLEAN:
+            return String.valueOf(toAppend.booleanValue());
+        case Type.CHAR:
+            return String.valueOf((char) toAppend.intValue());
+        case Type.INT:
+            return String.valueOf(toAppend.intValue());
+        case Type.LONG:
+            return String.valueOf(toAppend.longValue());
+        default:
+            //floats and doubles are left to the base level, because 
+            //the host JVM may format them differently from the JRE
+            //of the analyzed program (e.g., Double.toString changed 
+            //in JDK 19)
+            return null;
+        }
+    }
+
     @Override
     protected void update(State state) throws ThreadStackEmptyException, InterruptException {
         //never used
@@ -0,0 +1,58 @@
+package jbse.algo.meta;
+
+import static jbse.algo.Util.continueWithBaseLevelImpl;
+import static jbse.algo.Util.exitFromAlgorithm;
+import static jbse.algo.Util.throwVerifyError;
+import static jbse.algo.Util.valueString;
+
+import java.util.function.Supplier;
+
+import jbse.algo.Algo_INVOKEMETA_Nonbranching;
+import jbse.algo.InterruptException;
+import jbse.mem.State;
+import jbse.mem.exc.ThreadStackEmptyException;
+import jbse.val.Reference;
+import jbse.val.Simplex;
+
+/**
+ * Meta-level implementation of {@link java.lang.String#equals(Object)}.
+ * When both the strings are concrete the comparison is done natively, 
+ * otherwise the base-level implementation is executed.
+ */
+public final class Algo_JAVA_STRING_EQUALS extends Algo_INVOKEMETA_Nonbranching {
+    private Simplex equals; //set by cookMore
+
+    @Override
+    protected Supplier<Integer> numOperands() {
+        return () -> 2;
+    }
+
+    @Override
+    protected void cookMore(State state) throws ThreadStackEmptyException, InterruptException {
+        try {
+            final Reference thisReference = (Reference) this.data.operand(0);
+            final Reference otherReference = (Reference) this.data.operand(1);
+            final String thisString = valueString(state, thisReference);
+            if (thisString != null) {
+                if (state.isNull(otherReference)) {
+                    this.equals = state.getCalculator().valInt(0);
+                    return;
+                }
+                final String otherString = valueString(state, otherReference);
+                if (otherString != null) {
+                    this.equals = state.getCalculator().valInt(thisString.equals(otherString) ? 1 : 0);
+                    return;
+                }
+            }
+            continueWithBaseLevelImpl(state, this.isInterface, this.isSpecial, this.isStatic); //executes the original String.equals implementation
+        } catch (ClassCastException e) {
+            throwVerifyError(state);
+            exitFromAlgorithm();
+        }
+    }
+
+    @Override
+    protected void update(State state) throws ThreadStackEmptyException {
+        state.pushOperand(this.equals);
+    }
+}
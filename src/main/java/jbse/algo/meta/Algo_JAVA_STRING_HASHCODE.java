@@ -3,11 +3,14 @@ package jbse.algo.meta;
 import static jbse.algo.Util.continueWithBaseLevelImpl;
 import static jbse.algo.Util.exitFromAlgorithm;
 import static jbse.algo.Util.throwVerifyError;
+import static jbse.algo.Util.valueString;
+import static jbse.bc.Signatures.JAVA_STRING_HASH;
 
 import java.util.function.Supplier;
 
 import jbse.algo.Algo_INVOKEMETA_Nonbranching;
 import jbse.algo.InterruptException;
+import jbse.mem.Instance;
 import jbse.mem.Objekt;
 import jbse.mem.State;
 import jbse.mem.exc.ThreadStackEmptyException;
@@ -16,6 +19,8 @@ import jbse.val.Reference;
 
 /**
  * Meta-level implementation of {@link java.lang.String#hashCode()}.
+ * When the string is concrete its hash code is calculated natively, 
+ * otherwise the base-level implementation is executed.
  * 
  * @author Pietro Braione
  */
@@ -37,6 +42,14 @@ public final class Algo_JAVA_STRING_HASHCODE extends Algo_INVOKEMETA_Nonbranchin
                 this.hash = thisObject.getObjektDefaultHashCode();
                 //TODO possibly refine the state to ensure hash code semantics for strings based on potential equality
             } else {
+                final String thisString = valueString(state, (Instance) thisObject);
+                if (thisString != null) {
+                    //the string is concrete: calculates its hash code natively, 
+                    //and caches it in the object as the base-level implementation does
+                    this.hash = state.getCalculator().valInt(thisString.hashCode());
+                    thisObject.setFieldValue(JAVA_STRING_HASH, this.hash);
+                    return;
+                }
                 continueWithBaseLevelImpl(state, this.isInterface, this.isSpecial, this.isStatic); //executes the original String.hashCode implementation
             }
         } catch (ClassCastException e) {
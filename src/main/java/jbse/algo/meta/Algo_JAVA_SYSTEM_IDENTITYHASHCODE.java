@@ -28,7 +28,7 @@ public final class Algo_JAVA_SYSTEM_IDENTITYHASHCODE extends Algo_INVOKEMETA_Non
     protected void update(State state) throws ThreadStackEmptyException, InterruptException {
         try {
             final Reference thisReference = (Reference) this.data.operand(0);
-            final Objekt thisObjekt = state.getObject(thisReference);
+            final Objekt thisObjekt = state.getObjectReadOnly(thisReference);
 
             //gets the hash code stored in the objekt and returns it
             final Primitive hashCode = thisObjekt.getObjektDefaultHashCode();
@@ -23,7 +23,7 @@ public final class Algo_JAVA_THROWABLE_GETSTACKTRACEDEPTH extends Algo_INVOKEMET
     protected void update(State state) throws ThreadStackEmptyException, InterruptException {
         try {
             final Reference thisRef = (Reference) this.data.operand(0);
-            final Array backtrace = (Array) state.getObject((Reference) state.getObject(thisRef).getFieldValue(JAVA_THROWABLE_BACKTRACE));
+            final Array backtrace = (Array) state.getObjectReadOnly((Reference) state.getObjectReadOnly(thisRef).getFieldValue(JAVA_THROWABLE_BACKTRACE));
             state.pushOperand(backtrace.getLength());
         } catch (ClassCastException | NullPointerException e) {
             throwVerifyError(state);
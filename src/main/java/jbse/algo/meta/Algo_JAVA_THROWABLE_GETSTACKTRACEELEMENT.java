@@ -45,7 +45,7 @@ public final class Algo_JAVA_THROWABLE_GETSTACKTRACEELEMENT extends Algo_INVOKEM
                 throw new SymbolicValueNotAllowedException("the index parameter to java.lang.Throwable.getStackTraceElement method cannot be a symbolic int");
             }
             final int indexInt = (int) ((Simplex) index).getActualValue();
-            this.backtrace = (Array) state.getObject((Reference) state.getObject(thisObject).getFieldValue(JAVA_THROWABLE_BACKTRACE));
+            this.backtrace = (Array) state.getObjectReadOnly((Reference) state.getObjectReadOnly(thisObject).getFieldValue(JAVA_THROWABLE_BACKTRACE));
             final int stackDepth = (int) ((Simplex) this.backtrace.getLength()).getActualValue();
             if (indexInt < 0 || indexInt >= stackDepth) {
                 throwNew(state, INDEX_OUT_OF_BOUNDS_EXCEPTION);
@@ -49,7 +49,7 @@ public final class Algo_JBSE_ANALYSIS_ISRESOLVED extends Algo_INVOKEMETA_Nonbran
         //gets, if not null, the instance
         Instance objectInstance = null; //to keep the compiler happy
         try {
-            objectInstance = (Instance) (state.getObject(objRef));
+            objectInstance = (Instance) (state.getObjectReadOnly(objRef));
             if (objectInstance == null) {
                 throw new SymbolicValueNotAllowedException("null has no fields"); //TODO this is not really a limitation of JBSE, rather an invalid input
             }
@@ -24,7 +24,7 @@ public final class Algo_SUN_REFLECTION_GETCLASSACCESSFLAGS extends Algo_INVOKEME
     protected void cookMore(State state) {
         try {
             final Reference refParam = (Reference) this.data.operand(0);
-            final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObject(refParam);
+            final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObjectReadOnly(refParam);
             final String className = clazz.representedClass();
             final ClassFile cf = (clazz.isPrimitive() ? 
                                   state.getClassHierarchy().getClassFilePrimitive(className) :
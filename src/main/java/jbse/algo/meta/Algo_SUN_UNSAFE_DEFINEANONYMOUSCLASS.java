@@ -74,7 +74,7 @@ public final class Algo_SUN_UNSAFE_DEFINEANONYMOUSCLASS extends Algo_INVOKEMETA_
                 throwNew(state, ILLEGAL_ARGUMENT_EXCEPTION); //this is the behaviour of Hotspot
                 exitFromAlgorithm();
             }
-            final Instance_JAVA_CLASS instanceClassHost = (Instance_JAVA_CLASS) state.getObject(refClassHost);
+            final Instance_JAVA_CLASS instanceClassHost = (Instance_JAVA_CLASS) state.getObjectReadOnly(refClassHost);
             if (instanceClassHost == null) {
                 throw new UnexpectedInternalException("Unexpected symbolic unresolved reference Class hostClass parameter of sun.misc.Unsafe.defineAnonymousClass.");
             }
@@ -86,7 +86,7 @@ public final class Algo_SUN_UNSAFE_DEFINEANONYMOUSCLASS extends Algo_INVOKEMETA_
                 throwNew(state, NULL_POINTER_EXCEPTION); //this is the behaviour of Hotspot
                 exitFromAlgorithm();
             }
-            final Array arrayBytecode = (Array) state.getObject(refBytecode);
+            final Array arrayBytecode = (Array) state.getObjectReadOnly(refBytecode);
             if (!arrayBytecode.isSimple()) {
                 throw new SymbolicValueNotAllowedException("The byte[] data parameter to sun.misc.Unsafe.defineAnonymousClass must be a simple array.");
             }
@@ -41,7 +41,7 @@ public final class Algo_SUN_UNSAFE_ENSURECLASSINITIALIZED extends Algo_INVOKEMET
             throwNew(state, NULL_POINTER_EXCEPTION); //this is what Hotspot does
             exitFromAlgorithm();
         }
-        final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObject(ref);
+        final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObjectReadOnly(ref);
         if (clazz == null) {
             //this should never happen
             throw new UnexpectedInternalException("Unexpected unresolved symbolic reference as Class c parameter of sun.misc.Unsafe.ensureClassInitialized.");
@@ -49,7 +49,7 @@ public final class Algo_SUN_UNSAFE_GETINTVOLATILE extends Algo_INVOKEMETA_Nonbra
             if (state.isNull(objRef)) {
                 throw new UndefinedResultException("The object parameter to sun.misc.Unsafe.getIntVolatile was null.");
             }
-            final Objekt obj = state.getObject(objRef); //TODO objRef from getStaticFieldBase
+            final Objekt obj = state.getObjectReadOnly(objRef); //TODO objRef from getStaticFieldBase
             if (objRef == null) {
                 throw new UnexpectedInternalException("Unexpected unresolved symbolic reference on the operand stack while invoking sun.misc.Unsafe.getIntVolatile.");
             }
@@ -50,7 +50,7 @@ public final class Algo_SUN_UNSAFE_GETOBJECTVOLATILE extends Algo_INVOKEMETA_Non
             if (state.isNull(objRef)) {
                 throw new UndefinedResultException("The object parameter to sun.misc.Unsafe.getObjectVolatile was null.");
             }
-            final Objekt obj = state.getObject(objRef); //TODO objRef from getStaticFieldBase
+            final Objekt obj = state.getObjectReadOnly(objRef); //TODO objRef from getStaticFieldBase
             if (obj == null) {
                 throw new UnexpectedInternalException("Unexpected unresolved symbolic reference on the operand stack while invoking sun.misc.Unsafe.getObjectVolatile.");
             }
@@ -34,7 +34,7 @@ public final class Algo_SUN_UNSAFE_OBJECTFIELDOFFSET extends Algo_INVOKEMETA_Non
     CannotManageStateException, InterruptException {
         try {           
             final Reference fldRef = (Reference) this.data.operand(1);
-            final Instance fldInstance = (Instance) state.getObject(fldRef);
+            final Instance fldInstance = (Instance) state.getObjectReadOnly(fldRef);
             final Simplex ofst = (Simplex) fldInstance.getFieldValue(JAVA_FIELD_SLOT); //we return the slot number of the field as its offset
             if (ofst == null) {
                 //field not found, possibly wrong type
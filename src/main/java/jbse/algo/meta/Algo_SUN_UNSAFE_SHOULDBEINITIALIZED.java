@@ -29,9 +29,9 @@ public final class Algo_SUN_UNSAFE_SHOULDBEINITIALIZED extends Algo_INVOKEMETA_N
     protected void cookMore(State state) throws SymbolicValueNotAllowedException {
         try {
             final Reference refParam = (Reference) this.data.operand(1);
-            final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObject(refParam);
+            final Instance_JAVA_CLASS clazz = (Instance_JAVA_CLASS) state.getObjectReadOnly(refParam);
             final String className = clazz.representedClass();
-            final Klass k = state.getKlass(className);
+            final Klass k = state.getKlassReadOnly(className);
             this.shouldBeInitialized = (k == null || !k.isInitialized());
         } catch (ClassCastException | NullPointerException e) {
             //this should never happen
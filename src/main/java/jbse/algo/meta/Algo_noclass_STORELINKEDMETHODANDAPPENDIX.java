@@ -47,7 +47,7 @@ public final class Algo_noclass_STORELINKEDMETHODANDAPPENDIX extends Algo_INVOKE
     protected void cookMore(State state) throws ThreadStackEmptyException, DecisionException, ClasspathException,
     CannotManageStateException, InterruptException {
         final String methodName = valueString(state, (ReferenceConcrete) this.data.operand(0));
-        final Instance methodType = (Instance) state.getObject((ReferenceConcrete) this.data.operand(1));
+        final Instance methodType = (Instance) state.getObjectReadOnly((ReferenceConcrete) this.data.operand(1));
         final String methodDescriptor = valueString(state, (Reference) methodType.getFieldValue(JAVA_METHODTYPE_METHODDESCRIPTOR));
         if (methodName == null || methodDescriptor == null) {
             //this should never happen
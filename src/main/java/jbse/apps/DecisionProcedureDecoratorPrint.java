@@ -6,6 +6,7 @@ import static jbse.apps.Util.formatExpression;
 
 import java.io.PrintStream;
 import java.util.Collection;
+import java.util.Map;
 
 import jbse.bc.ClassHierarchy;
 import jbse.dec.DecisionProcedure;
@@ -15,7 +16,9 @@ import jbse.dec.exc.InvalidInputException;
 import jbse.mem.Clause;
 import jbse.mem.Objekt;
 import jbse.val.Expression;
+import jbse.val.PrimitiveSymbolic;
 import jbse.val.ReferenceSymbolic;
+import jbse.val.Simplex;
 
 /**
  * A {@link DecisionProcedureDecorator} which prettyprints on a number of {@link PrintStream}s 
@@ -73,6 +76,16 @@ public class DecisionProcedureDecoratorPrint extends DecisionProcedureDecorator
         return retVal;
     }
 
+    @Override
+    public boolean isSatWithModel(ClassHierarchy hier, Expression exp, Map<PrimitiveSymbolic, Simplex> model) 
+    throws InvalidInputException, DecisionException {
+        final boolean retVal = super.isSatWithModel(hier, exp, model);
+        IO.print(this.out, ":: Decided: ");
+        IO.print(this.out, formatClauses(this.getAssumptions())); 
+        IO.println(this.out, TURNSTILE + formatExpression(exp) + ". Result: " + Boolean.toString(retVal));
+        return retVal;
+    }
+
     @Override
     public boolean isSatAliases(ClassHierarchy hier, ReferenceSymbolic r, long heapPos, Objekt o)
     throws InvalidInputException, DecisionException {
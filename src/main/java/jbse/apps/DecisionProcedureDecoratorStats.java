@@ -1,6 +1,7 @@
 package jbse.apps;
 
 import java.util.Collection;
+import java.util.Map;
 
 import jbse.bc.ClassHierarchy;
 import jbse.dec.DecisionProcedure;
@@ -10,7 +11,9 @@ import jbse.dec.exc.InvalidInputException;
 import jbse.mem.Clause;
 import jbse.mem.Objekt;
 import jbse.val.Expression;
+import jbse.val.PrimitiveSymbolic;
 import jbse.val.ReferenceSymbolic;
+import jbse.val.Simplex;
 
 /**
  * A {@link DecisionProcedureDecorator} that logs the time spent 
@@ -81,6 +84,16 @@ public class DecisionProcedureDecoratorStats extends DecisionProcedureDecorator
         return result;
     }
 
+    @Override
+    public boolean isSatWithModel(ClassHierarchy hier, Expression exp, Map<PrimitiveSymbolic, Simplex> model) 
+    throws InvalidInputException, DecisionException {
+        this.startTimer();
+        final boolean result = super.isSatWithModel(hier, exp, model);
+        final long elapsed = this.elapsed();
+        System.err.println("ISSAT\t" + exp + "\t" + result + "\t" + elapsed);
+        return result;
+    }
+
     @Override
     public boolean isSatAliases(ClassHierarchy hier, ReferenceSymbolic r, long heapPos, Objekt o)
     throws InvalidInputException, DecisionException {
@@ -243,7 +243,7 @@ public final class StateFormatterJUnitTestSuite implements Formatter {
                 this.s.append("    @Test\n");
             } else {
                 this.s.append("    @Test(expected=");
-                this.s.append(javaClass(finalState.getObject(exception).getType()));
+                this.s.append(javaClass(finalState.getObjectReadOnly(exception).getType()));
                 this.s.append(".class)\n");
             }
             this.s.append("    public void test");
@@ -326,7 +326,7 @@ public final class StateFormatterJUnitTestSuite implements Formatter {
                         if (finalState.isNull(returnedRef)) {
                             this.s.append("java.lang.Object");
                         } else {
-                            this.s.append(javaClass(finalState.getObject(returnedRef).getType()));
+                            this.s.append(javaClass(finalState.getObjectReadOnly(returnedRef).getType()));
                         }
                     }
                     this.s.append(" __returnedValue = ");
@@ -413,7 +413,7 @@ public final class StateFormatterJUnitTestSuite implements Formatter {
                     if (finalState.isNull(returnedRef)) {
                         this.s.append("null");
                     } else {
-                        final String var = generateName(finalState.getObject(returnedRef).getOrigin().toString());
+                        final String var = generateName(finalState.getObjectReadOnly(returnedRef).getOrigin().toString());
                         if (hasMemberAccessor(var)) {
                             this.s.append(getValue(var));
                         } else {
@@ -10,6 +10,7 @@ import java.util.Map;
 import java.util.TreeSet;
 
 import jbse.bc.ClassHierarchy;
+import jbse.bc.Signature;
 import jbse.common.Type;
 import jbse.mem.Array;
 import jbse.mem.Clause;
@@ -123,7 +124,7 @@ public class StateFormatterText implements Formatter {
                 if (s.isNull(ref)) {
                     expression += "null";
                 } else {
-                    final MemoryPath tgtOrigin = s.getObject(ref).getOrigin();
+                    final MemoryPath tgtOrigin = s.getObjectReadOnly(ref).getOrigin();
                     expression += "Object[" + s.getResolution(ref) + "] (" + (ref.getOrigin().equals(tgtOrigin) ? "fresh" : ("aliases " + tgtOrigin)) + ")";
                 }
                 final String referenceFormatted = formatReferenceForPathCondition(ref, doneSymbols); 
@@ -344,13 +345,13 @@ public class StateFormatterText implements Formatter {
         buf.append("Class: ");
         buf.append(i.getType());
         int z = 0;
-        for (Map.Entry<String, Variable> e : i.fields().entrySet()) {
+        for (Signature sig : i.getStoredFieldSignatures()) {
             buf.append(lineSep);
             buf.append(indentCurrent);
             buf.append("Field[");
             buf.append(z);
             buf.append("]: ");
-            buf.append(formatVariable(s, e.getValue()));
+            buf.append(formatVariable(s, sig.getName(), sig.getDescriptor(), i.getFieldValue(sig)));
             ++z;
         }
         return buf.toString();
@@ -360,7 +361,7 @@ public class StateFormatterText implements Formatter {
         final String lineSep = (breakLines ? LINE_SEP : "");
         final StringBuilder buf = new StringBuilder(lineSep);
         int z = 0;
-        for (Map.Entry<String, Variable> e : k.fields().entrySet()) {
+        for (Signature sig : k.getStoredFieldSignatures()) {
             if (z > 0) {
                 buf.append(lineSep);
             }
@@ -368,7 +369,7 @@ public class StateFormatterText implements Formatter {
             buf.append("Field[");
             buf.append(z);
             buf.append("]: ");
-            buf.append(formatVariable(s, e.getValue()));
+            buf.append(formatVariable(s, sig.getName(), sig.getDescriptor(), k.getFieldValue(sig)));
             ++z;
         }
         return buf.toString();
@@ -376,14 +377,17 @@ public class StateFormatterText implements Formatter {
 
 
     private static String formatVariable(State s, Variable v) {
+        return formatVariable(s, v.getName(), v.getType(), v.getValue());
+    }
+
+    private static String formatVariable(State s, String name, String type, Value val) {
         String tmp;
-        Value val = v.getValue(); 
         if (val == null) {
             tmp = "ERROR: no value has been assigned to this variable.";
         } else {
             tmp = formatValue(s, val) + " " + formatType(val);
         }
-        return ("Name: " + v.getName() + ", Type: " + v.getType() + ", Value: " + tmp);
+        return ("Name: " + name + ", Type: " + type + ", Value: " + tmp);
     }
 
     private static String formatValue(State s, Value val) {
@@ -63,7 +63,7 @@ public class StateFormatterTrace implements Formatter {
             if (s.isNull((Reference) v)) {
                 return "null";
             } else {
-                return s.getObject((Reference) v).getType();
+                return s.getObjectReadOnly((Reference) v).getType();
             }
         } else {
             throw new UnexpectedInternalException("Unexpected value " + v + " returned.");
@@ -469,7 +469,7 @@ public final class DecisionProcedureGuidance extends DecisionProcedureAlgorithms
         if (refInConcreteState.isNull()) {
             return;
         }
-        final Objekt objInConcreteState = this.initialStateConcrete.getObject(refInConcreteState);
+        final Objekt objInConcreteState = this.initialStateConcrete.getObjectReadOnly(refInConcreteState);
         final String objType = objInConcreteState.getType();
         if (!refType.equals(objType)) {
             state.getClassHierarchy().addToExpansionBackdoor(refType, objType);
@@ -483,7 +483,7 @@ public final class DecisionProcedureGuidance extends DecisionProcedureAlgorithms
             it.remove();
         } else if (dar instanceof DecisionAlternative_XYLOAD_GETX_Aliases) {
             final DecisionAlternative_XYLOAD_GETX_Aliases dara = (DecisionAlternative_XYLOAD_GETX_Aliases) dar;
-            final MemoryPath aliasOrigin = state.getObject(new ReferenceConcrete(dara.getAliasPosition())).getOrigin();
+            final MemoryPath aliasOrigin = state.getObjectReadOnly(new ReferenceConcrete(dara.getAliasPosition())).getOrigin();
             final Reference aliasInConcreteState = (Reference) getValue(this.initialStateConcrete, this.rootFrameConcrete, aliasOrigin);
             if (!Util.areAlias(this.initialStateConcrete, refInConcreteState, aliasInConcreteState)) {
                 it.remove();
@@ -493,7 +493,7 @@ public final class DecisionProcedureGuidance extends DecisionProcedureAlgorithms
             final long refHeapPosInConcreteState = Util.heapPosition(this.initialStateConcrete, refInConcreteState);
             if (Util.isNull(this.initialStateConcrete, refInConcreteState) || 
                 this.seenObjects.contains(refHeapPosInConcreteState) ||
-                !dare.getClassNameOfTargetObject().equals(this.initialStateConcrete.getObject(refInConcreteState).getType())) {
+                !dare.getClassNameOfTargetObject().equals(this.initialStateConcrete.getObjectReadOnly(refInConcreteState).getType())) {
                 it.remove();
             } else {
                 this.seenObjects.add(refHeapPosInConcreteState);
@@ -531,7 +531,7 @@ public final class DecisionProcedureGuidance extends DecisionProcedureAlgorithms
             } else if (a instanceof AccessStatic) {
                 final AccessStatic as = (AccessStatic) a;
                 fieldValue = null;
-                o = state.getKlass(as.className());
+                o = state.getKlassReadOnly(as.className());
             } else if (a instanceof AccessField) {
                 if (o == null) {
                     throw new GuidanceException(ERROR_BAD_PATH);
@@ -567,7 +567,7 @@ public final class DecisionProcedureGuidance extends DecisionProcedureAlgorithms
                 fieldValue = o.getObjektDefaultHashCode();
             }
             if (fieldValue instanceof Reference) {
-                o = state.getObject((Reference) fieldValue);
+                o = state.getObjectReadOnly((Reference) fieldValue);
             } else if (fieldValue != null) {
                 o = null;
             }
@@ -77,7 +77,7 @@ public final class InitialHeapChecker {
         //runs the check methods on all the instances in the heap 
         for (long heapPos : sIni.getHeap().keySet()) {
             final Reference objectRef = new ReferenceConcrete(heapPos);
-            final Objekt obj = sIni.getObject(objectRef);
+            final Objekt obj = sIni.getObjectReadOnly(objectRef);
             if (obj.isSymbolic()) {
                 try {
                     final Signature methodSignature = this.checkMethodTable.findCheckMethod(obj.getType(), sIni);
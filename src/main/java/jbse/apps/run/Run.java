@@ -39,6 +39,8 @@ import jbse.dec.DecisionProcedure;
 import jbse.dec.DecisionProcedureAlgorithms;
 import jbse.dec.DecisionProcedureAlwSat;
 import jbse.dec.DecisionProcedureClassInit;
+import jbse.dec.DecisionProcedureDecoratorCache;
+import jbse.dec.DecisionProcedureDecoratorModelReuse;
 import jbse.dec.DecisionProcedureEquality;
 import jbse.dec.DecisionProcedureLICS;
 import jbse.dec.DecisionProcedureSignAnalysis;
@@ -49,6 +51,7 @@ import jbse.jvm.Engine;
 import jbse.jvm.EngineParameters;
 import jbse.jvm.Runner;
 import jbse.jvm.RunnerBuilder;
+import jbse.jvm.RunnerParallel;
 import jbse.jvm.RunnerParameters;
 import jbse.jvm.exc.CannotBacktrackException;
 import jbse.jvm.exc.CannotBuildEngineException;
@@ -65,6 +68,7 @@ import jbse.rewr.CalculatorRewriting;
 import jbse.rewr.Rewriter;
 import jbse.rewr.RewriterOperationOnSimplex;
 import jbse.tree.StateTree.BranchPoint;
+import jbse.val.Calculator;
 import jbse.val.PrimitiveSymbolic;
 import jbse.val.Simplex;
 
@@ -99,6 +103,9 @@ public final class Run {
     /** The {@link Engine} underlying {@code runner}. */
     private Engine engine = null; //TODO build run object during construction and make this final
 
+    /** The {@link RunnerParallel} used to run the method when more than one worker is requested. */
+    private RunnerParallel runnerParallel = null;
+
     /** The {@link DecisionProcedure} used by {@code engine}. */
     private DecisionProcedureAlgorithms decisionProcedure = null; //TODO build run object during construction and make this final
 
@@ -120,6 +127,18 @@ public final class Run {
     /** The {@link Timer} for the decision procedure. */
     private Timer timer = null;
 
+    /** The external numeric decision procedure used by {@code engine}, if any. */
+    private DecisionProcedureSMTLIB2_AUFNIRA decisionProcedureExternal = null;
+
+    /** The {@link CalculatorRewriting} used by {@code engine}. */
+    private CalculatorRewriting calc = null;
+
+    /** The satisfiability query cache used by {@code engine}, if any. */
+    private DecisionProcedureDecoratorCache cache = null;
+
+    /** The model reuse decision procedure used by {@code engine}, if any. */
+    private DecisionProcedureDecoratorModelReuse modelReuse = null;
+
     /** The {@link DecisionProcedureGuidance}, whenever this method is chosen for stepping the {@link Engine}. */
     private DecisionProcedureGuidance guidance = null;
 
@@ -544,6 +563,10 @@ public final class Run {
      * of the error was internal (bugs).
      */
     public int run() {
+        if (this.parameters.getNumWorkers() > 1) {
+            return runParallel();
+        }
+
         // sets up this object
         int retVal = build();
         if (retVal > 0) {
@@ -581,6 +604,70 @@ public final class Run {
         return close();
     }
 
+    /**
+     * Runs the method with a {@link RunnerParallel}.
+     * 
+     * @return an {@code int} value representing an error code, 
+     * as in {@link #run()}.
+     */
+    private int runParallel() {
+        // sets up this object
+        int retVal = buildParallel();
+        if (retVal > 0) {
+            close();
+            return retVal;
+        }
+
+        // prints feedback
+        if (this.parameters.getShowInfo()) {
+            log(MSG_START + this.parameters.getMethodSignature() + " at " + new Date() + ".");
+        }
+
+        // runs
+        emitPrologue();
+        try {
+            this.runnerParallel.run();
+        } catch (ClasspathException e) {
+            err(ERROR_BAD_CLASSPATH);
+            err(e);
+            retVal = 1;
+        } catch (DecisionException e) {
+            err(ERROR_ENGINE_DECISION_PROCEDURE);
+            err(e);
+            retVal = 1;
+        } catch (InitializationException e) {
+            err(ERROR_ENGINE_INIT_INITIAL_STATE);
+            err(e);
+            retVal = 1;
+        } catch (CannotManageStateException e) {
+            err(e);
+            retVal = 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            retVal = 1;
+        } catch (CannotBuildEngineException e) {
+            err(ERROR_BUILD_FAILED + e.getCause() + ".");
+            retVal = 2;
+        } catch (NonexistingObservedVariablesException | InvalidClassFileFactoryClassException | 
+                 EngineStuckException | CannotBacktrackException | ThreadStackEmptyException | 
+                 ContradictionException | FailureException | UnexpectedInternalException e) {
+            err(ERROR_UNEXPECTED);
+            err(e);
+            retVal = 2;
+        }
+        emitEpilogue();
+
+        // prints statistics
+        if (this.parameters.getShowInfo()) {
+            log(MSG_END + new Date() + ".");
+            printFinalStatsParallel();
+        }
+
+        // closes and returns the error code
+        final int retValClose = close();
+        return (retVal > 0 ? retVal : retValClose);
+    }
+
     /**
      * Gets a line of text on the input stream.
      * 
@@ -663,7 +750,12 @@ public final class Run {
             createFormatter();
             final RunnerParameters runnerParameters = this.parameters.getRunnerParameters();
             runnerParameters.setActions(new ActionsRun());
+            if (this.parameters.getStepShowMode() == StepShowMode.ALL) {
+                //every bytecode must be shown
+                runnerParameters.setFuseConcreteBlocks(false);
+            }
             final CalculatorRewriting calc = createCalculator();
+            this.calc = calc;
             final EngineParameters engineParameters = runnerParameters.getEngineParameters();
             engineParameters.setCalculator(calc);
             createDecisionProcedure(calc);
@@ -709,6 +801,71 @@ public final class Run {
         return 0;
     }
 
+    /**
+     * Processes the provided {@link RunParameters} and builds the 
+     * {@link RunnerParallel} which will be used to perform the 
+     * symbolic execution. Each worker builds its own decision
+     * procedure by means of {@link #createDecisionProcedureWorker(Calculator)}.
+     * 
+     * @return an {@code int} value representing an error code.
+     */
+    private int buildParallel() {
+        //sets the input, output and error streams
+        setStreams();
+
+        // prints a welcome message
+        if (this.parameters.getShowInfo()) {
+            log(MSG_WELCOME_TXT);
+        }
+
+        //checks that the options can be honored by the workers
+        final StepShowMode stepShowMode = this.parameters.getStepShowMode();
+        if (this.parameters.getInteractionMode() != InteractionMode.NO_INTERACTION ||
+            this.parameters.isGuided() || this.parameters.getUseConservativeRepOks() ||
+            this.parameters.getDoConcretization() || 
+            this.parameters.getStateFormatMode() == StateFormatMode.JUNIT_TEST ||
+            (stepShowMode != StepShowMode.LEAVES && stepShowMode != StepShowMode.NONE)) {
+            err(ERROR_PARALLEL_UNSUPPORTED);
+            return 1;
+        }
+
+        //builds
+        try {
+            createFormatter();
+            final RunnerParameters runnerParameters = this.parameters.getRunnerParameters();
+            final CalculatorRewriting calc = createCalculator();
+            this.calc = calc;
+            runnerParameters.getEngineParameters().setCalculator(calc);
+            final boolean showLeaves = (stepShowMode == StepShowMode.LEAVES);
+            this.runnerParallel = 
+                new RunnerParallel(runnerParameters, this.parameters.getNumWorkers(), this::createDecisionProcedureWorker, 
+                                   s -> { if (showLeaves) { emitState(s, false); } });
+        } catch (CannotBuildEngineException e) {
+            err(ERROR_BUILD_FAILED + e.getCause() + ".");
+            return 2;
+        }
+
+        return 0;
+    }
+
+    /**
+     * Creates the decision procedure of a worker of 
+     * {@code this.runnerParallel}. 
+     * 
+     * @param calc the {@link Calculator} of the workers.
+     * @return the created {@link DecisionProcedureAlgorithms}.
+     * @throws DecisionException upon failure.
+     */
+    private synchronized DecisionProcedureAlgorithms createDecisionProcedureWorker(Calculator calc) 
+    throws DecisionException {
+        try {
+            createDecisionProcedure(this.calc);
+        } catch (CannotBuildDecisionProcedureException e) {
+            throw new DecisionException(e);
+        }
+        return this.decisionProcedure;
+    }
+
     private void setStreams() {
         // sets the output and error streams
         // first are to standard
@@ -847,7 +1004,7 @@ public final class Run {
     private CalculatorRewriting createCalculator() throws CannotBuildEngineException {
         final CalculatorRewriting calc;
         try {
-            calc = new CalculatorRewriting();
+            calc = new CalculatorRewriting(this.parameters.getRewriteCacheSize());
             calc.addRewriter(new RewriterOperationOnSimplex()); //indispensable
             for (final Class<? extends Rewriter> rewriterClass : this.parameters.getRewriters()) {
                 if (rewriterClass == null) { 
@@ -873,6 +1030,7 @@ public final class Run {
     private void createDecisionProcedure(CalculatorRewriting calc)
     throws CannotBuildDecisionProcedureException {
         final Path path = this.parameters.getExternalDecisionProcedurePath();       
+        final boolean pipelined = this.parameters.getExternalDecisionProcedurePipelined();
 
         //prints some feedback
         if (this.parameters.getShowInfo()) {
@@ -899,12 +1057,14 @@ public final class Run {
                 //do nothing
             } else if (type == DecisionProcedureType.Z3) {
                 final String z3 = (path == null ? "z3" : path.toString()) + COMMANDLINE_LAUNCH_Z3;
-                core = new DecisionProcedureSMTLIB2_AUFNIRA(core, calc, z3);
-                coreNumeric = (needHeapCheck ? new DecisionProcedureSMTLIB2_AUFNIRA(coreNumeric, calc, z3) : null);
+                this.decisionProcedureExternal = new DecisionProcedureSMTLIB2_AUFNIRA(core, calc, z3, pipelined);
+                core = this.decisionProcedureExternal;
+                coreNumeric = (needHeapCheck ? new DecisionProcedureSMTLIB2_AUFNIRA(coreNumeric, calc, z3, pipelined) : null);
             } else if (type == DecisionProcedureType.CVC4) {
                 final String cvc4 = (path == null ? "cvc4" : path.toString()) + COMMANDLINE_LAUNCH_CVC4;
-                core = new DecisionProcedureSMTLIB2_AUFNIRA(core, calc, cvc4);
-                coreNumeric = (needHeapCheck ? new DecisionProcedureSMTLIB2_AUFNIRA(coreNumeric, calc, cvc4) : null);
+                this.decisionProcedureExternal = new DecisionProcedureSMTLIB2_AUFNIRA(core, calc, cvc4, pipelined);
+                core = this.decisionProcedureExternal;
+                coreNumeric = (needHeapCheck ? new DecisionProcedureSMTLIB2_AUFNIRA(coreNumeric, calc, cvc4, pipelined) : null);
             } else {
                 core.close();
                 if (coreNumeric != null) {
@@ -912,6 +1072,9 @@ public final class Run {
                 }
                 throw new CannotBuildDecisionProcedureException(ERROR_UNDEF_DECISION_PROCEDURE);
             }
+            if (this.decisionProcedureExternal != null) {
+                this.decisionProcedureExternal.setIndependenceSlicing(this.parameters.getExternalDecisionProcedureIndependenceSlicing());
+            }
         } catch (DecisionException e) {
             throw new CannotBuildDecisionProcedureException(e);
         }
@@ -958,6 +1121,18 @@ public final class Run {
             core = c.createAndWrap(core, calc);
         }
 
+        //wraps with model reuse
+        if (this.parameters.getDecisionProcedureModelsReused() > 0) {
+            this.modelReuse = new DecisionProcedureDecoratorModelReuse(core, calc, this.parameters.getDecisionProcedureModelsReused());
+            core = this.modelReuse;
+        }
+
+        //wraps with the query cache
+        if (this.parameters.getDecisionProcedureCacheSize() > 0) {
+            this.cache = new DecisionProcedureDecoratorCache(core, this.parameters.getDecisionProcedureCacheSize());
+            core = this.cache;
+        }
+
         //wraps with timer
         final DecisionProcedureDecoratorTimer tCore = new DecisionProcedureDecoratorTimer(core);
         this.timer = tCore;
@@ -1079,6 +1254,40 @@ public final class Run {
             (this.timer == null ? 
              "." :
              ", " + MSG_END_DECISION + Util.formatTime(elapsedTimeDecisionProcedure) + " (" + Util.formatTimePercent(elapsedTimeDecisionProcedure, elapsedTime) + " of total)."));
+        if (this.decisionProcedureExternal != null) {
+            log(MSG_END_ASSUMPTIONS_SAVED + this.decisionProcedureExternal.getAssumptionsSaved() + ".");
+        }
+        if (this.cache != null) {
+            log(MSG_END_CACHE_HITS + this.cache.getHits() + 
+                " (" + MSG_END_CACHE_HITS_SUBSUMPTION + this.cache.getHitsSubsumption() + "), " + 
+                MSG_END_CACHE_MISSES + this.cache.getMisses() + ".");
+        }
+        if (this.calc != null && this.parameters.getRewriteCacheSize() > 0) {
+            log(MSG_END_REWRITE_HITS + this.calc.getRewriteCacheHits() + ", " + 
+                MSG_END_REWRITE_MISSES + this.calc.getRewriteCacheMisses() + ".");
+        }
+        if (this.modelReuse != null) {
+            log(MSG_END_MODEL_HITS + this.modelReuse.getHits() + ", " + 
+                MSG_END_MODEL_MISSES + this.modelReuse.getMisses() + ".");
+        }
+    }
+
+    /**
+     * Prints the statistics of a run with a {@link RunnerParallel}.
+     */
+    private void printFinalStatsParallel() {
+        final long elapsedTime = Math.max(1, this.runnerParallel.getStopTime() - this.runnerParallel.getStartTime());
+        log(MSG_END_STATES + this.runnerParallel.getAnalyzedStates() + ", " +
+            MSG_END_TRACES_TOT + this.runnerParallel.getTracesTotal() + ", " +
+            MSG_END_TRACES_OUT_OF_SCOPE + this.runnerParallel.getTracesOutOfScope() + ", " +
+            MSG_END_TRACES_VIOLATING_ASSUMPTION + this.runnerParallel.getTracesContradicted() + ".");
+        log(MSG_END_ELAPSED + Util.formatTime(elapsedTime) + ", " +
+            MSG_END_SPEED + this.runnerParallel.getAnalyzedStates() * 1000 / elapsedTime + " states/sec" + 
+            " (" + this.parameters.getNumWorkers() + MSG_END_WORKERS + ").");
+        if (this.calc != null && this.parameters.getRewriteCacheSize() > 0) {
+            log(MSG_END_REWRITE_HITS + this.calc.getRewriteCacheHits() + ", " + 
+                MSG_END_REWRITE_MISSES + this.calc.getRewriteCacheMisses() + ".");
+        }
     }
 
     /**
@@ -1102,9 +1311,11 @@ public final class Run {
             }
         }
 
-        // quits the engine
+        // quits the engine (the workers of a parallel run quit their own)
         try {
-            this.engine.close();
+            if (this.engine != null) {
+                this.engine.close();
+            }
         } catch (DecisionException e) {
             err(ERROR_ENGINE_QUIT_DECISION_PROCEDURE);
             err(e);
@@ -1181,12 +1392,39 @@ public final class Run {
     /** Message: elapsed time. */
     private static final String MSG_END_DECISION = "Elapsed time in decision procedure: ";
 
+    /** Message: clauses not sent again to the external decision procedure upon backtrack. */
+    private static final String MSG_END_ASSUMPTIONS_SAVED = "Clauses reused by the external decision procedure upon backtrack: ";
+
+    /** Message: satisfiability queries answered by the cache. */
+    private static final String MSG_END_CACHE_HITS = "Queries answered by the cache: ";
+
+    /** Message: satisfiability queries answered by the cache by unsat subsumption. */
+    private static final String MSG_END_CACHE_HITS_SUBSUMPTION = "by subsumption: ";
+
+    /** Message: satisfiability queries not answered by the cache. */
+    private static final String MSG_END_CACHE_MISSES = "not answered by the cache: ";
+
+    /** Message: satisfiability queries answered by a past model. */
+    private static final String MSG_END_MODEL_HITS = "Queries satisfied by a past model: ";
+
+    /** Message: satisfiability queries not answered by a past model. */
+    private static final String MSG_END_MODEL_MISSES = "not satisfied by a past model: ";
+
+    /** Message: rewritings answered by the rewrite cache. */
+    private static final String MSG_END_REWRITE_HITS = "Rewritings answered by the rewrite cache: ";
+
+    /** Message: rewritings not answered by the rewrite cache. */
+    private static final String MSG_END_REWRITE_MISSES = "not answered by the rewrite cache: ";
+
     /** Message: average speed. */
     private static final String MSG_END_SPEED = "Average speed: ";
 
     /** Message: analyzed states. */
     private static final String MSG_END_STATES = "Analyzed states: ";
 
+    /** Message: number of workers. */
+    private static final String MSG_END_WORKERS = " workers";
+
     /** Message: total traces. */
     private static final String MSG_END_TRACES_TOT = "Analyzed traces: ";
 
@@ -1287,6 +1525,9 @@ public final class Run {
     /** Error: unexpected internal error (stepping while engine stuck). */
     private static final String ERROR_ENGINE_STUCK = "Unexpected internal error: Attempted step while in a stuck state.";
 
+    /** Error: some option is not supported by parallel runs. */
+    private static final String ERROR_PARALLEL_UNSUPPORTED = "With more than one worker, guidance, conservative repOks, concretization, interaction, JUnit state format and step show modes other than leaves and none are not supported.";
+
     /** Error: unexpected internal error. */
     private static final String ERROR_UNEXPECTED = "Unexpected internal error.";
 
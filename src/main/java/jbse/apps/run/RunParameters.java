@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -276,6 +277,12 @@ public final class RunParameters implements Cloneable {
     /** The {@link Class}es of all the rewriters to be applied to terms (order matters). */
     private ArrayList<Class<? extends Rewriter>> rewriterClasses = new ArrayList<>();
 
+    /** 
+     * The maximum number of results of rewriting memoized 
+     * by the calculator; {@code 0} for no memoization.
+     */
+    private int rewriteCacheSize = 0;
+
     /**
      * The decision procedure to be used for deciding the 
      * arithmetic conditions.
@@ -285,6 +292,39 @@ public final class RunParameters implements Cloneable {
     /** The {@link Path} where the executable of the external decision procedure is. */
     private Path externalDecisionProcedurePath = null;
 
+    /** 
+     * Whether the interaction with the external decision
+     * procedure must be pipelined.
+     */
+    private boolean externalDecisionProcedurePipelined = false;
+
+    /** 
+     * Whether the external decision procedure must be 
+     * queried only with the assumptions that are not
+     * independent of the query.
+     */
+    private boolean externalDecisionProcedureIndependenceSlicing = false;
+
+    /** 
+     * The maximum number of satisfiability queries cached
+     * by the decision procedure; {@code 0} for no cache.
+     */
+    private int decisionProcedureCacheSize = 0;
+
+    /** 
+     * The maximum number of models kept by the decision 
+     * procedure to answer satisfiability queries; 
+     * {@code 0} for no model reuse.
+     */
+    private int decisionProcedureModelsReused = 0;
+
+    /** 
+     * The number of worker threads that explore the
+     * symbolic execution tree; {@code 1} for a 
+     * sequential exploration.
+     */
+    private int numWorkers = 1;
+
     /** 
      * Whether the engine should use its sign analysis 
      * decision support.
@@ -454,6 +494,75 @@ public final class RunParameters implements Cloneable {
         this.runnerParameters.setBreadthMode(breadthMode);
     }
 
+    /**
+     * Sets the exploration strategy to depth-first, 
+     * i.e., upon backtrack the most recently created 
+     * pending branch is explored. This is the default.
+     */
+    public void setExplorationStrategyDepthFirst() {
+        this.runnerParameters.setExplorationStrategyDepthFirst();
+    }
+
+    /**
+     * Sets the exploration strategy to breadth-first, 
+     * i.e., upon backtrack the least recently created 
+     * pending branch is explored. 
+     */
+    public void setExplorationStrategyBreadthFirst() {
+        this.runnerParameters.setExplorationStrategyBreadthFirst();
+    }
+
+    /**
+     * Sets the exploration strategy to best-first, 
+     * i.e., upon backtrack the pending branch whose 
+     * initial state has the highest score is explored. 
+     * 
+     * @param scoring a {@link ToDoubleFunction}{@code <}{@link State}{@code >}
+     *        calculating the score of a state, e.g., the opposite
+     *        of the size of its path condition.
+     * @throws NullPointerException if {@code scoring == null}.
+     */
+    public void setExplorationStrategyBestFirst(ToDoubleFunction<State> scoring) {
+        this.runnerParameters.setExplorationStrategyBestFirst(scoring);
+    }
+
+    /**
+     * Sets the exploration strategy to random-restart, 
+     * i.e., upon backtrack a pending branch chosen at
+     * random is explored.
+     * 
+     * @param seed a {@code long}, the seed for the random choices.
+     */
+    public void setExplorationStrategyRandomRestart(long seed) {
+        this.runnerParameters.setExplorationStrategyRandomRestart(seed);
+    }
+
+    /**
+     * Sets whether the states must be cloned with 
+     * copy-on-write, which makes branching cheaper. 
+     * By default states are fully copied.
+     * 
+     * @param copyOnWriteStates a {@code boolean}.
+     */
+    public void setCopyOnWriteStates(boolean copyOnWriteStates) {
+        this.runnerParameters.setCopyOnWriteStates(copyOnWriteStates);
+    }
+
+    /**
+     * Sets whether the blocks of consecutive bytecodes that
+     * do not branch and operate on concrete values must
+     * be executed in one step. In this case the steps 
+     * are coarser than a bytecode, but finer than a 
+     * source code row. It is ignored if the step show
+     * mode is {@link StepShowMode#ALL}. By default every 
+     * bytecode is executed by its own step.
+     * 
+     * @param fuseConcreteBlocks a {@code boolean}.
+     */
+    public void setFuseConcreteBlocks(boolean fuseConcreteBlocks) {
+        this.runnerParameters.setFuseConcreteBlocks(fuseConcreteBlocks);
+    }
+
     /**
      * Sets the JRE path.
      * 
@@ -732,6 +841,33 @@ public final class RunParameters implements Cloneable {
         return new ArrayList<>(this.rewriterClasses);
     }
 
+    /**
+     * Sets the maximum number of results of rewriting 
+     * memoized by the calculator. A memoized result is 
+     * not calculated again by the rewriters. The default 
+     * is {@code 0}, i.e., no memoization.
+     * 
+     * @param rewriteCacheSize a nonnegative {@code int}.
+     * @throws IllegalArgumentException if {@code rewriteCacheSize < 0}.
+     */
+    public void setRewriteCacheSize(int rewriteCacheSize) {
+        if (rewriteCacheSize < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.rewriteCacheSize = rewriteCacheSize;
+    }
+
+    /**
+     * Gets the maximum number of results of rewriting 
+     * memoized by the calculator.
+     * 
+     * @return a nonnegative {@code int}, {@code 0} 
+     *         for no memoization.
+     */
+    public int getRewriteCacheSize() {
+        return this.rewriteCacheSize;
+    }
+
     /**
      * Sets the decision procedure. Overrides any previous call to
      * {@link #setDecisionProcedureGuidance}.
@@ -785,6 +921,138 @@ public final class RunParameters implements Cloneable {
         return this.externalDecisionProcedurePath;
     }
 
+    /**
+     * Sets whether the interaction with the external 
+     * decision procedure must be pipelined, i.e., whether
+     * the commands must be streamed without waiting for 
+     * an acknowledgment of each of them. This reduces
+     * the latency of each query; The default is {@code false}.
+     * 
+     * @param externalDecisionProcedurePipelined a {@code boolean}.
+     */
+    public void setExternalDecisionProcedurePipelined(boolean externalDecisionProcedurePipelined) {
+        this.externalDecisionProcedurePipelined = externalDecisionProcedurePipelined;
+    }
+
+    /**
+     * Gets whether the interaction with the external 
+     * decision procedure must be pipelined.
+     * 
+     * @return a {@code boolean}.
+     */
+    public boolean getExternalDecisionProcedurePipelined() {
+        return this.externalDecisionProcedurePipelined;
+    }
+
+    /**
+     * Sets whether the external decision procedure must 
+     * be queried only with the assumptions that share symbols,
+     * directly or transitively, with the query, rather than
+     * with all the assumptions. The default is {@code false}.
+     * 
+     * @param externalDecisionProcedureIndependenceSlicing a {@code boolean}.
+     */
+    public void setExternalDecisionProcedureIndependenceSlicing(boolean externalDecisionProcedureIndependenceSlicing) {
+        this.externalDecisionProcedureIndependenceSlicing = externalDecisionProcedureIndependenceSlicing;
+    }
+
+    /**
+     * Gets whether the external decision procedure must 
+     * be queried only with the assumptions that are not
+     * independent of the query.
+     * 
+     * @return a {@code boolean}.
+     */
+    public boolean getExternalDecisionProcedureIndependenceSlicing() {
+        return this.externalDecisionProcedureIndependenceSlicing;
+    }
+
+    /**
+     * Sets the maximum number of satisfiability queries
+     * whose answers are cached by the decision procedure. 
+     * A cached query is answered without invoking the 
+     * external decision procedure. The default is 
+     * {@code 0}, i.e., no cache.
+     * 
+     * @param decisionProcedureCacheSize a nonnegative {@code int}.
+     * @throws IllegalArgumentException if {@code decisionProcedureCacheSize < 0}.
+     */
+    public void setDecisionProcedureCacheSize(int decisionProcedureCacheSize) {
+        if (decisionProcedureCacheSize < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.decisionProcedureCacheSize = decisionProcedureCacheSize;
+    }
+
+    /**
+     * Gets the maximum number of satisfiability queries
+     * whose answers are cached by the decision procedure.
+     * 
+     * @return a nonnegative {@code int}, {@code 0} 
+     *         for no cache.
+     */
+    public int getDecisionProcedureCacheSize() {
+        return this.decisionProcedureCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of models of the past satisfiable
+     * queries that the decision procedure keeps. A query that 
+     * is satisfied by a kept model is answered without invoking 
+     * the external decision procedure. The default is 
+     * {@code 0}, i.e., no model reuse.
+     * 
+     * @param decisionProcedureModelsReused a nonnegative {@code int}.
+     * @throws IllegalArgumentException if {@code decisionProcedureModelsReused < 0}.
+     */
+    public void setDecisionProcedureModelsReused(int decisionProcedureModelsReused) {
+        if (decisionProcedureModelsReused < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.decisionProcedureModelsReused = decisionProcedureModelsReused;
+    }
+
+    /**
+     * Gets the maximum number of models of the past satisfiable
+     * queries that the decision procedure keeps.
+     * 
+     * @return a nonnegative {@code int}, {@code 0} 
+     *         for no model reuse.
+     */
+    public int getDecisionProcedureModelsReused() {
+        return this.decisionProcedureModelsReused;
+    }
+
+    /**
+     * Sets the number of worker threads that explore the
+     * symbolic execution tree. With more than one worker
+     * each worker has its own engine and decision procedure, 
+     * and only the leaves are displayed; guidance, conservative
+     * repOks, concretization, interactive modes and the JUnit
+     * state format are not supported. The default is {@code 1},
+     * i.e., a sequential exploration.
+     * 
+     * @param numWorkers a positive {@code int}.
+     * @throws IllegalArgumentException if {@code numWorkers <= 0}.
+     */
+    public void setNumWorkers(int numWorkers) {
+        if (numWorkers <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.numWorkers = numWorkers;
+    }
+
+    /**
+     * Gets the number of worker threads that explore the
+     * symbolic execution tree.
+     * 
+     * @return a positive {@code int}, {@code 1} for
+     *         a sequential exploration.
+     */
+    public int getNumWorkers() {
+        return this.numWorkers;
+    }
+
     /**
      * Adds a creation strategy to the strategies 
      * for creating the {@link DecisionProcedure}.
@@ -473,7 +473,9 @@ public abstract class ClassFile {
      * the method. 
      * 
      * @param methodSignature the {@link Signature} of a method.
-     * @return a {@code byte[]} containing the bytecode.
+     * @return a {@code byte[]} containing the bytecode. It may
+     *         be shared with other invokers, and must not 
+     *         be modified.
      * @throws MethodNotFoundException iff {@link #hasMethodDeclaration}{@code (methodSignature) == false}.
      * @throws MethodCodeNotFoundException iff the method has not the Code attribute.
      */
@@ -36,34 +36,44 @@ public abstract class ClassFileFactory {
                 classFileMember = this.cfi.getClassFilePrimitive(memberType);
             } else {
                 final String memberClass = Type.className(memberType);
-                classFileMember = this.cfi.getClassFile(memberClass);
+                classFileMember = this.cfi.getClassFileShared(memberClass);
             }
             if (classFileMember instanceof ClassFileBad) {
                 throw ((ClassFileBad) classFileMember).getException();
             }
-
-            //calculates package name
-            //TODO couldn't find any specification for calculating this! Does it work for nested classes?
-            final String packageName = classFileMember.getPackageName();
-
-            //calculates visibility (JVMS v8, section 5.3.3 last line, this
-            //implementation also works with primitive classfile members)
-            final Visibility visibility;
-            if (classFileMember.isPublic()) {
-                visibility = ClassFileArray.Visibility.PUBLIC;
-            } else if (classFileMember.isPackage()) {
-                visibility = ClassFileArray.Visibility.PACKAGE;
-            } else if (classFileMember.isProtected()) {
-                visibility = ClassFileArray.Visibility.PROTECTED;
-            } else { //private
-                visibility = ClassFileArray.Visibility.PRIVATE;
-            }
-            return new ClassFileArray(className, packageName, visibility);
+            return newClassFileArray(className, classFileMember);
         } else {
             return newClassFileClass(className);
         }
     }
     
+    /**
+     * Creates the {@link ClassFile} for an array class.
+     * 
+     * @param className a {@link String}, the name of the array class.
+     * @param classFileMember the {@link ClassFile} of the array member class.
+     * @return a {@link ClassFileArray}.
+     */
+    static ClassFile newClassFileArray(String className, ClassFile classFileMember) {
+        //calculates package name
+        //TODO couldn't find any specification for calculating this! Does it work for nested classes?
+        final String packageName = classFileMember.getPackageName();
+
+        //calculates visibility (JVMS v8, section 5.3.3 last line, this
+        //implementation also works with primitive classfile members)
+        final Visibility visibility;
+        if (classFileMember.isPublic()) {
+            visibility = ClassFileArray.Visibility.PUBLIC;
+        } else if (classFileMember.isPackage()) {
+            visibility = ClassFileArray.Visibility.PACKAGE;
+        } else if (classFileMember.isProtected()) {
+            visibility = ClassFileArray.Visibility.PROTECTED;
+        } else { //private
+            visibility = ClassFileArray.Visibility.PRIVATE;
+        }
+        return new ClassFileArray(className, packageName, visibility);
+    }
+    
     final ClassFile newClassFile(String hostClass, byte[] bytecode, ConstantPoolValue[] cpPatches)
     throws BadClassFileException {
         return newClassFileAnonymous(hostClass, bytecode, cpPatches);
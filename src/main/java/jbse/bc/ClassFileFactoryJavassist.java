@@ -1,40 +1,205 @@
 package jbse.bc;
 
+import static jbse.common.Type.binaryClassName;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import javassist.ClassPool;
+import javassist.CtClass;
 import javassist.NotFoundException;
 
 import jbse.bc.exc.BadClassFileException;
 
 /**
  * A {@link ClassFileFactory} that uses the <a href="http://www.javassist.org/">Javassist</a> library
- * to analyze class files at a low level.
- * 
+ * to analyze class files at a low level. All the factories with the same
+ * classpath share the same Javassist {@link ClassPool} and the same
+ * (nonanonymous) {@link ClassFile}s, so every classfile is usually read
+ * and parsed once per process. The jar files in the classpath are
+ * memory-mapped. The shared pools are softly referenced, at most
+ * {@link #MAX_SHARED} of them are kept, and a pool is discarded when
+ * the modification time or the size of some classpath entry changes.
+ * A shared classfile that was read from a directory is reloaded when
+ * the modification time or the size of its file changes.
+ *
  * @author Pietro Braione
  */
 public class ClassFileFactoryJavassist extends ClassFileFactory {
-    private ClassPool cpool;
+    /**
+     * The part of a {@link ClassFileFactoryJavassist} that is shared
+     * by all the factories with the same classpath. All the accesses
+     * to it, and to the Javassist objects it contains, are synchronized
+     * on its {@link ClassPool}.
+     */
+    private static final class Shared {
+        private final ClassPool cpool;
+        private final HashMap<String, ClassFile> classFiles = new HashMap<>();
 
-    public ClassFileFactoryJavassist(ClassFileStore cfi, Classpath cp) { 
-        super(cfi);
-        this.cpool = new ClassPool();
-        for (String s : cp.classPath()) {
-            try {
-                this.cpool.appendClassPath(s);
-            } catch (NotFoundException e) {
-                //does nothing
+        /**
+         * Maps the name of each class in {@link #classFiles} that
+         * was read from a directory to the file it was read from.
+         */
+        private final HashMap<String, File> sources = new HashMap<>();
+
+        /**
+         * Maps the name of each class in {@link #sources} to the
+         * stamp of its file when it was read.
+         */
+        private final HashMap<String, Long> sourceStamps = new HashMap<>();
+
+        Shared(List<String> paths) {
+            this.cpool = new ClassPool();
+            for (String s : paths) {
+                try {
+                    if (s.endsWith(".jar")) {
+                        try {
+                            this.cpool.appendClassPath(new MappedJarClassPath(s));
+                            continue;
+                        } catch (IOException e) {
+                            //falls back to Javassist
+                        }
+                    }
+                    this.cpool.appendClassPath(s);
+                } catch (NotFoundException e) {
+                    //does nothing
+                }
             }
         }
     }
 
+    /**
+     * A cached {@link Shared}, with the stamps of the
+     * classpath entries at the time it was created.
+     */
+    private static final class SharedRef {
+        private final List<Long> stamps;
+        private final SoftReference<Shared> shared;
+
+        SharedRef(List<Long> stamps, Shared shared) {
+            this.stamps = stamps;
+            this.shared = new SoftReference<>(shared);
+        }
+    }
+
+    /** The maximum number of classpaths whose {@link Shared} is cached. */
+    public static final int MAX_SHARED = 8;
+
+    /** Maps each classpath to the {@link Shared} for it, in least recently used order. */
+    private static final LinkedHashMap<List<String>, SharedRef> SHARED = new LinkedHashMap<List<String>, SharedRef>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<String>, SharedRef> eldest) {
+            return size() > MAX_SHARED;
+        }
+    };
+
+    private static synchronized Shared shared(Classpath cp) {
+        final ArrayList<String> paths = new ArrayList<>();
+        final ArrayList<Long> stamps = new ArrayList<>();
+        for (String s : cp.classPath()) {
+            paths.add(s);
+            stamps.add(stamp(new File(s)));
+        }
+        final SharedRef ref = SHARED.get(paths);
+        Shared retVal = (ref == null || !ref.stamps.equals(stamps) ? null : ref.shared.get());
+        if (retVal == null) {
+            retVal = new Shared(paths);
+            SHARED.put(paths, new SharedRef(stamps, retVal));
+        }
+        return retVal;
+    }
+
+    /**
+     * Returns the stamp of a classpath entry or of a classfile.
+     * The content of a directory is not visited, so the stamp
+     * of a directory only changes when a file is added to it
+     * or removed from it. The classfiles read from a directory
+     * are instead checked one by one when they are requested.
+     *
+     * @param f a {@link File}.
+     * @return a {@code long} combining the last modification
+     *         time of {@code f} and, if it is a file, its
+     *         size; {@code 0L} if it does not exist.
+     */
+    private static long stamp(File f) {
+        return 31 * f.lastModified() + (f.isDirectory() ? 0L : f.length());
+    }
+
+    /**
+     * Returns the file a class is read from.
+     *
+     * @param cpool a {@link ClassPool}.
+     * @param className the name of a class.
+     * @return the {@link File} in a directory of the classpath
+     *         of {@code cpool} that {@code className} is read
+     *         from, or {@code null} if it is read from a jar
+     *         or is not found.
+     */
+    private static File source(ClassPool cpool, String className) {
+        final URL url = cpool.find(binaryClassName(className));
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private final Shared shared;
+
+    public ClassFileFactoryJavassist(ClassFileStore cfi, Classpath cp) {
+        super(cfi);
+        this.shared = shared(cp);
+    }
+
     @Override
-    protected ClassFile newClassFileClass(String className) 
+    protected ClassFile newClassFileClass(String className)
     throws BadClassFileException {
-        return new ClassFileJavassist(this.cpool, className);
+        synchronized (this.shared.cpool) {
+            ClassFile retVal = this.shared.classFiles.get(className);
+            final File source = this.shared.sources.get(className);
+            if (retVal != null && source != null && stamp(source) != this.shared.sourceStamps.get(className)) {
+                //the classfile changed: reads it again
+                final CtClass stale = this.shared.cpool.getOrNull(binaryClassName(className));
+                if (stale != null) {
+                    stale.detach();
+                }
+                retVal = null;
+            }
+            if (retVal == null) {
+                final File newSource = source(this.shared.cpool, className);
+                final long newStamp = (newSource == null ? 0L : stamp(newSource));
+                retVal = new ClassFileJavassist(this.shared.cpool, className);
+                this.shared.classFiles.put(className, retVal);
+                if (newSource == null) {
+                    this.shared.sources.remove(className);
+                    this.shared.sourceStamps.remove(className);
+                } else {
+                    this.shared.sources.put(className, newSource);
+                    this.shared.sourceStamps.put(className, newStamp);
+                }
+            }
+            return retVal;
+        }
     }
-    
+
     @Override
-    protected ClassFile newClassFileAnonymous(String hostClass, byte[] bytecode, ConstantPoolValue[] cpPatches) 
+    protected ClassFile newClassFileAnonymous(String hostClass, byte[] bytecode, ConstantPoolValue[] cpPatches)
     throws BadClassFileException {
-        return new ClassFileJavassist(this.cpool, hostClass, bytecode, cpPatches);
+        synchronized (this.shared.cpool) {
+            return new ClassFileJavassist(this.shared.cpool, hostClass, bytecode, cpPatches);
+        }
     }
 }
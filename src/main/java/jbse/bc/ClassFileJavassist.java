@@ -22,6 +22,7 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -54,18 +55,70 @@ import jbse.common.exc.UnexpectedInternalException;
 
 /**
  * A {@link ClassFile} produced by a {@link ClassFileFactoryJavassist}.
+ * Since it may be shared by many {@link ClassHierarchy}s, the
+ * information it initializes lazily is published safely, and
+ * all the accesses to the Javassist {@link CtClass} and to its 
+ * members are synchronized on its {@link ClassPool}, because 
+ * Javassist loads (and releases) their content lazily. 
+ * The constant pool is only read, and is accessed without 
+ * synchronization.
  * 
  * @author Pietro Braione
  */
 public class ClassFileJavassist extends ClassFile {
+    private final ClassPool cpool; //the lock for the accesses to cls
     private final CtClass cls;
+    private final String className;
     private final ConstPool cp;
     private final byte[] bytecode; //only for anonymous classes
     private final ConstantPoolValue[] cpPatches;
     private String hostClass;
-    private ArrayList<Signature> fieldsStatic; //lazily initialized
-    private ArrayList<Signature> fieldsObject; //lazily initialized
-    private ArrayList<Signature> constructors; //lazily initialized
+    private volatile ArrayList<Signature> fieldsStatic; //lazily initialized
+    private volatile ArrayList<Signature> fieldsObject; //lazily initialized
+    private volatile ArrayList<Signature> constructors; //lazily initialized
+    private volatile HashMap<String, HashMap<String, MethodEntry>> methods; //lazily initialized
+    private volatile HashMap<String, HashMap<String, FieldEntry>> fields; //lazily initialized
+
+    /**
+     * The information on a method declared in the classfile
+     * that is needed during symbolic execution, extracted once 
+     * from its {@link CtBehavior}.
+     */
+    private static final class MethodEntry {
+        final CtBehavior behavior;
+        final String descriptor;
+        final int modifiers;
+        final CodeAttribute codeAttribute; //null if the method has no code
+        final byte[] code; //null if the method has no code
+        final int maxLocals;
+        volatile ExceptionTable exceptionTable; //lazily initialized
+        volatile LocalVariableTable localVariableTable; //lazily initialized
+        volatile LineNumberTable lineNumberTable; //lazily initialized
+
+        MethodEntry(CtBehavior behavior) {
+            this.behavior = behavior;
+            this.descriptor = behavior.getSignature();
+            this.modifiers = behavior.getModifiers();
+            this.codeAttribute = behavior.getMethodInfo().getCodeAttribute();
+            this.code = (this.codeAttribute == null ? null : this.codeAttribute.getCode());
+            this.maxLocals = (this.codeAttribute == null ? 0 : this.codeAttribute.getMaxLocals());
+        }
+    }
+
+    /**
+     * The information on a field declared in the classfile
+     * that is needed during symbolic execution, extracted once 
+     * from its {@link CtField}.
+     */
+    private static final class FieldEntry {
+        final CtField field;
+        final int modifiers;
+
+        FieldEntry(CtField field) {
+            this.field = field;
+            this.modifiers = field.getModifiers();
+        }
+    }
 
     /**
      * Constructor for nonanonymous classes.
@@ -77,12 +130,16 @@ public class ClassFileJavassist extends ClassFile {
      */
     ClassFileJavassist(ClassPool cpool, String className) throws BadClassFileException {
         try {
+            this.cpool = cpool;
             this.cls = cpool.get(binaryClassName(className));
+            this.className = internalClassName(this.cls.getName());
             this.cp = this.cls.getClassFile().getConstPool();
             this.bytecode = null;
             this.cpPatches = null;
             this.hostClass = null;
             this.fieldsStatic = this.fieldsObject = this.constructors = null;
+            this.methods = null;
+            this.fields = null;
         } catch (NotFoundException e) {
             throw new ClassFileNotFoundException(className);
         } catch (RuntimeException e) {
@@ -109,12 +166,16 @@ public class ClassFileJavassist extends ClassFile {
             cf.setName(name);
             
             //makes the CtClass
+            this.cpool = cpool;
             this.cls = cpool.makeClass(cf);
+            this.className = internalClassName(this.cls.getName());
             this.cp = this.cls.getClassFile().getConstPool();
             this.bytecode = (hostClass == null ? bytecode : null); //only dummy anonymous classfiles without a host class cache their bytecode
             this.cpPatches = (cpPatches == null ? null : cpPatches.clone());
             this.hostClass = hostClass;
             this.fieldsStatic = this.fieldsObject = this.constructors = null;
+            this.methods = null;
+            this.fields = null;
         } catch (IOException e) {
             throw new ClassFileIllFormedException("anonymous");
         }
@@ -248,12 +309,14 @@ public class ClassFileJavassist extends ClassFile {
     
     @Override
     public String getSourceFile() {
-        return this.cls.getClassFile().getSourceFile();
+        synchronized (this.cpool) {
+            return this.cls.getClassFile().getSourceFile();
+        }
     }
 
     @Override
     public String getClassName() {
-        return internalClassName(this.cls.getName());
+        return this.className;
     }
 
     @Override
@@ -270,10 +333,13 @@ public class ClassFileJavassist extends ClassFile {
     @Override
     public int getModifiers() {
         //this code reimplements CtClassType.getModifiers() to circumvent a bug
-        javassist.bytecode.ClassFile cf = this.cls.getClassFile2();
-        int acc = cf.getAccessFlags();
+        int acc, inner;
+        synchronized (this.cpool) {
+            final javassist.bytecode.ClassFile cf = this.cls.getClassFile2();
+            acc = cf.getAccessFlags();
+            inner = cf.getInnerAccessFlags();
+        }
         acc = clear(acc, SUPER);
-        int inner = cf.getInnerAccessFlags();
         if (inner != -1) {
             if ((inner & STATIC) != 0) {
                 acc |= STATIC;
@@ -295,7 +361,9 @@ public class ClassFileJavassist extends ClassFile {
 
     @Override
     public int getAccessFlags() {
-        return this.cls.getClassFile().getAccessFlags();
+        synchronized (this.cpool) {
+            return this.cls.getClassFile().getAccessFlags();
+        }
     }
 
     @Override
@@ -337,7 +405,7 @@ public class ClassFileJavassist extends ClassFile {
     public boolean isSuperInvoke() {
         //note that we use getClassFile().getAccessFlag() because 
         //getModifiers() does not provide the ACC_SUPER flag
-        return ((this.cls.getClassFile().getAccessFlags() & AccessFlag.SUPER) != 0);
+        return ((getAccessFlags() & AccessFlag.SUPER) != 0);
     }
     
     @Override
@@ -396,11 +464,13 @@ public class ClassFileJavassist extends ClassFile {
     private ArrayList<Signature> getDeclaredFields(boolean areStatic) {
         if ((areStatic ? this.fieldsStatic : this.fieldsObject) == null) {
             final ArrayList<Signature> fields = new ArrayList<Signature>();
-            final CtField[] fieldsJA = this.cls.getDeclaredFields();
-            for (CtField fld : fieldsJA) {
-                if (Modifier.isStatic(fld.getModifiers()) == areStatic) {
-                    final Signature sig = new Signature(getClassName(), fld.getSignature(), fld.getName());
-                    fields.add(sig);
+            synchronized (this.cpool) {
+                final CtField[] fieldsJA = this.cls.getDeclaredFields();
+                for (CtField fld : fieldsJA) {
+                    if (Modifier.isStatic(fld.getModifiers()) == areStatic) {
+                        final Signature sig = new Signature(getClassName(), fld.getSignature(), fld.getName());
+                        fields.add(sig);
+                    }
                 }
             }
             if (areStatic) {
@@ -455,88 +525,119 @@ public class ClassFileJavassist extends ClassFile {
      * @param methodSignature a {@link Signature}.
      * @return {@code null} if no method with {@code methodSignature} 
      *         signature is declared in this classfile, otherwise the 
-     *         {@link CtBehavior} for it; the class name in {@code methodSignature}
+     *         {@link MethodEntry} for it; the class name in {@code methodSignature}
      *         is ignored.
      */
-    private CtBehavior findMethodDeclaration(Signature methodSignature) {
-        if ("<clinit>".equals(methodSignature.getName())) {
-            return this.cls.getClassInitializer();
+    private MethodEntry findMethodDeclaration(Signature methodSignature) {
+        final HashMap<String, MethodEntry> methodsWithName = getMethods().get(methodSignature.getName());
+        if (methodsWithName == null) {
+            return null;
         }
-
-        final CtBehavior[] bs = this.cls.getDeclaredBehaviors();
-        for (CtBehavior b : bs) {
-            final String internalName = ctBehaviorInternalName(b);
-            if (internalName.equals(methodSignature.getName()) &&
-                b.getSignature().equals(methodSignature.getDescriptor())) {
-                return b;
-            }
+        if ("<clinit>".equals(methodSignature.getName())) {
+            //the descriptor of the class initializer is not checked
+            return methodsWithName.values().iterator().next();
         }
-        return null;
+        return methodsWithName.get(methodSignature.getDescriptor());
     }
 
-    private CodeAttribute getMethodCodeAttribute(Signature methodSignature) 
+    private MethodEntry findMethodDeclarationWithCode(Signature methodSignature) 
     throws MethodNotFoundException, MethodCodeNotFoundException {
-        final CtBehavior b = findMethodDeclaration(methodSignature);
-        if (b == null) { 
+        final MethodEntry m = findMethodDeclaration(methodSignature);
+        if (m == null) { 
             throw new MethodNotFoundException(methodSignature.toString());
         }
-        final CodeAttribute ca = b.getMethodInfo().getCodeAttribute();
-        if (ca == null) {
+        if (m.codeAttribute == null) {
             throw new MethodCodeNotFoundException(methodSignature.toString()); 
         }
-        return ca;
+        return m;
+    }
+
+    /**
+     * Returns the index of the methods declared in the classfile, 
+     * building it upon the first invocation.
+     * 
+     * @return a {@link HashMap} mapping each method name to
+     *         a {@link HashMap} mapping each method descriptor
+     *         to the {@link MethodEntry} of the declared method
+     *         with that name and descriptor.
+     */
+    private HashMap<String, HashMap<String, MethodEntry>> getMethods() {
+        if (this.methods == null) {
+            final HashMap<String, HashMap<String, MethodEntry>> methods = new HashMap<>();
+            synchronized (this.cpool) {
+                for (CtBehavior b : this.cls.getDeclaredBehaviors()) {
+                    final MethodEntry m = new MethodEntry(b);
+                    methods.computeIfAbsent(ctBehaviorInternalName(b), k -> new HashMap<>()).putIfAbsent(m.descriptor, m);
+                }
+            }
+            this.methods = methods;
+        }
+        return this.methods;
     }
 
     @Override
     public ExceptionTable getExceptionTable(Signature methodSignature)
     throws MethodNotFoundException, MethodCodeNotFoundException, InvalidIndexException {
-        final javassist.bytecode.ExceptionTable et = getMethodCodeAttribute(methodSignature).getExceptionTable();
-
-        final ExceptionTable retVal = new ExceptionTable(et.size());
-        for (int i = 0; i < et.size(); ++i) {
-            final int exType = et.catchType(i);
-            final String catchType = (exType == 0 ? Signatures.JAVA_THROWABLE : getClassSignature(exType));
-            final ExceptionTableEntry exEntry = new ExceptionTableEntry(et.startPc(i), et.endPc(i), et.handlerPc(i), catchType);
-            retVal.addEntry(exEntry);
+        final MethodEntry m = findMethodDeclarationWithCode(methodSignature);
+        if (m.exceptionTable == null) {
+            final ExceptionTable exceptionTable;
+            synchronized (this.cpool) {
+                final javassist.bytecode.ExceptionTable et = m.codeAttribute.getExceptionTable();
+                exceptionTable = new ExceptionTable(et.size());
+                for (int i = 0; i < et.size(); ++i) {
+                    final int exType = et.catchType(i);
+                    final String catchType = (exType == 0 ? Signatures.JAVA_THROWABLE : getClassSignature(exType));
+                    final ExceptionTableEntry exEntry = new ExceptionTableEntry(et.startPc(i), et.endPc(i), et.handlerPc(i), catchType);
+                    exceptionTable.addEntry(exEntry);
+                }
+            }
+            m.exceptionTable = exceptionTable;
         }
-        return retVal;
+        return m.exceptionTable;
     }
 
     @Override
     public int getLocalVariableLength(Signature methodSignature)
     throws MethodNotFoundException, MethodCodeNotFoundException {
-        return getMethodCodeAttribute(methodSignature).getMaxLocals();
+        return findMethodDeclarationWithCode(methodSignature).maxLocals;
     }
 
     @Override
     public int getCodeLength(Signature methodSignature) throws MethodNotFoundException, MethodCodeNotFoundException {
-        return getMethodCodeAttribute(methodSignature).getCodeLength();
+        return findMethodDeclarationWithCode(methodSignature).code.length;
     }
 
     @Override
     public LocalVariableTable getLocalVariableTable(Signature methodSignature) 
     throws MethodNotFoundException, MethodCodeNotFoundException  {
-        final CodeAttribute ca = getMethodCodeAttribute(methodSignature);
-        final LocalVariableAttribute lvtJA = (LocalVariableAttribute) ca.getAttribute("LocalVariableTable");
-
-        if (lvtJA == null) {
-            return this.defaultLocalVariableTable(methodSignature);
-        }
-
-        //builds the local variable table from the LocalVariableTable attribute 
-        //information; this has always success
-        final LocalVariableTable lvt = new LocalVariableTable(ca.getMaxLocals());
-        for (int i = 0; i < lvtJA.tableLength(); ++i) {
-            lvt.setEntry(lvtJA.index(i), lvtJA.descriptor(i), 
-                         lvtJA.variableName(i), lvtJA.startPc(i),  lvtJA.codeLength(i));
+        final MethodEntry m = findMethodDeclarationWithCode(methodSignature);
+        if (m.localVariableTable == null) {
+            final LocalVariableTable lvt;
+            synchronized (this.cpool) {
+                final LocalVariableAttribute lvtJA = (LocalVariableAttribute) m.codeAttribute.getAttribute("LocalVariableTable");
+                if (lvtJA == null) {
+                    lvt = null;
+                } else {
+                    //builds the local variable table from the LocalVariableTable attribute 
+                    //information; this has always success
+                    lvt = new LocalVariableTable(m.maxLocals);
+                    for (int i = 0; i < lvtJA.tableLength(); ++i) {
+                        lvt.setEntry(lvtJA.index(i), lvtJA.descriptor(i), 
+                                     lvtJA.variableName(i), lvtJA.startPc(i),  lvtJA.codeLength(i));
+                    }
+                }
+            }
+            //the default table is built from the declared descriptor, 
+            //that for <clinit> may differ from the queried one
+            m.localVariableTable = (lvt == null ? this.defaultLocalVariableTable(new Signature(getClassName(), m.descriptor, methodSignature.getName())) : lvt);
         }
-        return lvt;
+        return m.localVariableTable;
     }
 
     @Override
     public byte[] getMethodCodeBySignature(Signature methodSignature) 
     throws MethodNotFoundException, MethodCodeNotFoundException {
-        return getMethodCodeAttribute(methodSignature).getCode();
+        return findMethodDeclarationWithCode(methodSignature).code;
     }
 
     @Override
@@ -558,7 +659,10 @@ public class ClassFileJavassist extends ClassFile {
         if (isInterface()) {
             return null;
         } else {
-            String name = this.cls.getClassFile().getSuperclass();
+            String name;
+            synchronized (this.cpool) {
+                name = this.cls.getClassFile().getSuperclass();
+            }
             if (name != null) {
                 name = internalClassName(name);
             }
@@ -569,7 +673,10 @@ public class ClassFileJavassist extends ClassFile {
     @Override
     public List<String> getSuperInterfaceNames() {
         final ArrayList<String> superinterfaces = new ArrayList<>();
-        final String[] ifs = this.cls.getClassFile().getInterfaces();
+        final String[] ifs;
+        synchronized (this.cpool) {
+            ifs = this.cls.getClassFile().getInterfaces();
+        }
 
         for (String s : ifs) {
             superinterfaces.add(internalClassName(s));
@@ -619,21 +726,13 @@ public class ClassFileJavassist extends ClassFile {
         }
     }
     
-    private CtBehavior findUniqueMethodDeclarationWithName(String methodName) {
-        final CtBehavior[] bs = this.cls.getDeclaredBehaviors();
-        CtBehavior retVal = null;
-        for (CtBehavior b : bs) {
-            final String internalName = ctBehaviorInternalName(b);
-            if (internalName.equals(methodName)) {
-                if (retVal == null) {
-                    retVal = b;
-                } else {
-                    //two methods with same name - not unique
-                    return null;
-                }
-            }
+    private MethodEntry findUniqueMethodDeclarationWithName(String methodName) {
+        final HashMap<String, MethodEntry> methodsWithName = getMethods().get(methodName);
+        if (methodsWithName == null || methodsWithName.size() > 1) {
+            //no method, or two methods with same name - not unique
+            return null;
         }
-        return retVal;
+        return methodsWithName.values().iterator().next();
     }
 
     @Override
@@ -644,18 +743,18 @@ public class ClassFileJavassist extends ClassFile {
         }
         
         //the method declaration must be unique
-        final CtBehavior uniqueMethod = findUniqueMethodDeclarationWithName(methodName);
+        final MethodEntry uniqueMethod = findUniqueMethodDeclarationWithName(methodName);
         if (uniqueMethod == null) {
             return false;
         }
         
         //cannot be signature polymorphic if it has wrong descriptor
-        if (!SIGNATURE_POLYMORPHIC_DESCRIPTOR.equals(uniqueMethod.getSignature())) {
+        if (!SIGNATURE_POLYMORPHIC_DESCRIPTOR.equals(uniqueMethod.descriptor)) {
             return false;
         }
         
         //cannot be signature polymorphic if it not native or if it is not varargs
-        if (!Modifier.isNative(uniqueMethod.getModifiers()) || (uniqueMethod.getModifiers() & Modifier.VARARGS) == 0) {
+        if (!Modifier.isNative(uniqueMethod.modifiers) || (uniqueMethod.modifiers & Modifier.VARARGS) == 0) {
             return false;
         }
 
@@ -665,43 +764,47 @@ public class ClassFileJavassist extends ClassFile {
 
     @Override
     public boolean hasMethodImplementation(Signature methodSignature) {
-        final CtBehavior b = findMethodDeclaration(methodSignature);
-        return (b != null && (b.getMethodInfo().getCodeAttribute() != null || Modifier.isNative(b.getModifiers())));
+        final MethodEntry m = findMethodDeclaration(methodSignature);
+        return (m != null && (m.codeAttribute != null || Modifier.isNative(m.modifiers)));
     }
 
     @Override
     public boolean isAbstract() {
-        return Modifier.isAbstract(this.cls.getModifiers());
+        synchronized (this.cpool) {
+            return Modifier.isAbstract(this.cls.getModifiers());
+        }
     }
 
     @Override
     public boolean isInterface() {
-        return this.cls.isInterface();
+        synchronized (this.cpool) {
+            return this.cls.isInterface();
+        }
     }
 
     @Override
     public boolean isMethodAbstract(Signature methodSignature) throws MethodNotFoundException {
-        final CtBehavior b = findMethodDeclaration(methodSignature);
-        if (b == null) throw new MethodNotFoundException(methodSignature.toString());
-        return Modifier.isAbstract(b.getModifiers());
+        final MethodEntry m = findMethodDeclaration(methodSignature);
+        if (m == null) throw new MethodNotFoundException(methodSignature.toString());
+        return Modifier.isAbstract(m.modifiers);
     }
 
     @Override
     public boolean isMethodNative(Signature methodSignature) throws MethodNotFoundException {
-        final CtBehavior b = findMethodDeclaration(methodSignature);
-        if (b == null) {
+        final MethodEntry m = findMethodDeclaration(methodSignature);
+        if (m == null) {
             throw new MethodNotFoundException(methodSignature.toString());
         }
-        return Modifier.isNative(b.getModifiers());
+        return Modifier.isNative(m.modifiers);
     }
     
     @Override
     public boolean isMethodVarargs(Signature methodSignature) throws MethodNotFoundException {
-        final CtBehavior b = findMethodDeclaration(methodSignature);
-        if (b == null) {
+        final MethodEntry m = findMethodDeclaration(methodSignature);
+        if (m == null) {
             throw new MethodNotFoundException(methodSignature.toString());
         }
-        return (b.getModifiers() & Modifier.VARARGS) != 0;
+        return (m.modifiers & Modifier.VARARGS) != 0;
     }
     
     @Override
@@ -746,31 +849,35 @@ public class ClassFileJavassist extends ClassFile {
 
     @Override
     public Signature[] getDeclaredMethods() {
-        final CtBehavior[] methods = cls.getDeclaredMethods();
-        final Signature[] retVal = new Signature[methods.length];
-        for (int i = 0; i < methods.length; ++i) {
-            retVal[i] = new Signature(getClassName(), methods[i].getSignature(), ctBehaviorInternalName(methods[i]));
+        synchronized (this.cpool) {
+            final CtBehavior[] methods = this.cls.getDeclaredMethods();
+            final Signature[] retVal = new Signature[methods.length];
+            for (int i = 0; i < methods.length; ++i) {
+                retVal[i] = new Signature(getClassName(), methods[i].getSignature(), ctBehaviorInternalName(methods[i]));
+            }
+            return retVal;
         }
-        return retVal;
     }
 
     @Override
     public String getMethodGenericSignatureType(Signature methodSignature) throws MethodNotFoundException {
-        final CtBehavior b = findMethodDeclaration(methodSignature);
-        if (b == null) {
+        final MethodEntry m = findMethodDeclaration(methodSignature);
+        if (m == null) {
             throw new MethodNotFoundException(methodSignature.toString());
         }
-        return b.getGenericSignature();
+        synchronized (this.cpool) {
+            return m.behavior.getGenericSignature();
+        }
     }
 
     @Override
     public int getMethodModifiers(Signature methodSignature) 
     throws MethodNotFoundException {
-        final CtBehavior b = findMethodDeclaration(methodSignature);
-        if (b == null) {
+        final MethodEntry m = findMethodDeclaration(methodSignature);
+        if (m == null) {
             throw new MethodNotFoundException(methodSignature.toString());
         }
-        return b.getModifiers();
+        return m.modifiers;
     }
 
     private byte[] mergeVisibleAndInvisibleAttributes(AttributeInfo attrVisible, AttributeInfo attrInvisible) {
@@ -785,13 +892,15 @@ public class ClassFileJavassist extends ClassFile {
     @Override
     public byte[] getMethodAnnotationsRaw(Signature methodSignature) 
     throws MethodNotFoundException {
-        final CtBehavior b = findMethodDeclaration(methodSignature);
-        if (b == null) {
+        final MethodEntry m = findMethodDeclaration(methodSignature);
+        if (m == null) {
             throw new MethodNotFoundException(methodSignature.toString());
         }
-        final AttributeInfo attrVisible = b.getMethodInfo().getAttribute(AnnotationsAttribute.visibleTag);
-        final AttributeInfo attrInvisible = b.getMethodInfo().getAttribute(AnnotationsAttribute.invisibleTag);
-        return mergeVisibleAndInvisibleAttributes(attrVisible, attrInvisible);
+        synchronized (this.cpool) {
+            final AttributeInfo attrVisible = m.behavior.getMethodInfo().getAttribute(AnnotationsAttribute.visibleTag);
+            final AttributeInfo attrInvisible = m.behavior.getMethodInfo().getAttribute(AnnotationsAttribute.invisibleTag);
+            return mergeVisibleAndInvisibleAttributes(attrVisible, attrInvisible);
+        }
     }
 
     @Override
@@ -810,75 +919,79 @@ public class ClassFileJavassist extends ClassFile {
             return new Object[0];
         }
         
-        final CtBehavior b = findMethodDeclaration(methodSignature);
-        if (b == null) {
+        final MethodEntry m = findMethodDeclaration(methodSignature);
+        if (m == null) {
             throw new MethodNotFoundException(methodSignature.toString());
         }
-        return b.getAvailableAnnotations();
+        synchronized (this.cpool) {
+            return m.behavior.getAvailableAnnotations();
+        }
     }
 
     @Override
     public String[] getMethodThrownExceptions(Signature methodSignature) 
     throws MethodNotFoundException {
-        final CtBehavior b = findMethodDeclaration(methodSignature);
-        if (b == null) {
+        final MethodEntry m = findMethodDeclaration(methodSignature);
+        if (m == null) {
             throw new MethodNotFoundException(methodSignature.toString());
         }
 
-        CtClass[] exc;
-        try {
-            exc = b.getExceptionTypes();
-        } catch (NotFoundException e) {
-            //it is unclear when this exception is thrown;
-            //so we just catch it and set exc to an empty array
-            exc = new CtClass[0];
+        synchronized (this.cpool) {
+            CtClass[] exc;
+            try {
+                exc = m.behavior.getExceptionTypes();
+            } catch (NotFoundException e) {
+                //it is unclear when this exception is thrown;
+                //so we just catch it and set exc to an empty array
+                exc = new CtClass[0];
+            }
+            return Arrays.stream(exc).map(cls -> internalClassName(cls.getName())).toArray(String[]::new);
         }
-        return Arrays.stream(exc).map(cls -> internalClassName(cls.getName())).toArray(String[]::new);
     }
 
     @Override
     public boolean isMethodStatic(Signature methodSignature) throws MethodNotFoundException {
-        final CtBehavior b = findMethodDeclaration(methodSignature);
-        if (b == null) {
+        final MethodEntry m = findMethodDeclaration(methodSignature);
+        if (m == null) {
             throw new MethodNotFoundException(methodSignature.toString());
         }
-        return Modifier.isStatic(b.getModifiers());
+        return Modifier.isStatic(m.modifiers);
     }
 
     @Override
     public boolean isMethodPublic(Signature methodSignature) throws MethodNotFoundException {
-        final CtBehavior b = findMethodDeclaration(methodSignature);
-        if (b == null) {
+        final MethodEntry m = findMethodDeclaration(methodSignature);
+        if (m == null) {
             throw new MethodNotFoundException(methodSignature.toString());
         }
-        return Modifier.isPublic(b.getModifiers());
+        return Modifier.isPublic(m.modifiers);
     }
 
     @Override
     public boolean isMethodProtected(Signature methodSignature) throws MethodNotFoundException {
-        final CtBehavior b = findMethodDeclaration(methodSignature);
-        if (b == null) {
+        final MethodEntry m = findMethodDeclaration(methodSignature);
+        if (m == null) {
             throw new MethodNotFoundException(methodSignature.toString());
         }
-        return Modifier.isProtected(b.getModifiers());
+        return Modifier.isProtected(m.modifiers);
     }
 
     @Override
     public boolean isMethodPackage(Signature methodSignature) throws MethodNotFoundException {
-        final CtBehavior b = findMethodDeclaration(methodSignature);
-        if (b == null) {
+        final MethodEntry m = findMethodDeclaration(methodSignature);
+        if (m == null) {
             throw new MethodNotFoundException(methodSignature.toString());
         }
-        return Modifier.isPackage(b.getModifiers());
+        return Modifier.isPackage(m.modifiers);
     }
 
     @Override
     public boolean isMethodPrivate(Signature methodSignature) throws MethodNotFoundException {
-        final CtBehavior b = findMethodDeclaration(methodSignature);
-        if (b == null) {
+        final MethodEntry m = findMethodDeclaration(methodSignature);
+        if (m == null) {
             throw new MethodNotFoundException(methodSignature.toString());
         }
-        return Modifier.isPrivate(b.getModifiers());
+        return Modifier.isPrivate(m.modifiers);
     }
 
     @Override
@@ -889,25 +1002,34 @@ public class ClassFileJavassist extends ClassFile {
     @Override
     public LineNumberTable getLineNumberTable(Signature methodSignature) 
     throws MethodNotFoundException, MethodCodeNotFoundException {
-        final CodeAttribute ca = this.getMethodCodeAttribute(methodSignature);
-        final LineNumberAttribute lnJA = (LineNumberAttribute) ca.getAttribute("LineNumberTable");
-
-        if (lnJA == null)
-            return defaultLineNumberTable();
-        final LineNumberTable LN = new LineNumberTable(lnJA.tableLength());
-        for (int i = 0; i < lnJA.tableLength(); ++i) {
-            LN.addRow(lnJA.startPc(i), lnJA.lineNumber(i));
+        final MethodEntry m = findMethodDeclarationWithCode(methodSignature);
+        if (m.lineNumberTable == null) {
+            synchronized (this.cpool) {
+                final LineNumberAttribute lnJA = (LineNumberAttribute) m.codeAttribute.getAttribute("LineNumberTable");
+                if (lnJA == null) {
+                    m.lineNumberTable = defaultLineNumberTable();
+                } else {
+                    final LineNumberTable LN = new LineNumberTable(lnJA.tableLength());
+                    for (int i = 0; i < lnJA.tableLength(); ++i) {
+                        LN.addRow(lnJA.startPc(i), lnJA.lineNumber(i));
+                    }
+                    m.lineNumberTable = LN;
+                }
+            }
         }
-        return LN;
+        return m.lineNumberTable;
     }
 
     @Override
     public int fieldConstantValueIndex(Signature fieldSignature) throws FieldNotFoundException, AttributeNotFoundException {
-        final CtField fld = findField(fieldSignature);
-        if (fld == null) {
+        final FieldEntry f = findField(fieldSignature);
+        if (f == null) {
             throw new FieldNotFoundException(fieldSignature.toString());
         }
-        final int cpVal = fld.getFieldInfo().getConstantValue();
+        final int cpVal;
+        synchronized (this.cpool) {
+            cpVal = f.field.getFieldInfo().getConstantValue();
+        }
         if (cpVal == 0) {
             throw new AttributeNotFoundException();
         }
@@ -916,118 +1038,138 @@ public class ClassFileJavassist extends ClassFile {
 
     @Override
     public boolean hasFieldConstantValue(Signature fieldSignature) throws FieldNotFoundException {
-        final CtField fld = findField(fieldSignature);
-        if (fld == null) {
+        final FieldEntry f = findField(fieldSignature);
+        if (f == null) {
             throw new FieldNotFoundException(fieldSignature.toString());
         }
-        return (fld.getConstantValue() != null);
+        synchronized (this.cpool) {
+            return (f.field.getConstantValue() != null);
+        }
     }
 
     @Override
     public boolean isFieldFinal(Signature fieldSignature) throws FieldNotFoundException {
-        final CtField fld = findField(fieldSignature);
-        if (fld == null) {
+        final FieldEntry f = findField(fieldSignature);
+        if (f == null) {
             throw new FieldNotFoundException(fieldSignature.toString());
         }
-        return Modifier.isFinal(fld.getModifiers());
+        return Modifier.isFinal(f.modifiers);
     }
 
     @Override
     public boolean isFieldPublic(Signature fieldSignature) throws FieldNotFoundException {
-        final CtField fld = findField(fieldSignature);
-        if (fld == null) {
+        final FieldEntry f = findField(fieldSignature);
+        if (f == null) {
             throw new FieldNotFoundException(fieldSignature.toString());
         }
-        return Modifier.isPublic(fld.getModifiers());
+        return Modifier.isPublic(f.modifiers);
     }
 
     @Override
     public boolean isFieldProtected(Signature fieldSignature) throws FieldNotFoundException {
-        final CtField fld = findField(fieldSignature);
-        if (fld == null) {
+        final FieldEntry f = findField(fieldSignature);
+        if (f == null) {
             throw new FieldNotFoundException(fieldSignature.toString());
         }
-        return Modifier.isProtected(fld.getModifiers());
+        return Modifier.isProtected(f.modifiers);
     }
 
     @Override
     public boolean isFieldPackage(Signature fieldSignature) throws FieldNotFoundException {
-        final CtField fld = findField(fieldSignature);
-        if (fld == null) {
+        final FieldEntry f = findField(fieldSignature);
+        if (f == null) {
             throw new FieldNotFoundException(fieldSignature.toString());
         }
-        return Modifier.isPackage(fld.getModifiers());
+        return Modifier.isPackage(f.modifiers);
     }
 
     @Override
     public boolean isFieldPrivate(Signature fieldSignature) throws FieldNotFoundException {
-        final CtField fld = findField(fieldSignature);
-        if (fld == null) {
+        final FieldEntry f = findField(fieldSignature);
+        if (f == null) {
             throw new FieldNotFoundException(fieldSignature.toString());
         }
-        return Modifier.isPrivate(fld.getModifiers());
+        return Modifier.isPrivate(f.modifiers);
     }
 
     @Override
     public boolean isFieldStatic(Signature fieldSignature) throws FieldNotFoundException {
-        final CtField fld = findField(fieldSignature);
-        if (fld == null) {
+        final FieldEntry f = findField(fieldSignature);
+        if (f == null) {
             throw new FieldNotFoundException(fieldSignature.toString());
         }
-        return Modifier.isStatic(fld.getModifiers());
+        return Modifier.isStatic(f.modifiers);
     }
 
     @Override
     public String getFieldGenericSignatureType(Signature fieldSignature) 
     throws FieldNotFoundException {
-        final CtField fld = findField(fieldSignature);
-        if (fld == null) {
+        final FieldEntry f = findField(fieldSignature);
+        if (f == null) {
             throw new FieldNotFoundException(fieldSignature.toString());
         }
-        return fld.getGenericSignature();
+        synchronized (this.cpool) {
+            return f.field.getGenericSignature();
+        }
     }
 
     @Override
     public int getFieldModifiers(Signature fieldSignature) 
     throws FieldNotFoundException {
-        final CtField fld = findField(fieldSignature);
-        if (fld == null) {
+        final FieldEntry f = findField(fieldSignature);
+        if (f == null) {
             throw new FieldNotFoundException(fieldSignature.toString());
         }
-        return fld.getModifiers();
+        return f.modifiers;
     }
 
     @Override
     public byte[] getFieldAnnotationsRaw(Signature fieldSignature) 
     throws FieldNotFoundException {
-        final CtField fld = findField(fieldSignature);
-        if (fld == null) {
+        final FieldEntry f = findField(fieldSignature);
+        if (f == null) {
             throw new FieldNotFoundException(fieldSignature.toString());
         }
-        final AttributeInfo attrVisible = fld.getFieldInfo().getAttribute(AnnotationsAttribute.visibleTag);
-        final AttributeInfo attrInvisible = fld.getFieldInfo().getAttribute(AnnotationsAttribute.invisibleTag);
-        return mergeVisibleAndInvisibleAttributes(attrVisible, attrInvisible);
+        synchronized (this.cpool) {
+            final AttributeInfo attrVisible = f.field.getFieldInfo().getAttribute(AnnotationsAttribute.visibleTag);
+            final AttributeInfo attrInvisible = f.field.getFieldInfo().getAttribute(AnnotationsAttribute.invisibleTag);
+            return mergeVisibleAndInvisibleAttributes(attrVisible, attrInvisible);
+        }
     }
 
-    private CtField findField(Signature fieldSignature) {
-        final CtField[] fieldsJA = this.cls.getDeclaredFields();
-        for (CtField fld : fieldsJA) {
-            if (fld.getSignature().equals(fieldSignature.getDescriptor()) && 
-            fld.getName().equals(fieldSignature.getName())) {
-                return fld;
+    /**
+     * Finds a field declaration in the classfile.
+     * 
+     * @param fieldSignature a {@link Signature}.
+     * @return {@code null} if no field with {@code fieldSignature} 
+     *         signature is declared in this classfile, otherwise the 
+     *         {@link FieldEntry} for it; the class name in {@code fieldSignature}
+     *         is ignored.
+     */
+    private FieldEntry findField(Signature fieldSignature) {
+        if (this.fields == null) {
+            final HashMap<String, HashMap<String, FieldEntry>> fields = new HashMap<>();
+            synchronized (this.cpool) {
+                for (CtField fld : this.cls.getDeclaredFields()) {
+                    fields.computeIfAbsent(fld.getName(), k -> new HashMap<>()).putIfAbsent(fld.getSignature(), new FieldEntry(fld));
+                }
             }
+            this.fields = fields;
         }
-        return null;
+        final HashMap<String, FieldEntry> fieldsWithName = this.fields.get(fieldSignature.getName());
+        return (fieldsWithName == null ? null : fieldsWithName.get(fieldSignature.getDescriptor()));
     }
 
     @Override
     public Signature[] getDeclaredConstructors() {
         if (this.constructors == null) {
             final ArrayList<Signature> constructors = new ArrayList<Signature>();
-            final CtConstructor[] constrJA = this.cls.getDeclaredConstructors();
-            for (CtConstructor constr : constrJA) {
-                final Signature sig = new Signature(getClassName(), constr.getSignature(), ctBehaviorInternalName(constr));
-                constructors.add(sig);
+            synchronized (this.cpool) {
+                final CtConstructor[] constrJA = this.cls.getDeclaredConstructors();
+                for (CtConstructor constr : constrJA) {
+                    final Signature sig = new Signature(getClassName(), constr.getSignature(), ctBehaviorInternalName(constr));
+                    constructors.add(sig);
+                }
             }
             this.constructors = constructors;
         }
@@ -1039,10 +1181,10 @@ public class ClassFileJavassist extends ClassFile {
     @Override
     public String classContainer() throws ClassFileNotFoundException {
         try {
-            if (this.cls.getDeclaringClass() == null) {
-                return null;
+            synchronized (this.cpool) {
+                final CtClass declaringClass = this.cls.getDeclaringClass();
+                return (declaringClass == null ? null : declaringClass.getName());
             }
-            return (this.cls.getDeclaringClass().getName());
         } catch (NotFoundException e) {
             throw new ClassFileNotFoundException(e.getMessage());
         }
@@ -1054,9 +1196,11 @@ public class ClassFileJavassist extends ClassFile {
         //method does not handle the case of local and anonymous classes
         //that are not immediately enclosed by a method or constructor.
         //This code is copied from CtClassType#getEnclosingBehavior.
-        final javassist.bytecode.ClassFile cf = this.cls.getClassFile2();
-        final EnclosingMethodAttribute ema = 
-            (EnclosingMethodAttribute) cf.getAttribute(EnclosingMethodAttribute.tag);
+        final EnclosingMethodAttribute ema;
+        synchronized (this.cpool) {
+            final javassist.bytecode.ClassFile cf = this.cls.getClassFile2();
+            ema = (EnclosingMethodAttribute) cf.getAttribute(EnclosingMethodAttribute.tag);
+        }
         if (ema == null) {
             return null;
         }
@@ -1065,6 +1209,8 @@ public class ClassFileJavassist extends ClassFile {
 
     @Override
     public boolean isStatic() {
-        return Modifier.isStatic(cls.getModifiers());
+        synchronized (this.cpool) {
+            return Modifier.isStatic(this.cls.getModifiers());
+        }
     }
 }
\ No newline at end of file
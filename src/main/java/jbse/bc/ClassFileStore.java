@@ -4,6 +4,7 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import jbse.bc.exc.BadClassFileException;
 import jbse.bc.exc.ClassFileNotFoundException;
@@ -12,10 +13,52 @@ import jbse.common.Type;
 
 /**
  * Container of all classfiles. Currently it does not support 
- * multiple class loaders, nor dynamic class loading.
+ * multiple class loaders, nor dynamic class loading. The classfiles
+ * loaded from the classpath are cached in a thread-safe store that is 
+ * shared by a {@link ClassFileStore} and all its clones, so every class 
+ * is loaded once. Each {@link ClassFileStore} has an overlay with 
+ * the classfiles that are specific to it, i.e., the wrapped classfiles 
+ * and the anonymous classfiles, and only the overlay is copied by 
+ * {@link #clone()}.
  */ 
 final class ClassFileStore implements Cloneable {
-    private final ClassFileFactory f;
+    /**
+     * The part of a {@link ClassFileStore} that is shared with
+     * all its clones.
+     */
+    private static final class Shared {
+        private final ClassFileFactory f;
+        private final ConcurrentHashMap<String, ClassFile> classFiles = new ConcurrentHashMap<>();
+
+        Shared(ClassFileFactory f) {
+            this.f = f;
+        }
+        
+        ClassFile getClassFile(String className) {
+            ClassFile retVal = this.classFiles.get(className);
+            if (retVal == null) {
+                //the factory is not required to be thread-safe
+                synchronized (this) {
+                    retVal = this.classFiles.get(className);
+                    if (retVal == null) {
+                        try {
+                            retVal = this.f.newClassFile(className);
+                        } catch (BadClassFileException e) {
+                            retVal = new ClassFileBad(className, e);
+                        }
+                        this.classFiles.put(className, retVal);
+                    }
+                }
+            }
+            return retVal;
+        }
+        
+        synchronized ClassFile newClassFileAnonymous(String hostClass, byte[] bytecode, ConstantPoolValue[] cpPatches) 
+        throws BadClassFileException {
+            return this.f.newClassFile(hostClass, bytecode, cpPatches);
+        }
+    }
+    
     private final ClassFileBoolean primitiveClassFileBoolean = new ClassFileBoolean(); 
     private final ClassFileByte primitiveClassFileByte = new ClassFileByte();   
     private final ClassFileCharacter primitiveClassFileCharacter = new ClassFileCharacter();    
@@ -25,7 +68,8 @@ final class ClassFileStore implements Cloneable {
     private final ClassFileFloat primitiveClassFileFloat = new ClassFileFloat();    
     private final ClassFileDouble primitiveClassFileDouble = new ClassFileDouble(); 
     private final ClassFileVoid primitiveClassFileVoid = new ClassFileVoid();   
-    private HashMap<String, ClassFile> classFiles = new HashMap<>(); //not final because of clone
+    private final Shared shared;
+    private HashMap<String, ClassFile> classFilesOverlay = new HashMap<>(); //not final because of clone
 
     /**
      * Constructor.
@@ -43,7 +87,7 @@ final class ClassFileStore implements Cloneable {
         final Constructor<? extends ClassFileFactory> c;
         try {
             c = fClass.getConstructor(ClassFileStore.class, Classpath.class);
-            this.f = c.newInstance(this, cp);
+            this.shared = new Shared(c.newInstance(this, cp));
         } catch (SecurityException | NoSuchMethodException | IllegalArgumentException | 
         InstantiationException | IllegalAccessException | InvocationTargetException e) {
             throw new InvalidClassFileFactoryClassException(e);
@@ -59,17 +103,47 @@ final class ClassFileStore implements Cloneable {
      *         possibly a {@link ClassFileBad}.
      */
     ClassFile getClassFile(String className) {
-        //if the class file is not already in cache, adds it
-        if (!this.classFiles.containsKey(className)) {        
+        final ClassFile retVal = this.classFilesOverlay.get(className);
+        if (retVal != null) {
+            return retVal;
+        }
+        if (Type.isArray(className) && isArrayOfOverlaid(className)) {
+            //arrays of anonymous classes must stay in the overlay
             ClassFile tempCF;
             try {
-                tempCF = this.f.newClassFile(className);
+                final ClassFile classFileMember = getClassFile(Type.className(Type.getArrayMemberType(className)));
+                if (classFileMember instanceof ClassFileBad) {
+                    throw ((ClassFileBad) classFileMember).getException();
+                }
+                tempCF = ClassFileFactory.newClassFileArray(className, classFileMember);
             } catch (BadClassFileException e) {
                 tempCF = new ClassFileBad(className, e);
             }
-            this.classFiles.put(className, tempCF);
+            this.classFilesOverlay.put(className, tempCF);
+            return tempCF;
         }
-        return this.classFiles.get(className);
+        return this.shared.getClassFile(className);
+    }
+    
+    /**
+     * Given a class name returns the corresponding {@link ClassFile}
+     * as loaded from the classpath, ignoring the wrapped and 
+     * anonymous classfiles.
+     * 
+     * @param className the searched class.
+     * @return the {@link ClassFile} of the corresponding class, 
+     *         possibly a {@link ClassFileBad}.
+     */
+    ClassFile getClassFileShared(String className) {
+        return this.shared.getClassFile(className);
+    }
+    
+    private boolean isArrayOfOverlaid(String arrayClassName) {
+        String memberType = arrayClassName;
+        while (Type.isArray(memberType)) {
+            memberType = Type.getArrayMemberType(memberType);
+        }
+        return Type.isReference(memberType) && this.classFilesOverlay.containsKey(Type.className(memberType));
     }
     
     /**
@@ -97,7 +171,7 @@ final class ClassFileStore implements Cloneable {
             return;
         }
         final ClassFileWrapper wrapper = new ClassFileWrapper(classFileToWrap, constants, signatures, classes);
-        this.classFiles.put(classToWrap, wrapper);
+        this.classFilesOverlay.put(classToWrap, wrapper);
     }
     
     /**
@@ -110,7 +184,12 @@ final class ClassFileStore implements Cloneable {
         final ClassFile classFileToUnwrap = getClassFile(classToUnwrap);
         if (classFileToUnwrap instanceof ClassFileWrapper) {
             final ClassFileWrapper wrapper = (ClassFileWrapper) classFileToUnwrap;
-            this.classFiles.put(classToUnwrap, wrapper.getWrapped());
+            final ClassFile wrapped = wrapper.getWrapped();
+            if (wrapped == this.shared.getClassFile(classToUnwrap)) {
+                this.classFilesOverlay.remove(classToUnwrap);
+            } else {
+                this.classFilesOverlay.put(classToUnwrap, wrapped);
+            }
         }
     }
 
@@ -162,14 +241,14 @@ final class ClassFileStore implements Cloneable {
 
     ClassFile createClassFileAnonymous(byte[] bytecode) 
     throws BadClassFileException {
-        final ClassFile tempCF = this.f.newClassFile(null, bytecode, null);
+        final ClassFile tempCF = this.shared.newClassFileAnonymous(null, bytecode, null);
         return tempCF;
     }
     
     ClassFile addClassFileAnonymous(ClassFile classFile, String hostClass, ConstantPoolValue[] cpPatches) 
     throws BadClassFileException {
-        final ClassFile tempCF = this.f.newClassFile(hostClass, classFile.getBinaryFileContent(), cpPatches);
-        this.classFiles.put(tempCF.getClassName(), tempCF);
+        final ClassFile tempCF = this.shared.newClassFileAnonymous(hostClass, classFile.getBinaryFileContent(), cpPatches);
+        this.classFilesOverlay.put(tempCF.getClassName(), tempCF);
         return tempCF;
     }
     
@@ -182,8 +261,8 @@ final class ClassFileStore implements Cloneable {
             throw new InternalError(e);
         }
         
-        //classFiles
-        o.classFiles = new HashMap<>(o.classFiles);
+        //classFilesOverlay (shared is, well, shared)
+        o.classFilesOverlay = new HashMap<>(o.classFilesOverlay);
         
         return o;
     }
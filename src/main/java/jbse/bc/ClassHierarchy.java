@@ -14,7 +14,6 @@ import static jbse.common.Type.splitReturnValueDescriptor;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -22,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -48,8 +48,75 @@ import jbse.common.exc.UnexpectedInternalException;
 public final class ClassHierarchy implements Cloneable {
     private final Classpath cp;
     private final Map<String, Set<String>> expansionBackdoor;
-    private final HashMap<String, ArrayList<Signature>> allFieldsOf;
+    private final ConcurrentHashMap<String, FieldLayout> fieldLayouts;
     private ClassFileStore cfs; //not final because of clone
+    private final ResolutionCache cache;
+
+    /**
+     * Caches the results of the subclass checks, of the
+     * resolution of fields and methods, and of the lookup 
+     * of method implementations. It is shared by all the 
+     * clones of a {@link ClassHierarchy}, since all these 
+     * results depend only on the classfiles in the hierarchy,
+     * and the clones may be used by different threads. 
+     * The method implementations are cached by class name, 
+     * so wrapping a classfile does not invalidate them.
+     */
+    private static final class ResolutionCache {
+        /** Maps a class name to the names of all its superclasses and superinterfaces. */
+        final ConcurrentHashMap<String, Set<String>> supertypes = new ConcurrentHashMap<>();
+        
+        /** Maps (field signature, accessor) to the resolved field signature. */
+        final ConcurrentHashMap<Signature, ConcurrentHashMap<String, Signature>> fields = new ConcurrentHashMap<>();
+        
+        /** Maps (method signature, accessor) to the resolved method signature. */
+        final ConcurrentHashMap<Signature, ConcurrentHashMap<String, Signature>> methods = new ConcurrentHashMap<>();
+        
+        /** Maps (method signature, accessor) to the resolved interface method signature. */
+        final ConcurrentHashMap<Signature, ConcurrentHashMap<String, Signature>> interfaceMethods = new ConcurrentHashMap<>();
+        
+        /** Maps (resolved method signature, receiver class name) to the name of the class with the INVOKEINTERFACE implementation. */
+        final ConcurrentHashMap<Signature, ConcurrentHashMap<String, String>> implsInterface = new ConcurrentHashMap<>();
+        
+        /** Maps (resolved method signature, current class name) to the name of the class with the INVOKESPECIAL implementation. */
+        final ConcurrentHashMap<Signature, ConcurrentHashMap<String, String>> implsSpecial = new ConcurrentHashMap<>();
+        
+        /** Maps (resolved method signature, receiver class name) to the name of the class with the INVOKEVIRTUAL implementation. */
+        final ConcurrentHashMap<Signature, ConcurrentHashMap<String, String>> implsVirtual = new ConcurrentHashMap<>();
+        
+        static <T> T get(ConcurrentHashMap<Signature, ConcurrentHashMap<String, T>> table, Signature signature, String className) {
+            final ConcurrentHashMap<String, T> row = table.get(signature);
+            return (row == null ? null : row.get(className));
+        }
+        
+        static <T> void put(ConcurrentHashMap<Signature, ConcurrentHashMap<String, T>> table, Signature signature, String className, T value) {
+            table.computeIfAbsent(signature, k -> new ConcurrentHashMap<>()).put(className, value);
+        }
+        
+        /**
+         * Removes all the cached results for a class, i.e., 
+         * its supertypes, and the resolutions and lookups where
+         * the class is the accessor, the receiver or the 
+         * current class.
+         * 
+         * @param className a {@link String}, the name of the class.
+         */
+        void invalidate(String className) {
+            this.supertypes.remove(className);
+            invalidate(this.fields, className);
+            invalidate(this.methods, className);
+            invalidate(this.interfaceMethods, className);
+            invalidate(this.implsInterface, className);
+            invalidate(this.implsSpecial, className);
+            invalidate(this.implsVirtual, className);
+        }
+        
+        private static <T> void invalidate(ConcurrentHashMap<Signature, ConcurrentHashMap<String, T>> table, String className) {
+            for (ConcurrentHashMap<String, T> row : table.values()) {
+                row.remove(className);
+            }
+        }
+    }
 
     /**
      * Constructor.
@@ -71,7 +138,8 @@ public final class ClassHierarchy implements Cloneable {
         this.cp = cp.clone(); //safety copy
         this.cfs = new ClassFileStore(cp, fClass);
         this.expansionBackdoor = expansionBackdoor;
-        this.allFieldsOf = new HashMap<>();
+        this.fieldLayouts = new ConcurrentHashMap<>();
+        this.cache = new ResolutionCache();
     }
 
     /**
@@ -194,6 +262,11 @@ public final class ClassHierarchy implements Cloneable {
     throws BadClassFileException {
         final ClassFile retval =
             this.cfs.addClassFileAnonymous(classFile, hostClass, cpPatches);
+        
+        //the cache is shared with the clones, that may have
+        //looked up a different anonymous classfile with the 
+        //same name: forgets the results for it
+        this.cache.invalidate(retval.getClassName());
         return retval;
     }
     
@@ -304,18 +377,33 @@ public final class ClassHierarchy implements Cloneable {
                 return false;
             }
         } else {
-            for (ClassFile f : superclasses(sub)) { 
-                if (f.getClassName().equals(sup)) {
-                    return true;
-                } 
+            return supertypes(sub).contains(sup);
+        }
+    }
+    
+    /**
+     * Returns the names of all the superclasses and superinterfaces
+     * of a class, calculating them upon the first invocation.
+     * 
+     * @param className a {@link String}, a class/interface name.
+     * @return a {@link Set}{@code <}{@link String}{@code >} containing
+     *         the names of all the classfiles returned by 
+     *         {@link #superclasses(String) superclasses}{@code (className)}
+     *         and {@link #superinterfaces(String) superinterfaces}{@code (className)}.
+     */
+    private Set<String> supertypes(String className) {
+        Set<String> retVal = this.cache.supertypes.get(className);
+        if (retVal == null) {
+            retVal = new HashSet<>();
+            for (ClassFile f : superclasses(className)) { 
+                retVal.add(f.getClassName());
             }
-            for (ClassFile f : superinterfaces(sub)) {
-                if (f.getClassName().equals(sup)) {
-                    return true;
-                }
+            for (ClassFile f : superinterfaces(className)) {
+                retVal.add(f.getClassName());
             }
-            return false;
+            this.cache.supertypes.put(className, retVal);
         }
+        return retVal;
     }
 
     /**
@@ -507,24 +595,50 @@ public final class ClassHierarchy implements Cloneable {
      *         does not exist in the classpath or is ill-formed.
      */	
     public Signature[] getAllFields(String className) throws BadClassFileException {
-        ArrayList<Signature> signatures = this.allFieldsOf.get(className);
-        if (signatures == null) {
-            signatures = new ArrayList<Signature>(0);
-            this.allFieldsOf.put(className, signatures);
+        return getFieldLayout(className).getFieldSignatures();
+    }
+
+    /**
+     * Returns the layout of the fields known to an object 
+     * of a given class. The layout of a class is calculated
+     * once, and shared by this hierarchy and all its clones.
+     * 
+     * @param className a {@link String}, the name of the class.
+     * @return a {@link FieldLayout} whose fields are those
+     *         returned by {@link #getAllFields(String) getAllFields(className)}, 
+     *         and whose static fields are the static fields 
+     *         of {@code className}.
+     * @throws BadClassFileException if the classfile for the class 
+     *         {@code className}, or for one of its superclasses, 
+     *         does not exist in the classpath or is ill-formed.
+     */
+    public FieldLayout getFieldLayout(String className) throws BadClassFileException {
+        FieldLayout retVal = this.fieldLayouts.get(className);
+        if (retVal == null) {
+            final ArrayList<Signature> signatures = new ArrayList<Signature>(0);
+            int numOfStaticFields = 0;
             boolean isStartClass = true;
             for (ClassFile c : superclasses(className)) {
                 if (c instanceof ClassFileBad) {
                     throw ((ClassFileBad) c).getException();
                 }
                 if (isStartClass) {
-                    signatures.addAll(Arrays.asList(c.getDeclaredFieldsStatic()));
+                    final Signature[] fieldsStatic = c.getDeclaredFieldsStatic();
+                    signatures.addAll(Arrays.asList(fieldsStatic));
+                    numOfStaticFields = fieldsStatic.length;
                     isStartClass = false;
                 }
                 final Signature[] fields = c.getDeclaredFieldsNonStatic();
                 signatures.addAll(Arrays.asList(fields));
             }
+            //publishes the layout only when complete, since
+            //the clones may be used by different threads
+            retVal = new FieldLayout(numOfStaticFields, signatures.toArray(SIGNATURE_ARRAY));
+            final FieldLayout previous = this.fieldLayouts.putIfAbsent(className, retVal);
+            if (previous != null) {
+                retVal = previous;
+            }
         }
-        final Signature[] retVal = signatures.toArray(SIGNATURE_ARRAY);
         return retVal;
     }
 
@@ -589,6 +703,11 @@ public final class ClassHierarchy implements Cloneable {
     public Signature resolveField(String accessor, Signature fieldSignature) 
     throws BadClassFileException, ClassFileNotAccessibleException, 
     FieldNotAccessibleException, FieldNotFoundException {
+        final Signature cached = ResolutionCache.get(this.cache.fields, fieldSignature, accessor);
+        if (cached != null) {
+            return cached;
+        }
+        
         //first resolves the class
         resolveClass(accessor, fieldSignature.getClassName());
 
@@ -605,6 +724,7 @@ public final class ClassHierarchy implements Cloneable {
         try {
             if (isFieldAccessible(accessor, fieldSignatureResolved)) {
                 //everything went ok
+                ResolutionCache.put(this.cache.fields, fieldSignature, accessor, fieldSignatureResolved);
                 return fieldSignatureResolved;
             } else {
                 throw new FieldNotAccessibleException(fieldSignatureResolved.toString());
@@ -678,6 +798,12 @@ public final class ClassHierarchy implements Cloneable {
     public Signature resolveMethod(String accessor, Signature methodSignature, boolean isInterface) 
     throws BadClassFileException, IncompatibleClassFileException,  
     MethodNotFoundException, MethodNotAccessibleException {
+        final ConcurrentHashMap<Signature, ConcurrentHashMap<String, Signature>> cacheTable = (isInterface ? this.cache.interfaceMethods : this.cache.methods);
+        final Signature cached = ResolutionCache.get(cacheTable, methodSignature, accessor);
+        if (cached != null) {
+            return cached;
+        }
+        
         //gets the classfile for class mentioned in the method's *invocation*
         //TODO implement class resolution and loading!
         final ClassFile classFile = getClassFile(methodSignature.getClassName());
@@ -756,6 +882,7 @@ public final class ClassHierarchy implements Cloneable {
         try {
             if (isMethodAccessible(accessor, methodSignatureResolved)) {
                 //everything went ok
+                ResolutionCache.put(cacheTable, methodSignature, accessor, methodSignatureResolved);
                 return methodSignatureResolved;
             } else {
                 throw new MethodNotAccessibleException(methodSignatureResolved.toString());
@@ -1031,6 +1158,11 @@ public final class ClassHierarchy implements Cloneable {
      */
     public ClassFile lookupMethodImplInterface(String receiverClassName, Signature methodSignatureResolved) 
     throws BadClassFileException, MethodNotAccessibleException, MethodAbstractException, IncompatibleClassFileException {
+        final String cached = ResolutionCache.get(this.cache.implsInterface, methodSignatureResolved, receiverClassName);
+        if (cached != null) {
+            return getClassFile(cached);
+        }
+        
         ClassFile retVal = null;
         
         try {
@@ -1074,7 +1206,7 @@ public final class ClassHierarchy implements Cloneable {
             throw new UnexpectedInternalException(e);
         }
         
-        return retVal;
+        return cacheImpl(this.cache.implsInterface, methodSignatureResolved, receiverClassName, retVal);
     }
 
     /**
@@ -1095,6 +1227,11 @@ public final class ClassHierarchy implements Cloneable {
      */
     public ClassFile lookupMethodImplSpecial(String currentClassName, Signature methodSignatureResolved) 
     throws BadClassFileException, MethodAbstractException, IncompatibleClassFileException {
+        final String cached = ResolutionCache.get(this.cache.implsSpecial, methodSignatureResolved, currentClassName);
+        if (cached != null) {
+            return getClassFile(cached);
+        }
+        
         final String resolutionClassName = methodSignatureResolved.getClassName();
         final ClassFile currentClass = getClassFile(currentClassName);
         final ClassFile resolutionClass = getClassFile(resolutionClassName);
@@ -1173,7 +1310,7 @@ public final class ClassHierarchy implements Cloneable {
             throw new UnexpectedInternalException(e);
         }
 
-        return retVal;
+        return cacheImpl(this.cache.implsSpecial, methodSignatureResolved, currentClassName, retVal);
     }
 
     /**
@@ -1218,9 +1355,14 @@ public final class ClassHierarchy implements Cloneable {
      */
     public ClassFile lookupMethodImplVirtual(String receiverClassName, Signature methodSignatureResolved) 
     throws BadClassFileException, MethodNotFoundException, MethodAbstractException, IncompatibleClassFileException {
+        final String cached = ResolutionCache.get(this.cache.implsVirtual, methodSignatureResolved, receiverClassName);
+        if (cached != null) {
+            return getClassFile(cached);
+        }
+        
         final ClassFile cfMethod = getClassFile(methodSignatureResolved.getClassName());
         if (cfMethod.isMethodSignaturePolymorphic(methodSignatureResolved)) {
-            return cfMethod;
+            return cacheImpl(this.cache.implsVirtual, methodSignatureResolved, receiverClassName, cfMethod);
         } else {
             ClassFile retVal = null;
             
@@ -1258,8 +1400,28 @@ public final class ClassHierarchy implements Cloneable {
                 }
             }
             
-            return retVal;
+            return cacheImpl(this.cache.implsVirtual, methodSignatureResolved, receiverClassName, retVal);
+        }
+    }
+    
+    /**
+     * Caches the result of a method implementation lookup.
+     * 
+     * @param cacheTable the table where the result must be cached.
+     * @param methodSignatureResolved the {@link Signature} of the resolved method. 
+     * @param className a {@link String}, the name of the receiver's
+     *        or invoker's class.
+     * @param impl the {@link ClassFile} with the method implementation.
+     * @return {@code impl}.
+     */
+    private ClassFile cacheImpl(ConcurrentHashMap<Signature, ConcurrentHashMap<String, String>> cacheTable, 
+                                Signature methodSignatureResolved, String className, ClassFile impl) {
+        //caches the name of the classfile, unless it 
+        //cannot be retrieved back by name
+        if (impl != null && this.cfs.getClassFile(impl.getClassName()) == impl) {
+            ResolutionCache.put(cacheTable, methodSignatureResolved, className, impl.getClassName());
         }
+        return impl;
     }
     
     /**
@@ -1395,7 +1557,7 @@ public final class ClassHierarchy implements Cloneable {
             throw new InternalError(e);
         }
         
-        //cp, expansionBackdoor and allFieldsOf may be shared;
+        //cp, expansionBackdoor, fieldLayouts and cache may be shared;
         //in a future, expansionBackdoor may possibly be cloned
         
         o.cfs = o.cfs.clone();
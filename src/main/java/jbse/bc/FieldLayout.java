@@ -0,0 +1,134 @@
+package jbse.bc;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The layout of the fields of the objects of a class,
+ * i.e., the association of each field with its slot number.
+ * Layouts are immutable; the {@link ClassHierarchy} calculates
+ * the layout of a class once, and all the objects of the
+ * class share it.
+ */
+public final class FieldLayout {
+    /**
+     * All the signatures of all the fields; the position of a
+     * field signature in this array is its slot number.
+     */
+    private final Signature[] fieldSignatures;
+
+    /** The number of static fields, that are the first in {@code fieldSignatures}. */
+    private final int numOfStaticFields;
+
+    /** The static fields, as an immutable list. */
+    private final List<Signature> staticFields;
+
+    /** The object (nonstatic) fields, as an immutable list. */
+    private final List<Signature> objectFields;
+
+    /** Maps each field signature to its slot number. */
+    private final HashMap<Signature, Integer> slots;
+
+    /**
+     * Constructor.
+     *
+     * @param numOfStaticFields an {@code int}, the number of static fields.
+     * @param fieldSignatures varargs of field {@link Signature}s, all the
+     *        fields, static fields first. It is not modified.
+     * @throws IllegalArgumentException if {@code numOfStaticFields} is
+     *         negative or greater than the number of fields.
+     */
+    public FieldLayout(int numOfStaticFields, Signature... fieldSignatures) {
+        if (numOfStaticFields < 0 || numOfStaticFields > fieldSignatures.length) {
+            throw new IllegalArgumentException("the number of static fields " + numOfStaticFields + " is out of range");
+        }
+        this.fieldSignatures = fieldSignatures.clone(); //safety copy
+        this.numOfStaticFields = numOfStaticFields;
+        final List<Signature> all = Collections.unmodifiableList(Arrays.asList(this.fieldSignatures));
+        this.staticFields = all.subList(0, numOfStaticFields);
+        this.objectFields = all.subList(numOfStaticFields, this.fieldSignatures.length);
+        this.slots = new HashMap<>();
+        for (int slot = 0; slot < this.fieldSignatures.length; ++slot) {
+            this.slots.putIfAbsent(this.fieldSignatures[slot], slot);
+        }
+    }
+
+    /**
+     * Returns the number of static fields.
+     *
+     * @return an {@code int}. The static fields
+     *         have slot numbers from {@code 0} to
+     *         the returned value (excluded).
+     */
+    public int numOfStaticFields() {
+        return this.numOfStaticFields;
+    }
+
+    /**
+     * Returns the number of fields.
+     *
+     * @return an {@code int}, the number of 
+     *         all the fields, static and nonstatic.
+     */
+    public int numOfFields() {
+        return this.fieldSignatures.length;
+    }
+
+    /**
+     * Returns the signature of a field.
+     *
+     * @param slot an {@code int}, the slot number of the field.
+     * @return the {@link Signature} of the field with slot 
+     *         number {@code slot}.
+     * @throws ArrayIndexOutOfBoundsException if {@code slot} 
+     *         is not the slot number of a field.
+     */
+    public Signature getFieldSignature(int slot) {
+        return this.fieldSignatures[slot];
+    }
+
+    /**
+     * Returns all the fields.
+     *
+     * @return a {@link Signature}{@code []}, all the fields 
+     *         in slot order (a new array at every invocation).
+     */
+    public Signature[] getFieldSignatures() {
+        return this.fieldSignatures.clone();
+    }
+
+    /**
+     * Returns the static fields.
+     *
+     * @return an immutable {@link List}{@code <}{@link Signature}{@code >},
+     *         the static fields in slot order.
+     */
+    public List<Signature> getStaticFieldSignatures() {
+        return this.staticFields;
+    }
+
+    /**
+     * Returns the object (nonstatic) fields.
+     *
+     * @return an immutable {@link List}{@code <}{@link Signature}{@code >},
+     *         the object fields in slot order.
+     */
+    public List<Signature> getObjectFieldSignatures() {
+        return this.objectFields;
+    }
+
+    /**
+     * Returns the slot number of a field.
+     *
+     * @param field the {@link Signature} of the field.
+     * @return an {@code int}, the slot number of the field
+     *         with signature {@code field}, or {@code -1}
+     *         if such field does not exist.
+     */
+    public int slot(Signature field) {
+        final Integer retVal = this.slots.get(field);
+        return (retVal == null ? -1 : retVal.intValue());
+    }
+}
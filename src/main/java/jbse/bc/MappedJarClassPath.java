@@ -0,0 +1,214 @@
+package jbse.bc;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import javassist.ClassPath;
+import javassist.NotFoundException;
+
+/**
+ * A Javassist {@link ClassPath} for a jar file that memory-maps
+ * the jar and reads its central directory once, upon construction.
+ * The classfiles are located through the central directory and
+ * are decompressed directly from the mapped file only when
+ * Javassist requests them. It is safe to use it from multiple
+ * threads. It only uses the {@link ByteBuffer} methods that
+ * exist in Java 8, so the buffers are duplicated and positioned
+ * through casts to {@link ByteBuffer} and {@link Buffer}.
+ */
+final class MappedJarClassPath implements ClassPath {
+    private static final int EOCD_SIGNATURE = 0x06054b50;
+    private static final int EOCD_SIZE = 22;
+    private static final int EOCD_MAX_COMMENT = 0xFFFF;
+    private static final int CEN_SIGNATURE = 0x02014b50;
+    private static final int CEN_SIZE = 46;
+    private static final int LOC_SIGNATURE = 0x04034b50;
+    private static final int LOC_SIZE = 30;
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+    private static final String CLASS_SUFFIX = ".class";
+
+    /**
+     * The position and size of a classfile in the jar.
+     */
+    private static final class Entry {
+        final String name;
+        final int method;
+        final int compressedSize;
+        final int size;
+        final int localHeaderOffset;
+
+        Entry(String name, int method, int compressedSize, int size, int localHeaderOffset) {
+            this.name = name;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+    }
+
+    private final String jarPath;
+    private final MappedByteBuffer jar;
+
+    /** Maps each class name (with dots) to its {@link Entry}. */
+    private final HashMap<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param jarPath a {@link String}, the path of a jar file.
+     * @throws IOException if the jar file cannot be read or
+     *         its format is not supported (e.g., it is
+     *         a ZIP64 archive).
+     */
+    MappedJarClassPath(String jarPath) throws IOException {
+        this.jarPath = jarPath;
+        try (final RandomAccessFile f = new RandomAccessFile(jarPath, "r");
+             final FileChannel channel = f.getChannel()) {
+            this.jar = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        this.jar.order(ByteOrder.LITTLE_ENDIAN);
+        readCentralDirectory();
+    }
+
+    private void readCentralDirectory() throws IOException {
+        final ByteBuffer buf = ((ByteBuffer) this.jar).duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+        //finds the end of central directory record, that
+        //is followed by a comment of variable length
+        final int last = buf.limit() - EOCD_SIZE;
+        final int first = Math.max(0, last - EOCD_MAX_COMMENT);
+        int eocd = -1;
+        for (int pos = last; pos >= first; --pos) {
+            if (buf.getInt(pos) == EOCD_SIGNATURE) {
+                eocd = pos;
+                break;
+            }
+        }
+        if (eocd < 0) {
+            throw new IOException("no end of central directory in " + this.jarPath);
+        }
+        final int numEntries = Short.toUnsignedInt(buf.getShort(eocd + 10));
+        final long centralDirectoryOffset = Integer.toUnsignedLong(buf.getInt(eocd + 16));
+        if (numEntries == 0xFFFF || centralDirectoryOffset == 0xFFFFFFFFL) {
+            throw new IOException("ZIP64 archive " + this.jarPath + " not supported");
+        }
+
+        //scans the central directory
+        int pos = (int) centralDirectoryOffset;
+        for (int i = 0; i < numEntries; ++i) {
+            if (buf.getInt(pos) != CEN_SIGNATURE) {
+                throw new IOException("ill-formed central directory in " + this.jarPath);
+            }
+            final int method = Short.toUnsignedInt(buf.getShort(pos + 10));
+            final int compressedSize = buf.getInt(pos + 20);
+            final int size = buf.getInt(pos + 24);
+            final int nameLength = Short.toUnsignedInt(buf.getShort(pos + 28));
+            final int extraLength = Short.toUnsignedInt(buf.getShort(pos + 30));
+            final int commentLength = Short.toUnsignedInt(buf.getShort(pos + 32));
+            final int localHeaderOffset = buf.getInt(pos + 42);
+            final String name = entryName(buf, pos + CEN_SIZE, nameLength);
+            if (name.endsWith(CLASS_SUFFIX) && (method == METHOD_STORED || method == METHOD_DEFLATED)) {
+                final String className = name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.');
+                this.entries.putIfAbsent(className, new Entry(name, method, compressedSize, size, localHeaderOffset));
+            }
+            pos += CEN_SIZE + nameLength + extraLength + commentLength;
+        }
+    }
+
+    private static String entryName(ByteBuffer buf, int pos, int length) {
+        final byte[] name = new byte[length];
+        final ByteBuffer nameBuf = buf.duplicate();
+        ((Buffer) nameBuf).position(pos);
+        nameBuf.get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public InputStream openClassfile(String classname) throws NotFoundException {
+        final Entry entry = this.entries.get(classname);
+        if (entry == null) {
+            return null;
+        }
+        try {
+            return new ByteArrayInputStream(read(entry));
+        } catch (IOException e) {
+            throw new NotFoundException("broken jar file?: " + this.jarPath);
+        }
+    }
+
+    private byte[] read(Entry entry) throws IOException {
+        final ByteBuffer buf = ((ByteBuffer) this.jar).duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        final int loc = entry.localHeaderOffset;
+        if (buf.getInt(loc) != LOC_SIGNATURE) {
+            throw new IOException("ill-formed local header for " + entry.name);
+        }
+        final int nameLength = Short.toUnsignedInt(buf.getShort(loc + 26));
+        final int extraLength = Short.toUnsignedInt(buf.getShort(loc + 28));
+        ((Buffer) buf).position(loc + LOC_SIZE + nameLength + extraLength);
+        if (entry.method == METHOD_STORED) {
+            final byte[] retVal = new byte[entry.size];
+            buf.get(retVal);
+            return retVal;
+        }
+
+        //the inflater in nowrap mode may need an extra dummy byte
+        final byte[] compressed = new byte[entry.compressedSize + 1];
+        buf.get(compressed, 0, entry.compressedSize);
+        final Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed);
+            final byte[] retVal = new byte[entry.size];
+            int n = 0;
+            while (n < retVal.length && !inflater.finished()) {
+                final int inflated = inflater.inflate(retVal, n, retVal.length - n);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("truncated entry " + entry.name);
+                }
+                n += inflated;
+            }
+            return retVal;
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public URL find(String classname) {
+        final Entry entry = this.entries.get(classname);
+        if (entry == null) {
+            return null;
+        }
+        try {
+            return new URL("jar:" + new File(this.jarPath).toURI().toURL() + "!/" + entry.name);
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+
+    //not an override in later versions of Javassist
+    public void close() {
+        //nothing to do: the mapped file is released when garbage collected
+    }
+
+    @Override
+    public String toString() {
+        return this.jarPath;
+    }
+}
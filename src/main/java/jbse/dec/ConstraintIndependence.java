@@ -0,0 +1,308 @@
+package jbse.dec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import jbse.common.exc.UnexpectedInternalException;
+import jbse.mem.Clause;
+import jbse.mem.ClauseAssume;
+import jbse.val.Any;
+import jbse.val.Expression;
+import jbse.val.FunctionApplication;
+import jbse.val.NarrowingConversion;
+import jbse.val.Primitive;
+import jbse.val.PrimitiveSymbolic;
+import jbse.val.PrimitiveVisitor;
+import jbse.val.Simplex;
+import jbse.val.Term;
+import jbse.val.WideningConversion;
+
+/**
+ * Partitions a stack of assumptions in independent sets, i.e.,
+ * sets of {@link ClauseAssume}s whose conditions do not share
+ * symbols, so a satisfiability query can be decided by considering
+ * only the assumptions that share symbols with it, either directly
+ * or transitively. The symbols are the {@link PrimitiveSymbolic}s,
+ * the {@link Term}s and the names of the functions in the
+ * {@link FunctionApplication}s. The partition is kept in a
+ * union-find structure that supports undoing the last unions,
+ * so popping an assumption is as cheap as pushing it.
+ * The {@link Clause}s that are not {@link ClauseAssume}s, and the
+ * {@link ClauseAssume}s without symbols, are considered relevant
+ * to all queries.
+ */
+final class ConstraintIndependence {
+    /** Maps the symbols to their nodes in the union-find structure. */
+    private final HashMap<Object, Integer> nodes = new HashMap<>();
+
+    /** Maps the nodes to their symbols, in creation order. */
+    private final ArrayList<Object> symbols = new ArrayList<>();
+
+    /** The parent of each node; a root is its own parent. */
+    private int[] parent = new int[16];
+
+    /** The number of nodes in the tree of each root. */
+    private int[] size = new int[16];
+
+    /** The nodes that were roots, and that were linked to another root, in order. */
+    private int[] unions = new int[16];
+
+    /** The number of elements in {@code unions}. */
+    private int nUnions = 0;
+
+    /** The assumptions, in push order. */
+    private final ArrayList<Clause> clauses = new ArrayList<>();
+
+    /**
+     * The node of a symbol of each assumption, or {@code -1}
+     * if the assumption is relevant to all the queries.
+     */
+    private final ArrayList<Integer> clauseNodes = new ArrayList<>();
+
+    /** The number of nodes before each assumption was pushed. */
+    private final ArrayList<Integer> marksNodes = new ArrayList<>();
+
+    /** The number of unions before each assumption was pushed. */
+    private final ArrayList<Integer> marksUnions = new ArrayList<>();
+
+    /** The conditions of the assumed {@link ClauseAssume}s, as a multiset. */
+    private final HashMap<Primitive, Integer> conditions = new HashMap<>();
+
+    /**
+     * Pushes an assumption.
+     *
+     * @param c a {@link Clause}.
+     */
+    void push(Clause c) {
+        this.marksNodes.add(this.symbols.size());
+        this.marksUnions.add(this.nUnions);
+        this.clauses.add(c);
+        if (c instanceof ClauseAssume) {
+            final Primitive condition = ((ClauseAssume) c).getCondition();
+            this.conditions.merge(condition, 1, Integer::sum);
+            int node = -1;
+            for (Object symbol : symbols(condition)) {
+                final int symbolNode = nodeOf(symbol);
+                node = (node == -1 ? symbolNode : union(node, symbolNode));
+            }
+            this.clauseNodes.add(node);
+        } else {
+            this.clauseNodes.add(-1);
+        }
+    }
+
+    /**
+     * Pops the last pushed assumptions.
+     *
+     * @param n a nonnegative {@code int}, the number of
+     *        assumptions to pop.
+     */
+    void pop(int n) {
+        for (int i = 0; i < n; ++i) {
+            final int last = this.clauses.size() - 1;
+            final Clause c = this.clauses.remove(last);
+            this.clauseNodes.remove(last);
+            if (c instanceof ClauseAssume) {
+                this.conditions.compute(((ClauseAssume) c).getCondition(), (k, m) -> (m == 1 ? null : m - 1));
+            }
+
+            //undoes the unions
+            final int markUnions = this.marksUnions.remove(last);
+            while (this.nUnions > markUnions) {
+                final int child = this.unions[--this.nUnions];
+                final int root = this.parent[child];
+                this.size[root] -= this.size[child];
+                this.parent[child] = child;
+            }
+
+            //forgets the symbols
+            final int markNodes = this.marksNodes.remove(last);
+            for (int node = this.symbols.size() - 1; node >= markNodes; --node) {
+                this.nodes.remove(this.symbols.remove(node));
+            }
+        }
+    }
+
+    /**
+     * Pops all the assumptions.
+     */
+    void clear() {
+        this.nodes.clear();
+        this.symbols.clear();
+        this.nUnions = 0;
+        this.clauses.clear();
+        this.clauseNodes.clear();
+        this.marksNodes.clear();
+        this.marksUnions.clear();
+        this.conditions.clear();
+    }
+
+    /**
+     * Returns all the assumptions.
+     *
+     * @return a {@link List}{@code <}{@link Clause}{@code >},
+     *         in push order.
+     */
+    List<Clause> all() {
+        return new ArrayList<>(this.clauses);
+    }
+
+    /**
+     * Checks whether a condition is assumed.
+     *
+     * @param condition a {@link Primitive}.
+     * @return {@code true} iff a {@link ClauseAssume} with
+     *         condition {@code condition} was pushed and not
+     *         yet popped.
+     */
+    boolean isAssumed(Primitive condition) {
+        return this.conditions.containsKey(condition);
+    }
+
+    /**
+     * Returns the assumptions that are relevant to
+     * a query.
+     *
+     * @param query a {@link Primitive}, or {@code null}
+     *        for a query without symbols.
+     * @return a {@link List}{@code <}{@link Clause}{@code >}
+     *         of the assumptions that share symbols with
+     *         {@code query}, directly or transitively, and
+     *         of the assumptions that are relevant to all the
+     *         queries, in push order.
+     */
+    List<Clause> slice(Primitive query) {
+        final HashSet<Integer> roots = new HashSet<>();
+        if (query != null) {
+            for (Object symbol : symbols(query)) {
+                final Integer node = this.nodes.get(symbol);
+                if (node != null) {
+                    roots.add(find(node));
+                }
+            }
+        }
+        final ArrayList<Clause> retVal = new ArrayList<>();
+        for (int i = 0; i < this.clauses.size(); ++i) {
+            final int node = this.clauseNodes.get(i);
+            if (node == -1 || roots.contains(find(node))) {
+                retVal.add(this.clauses.get(i));
+            }
+        }
+        return retVal;
+    }
+
+    private int nodeOf(Object symbol) {
+        final Integer node = this.nodes.get(symbol);
+        if (node != null) {
+            return node;
+        }
+        final int newNode = this.symbols.size();
+        if (newNode == this.parent.length) {
+            this.parent = Arrays.copyOf(this.parent, newNode * 2);
+            this.size = Arrays.copyOf(this.size, newNode * 2);
+        }
+        this.parent[newNode] = newNode;
+        this.size[newNode] = 1;
+        this.symbols.add(symbol);
+        this.nodes.put(symbol, newNode);
+        return newNode;
+    }
+
+    //no path compression, so the unions can be undone
+    private int find(int node) {
+        int retVal = node;
+        while (this.parent[retVal] != retVal) {
+            retVal = this.parent[retVal];
+        }
+        return retVal;
+    }
+
+    private int union(int node1, int node2) {
+        final int root1 = find(node1);
+        final int root2 = find(node2);
+        if (root1 == root2) {
+            return root1;
+        }
+        final int child = (this.size[root1] < this.size[root2] ? root1 : root2);
+        final int root = (child == root1 ? root2 : root1);
+        this.parent[child] = root;
+        this.size[root] += this.size[child];
+        if (this.nUnions == this.unions.length) {
+            this.unions = Arrays.copyOf(this.unions, this.nUnions * 2);
+        }
+        this.unions[this.nUnions++] = child;
+        return root;
+    }
+
+    private static HashSet<Object> symbols(Primitive p) {
+        final SymbolCollector collector = new SymbolCollector();
+        try {
+            p.accept(collector);
+        } catch (Exception e) {
+            //this should never happen
+            throw new UnexpectedInternalException(e);
+        }
+        return collector.symbols;
+    }
+
+    /**
+     * Collects the symbols in a {@link Primitive}: the
+     * identifiers of the {@link PrimitiveSymbolic}s, the
+     * {@link Term}s, and the names of the functions.
+     */
+    private static final class SymbolCollector implements PrimitiveVisitor {
+        final HashSet<Object> symbols = new HashSet<>();
+
+        @Override
+        public void visitAny(Any x) {
+            //nothing to do
+        }
+
+        @Override
+        public void visitExpression(Expression e) throws Exception {
+            if (e.isUnary()) {
+                e.getOperand().accept(this);
+            } else {
+                e.getFirstOperand().accept(this);
+                e.getSecondOperand().accept(this);
+            }
+        }
+
+        @Override
+        public void visitFunctionApplication(FunctionApplication x) throws Exception {
+            //functions are uninterpreted, so they link their applications
+            this.symbols.add(x.getOperator());
+            for (Primitive arg : x.getArgs()) {
+                arg.accept(this);
+            }
+        }
+
+        @Override
+        public void visitPrimitiveSymbolic(PrimitiveSymbolic s) {
+            this.symbols.add(s.getId());
+        }
+
+        @Override
+        public void visitSimplex(Simplex x) {
+            //nothing to do
+        }
+
+        @Override
+        public void visitTerm(Term x) {
+            this.symbols.add(x);
+        }
+
+        @Override
+        public void visitNarrowingConversion(NarrowingConversion x) throws Exception {
+            x.getArg().accept(this);
+        }
+
+        @Override
+        public void visitWideningConversion(WideningConversion x) throws Exception {
+            x.getArg().accept(this);
+        }
+    }
+}
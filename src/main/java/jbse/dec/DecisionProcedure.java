@@ -128,6 +128,33 @@ public interface DecisionProcedure extends AutoCloseable {
     boolean isSat(ClassHierarchy hier, Expression expression) 
     throws InvalidInputException, DecisionException;
 
+    /**
+     * Determines the satisfiability of an {@link Expression} under the
+     * current assumption, as {@link #isSat(ClassHierarchy, Expression)}, 
+     * and if it is satisfiable and possible, also produces a model of 
+     * the current assumption and of the {@link Expression} by the 
+     * same satisfiability check. The default implementation produces
+     * no model.
+     * 
+     * @param hier a {@link ClassHierarchy}. It must not be {@code null}.
+     * @param expression a boolean {@link Expression}. It must not be {@code null}.
+     * @param model a {@link Map}{@code <}{@link PrimitiveSymbolic}{@code ,}
+     *        {@link Simplex}{@code >}. It must not be {@code null}, 
+     *        and should be empty. If the method returns {@code true}, 
+     *        it may be filled with a model, associating a concrete 
+     *        numeric value to the symbols with numeric type in the 
+     *        current assumption and in {@code expression}. If the 
+     *        method returns {@code false} its content must be ignored.
+     * @return {@code true} iff {@code expression} is satisfiable under
+     *         the current assumptions.
+     * @throws InvalidInputException when one of the parameters is incorrect.
+     * @throws DecisionException upon failure.
+     */
+    default boolean isSatWithModel(ClassHierarchy hier, Expression expression, Map<PrimitiveSymbolic, Simplex> model) 
+    throws InvalidInputException, DecisionException {
+        return isSat(hier, expression);
+    }
+
     /**
      * Determines the satisfiability of a resolution by null under the
      * current assumptions.
@@ -2,6 +2,7 @@ package jbse.dec;
 
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
@@ -941,20 +942,22 @@ public class DecisionProcedureAlgorithms extends DecisionProcedureDecorator {
 
 	    final TreeMap<Long, Objekt> retVal = new TreeMap<>();
 
-	    //TODO extract this code and share with State.getObjectInitial
-	    //scans the path condition for compatible objects
+	    //scans the classes of the objects assumed in the path condition 
+	    //for compatible ones, and adds their objects
 	    final ClassHierarchy classHierarchy = state.getClassHierarchy();
-	    final Iterable<Clause> pathCondition = state.getPathCondition();
-	    for (Clause c : pathCondition) {
-	        if (c instanceof ClauseAssumeExpands) {
+	    final String className = Type.className(type);
+	    for (Map.Entry<String, List<ClauseAssumeExpands>> e : state.getPathConditionExpansionsByClass().entrySet()) {
+	        if (!classHierarchy.isSubclass(e.getKey(), className)) {
+	            continue;
+	        }
+	        for (ClauseAssumeExpands cExp : e.getValue()) {
 	            //gets the object and its position in the heap
-	            final ClauseAssumeExpands cExp = (ClauseAssumeExpands) c;
 	            final Long i = cExp.getHeapPosition();
 	            final Objekt o = cExp.getObjekt();
 
-	            //if it is time and epoch compatible, adds the object
+	            //if it is epoch compatible, adds the object
 	            //to the result
-	            if (isTypeAndEpochCompatible(o, ref, classHierarchy)) {
+	            if (o.isSymbolic()) { //TODO this works only with the two-epoch approach
 	                retVal.put(i, o);
 	            }
 	        }
@@ -962,25 +965,6 @@ public class DecisionProcedureAlgorithms extends DecisionProcedureDecorator {
 	    return retVal;
 	}
 	
-	/**
-	 * Checks whether an {@link Objekt} can be used 
-	 * to resolve of a symbolic reference.
-	 * 
-	 * @param o an {@link Objekt}.
-	 * @param ref a {@link ReferenceSymbolic}.
-	 * @param classHierarchy a {@link ClassHierarchy}.
-	 * @return {@code true} iff {@code ref} can be resolved by {@code o}. 
-	 *         More precisely, returns {@code true} iff the creation epoch of 
-	 *         {@code o} comes before that of {@code ref}, and {@code o}'s type 
-	 *         is a subtype of the static type of {@code ref}.
-	 */
-	private static boolean isTypeAndEpochCompatible(Objekt o, ReferenceSymbolic ref, ClassHierarchy classHierarchy) {
-	    final String type = ref.getStaticType();
-	    final String className = Type.className(type);
-	    return (o.isSymbolic() && //TODO this works only with the two-epoch approach 
-	            classHierarchy.isSubclass(o.getType(), className));
-	}
-
 	/**
 	 * Returns all the heap objects in a state that may be possible
 	 * aliases of a given {@link ReferenceSymbolic}.
@@ -1,7 +1,9 @@
 package jbse.dec;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import jbse.bc.ClassHierarchy;
@@ -50,6 +52,28 @@ public abstract class DecisionProcedureChainOfResponsibility implements Decision
      */
     protected Rewriter[] rewriters;
 
+    /** 
+     * The clauses received by {@link #pushAssumption(Clause)} and 
+     * {@link #setAssumptions(Collection)} that are currently assumed,
+     * as they were received, i.e., before simplification. Used to 
+     * calculate the longest common prefix of the current and the 
+     * new assumptions.
+     */
+    private final ArrayList<Clause> assumptionsReceived = new ArrayList<>();
+
+    /** 
+     * The simplifications of the clauses in {@code assumptionsReceived}, 
+     * i.e., the clauses locally pushed and passed to the next decision
+     * procedure in the Chain Of Responsibility.
+     */
+    private final ArrayList<Clause> assumptionsSimplified = new ArrayList<>();
+
+    /** 
+     * The total number of clauses that {@link #setAssumptions(Collection)}
+     * did not need to locally push again, because they were already assumed.
+     */
+    private long assumptionsSaved = 0;
+
     /**
      * Constructor.
      * 
@@ -130,6 +154,8 @@ public abstract class DecisionProcedureChainOfResponsibility implements Decision
         }
         final Clause cSimpl = simplifyLocal(c);
         pushAssumptionLocal(cSimpl);
+        this.assumptionsReceived.add(c);
+        this.assumptionsSimplified.add(cSimpl);
         if (hasNext()) {
             this.next.pushAssumption(cSimpl);
         }
@@ -274,6 +300,8 @@ public abstract class DecisionProcedureChainOfResponsibility implements Decision
     @Override
     public final void clearAssumptions() throws DecisionException {
         clearAssumptionsLocal();
+        this.assumptionsReceived.clear();
+        this.assumptionsSimplified.clear();
         if (hasNext()) {
             this.next.clearAssumptions();
         }
@@ -296,34 +324,38 @@ public abstract class DecisionProcedureChainOfResponsibility implements Decision
         if (newAssumptions == null) {
             throw new InvalidInputException("setAssumptions invoked with a null parameter.");
         }
-        Collection<Clause> currentAssumptions;
+        final int common = numCommonAssumptions(this.assumptionsReceived, newAssumptions);
+        startBatchLocal();
         try {
-            currentAssumptions = getAssumptionsLocal();
-        } catch (DecisionException e) {
-            //sorry, no locally stored assumptions
-            currentAssumptions = getAssumptions(); //queries the successor (best effort)
-        }
-        final int common = numCommonAssumptions(currentAssumptions, newAssumptions);
-        final int toPop = currentAssumptions.size() - common;
-        final int toPush = newAssumptions.size() - common;
-        if (canPopAssumptions() && toPop < common) { //TODO toPop < common is a guess! Implement better heuristics
-            setAssumptionsLocalConservatively(newAssumptions, toPop, toPush);
-        } else {
-            setAssumptionsLocalDestructively(newAssumptions);
+            if (canPopAssumptions()) {
+                setAssumptionsLocalConservatively(newAssumptions, common);
+            } else {
+                setAssumptionsLocalDestructively(newAssumptions);
+            }
+        } finally {
+            flushBatchLocal();
         }
         if (hasNext()) {
-            this.next.setAssumptions(newAssumptions);
+            this.next.setAssumptions(new ArrayList<>(this.assumptionsSimplified));
         }
     }
 
-    private static int numCommonAssumptions(Collection<Clause> oldAssumptions, Collection<Clause> newAssumptions) {
-        final Iterator<Clause> iterOld = oldAssumptions.iterator();
+    /**
+     * Calculates the length of the longest common prefix of 
+     * two sequences of clauses.
+     * 
+     * @param oldAssumptions a {@link List}{@code <}{@link Clause}{@code >}.
+     * @param newAssumptions a {@link Collection}{@code <}{@link Clause}{@code >}.
+     * @return an {@code int}, the number of leading clauses that are
+     *         equal in {@code oldAssumptions} and {@code newAssumptions}.
+     */
+    private static int numCommonAssumptions(List<Clause> oldAssumptions, Collection<Clause> newAssumptions) {
         final Iterator<Clause> iterNew = newAssumptions.iterator();
         int retVal = 0;
-        while (iterOld.hasNext() && iterNew.hasNext()) {
-            final Clause oldAssumption = iterOld.next();
+        while (retVal < oldAssumptions.size() && iterNew.hasNext()) {
+            final Clause oldAssumption = oldAssumptions.get(retVal);
             final Clause newAssumption = iterNew.next();
-            if (!oldAssumption.equals(newAssumption)) {
+            if (oldAssumption != newAssumption && !oldAssumption.equals(newAssumption)) {
                 break;
             }
             ++retVal;
@@ -332,28 +364,32 @@ public abstract class DecisionProcedureChainOfResponsibility implements Decision
     }
 
     /**
-     * Locally pops/pushes just the clauses that differ.
+     * Locally pops the current assumptions down to their 
+     * longest common prefix with the new assumptions, and 
+     * pushes the remaining new assumptions.
      * 
      * @param newAssumptions see {@link #setAssumptions}.
-     * @param toPop see {@link #setAssumptions}.
-     * @param toPush see {@link #setAssumptions}.
+     * @param common an {@code int}, the length of the longest
+     *        common prefix of the current and the new assumptions.
      * @throws DecisionException upon failure.
      */
     private void 
-    setAssumptionsLocalConservatively(Collection<Clause> newAssumptions, int toPop, int toPush)
+    setAssumptionsLocalConservatively(Collection<Clause> newAssumptions, int common)
     throws DecisionException {
         //pops
-        for (int i = 1; i <= toPop; ++i) {
-            popAssumptionLocal();
+        final int toPop = this.assumptionsReceived.size() - common;
+        if (toPop > 0) {
+            popAssumptionsLocal(toPop);
+            this.assumptionsReceived.subList(common, this.assumptionsReceived.size()).clear();
+            this.assumptionsSimplified.subList(common, this.assumptionsSimplified.size()).clear();
         }
+        this.assumptionsSaved += common;
 
         //pushes
-        final int common = newAssumptions.size() - toPush;
-        int i = 1;
+        int i = 0;
         for (Clause c : newAssumptions) {
-            if (i > common) {
-                final Clause cSimpl = simplifyLocal(c);
-                pushAssumptionLocal(cSimpl);
+            if (i >= common) {
+                pushAssumptionLocalAndRecord(c);
             }
             ++i;
         }
@@ -370,12 +406,57 @@ public abstract class DecisionProcedureChainOfResponsibility implements Decision
     setAssumptionsLocalDestructively(Collection<Clause> newAssumptions) 
     throws DecisionException {
         clearAssumptionsLocal();
+        this.assumptionsReceived.clear();
+        this.assumptionsSimplified.clear();
         for (Clause c : newAssumptions) {
-            final Clause cSimpl = simplifyLocal(c);
-            pushAssumptionLocal(cSimpl);
+            pushAssumptionLocalAndRecord(c);
         }
     }
 
+    private void pushAssumptionLocalAndRecord(Clause c) throws DecisionException {
+        final Clause cSimpl = simplifyLocal(c);
+        pushAssumptionLocal(cSimpl);
+        this.assumptionsReceived.add(c);
+        this.assumptionsSimplified.add(cSimpl);
+    }
+
+    /**
+     * Returns the total number of clauses that were not 
+     * locally pushed again by {@link #setAssumptions(Collection)}, 
+     * because they were in the common prefix of the current
+     * and the new assumptions.
+     * 
+     * @return a {@code long}.
+     */
+    public final long getAssumptionsSaved() {
+        return this.assumptionsSaved;
+    }
+
+    /**
+     * May be overridden by subclasses to start collecting
+     * the subsequent local pops and pushes of assumptions, 
+     * rather than performing them immediately, so they 
+     * can be performed altogether by {@link #flushBatchLocal()}. 
+     * The default implementation does nothing.
+     * 
+     * @throws DecisionException upon failure.
+     */
+    protected void startBatchLocal() throws DecisionException {
+        //default implementation
+    }
+
+    /**
+     * May be overridden by subclasses to perform all the 
+     * local pops and pushes of assumptions collected since 
+     * the last invocation of {@link #startBatchLocal()}. 
+     * The default implementation does nothing.
+     * 
+     * @throws DecisionException upon failure.
+     */
+    protected void flushBatchLocal() throws DecisionException {
+        //default implementation
+    }
+
     /**
      * Must be overridden by subclasses that implement {@link #popAssumptionLocal()}
      * to return {@code true}.
@@ -402,6 +483,24 @@ public abstract class DecisionProcedureChainOfResponsibility implements Decision
         throw new DecisionException();
     }
 
+    /**
+     * Locally pops the last clauses added to the current 
+     * assumptions. May be overridden by subclasses that 
+     * can pop many clauses more efficiently than by popping
+     * them one at a time. The default implementation 
+     * invokes {@link #popAssumptionLocal()} {@code n} times.
+     * 
+     * @param n a positive {@code int}, the number of 
+     *        clauses to pop.
+     * @throws DecisionException if the subclass does not offer
+     *         this feature.
+     */
+    protected void popAssumptionsLocal(int n) throws DecisionException {
+        for (int i = 0; i < n; ++i) {
+            popAssumptionLocal();
+        }
+    }
+
     @Override
     public final Collection<Clause> getAssumptions() throws DecisionException {
         //the farthest element in the chain has
@@ -455,6 +554,28 @@ public abstract class DecisionProcedureChainOfResponsibility implements Decision
         throw new DecisionException("the simplified " + expSimpl + " is neither a Simplex nor an Expression"); //TODO throw a better exception
     }
 
+    @Override
+    public final boolean isSatWithModel(ClassHierarchy hier, Expression expression, Map<PrimitiveSymbolic, Simplex> model) 
+    throws InvalidInputException, DecisionException {
+        if (hier == null || expression == null || model == null) {
+            throw new InvalidInputException("isSatWithModel invoked with a null parameter.");
+        }
+        if (expression.getType() != Type.BOOLEAN) {
+            throw new DecisionException("isSatWithModel expression has type " + expression.getType());
+        }
+        final Primitive expSimpl = simplifyLocal(expression);
+        if (expSimpl instanceof Simplex) {
+            return ((Simplex) expSimpl).surelyTrue();
+        } else if (expSimpl instanceof Expression) {
+            final boolean localDecidesSat = isSatWithModelLocal(hier, expression, (Expression) expSimpl, model);
+            if (localDecidesSat) {
+                return delegateIsSatWithModel(hier, expression, model);
+            }
+            return false; //surely unsat
+        }
+        throw new DecisionException("the simplified " + expSimpl + " is neither a Simplex nor an Expression"); //TODO throw a better exception
+    }
+
     /**
      * Must be overridden by subclasses to implement 
      * {@link #isSat(ClassHierarchy, Expression)}. 
@@ -475,6 +596,25 @@ public abstract class DecisionProcedureChainOfResponsibility implements Decision
         return true;
     }
 
+    /**
+     * May be overridden by subclasses to implement 
+     * {@link #isSatWithModel(ClassHierarchy, Expression, Map)}. 
+     * The default implementation invokes 
+     * {@link #isSatLocal(ClassHierarchy, Expression, Expression) isSatLocal}
+     * and produces no model.
+     *  
+     * @param hier see {@link #isSat(ClassHierarchy, Expression) isSat}.
+     * @param exp see {@link #isSatLocal(ClassHierarchy, Expression, Expression) isSatLocal}. 
+     * @param expSimpl see {@link #isSatLocal(ClassHierarchy, Expression, Expression) isSatLocal}.
+     * @param model see {@link #isSatWithModel(ClassHierarchy, Expression, Map) isSatWithModel}.
+     * @return see {@link #isSat(ClassHierarchy, Expression) isSat}.
+     * @throws DecisionException upon failure.
+     */
+    protected boolean isSatWithModelLocal(ClassHierarchy hier, Expression exp, Expression expSimpl, Map<PrimitiveSymbolic, Simplex> model) 
+    throws DecisionException {
+        return isSatLocal(hier, exp, expSimpl);
+    }
+
     /**
      * Queries the next decision procedure in the chain for 
      * satisfiability of an {@link Expression}.
@@ -500,6 +640,36 @@ public abstract class DecisionProcedureChainOfResponsibility implements Decision
         throw new DecisionException(NO_DELEGATE_ERROR);
     }
 
+    /**
+     * Queries the next decision procedure in the chain for 
+     * satisfiability of an {@link Expression}, and for a model
+     * if none was produced yet.
+     *  
+     * @param hier see {@link #isSat(ClassHierarchy, Expression) isSat}.
+     * @param exp see {@link #isSat(ClassHierarchy, Expression) isSat}.
+     * @param model see {@link #isSatWithModel(ClassHierarchy, Expression, Map) isSatWithModel}.
+     * @return the result of invoking 
+     *         {@link DecisionProcedure#isSatWithModel(ClassHierarchy, Expression, Map) isSatWithModel}{@code (hier, exp, model)}
+     *         on the next decision procedure in the chain.
+     * @throws DecisionException if this decision procedure has
+     *         not a successor in the chain.
+     */
+    private final boolean delegateIsSatWithModel(ClassHierarchy hier, Expression exp, Map<PrimitiveSymbolic, Simplex> model) 
+    throws DecisionException {
+        if (!model.isEmpty()) {
+            return delegateIsSat(hier, exp);
+        }
+        if (hasNext()) {
+            try {
+                return this.next.isSatWithModel(hier, exp, model);
+            } catch (InvalidInputException e) {
+                //this should never happen
+                throw new UnexpectedInternalException(e);
+            }
+        }
+        throw new DecisionException(NO_DELEGATE_ERROR);
+    }
+
     @Override
     public final boolean isSatNull(ClassHierarchy hier, ReferenceSymbolic r) 
     throws InvalidInputException, DecisionException {
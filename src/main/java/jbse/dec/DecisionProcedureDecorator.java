@@ -79,6 +79,12 @@ public class DecisionProcedureDecorator implements DecisionProcedure {
         return this.component.isSat(hier, exp);
     }
 
+    @Override
+    public boolean isSatWithModel(ClassHierarchy hier, Expression exp, Map<PrimitiveSymbolic, Simplex> model) 
+    throws InvalidInputException, DecisionException {
+        return this.component.isSatWithModel(hier, exp, model);
+    }
+
     @Override
     public boolean isSatNull(ClassHierarchy hier, ReferenceSymbolic r) 
     throws InvalidInputException, DecisionException {
@@ -0,0 +1,306 @@
+package jbse.dec;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jbse.bc.ClassHierarchy;
+import jbse.dec.exc.DecisionException;
+import jbse.dec.exc.InvalidInputException;
+import jbse.mem.Clause;
+import jbse.val.Expression;
+import jbse.val.PrimitiveSymbolic;
+import jbse.val.Simplex;
+
+/**
+ * A {@link DecisionProcedureDecorator} that caches the answers of its
+ * component to the {@link #isSat(ClassHierarchy, Expression)} queries.
+ * A query is identified by the queried {@link Expression} and by the
+ * assumptions that are relevant to it, i.e., that share symbols with it
+ * either directly or transitively (see {@link ConstraintIndependence}).
+ * So a query is answered locally on all the paths of the symbolic
+ * execution that share its relevant assumptions, even if they differ
+ * in the other ones. Moreover, if a query was unsat, all the queries
+ * with the same {@link Expression} and a superset of its relevant
+ * assumptions are answered locally as unsat.
+ * The cache is bounded, and the least recently used queries are dropped
+ * first.
+ */
+public final class DecisionProcedureDecoratorCache extends DecisionProcedureDecorator {
+    /** The key of a cached query. */
+    private static final class Query {
+        final HashSet<Clause> assumptions;
+        final Expression exp;
+        final int hashCode;
+
+        Query(HashSet<Clause> assumptions, Expression exp) {
+            this.assumptions = assumptions;
+            this.exp = exp;
+            this.hashCode = 31 * assumptions.hashCode() + exp.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Query)) {
+                return false;
+            }
+            final Query other = (Query) obj;
+            return this.hashCode == other.hashCode && 
+                   this.exp.equals(other.exp) && 
+                   this.assumptions.equals(other.assumptions);
+        }
+    }
+
+    /** The maximum number of cached queries. */
+    private final int capacity;
+
+    /** The cached queries and their answers, in access order. */
+    private final LinkedHashMap<Query, Boolean> cache;
+
+    /**
+     * Indexes the relevant assumptions of the unsat queries 
+     * in {@code cache} by their {@link Expression}, for subsumption.
+     */
+    private final HashMap<Expression, ArrayList<HashSet<Clause>>> unsatByExpression = new HashMap<>();
+
+    /** The current assumptions, in push order. */
+    private final ArrayList<Clause> current = new ArrayList<>();
+
+    /** Partitions the current assumptions in independent sets. */
+    private final ConstraintIndependence independence = new ConstraintIndependence();
+
+    /**
+     * The current assumptions as a multiset, for
+     * checking subsumption.
+     */
+    private final HashMap<Clause, Integer> currentClauses = new HashMap<>();
+
+    /** The number of queries answered by the cache, including subsumption. */
+    private long hits = 0;
+
+    /** The number of queries answered by subsumption. */
+    private long hitsSubsumption = 0;
+
+    /** The number of queries answered by the component. */
+    private long misses = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param component the component {@link DecisionProcedure}.
+     * @param capacity a positive {@code int}, the maximum
+     *        number of cached queries.
+     * @throws IllegalArgumentException if {@code capacity <= 0}.
+     */
+    public DecisionProcedureDecoratorCache(DecisionProcedure component, int capacity) {
+        super(component);
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity of a query cache must be positive.");
+        }
+        this.capacity = capacity;
+        this.cache = new LinkedHashMap<Query, Boolean>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Query, Boolean> eldest) {
+                if (size() > DecisionProcedureDecoratorCache.this.capacity) {
+                    if (!eldest.getValue()) {
+                        unindexUnsat(eldest.getKey());
+                    }
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public void pushAssumption(Clause c)
+    throws InvalidInputException, DecisionException {
+        super.pushAssumption(c);
+        push(c);
+    }
+
+    @Override
+    public void addAssumptions(Iterable<Clause> assumptionsToAdd)
+    throws InvalidInputException, DecisionException {
+        super.addAssumptions(assumptionsToAdd);
+        for (Clause c : assumptionsToAdd) {
+            push(c);
+        }
+    }
+
+    @Override
+    public void clearAssumptions() throws DecisionException {
+        super.clearAssumptions();
+        truncate(0);
+    }
+
+    @Override
+    public void setAssumptions(Collection<Clause> newAssumptions)
+    throws InvalidInputException, DecisionException {
+        super.setAssumptions(newAssumptions);
+
+        //keeps the common prefix, so the shared queries still hit
+        int common = 0;
+        for (Clause c : newAssumptions) {
+            if (common < this.current.size()) {
+                final Clause cur = this.current.get(common);
+                if (cur == c || cur.equals(c)) {
+                    ++common;
+                    continue;
+                }
+                truncate(common);
+            }
+            push(c);
+            ++common;
+        }
+        truncate(common);
+    }
+
+    private void push(Clause c) {
+        this.current.add(c);
+        this.independence.push(c);
+        this.currentClauses.merge(c, 1, Integer::sum);
+    }
+
+    private void truncate(int size) {
+        final int n = this.current.size() - size;
+        if (n <= 0) {
+            return;
+        }
+        for (int i = this.current.size() - 1; i >= size; --i) {
+            final Clause c = this.current.remove(i);
+            this.currentClauses.compute(c, (k, m) -> (m == 1 ? null : m - 1));
+        }
+        this.independence.pop(n);
+    }
+
+    @Override
+    public boolean isSat(ClassHierarchy hier, Expression exp)
+    throws InvalidInputException, DecisionException {
+        return isSat(hier, exp, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The queries answered by this cache produce no model.
+     */
+    @Override
+    public boolean isSatWithModel(ClassHierarchy hier, Expression exp, Map<PrimitiveSymbolic, Simplex> model)
+    throws InvalidInputException, DecisionException {
+        if (model == null) {
+            //lets the component complain
+            return super.isSatWithModel(hier, exp, model);
+        }
+        return isSat(hier, exp, model);
+    }
+
+    private boolean isSat(ClassHierarchy hier, Expression exp, Map<PrimitiveSymbolic, Simplex> model)
+    throws InvalidInputException, DecisionException {
+        if (exp == null) {
+            //lets the component complain
+            return (model == null ? super.isSat(hier, exp) : super.isSatWithModel(hier, exp, model));
+        }
+        final Query q = new Query(new HashSet<>(this.independence.slice(exp)), exp);
+        final Boolean cached = this.cache.get(q);
+        if (cached != null) {
+            ++this.hits;
+            return cached;
+        }
+        if (subsumedByUnsat(exp)) {
+            ++this.hits;
+            ++this.hitsSubsumption;
+            return false;
+        }
+        ++this.misses;
+        final boolean retVal = (model == null ? super.isSat(hier, exp) : super.isSatWithModel(hier, exp, model));
+        this.cache.put(q, retVal);
+        if (!retVal) {
+            this.unsatByExpression.computeIfAbsent(exp, k -> new ArrayList<>()).add(q.assumptions);
+        }
+        return retVal;
+    }
+
+    /**
+     * Checks whether a query is subsumed by a cached unsat
+     * query, i.e., whether a cached query with same
+     * expression had a subset of the current assumptions
+     * as relevant assumptions.
+     *
+     * @param exp the queried {@link Expression}.
+     * @return {@code true} iff the query is surely unsat.
+     */
+    private boolean subsumedByUnsat(Expression exp) {
+        final ArrayList<HashSet<Clause>> candidates = this.unsatByExpression.get(exp);
+        if (candidates == null) {
+            return false;
+        }
+        for (HashSet<Clause> a : candidates) {
+            if (this.currentClauses.keySet().containsAll(a)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void unindexUnsat(Query q) {
+        final ArrayList<HashSet<Clause>> candidates = this.unsatByExpression.get(q.exp);
+        if (candidates == null) {
+            return;
+        }
+        for (int i = 0; i < candidates.size(); ++i) {
+            if (candidates.get(i) == q.assumptions) {
+                candidates.remove(i);
+                break;
+            }
+        }
+        if (candidates.isEmpty()) {
+            this.unsatByExpression.remove(q.exp);
+        }
+    }
+
+    /**
+     * Returns the number of queries answered
+     * by this cache.
+     *
+     * @return a {@code long}.
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the number of queries answered
+     * by this cache because they were subsumed by
+     * a cached unsat query. They are included in
+     * {@link #getHits()}.
+     *
+     * @return a {@code long}.
+     */
+    public long getHitsSubsumption() {
+        return this.hitsSubsumption;
+    }
+
+    /**
+     * Returns the number of queries that this cache
+     * could not answer, and were answered by the
+     * component decision procedure.
+     *
+     * @return a {@code long}.
+     */
+    public long getMisses() {
+        return this.misses;
+    }
+}
@@ -0,0 +1,427 @@
+package jbse.dec;
+
+import static jbse.common.Type.isPrimitiveFloating;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+
+import jbse.bc.ClassHierarchy;
+import jbse.common.Type;
+import jbse.common.exc.UnexpectedInternalException;
+import jbse.dec.exc.DecisionException;
+import jbse.dec.exc.InvalidInputException;
+import jbse.mem.Clause;
+import jbse.mem.ClauseAssume;
+import jbse.val.Any;
+import jbse.val.Calculator;
+import jbse.val.Expression;
+import jbse.val.FunctionApplication;
+import jbse.val.NarrowingConversion;
+import jbse.val.Operator;
+import jbse.val.Primitive;
+import jbse.val.PrimitiveSymbolic;
+import jbse.val.PrimitiveVisitor;
+import jbse.val.Simplex;
+import jbse.val.Term;
+import jbse.val.WideningConversion;
+import jbse.val.exc.InvalidOperandException;
+import jbse.val.exc.InvalidTypeException;
+
+/**
+ * A {@link DecisionProcedureDecorator} that keeps the most recent
+ * models produced by its component, and answers a
+ * {@link #isSat(ClassHierarchy, Expression)} query as sat
+ * without invoking its component whenever one of the models
+ * satisfies both the current assumptions and the queried
+ * {@link Expression}. The satisfaction is checked by concretely
+ * evaluating the assumptions and the query with a {@link Calculator},
+ * only when the evaluation surely agrees with the component (e.g.,
+ * no integral value overflows); otherwise the component is queried.
+ * The queries that the models cannot answer are passed to the 
+ * component with {@link #isSatWithModel(ClassHierarchy, Expression, Map)}, 
+ * so the component, if it can, produces a model of the current 
+ * assumptions and of the query with the same check that answers
+ * the query. This way on the paths that extend the current one the
+ * model can answer the queries that are satisfied by it.
+ */
+public final class DecisionProcedureDecoratorModelReuse extends DecisionProcedureDecorator {
+    /** A model, with the record of how far it satisfies the current assumptions. */
+    private static final class ModelEntry {
+        final Map<PrimitiveSymbolic, Simplex> model;
+
+        /** The number of leading current assumptions that the model satisfies. */
+        int checked = 0;
+
+        /** Whether the model falsifies the current assumption at position {@code checked}. */
+        boolean failed = false;
+
+        ModelEntry(Map<PrimitiveSymbolic, Simplex> model) {
+            this.model = model;
+        }
+    }
+
+    /** The {@link Calculator} used to evaluate the queries on the models. */
+    private final Calculator calc;
+
+    /** The maximum number of models. */
+    private final int capacity;
+
+    /** The models, most recently used first. */
+    private final LinkedList<ModelEntry> models = new LinkedList<>();
+
+    /** The current assumptions. */
+    private final ArrayList<Clause> assumptions = new ArrayList<>();
+
+    /** The number of queries answered by a model. */
+    private long hits = 0;
+
+    /** The number of queries answered by the component. */
+    private long misses = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param component the component {@link DecisionProcedure}.
+     * @param calc a {@link Calculator}.
+     * @param capacity a positive {@code int}, the maximum
+     *        number of models to keep.
+     * @throws IllegalArgumentException if {@code capacity <= 0}.
+     */
+    public DecisionProcedureDecoratorModelReuse(DecisionProcedure component, Calculator calc, int capacity) {
+        super(component);
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The number of models to keep must be positive.");
+        }
+        this.calc = calc;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void pushAssumption(Clause c)
+    throws InvalidInputException, DecisionException {
+        super.pushAssumption(c);
+        this.assumptions.add(c);
+    }
+
+    @Override
+    public void addAssumptions(Iterable<Clause> assumptionsToAdd)
+    throws InvalidInputException, DecisionException {
+        super.addAssumptions(assumptionsToAdd);
+        for (Clause c : assumptionsToAdd) {
+            this.assumptions.add(c);
+        }
+    }
+
+    @Override
+    public void clearAssumptions() throws DecisionException {
+        super.clearAssumptions();
+        truncate(0);
+    }
+
+    @Override
+    public void setAssumptions(Collection<Clause> newAssumptions)
+    throws InvalidInputException, DecisionException {
+        super.setAssumptions(newAssumptions);
+        int common = 0;
+        final Iterator<Clause> it = newAssumptions.iterator();
+        while (common < this.assumptions.size() && it.hasNext()) {
+            final Clause cur = this.assumptions.get(common);
+            final Clause c = it.next();
+            if (cur != c && !cur.equals(c)) {
+                break;
+            }
+            ++common;
+        }
+        truncate(common);
+        int i = 0;
+        for (Clause c : newAssumptions) {
+            if (i >= common) {
+                this.assumptions.add(c);
+            }
+            ++i;
+        }
+    }
+
+    private void truncate(int size) {
+        this.assumptions.subList(size, this.assumptions.size()).clear();
+        for (ModelEntry e : this.models) {
+            if (e.checked >= size) {
+                e.checked = size;
+                e.failed = false;
+            }
+        }
+    }
+
+    @Override
+    public boolean isSat(ClassHierarchy hier, Expression exp)
+    throws InvalidInputException, DecisionException {
+        if (exp == null) {
+            //lets the component complain
+            return super.isSat(hier, exp);
+        }
+        for (Iterator<ModelEntry> it = this.models.iterator(); it.hasNext(); ) {
+            final ModelEntry e = it.next();
+            if (satisfiesAssumptions(e) && satisfies(e.model, exp)) {
+                ++this.hits;
+                it.remove();
+                this.models.addFirst(e);
+                return true;
+            }
+        }
+        ++this.misses;
+        final HashMap<PrimitiveSymbolic, Simplex> model = new HashMap<>();
+        final boolean retVal = super.isSatWithModel(hier, exp, model);
+        if (retVal && !model.isEmpty()) {
+            addModel(model);
+        }
+        return retVal;
+    }
+
+    @Override
+    public Map<PrimitiveSymbolic, Simplex> getModel() throws DecisionException {
+        final Map<PrimitiveSymbolic, Simplex> retVal = super.getModel();
+        if (retVal != null) {
+            addModel(retVal);
+        }
+        return retVal;
+    }
+
+    private void addModel(Map<PrimitiveSymbolic, Simplex> model) {
+        this.models.addFirst(new ModelEntry(model));
+        if (this.models.size() > this.capacity) {
+            this.models.removeLast();
+        }
+    }
+
+    /**
+     * Checks whether a model satisfies all the current
+     * assumptions, by evaluating the ones that were not
+     * yet checked.
+     *
+     * @param e a {@link ModelEntry}.
+     * @return {@code true} iff {@code e.model} satisfies
+     *         all the current assumptions.
+     */
+    private boolean satisfiesAssumptions(ModelEntry e) {
+        if (e.failed) {
+            return false;
+        }
+        while (e.checked < this.assumptions.size()) {
+            final Clause c = this.assumptions.get(e.checked);
+            if (c instanceof ClauseAssume && !satisfies(e.model, ((ClauseAssume) c).getCondition())) {
+                e.failed = true;
+                return false;
+            }
+            ++e.checked;
+        }
+        return true;
+    }
+
+    private boolean satisfies(Map<PrimitiveSymbolic, Simplex> model, Primitive condition) {
+        final Evaluator evaluator = new Evaluator(this.calc, model);
+        try {
+            condition.accept(evaluator);
+        } catch (Exception e) {
+            //e.g., a division by zero
+            return false;
+        }
+        return (evaluator.value instanceof Simplex && ((Simplex) evaluator.value).surelyTrue());
+    }
+
+    /**
+     * Returns the number of queries answered by
+     * a model.
+     *
+     * @return a {@code long}.
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the number of queries that no model
+     * could answer, and were answered by the component
+     * decision procedure.
+     *
+     * @return a {@code long}.
+     */
+    public long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Evaluates a {@link Primitive} by replacing its symbols
+     * with their values in a model. The result is {@code null}
+     * if the model has no value for some symbol, or if the 
+     * evaluation might disagree with the decision procedure, 
+     * that encodes the integral values as unbounded integers 
+     * and the floating values as reals: This happens when the
+     * {@link Primitive} contains some floating value, a 
+     * division, a remainder, a bitwise or shift operation, a 
+     * narrowing conversion or a function application, or when
+     * some integral value falls out of the range of its type.
+     */
+    private static class Evaluator implements PrimitiveVisitor {
+        private final Calculator calc;
+        private final Map<PrimitiveSymbolic, Simplex> model;
+        Primitive value; //the result
+
+        public Evaluator(Calculator calc, Map<PrimitiveSymbolic, Simplex> model) {
+            this.calc = calc;
+            this.model = model;
+        }
+
+        @Override
+        public void visitAny(Any x) {
+            this.value = null;
+        }
+
+        @Override
+        public void visitExpression(Expression e) throws Exception {
+            final Operator operator = e.getOperator();
+            if (!isExact(operator)) {
+                this.value = null;
+                return;
+            }
+            if (e.isUnary()) {
+                e.getOperand().accept(this);
+                final Primitive operandValue = this.value;
+                if (operandValue == null) {
+                    return;
+                }
+                if (operator == Operator.NEG) {
+                    this.value = exact(e.getType(), Math.negateExact(toLong((Simplex) operandValue)));
+                } else {
+                    this.value = this.calc.applyUnary(operator, operandValue);
+                }
+            } else {
+                e.getFirstOperand().accept(this);
+                final Primitive firstOperandValue = this.value;
+                if (firstOperandValue == null) {
+                    return;
+                }
+                e.getSecondOperand().accept(this);
+                final Primitive secondOperandValue = this.value;
+                if (secondOperandValue == null) {
+                    return;
+                }
+                if (operator == Operator.ADD) {
+                    this.value = exact(e.getType(), Math.addExact(toLong((Simplex) firstOperandValue), toLong((Simplex) secondOperandValue)));
+                } else if (operator == Operator.SUB) {
+                    this.value = exact(e.getType(), Math.subtractExact(toLong((Simplex) firstOperandValue), toLong((Simplex) secondOperandValue)));
+                } else if (operator == Operator.MUL) {
+                    this.value = exact(e.getType(), Math.multiplyExact(toLong((Simplex) firstOperandValue), toLong((Simplex) secondOperandValue)));
+                } else {
+                    this.value = this.calc.applyBinary(firstOperandValue, operator, secondOperandValue);
+                }
+            }
+        }
+
+        private static boolean isExact(Operator operator) {
+            switch (operator) {
+            case ADD: case SUB: case MUL: case NEG:
+            case LT: case LE: case EQ: case NE: case GE: case GT:
+            case AND: case OR: case NOT:
+                return true;
+            default:
+                return false;
+            }
+        }
+
+        private static long toLong(Simplex x) {
+            final Object actualValue = x.getActualValue();
+            return (actualValue instanceof Character ? ((Character) actualValue).charValue() : ((Number) actualValue).longValue());
+        }
+
+        /**
+         * Returns the value of an integral arithmetic operation, 
+         * if it is in the range of the type of the operation.
+         * 
+         * @param type a {@code char}, the type of the operation.
+         * @param result a {@code long}, the exact result of the operation.
+         * @return a {@link Simplex} with type {@code type} and value 
+         *         {@code result}, or {@code null} if {@code result}
+         *         is not in the range of {@code type}.
+         */
+        private Primitive exact(char type, long result) {
+            if (!inRange(type, result)) {
+                return null;
+            }
+            try {
+                return this.calc.to(type, this.calc.valLong(result));
+            } catch (InvalidOperandException | InvalidTypeException e) {
+                //this should never happen
+                throw new UnexpectedInternalException(e);
+            }
+        }
+
+        private static boolean inRange(char type, long value) {
+            switch (type) {
+            case Type.BYTE:
+                return Byte.MIN_VALUE <= value && value <= Byte.MAX_VALUE;
+            case Type.SHORT:
+                return Short.MIN_VALUE <= value && value <= Short.MAX_VALUE;
+            case Type.CHAR:
+                return Character.MIN_VALUE <= value && value <= Character.MAX_VALUE;
+            case Type.INT:
+                return Integer.MIN_VALUE <= value && value <= Integer.MAX_VALUE;
+            case Type.LONG:
+                return true;
+            default:
+                return false;
+            }
+        }
+
+        @Override
+        public void visitFunctionApplication(FunctionApplication x) {
+            this.value = null;
+        }
+
+        @Override
+        public void visitPrimitiveSymbolic(PrimitiveSymbolic symbol) throws Exception {
+            final Simplex symbolValue = this.model.get(symbol);
+            final char type = symbol.getType();
+            if (symbolValue == null || isPrimitiveFloating(type) || isPrimitiveFloating(symbolValue.getType())) {
+                this.value = null;
+            } else if (type == Type.BOOLEAN || symbolValue.getType() == Type.BOOLEAN) {
+                //the solver might produce values of a different type
+                this.value = this.calc.to(type, symbolValue);
+            } else {
+                //the solver might produce values of a different type or out of range
+                this.value = exact(type, toLong(symbolValue));
+            }
+        }
+
+        @Override
+        public void visitSimplex(Simplex x) {
+            this.value = (isPrimitiveFloating(x.getType()) ? null : x);
+        }
+
+        @Override
+        public void visitTerm(Term x) {
+            this.value = null;
+        }
+
+        @Override
+        public void visitNarrowingConversion(NarrowingConversion x) {
+            this.value = null;
+        }
+
+        @Override
+        public void visitWideningConversion(WideningConversion x) throws Exception {
+            if (isPrimitiveFloating(x.getType())) {
+                this.value = null;
+                return;
+            }
+            x.getArg().accept(this);
+            if (this.value == null) {
+                return;
+            }
+            this.value = (x.getType() == this.value.getType() ? this.value : this.calc.widen(x.getType(), this.value));
+        }
+    }
+}
@@ -2,6 +2,8 @@ package jbse.dec;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import jbse.bc.ClassHierarchy;
@@ -55,6 +57,18 @@ public abstract class DecisionProcedureExternal extends DecisionProcedureChainOf
     /** true iff the external decision procedure has not yet received the current assumption. */
     private boolean notInSynch = false;
 
+    /** 
+     * Partitions the current assumptions in independent sets 
+     * when slicing is active, otherwise it is {@code null}.
+     */
+    private ConstraintIndependence independence = null;
+
+    /** 
+     * The assumptions sent to the external decision procedure, 
+     * when slicing is active.
+     */
+    private final ArrayList<Clause> clausesSent = new ArrayList<>();
+
     protected DecisionProcedureExternal(DecisionProcedure next, CalculatorRewriting calc, Rewriter... rewriters) {
         super(next, calc, rewriters);
         this.clauses = new ArrayDeque<>();
@@ -79,6 +93,84 @@ public abstract class DecisionProcedureExternal extends DecisionProcedureChainOf
         }
     }
 
+    /**
+     * Sets whether this decision procedure must slice the 
+     * assumptions. If it does, the assumptions are sent to the
+     * external decision procedure only upon a query, and 
+     * only those that share symbols, directly or transitively, 
+     * with the query. This way the external decision procedure
+     * works on smaller problems, and the queries whose condition 
+     * is already assumed are answered without invoking it at all.
+     * 
+     * @param slicing a {@code boolean}, {@code true} iff
+     *        this decision procedure must slice the assumptions.
+     * @throws DecisionException upon failure.
+     */
+    public final void setIndependenceSlicing(boolean slicing) throws DecisionException {
+        if (slicing == (this.independence != null)) {
+            return;
+        }
+        if (slicing) {
+            this.independence = new ConstraintIndependence();
+            final Iterable<Clause> i = () -> clauses.descendingIterator();
+            for (Clause c : i) {
+                this.independence.push(c);
+            }
+            //the external decision procedure will be resynched upon first query
+            try {
+                if (this.extIf.isWorking()) {
+                    this.extIf.clear();
+                } else {
+                    throw new DecisionException(NOT_WORKING);
+                }
+            } catch (ExternalProtocolInterfaceException | IOException e) {
+                throw new DecisionException(e);
+            }
+            this.clausesSent.clear();
+            this.notInSynch = false;
+        } else {
+            this.independence = null;
+            this.clausesSent.clear();
+            this.notInSynch = true;
+        }
+    }
+
+    /**
+     * Sends to the external decision procedure a sequence of 
+     * assumptions, by popping the assumptions previously sent 
+     * down to the longest common prefix with the new ones 
+     * and pushing the rest. Used when slicing is active.
+     * 
+     * @param toSend a {@link List}{@code <}{@link Clause}{@code >}.
+     * @throws DecisionException upon failure.
+     */
+    private void sendSlice(List<Clause> toSend) throws DecisionException {
+        try {
+            int common = 0;
+            while (common < this.clausesSent.size() && common < toSend.size() && 
+                   this.clausesSent.get(common) == toSend.get(common)) {
+                ++common;
+            }
+            this.extIf.startBatch();
+            try {
+                final int toPop = this.clausesSent.size() - common;
+                if (toPop > 0) {
+                    this.extIf.popAssumptions(toPop);
+                    this.clausesSent.subList(common, this.clausesSent.size()).clear();
+                }
+                for (Clause c : toSend.subList(common, toSend.size())) {
+                    super.pushAssumptionLocal(c); //redispatches
+                    this.extIf.pushAssumption(true);
+                    this.clausesSent.add(c);
+                }
+            } finally {
+                this.extIf.flushBatch();
+            }
+        } catch (ExternalProtocolInterfaceException | IOException e) {
+            throw new DecisionException(e);
+        }
+    }
+
     @Override
     protected final void goFastAndImpreciseLocal() {
         this.fast = true;
@@ -93,7 +185,9 @@ public abstract class DecisionProcedureExternal extends DecisionProcedureChainOf
     protected final void pushAssumptionLocal(Clause cSimpl) 
     throws DecisionException {
         this.clauses.push(cSimpl);
-        if (this.fast) {
+        if (this.independence != null) {
+            this.independence.push(cSimpl);
+        } else if (this.fast) {
             this.notInSynch = true;
         } else {
             try {
@@ -176,7 +270,9 @@ public abstract class DecisionProcedureExternal extends DecisionProcedureChainOf
     protected final void clearAssumptionsLocal() 
     throws DecisionException {
         this.clauses.clear();
-        if (this.fast) {
+        if (this.independence != null) {
+            this.independence.clear();
+        } else if (this.fast) {
             this.notInSynch = true;
         } else {
             try {
@@ -197,7 +293,9 @@ public abstract class DecisionProcedureExternal extends DecisionProcedureChainOf
     protected final void popAssumptionLocal() 
     throws DecisionException {
         this.clauses.pop();
-        if (this.fast) {
+        if (this.independence != null) {
+            this.independence.pop(1);
+        } else if (this.fast) {
             this.notInSynch = true;
         } else {
             try {
@@ -212,16 +310,77 @@ public abstract class DecisionProcedureExternal extends DecisionProcedureChainOf
         }
     }
 
+    @Override
+    protected final void popAssumptionsLocal(int n) 
+    throws DecisionException {
+        for (int i = 0; i < n; ++i) {
+            this.clauses.pop();
+        }
+        if (this.independence != null) {
+            this.independence.pop(n);
+        } else if (this.fast) {
+            this.notInSynch = true;
+        } else {
+            try {
+                if (this.extIf.isWorking()) {
+                    this.extIf.popAssumptions(n);
+                } else {
+                    throw new DecisionException(NOT_WORKING);					
+                }
+            } catch (ExternalProtocolInterfaceException | IOException e) {
+                throw new DecisionException(e);
+            }
+        }
+    }
+
+    @Override
+    protected final void startBatchLocal() throws DecisionException {
+        if (this.extIf.isWorking()) {
+            try {
+                this.extIf.startBatch();
+            } catch (ExternalProtocolInterfaceException e) {
+                throw new DecisionException(e);
+            }
+        }
+    }
+
+    @Override
+    protected final void flushBatchLocal() throws DecisionException {
+        if (this.extIf.isWorking()) {
+            try {
+                this.extIf.flushBatch();
+            } catch (ExternalProtocolInterfaceException | IOException e) {
+                throw new DecisionException(e);
+            }
+        }
+    }
+
     @Override
     protected final boolean isSatLocal(ClassHierarchy hier, Expression exp, Expression expSimpl) 
+    throws DecisionException {
+        return checkSatLocal(hier, expSimpl, null);
+    }
+
+    @Override
+    protected final boolean isSatWithModelLocal(ClassHierarchy hier, Expression exp, Expression expSimpl, Map<PrimitiveSymbolic, Simplex> model) 
+    throws DecisionException {
+        return checkSatLocal(hier, expSimpl, model);
+    }
+
+    private boolean checkSatLocal(ClassHierarchy hier, Expression expSimpl, Map<PrimitiveSymbolic, Simplex> model) 
     throws DecisionException {
         try {
             if (this.extIf.isWorking()) {
-                if (this.notInSynch) {
+                if (this.independence != null) {
+                    if (this.independence.isAssumed(expSimpl)) {
+                        return true;
+                    }
+                    sendSlice(this.independence.slice(expSimpl));
+                } else if (this.notInSynch) {
                     resynch();
                 }
                 this.extIf.sendClauseAssume(expSimpl);
-                final boolean retVal = this.extIf.checkSat(hier, true); 
+                final boolean retVal = (model == null ? this.extIf.checkSat(hier, true) : this.extIf.checkSatWithModel(hier, true, model)); 
                 this.extIf.retractClause();
                 return retVal;
             } else {
@@ -237,7 +396,9 @@ public abstract class DecisionProcedureExternal extends DecisionProcedureChainOf
     throws DecisionException {
         try {
             if (this.extIf.isWorking()) {
-                if (this.notInSynch) {
+                if (this.independence != null) {
+                    sendSlice(this.independence.slice(null));
+                } else if (this.notInSynch) {
                     resynch();
                 }
                 this.extIf.sendClauseAssumeAliases(r, heapPos, o);
@@ -257,7 +418,9 @@ public abstract class DecisionProcedureExternal extends DecisionProcedureChainOf
     throws DecisionException {
         try {
             if (this.extIf.isWorking()) {
-                if (this.notInSynch) {
+                if (this.independence != null) {
+                    sendSlice(this.independence.slice(null));
+                } else if (this.notInSynch) {
                     resynch();
                 }
                 this.extIf.sendClauseAssumeExpands(r, className);
@@ -277,7 +440,9 @@ public abstract class DecisionProcedureExternal extends DecisionProcedureChainOf
     throws DecisionException {
         try {
             if (this.extIf.isWorking()) {
-                if (this.notInSynch) {
+                if (this.independence != null) {
+                    sendSlice(this.independence.slice(null));
+                } else if (this.notInSynch) {
                     resynch();
                 }
                 this.extIf.sendClauseAssumeNull(r);
@@ -296,6 +461,9 @@ public abstract class DecisionProcedureExternal extends DecisionProcedureChainOf
     protected Map<PrimitiveSymbolic, Simplex> getModelLocal()
     throws DecisionException {
         try {
+            if (this.independence != null) {
+                sendSlice(this.independence.all());
+            }
             return this.extIf.getModel();
         } catch (ExternalProtocolInterfaceException | IOException e) {
             throw new DecisionException(e);
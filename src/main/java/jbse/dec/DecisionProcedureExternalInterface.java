@@ -152,6 +152,32 @@ public abstract class DecisionProcedureExternalInterface {
     public abstract boolean checkSat(ClassHierarchy hier, boolean positive)
     throws ExternalProtocolInterfaceException, IOException;
 
+    /**
+     * Verifies whether the current assumption is satisfiable 
+     * when put in logical and with the (possibly negated) 
+     * current predicate, as {@link #checkSat(ClassHierarchy, boolean) checkSat}, 
+     * and if it is, reads a model of them by the same check.
+     * The default implementation invokes 
+     * {@link #checkSat(ClassHierarchy, boolean) checkSat} 
+     * and reads no model.
+     * 
+     * @param hier a {@link ClassHierarchy}.
+     * @param positive if {@code false} the current predicate must 
+     *        be negated before checking satisfiability, otherwise not.
+     * @param model a {@link Map}{@code <}{@link PrimitiveSymbolic}{@code ,}
+     *        {@link Simplex}{@code >}, where the model is put, if 
+     *        the method returns {@code true} and a model is available.
+     * @return see {@link #checkSat(ClassHierarchy, boolean) checkSat}.
+     * @throws ExternalProtocolInterfaceException if this method is 
+     *         invoked when there is no current predicate.
+     * @throws IOException if communication with the external 
+     *         decision procedure fails. 
+     */
+    public boolean checkSatWithModel(ClassHierarchy hier, boolean positive, Map<PrimitiveSymbolic, Simplex> model)
+    throws ExternalProtocolInterfaceException, IOException {
+        return checkSat(hier, positive);
+    }
+
     /**
      * Returns a model of the last sent clause whose satisfiability
      * was checked with {@link #checkSat(ClassHierarchy, boolean) checkSat}.
@@ -203,6 +229,54 @@ public abstract class DecisionProcedureExternalInterface {
         throw new ExternalProtocolInterfaceException("Popping assumptions is not implemented for external decision procedure interface of class " + this.getClass().getName());
     }
 
+    /**
+     * Pops the last clauses added to the current assumption by 
+     * calls to {@link #pushAssumption(boolean)}. The default 
+     * implementation invokes {@link #popAssumption()} {@code n} times.
+     * 
+     * @param n a positive {@code int}, the number of clauses to pop.
+     * @throws ExternalProtocolInterfaceException if this method
+     *         is invoked when there is a current predicate, 
+     *         or if the method is unimplemented.
+     * @throws IOException if communication with the external 
+     *         decision procedure fails.
+     */
+    public void popAssumptions(int n)
+    throws ExternalProtocolInterfaceException, IOException {
+        for (int i = 0; i < n; ++i) {
+            popAssumption();
+        }
+    }
+
+    /**
+     * Starts a batch: The subsequent invocations of {@link #pushAssumption(boolean)}, 
+     * {@link #popAssumption()}, {@link #popAssumptions(int)} and {@link #clear()} 
+     * may be sent to the external decision procedure all together 
+     * upon invocation of {@link #flushBatch()}, rather than one at a time.
+     * No other method may be invoked until {@link #flushBatch()}.
+     * The default implementation does nothing.
+     * 
+     * @throws ExternalProtocolInterfaceException if a batch 
+     *         is already started.
+     */
+    public void startBatch() throws ExternalProtocolInterfaceException {
+        //default implementation
+    }
+
+    /**
+     * Ends a batch started with {@link #startBatch()}, sending all 
+     * the batched commands to the external decision procedure. 
+     * The default implementation does nothing.
+     * 
+     * @throws ExternalProtocolInterfaceException if the external
+     *         decision procedure rejects some batched command.
+     * @throws IOException if communication with the external 
+     *         decision procedure fails.
+     */
+    public void flushBatch() throws ExternalProtocolInterfaceException, IOException {
+        //default implementation
+    }
+
     /**
      * Deletes the whole assumption set.
      * 
@@ -42,8 +42,8 @@ import jbse.val.WideningConversion;
 //TODO simplify implementation
 class DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA extends DecisionProcedureExternalInterface {
     //commands
+    private static final String PRINT_SUCCESS_ON = "(set-option :print-success true)\n";
     private static final String PROLOGUE = 
-        "(set-option :print-success true)\n" +
         "(set-option :interactive-mode true)\n" +
         "(set-option :produce-models true)\n" +
         "(set-logic AUFNIRA)\n" +
@@ -62,12 +62,14 @@ class DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA extends DecisionProcedur
     private static final String SAT = "sat";
     private static final String UNSAT = "unsat";
     private static final String UNKNOWN = "unknown";
+    private static final String ERROR = "(error";
     
     //etc
     private static final String OTHER = "";
 
     private final CalculatorRewriting calc;
     private final ExpressionMangler m;
+    private final boolean pipelined;
     private boolean working;
     private Process solver;
     private BufferedReader solverIn;
@@ -79,14 +81,27 @@ class DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA extends DecisionProcedur
     private ArrayList<Integer> nSymPushed; 
     private int nSymCurrent;
     private int nTotalSymbols;
+    private StringBuilder batch; //null iff no batch is started
+    private int nAnswersPending; //number of acknowledgments of pipelined commands still to be read
 
     /** 
      * Costructor.
+     * 
+     * @param calc a {@link CalculatorRewriting}.
+     * @param solverBinaryPath a {@link String}, the command line 
+     *        to launch the solver.
+     * @param pipelined a {@code boolean}. If {@code true}, the
+     *        commands are buffered and sent together with the next 
+     *        command whose answer is needed (e.g., {@code check-sat})
+     *        without waiting for their acknowledgments. The 
+     *        acknowledgments are read and checked, in order, 
+     *        before the answer of such command is read. 
      */
-    public DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA(CalculatorRewriting calc, String solverBinaryPath) 
+    public DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA(CalculatorRewriting calc, String solverBinaryPath, boolean pipelined) 
     throws ExternalProtocolInterfaceException, IOException {
         this.calc = calc;
         this.m = new ExpressionMangler("X", "", this.calc);
+        this.pipelined = pipelined;
         this.working = true;
         final ProcessBuilder pb = new ProcessBuilder(solverBinaryPath.split(" "));
         pb.redirectErrorStream(true);
@@ -94,7 +109,7 @@ class DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA extends DecisionProcedur
         this.solverIn = new BufferedReader(new InputStreamReader(this.solver.getInputStream()));
         this.solverOut = new BufferedWriter(new OutputStreamWriter(this.solver.getOutputStream()));
 
-        final String query = PROLOGUE + PUSH_1;
+        final String query = PRINT_SUCCESS_ON + PROLOGUE + PUSH_1;
         sendAndCheckAnswer(query);
         clear();
     }
@@ -197,17 +212,46 @@ class DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA extends DecisionProcedur
 
     @Override
     public boolean checkSat(ClassHierarchy hier, boolean value) 
+    throws ExternalProtocolInterfaceException, IOException {
+        return checkSat(value, null);
+    }
+    
+    @Override
+    public boolean checkSatWithModel(ClassHierarchy hier, boolean value, Map<PrimitiveSymbolic, Simplex> model) 
+    throws ExternalProtocolInterfaceException, IOException {
+        return checkSat(value, model);
+    }
+    
+    private boolean checkSat(boolean value, Map<PrimitiveSymbolic, Simplex> model) 
     throws ExternalProtocolInterfaceException, IOException {
         if (!this.hasCurrentClause) {
             throw new ExternalProtocolInterfaceException("Attempted to check satisfiability with no current clause.");
         }
+        if (this.batch != null) {
+            throw new ExternalProtocolInterfaceException("Attempted to check satisfiability during a batch.");
+        }
         
         final String queryPush = (value ? this.currentClausePositive : this.currentClauseNegative);
         if (queryPush == null) {
             return true;
         }
+        //when pipelined, the push is sent together with the 
+        //check-sat, and the pop is buffered until the next 
+        //query: their acknowledgments are checked in order
+        //before the next answer is read
         sendAndCheckAnswer(queryPush);
         final boolean isSat = sendAndCheckAnswerChecksat();
+        if (isSat && model != null) {
+            //reads the model of the same check, while the query is still pushed
+            final String smtlib2Model = sendAndCheckAnswerGetmodel();
+            if (smtlib2Model != null && !smtlib2Model.startsWith(ERROR)) {
+                try {
+                    model.putAll(parseModel(smtlib2Model));
+                } catch (NoModelException e) {
+                    //no model, but the answer is still valid
+                }
+            }
+        }
         sendAndCheckAnswer(POP_1);
         return isSat;
     }
@@ -217,10 +261,13 @@ class DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA extends DecisionProcedur
     throws NoModelException, ExternalProtocolInterfaceException, IOException {
         sendAndCheckAnswerChecksat(); //always need a checksat before reading a model
         final String smtlib2Model = sendAndCheckAnswerGetmodel();
-        if (smtlib2Model == null || smtlib2Model.startsWith("(error")) {
+        if (smtlib2Model == null || smtlib2Model.startsWith(ERROR)) {
             throw new NoModelException();
         }
-        
+        return parseModel(smtlib2Model);
+    }
+    
+    private HashMap<PrimitiveSymbolic, Simplex> parseModel(String smtlib2Model) throws NoModelException {
         final HashMap<PrimitiveSymbolic, Simplex> model = new HashMap<>();
         String smtlib2Symbol = null;
         LinkedList<LinkedList<Object>> smtlib2ParseStack = new LinkedList<>();
@@ -394,6 +441,34 @@ class DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA extends DecisionProcedur
         sendAndCheckAnswer(POP_1);
     }
 
+    @Override
+    public void popAssumptions(int n) throws ExternalProtocolInterfaceException, IOException {
+        for (int i = 0; i < n; ++i) {
+            forgetPoppedDeclarations();
+        }
+        sendAndCheckAnswer(POP_BEGIN + n + POP_END);
+    }
+
+    @Override
+    public void startBatch() throws ExternalProtocolInterfaceException {
+        if (this.batch != null) {
+            throw new ExternalProtocolInterfaceException("Attempted to start a batch when a batch is already started.");
+        }
+        this.batch = new StringBuilder();
+    }
+
+    @Override
+    public void flushBatch() throws ExternalProtocolInterfaceException, IOException {
+        if (this.batch == null) {
+            return;
+        }
+        final String query = this.batch.toString();
+        this.batch = null;
+        if (query.length() > 0) {
+            sendAndCheckAnswer(query);
+        }
+    }
+
     @Override
     public void clear() 
     throws ExternalProtocolInterfaceException, IOException {
@@ -407,11 +482,20 @@ class DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA extends DecisionProcedur
     }
     
     private void send(String query) throws IOException {
+        write(query);
+        try {
+            this.solverOut.flush();
+        } catch (IOException e) {
+            this.working = false;
+            throw e;
+        }
+    }
+
+    private void write(String query) throws IOException {
         //System.err.print("--->SMTLIB2: " + query); //TODO log differently!
 
         try {
             this.solverOut.write(query);
-            this.solverOut.flush();
         } catch (IOException e) {
             this.working = false;
             throw e;
@@ -419,6 +503,18 @@ class DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA extends DecisionProcedur
     }
     
     private void sendAndCheckAnswer(String query) throws IOException, ExternalProtocolInterfaceException {
+        if (this.batch != null) {
+            //the answers will be checked upon flush
+            this.batch.append(query);
+            return;
+        }
+        if (this.pipelined) {
+            //the query is buffered, and its acknowledgments
+            //will be checked before the next answer is read
+            write(query);
+            this.nAnswersPending += countCommands(query);
+            return;
+        }
         send(query);
         for (int i = 0; i < query.length(); ++i) {
             if (query.charAt(i) == '\n') {
@@ -435,6 +531,34 @@ class DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA extends DecisionProcedur
         }
     }
     
+    private static int countCommands(String query) {
+        int retVal = 0;
+        for (int i = 0; i < query.length(); ++i) {
+            if (query.charAt(i) == '\n') {
+                ++retVal;
+            }
+        }
+        return retVal;
+    }
+    
+    /**
+     * Reads and checks the acknowledgments of the pipelined 
+     * commands. Must be invoked after the pipe is flushed and
+     * before reading the answer of the last sent command, so 
+     * an error caused by a previous command is not mistaken
+     * for that answer.
+     */
+    private void checkAnswersPending() throws IOException, ExternalProtocolInterfaceException {
+        while (this.nAnswersPending > 0) {
+            --this.nAnswersPending;
+            final String answer = read();
+            if (!answer.equals(SUCCESS)) {
+                this.working = false;
+                throw new ExternalProtocolInterfaceException("unexpected solver answer to a pipelined command. Message: " + answer);
+            }
+        }
+    }
+    
     private String read() throws IOException {
         final String answer;
         try {
@@ -454,7 +578,16 @@ class DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA extends DecisionProcedur
     
     private boolean sendAndCheckAnswerChecksat() throws IOException, ExternalProtocolInterfaceException {
         send(CHECKSAT);
+        checkAnswersPending();
+        return readAnswerChecksat();
+    }
+    
+    private boolean readAnswerChecksat() throws IOException, ExternalProtocolInterfaceException {
         final String answer = read();
+        if (answer.startsWith(ERROR)) {
+            this.working = false;
+            throw new ExternalProtocolInterfaceException("solver error. Message: " + answer);
+        }
         if (!answer.equals(SAT) && !answer.equals(UNSAT) && !answer.equals(UNKNOWN)) {
             this.working = false;
             throw new ExternalProtocolInterfaceException("unrecognized answer from solver when checking satisfiability. Message: " + answer);
@@ -471,6 +604,7 @@ class DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA extends DecisionProcedur
         }
         query.append(GETVALUE_END);
         send(query.toString());
+        checkAnswersPending();
         //answer can be multiline, we count parentheses to
         //determine when the answer is over
         final StringBuilder retVal = new StringBuilder();
@@ -17,9 +17,23 @@ import java.io.IOException;
  */
 public final class DecisionProcedureSMTLIB2_AUFNIRA extends DecisionProcedureExternal {
 	public DecisionProcedureSMTLIB2_AUFNIRA(DecisionProcedure next, CalculatorRewriting calc, String solverPath) throws DecisionException {
+		this(next, calc, solverPath, false);
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param next the next {@link DecisionProcedure} in the Chain Of Responsibility.
+	 * @param calc a {@link CalculatorRewriting}.
+	 * @param solverPath a {@link String}, the command line to launch the solver.
+	 * @param pipelined a {@code boolean}, {@code true} iff the commands must be 
+	 *        streamed to the solver without waiting for their acknowledgment.
+	 * @throws DecisionException if the solver cannot be launched.
+	 */
+	public DecisionProcedureSMTLIB2_AUFNIRA(DecisionProcedure next, CalculatorRewriting calc, String solverPath, boolean pipelined) throws DecisionException {
 		super(next, calc);
 		try {
-			this.extIf = new DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA(calc, solverPath);
+			this.extIf = new DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA(calc, solverPath, pipelined);
 		} catch (ExternalProtocolInterfaceException | IOException e) {
 			throw new DecisionException(e);
 		}
@@ -0,0 +1,145 @@
+package jbse.jvm;
+
+import static jbse.bc.Opcodes.*;
+import static jbse.common.Type.INT;
+import static jbse.common.Type.isPrimitiveIntegralOpStack;
+
+import jbse.algo.Action;
+import jbse.algo.Algorithm;
+import jbse.algo.ExecutionContext;
+import jbse.mem.State;
+import jbse.mem.exc.InvalidNumberOfOperandsException;
+import jbse.mem.exc.InvalidProgramCounterException;
+import jbse.mem.exc.InvalidSlotException;
+import jbse.mem.exc.ThreadStackEmptyException;
+import jbse.val.Null;
+import jbse.val.ReferenceConcrete;
+import jbse.val.Simplex;
+import jbse.val.Value;
+
+/**
+ * Decides which bytecodes the {@link Engine} may execute in
+ * the same step, so that a block of consecutive bytecodes that
+ * cannot branch is executed in one step. After a bytecode is
+ * executed, the next one joins the block if it is a push of a
+ * constant, a load or store of a local variable, an {@code iinc},
+ * a {@code pop}, a {@code dup} or an arithmetic/logical operation,
+ * and all the values it operates on are concrete. The block ends
+ * at the first bytecode that creates a branch, is the result of a
+ * branching decision, leaves some reference not expanded, or leaves
+ * the current frame or source code row, and when the count of
+ * the state reaches the count scope. All the bytecodes are
+ * executed by their {@link Algorithm}s, as without blocks.
+ */
+final class ConcreteBlocks {
+    /**
+     * Checks whether the block executed by the current
+     * step can be extended with the next bytecode.
+     *
+     * @param state the current {@link State}, after the
+     *        execution of the last bytecode of the block.
+     * @param ctx the {@link ExecutionContext}.
+     * @param last the last {@link Action} executed.
+     * @param sourceRow the source code row of the first
+     *        bytecode of the block.
+     * @param stackSize the size of the thread stack before
+     *        the execution of the first bytecode of the block.
+     * @param countScope the count scope, an {@code int}
+     *        ({@code <= 0} means unlimited).
+     * @return {@code true} iff the next bytecode must be
+     *         executed in the same step as the block.
+     * @throws ThreadStackEmptyException if the thread stack
+     *         of {@code state} is empty.
+     */
+    boolean canExtend(State state, ExecutionContext ctx, Action last, int sourceRow, int stackSize, int countScope)
+    throws ThreadStackEmptyException {
+        if (!(last instanceof Algorithm<?, ?, ?, ?, ?>) || ((Algorithm<?, ?, ?, ?, ?>) last).someReferenceNotExpanded()) {
+            return false;
+        }
+        if (ctx.stateTree.hasCreatedBranch() || state.branchingDecision() || state.isStuck() ||
+            state.getStackSize() != stackSize || state.getSourceRow() != sourceRow) {
+            return false;
+        }
+        if (countScope > 0 && state.getCount() >= countScope) {
+            //the runner would stop after the block as it is now
+            return false;
+        }
+        try {
+            return isConcrete(state, state.getInstruction());
+        } catch (InvalidProgramCounterException | InvalidSlotException | InvalidNumberOfOperandsException e) {
+            //the bytecode is ill-formed: lets the Algorithm deal with it
+            return false;
+        }
+    }
+
+    private static boolean isConcrete(State state, byte opcode)
+    throws ThreadStackEmptyException, InvalidProgramCounterException,
+    InvalidSlotException, InvalidNumberOfOperandsException {
+        switch (opcode) {
+        case OP_NOP:
+        case OP_ACONST_NULL:
+        case OP_ICONST_M1:
+        case OP_ICONST_0: case OP_ICONST_1: case OP_ICONST_2:
+        case OP_ICONST_3: case OP_ICONST_4: case OP_ICONST_5:
+        case OP_LCONST_0: case OP_LCONST_1:
+        case OP_FCONST_0: case OP_FCONST_1: case OP_FCONST_2:
+        case OP_DCONST_0: case OP_DCONST_1:
+        case OP_BIPUSH:
+        case OP_SIPUSH:
+            return true;
+        case OP_ILOAD:
+        case OP_LLOAD:
+        case OP_FLOAD:
+        case OP_DLOAD:
+        case OP_ALOAD:
+            return isConcrete(state.getLocalVariableValue(state.getInstruction(1) & 0xFF));
+        case OP_ILOAD_0: case OP_ILOAD_1: case OP_ILOAD_2: case OP_ILOAD_3:
+        case OP_LLOAD_0: case OP_LLOAD_1: case OP_LLOAD_2: case OP_LLOAD_3:
+        case OP_FLOAD_0: case OP_FLOAD_1: case OP_FLOAD_2: case OP_FLOAD_3:
+        case OP_DLOAD_0: case OP_DLOAD_1: case OP_DLOAD_2: case OP_DLOAD_3:
+        case OP_ALOAD_0: case OP_ALOAD_1: case OP_ALOAD_2: case OP_ALOAD_3:
+            return isConcrete(state.getLocalVariableValue((opcode - OP_ILOAD_0) % 4));
+        case OP_IINC: {
+            final Value value = state.getLocalVariableValue(state.getInstruction(1) & 0xFF);
+            return (value instanceof Simplex && value.getType() == INT);
+        }
+        case OP_ISTORE: case OP_LSTORE: case OP_FSTORE: case OP_DSTORE: case OP_ASTORE:
+        case OP_ISTORE_0: case OP_ISTORE_1: case OP_ISTORE_2: case OP_ISTORE_3:
+        case OP_LSTORE_0: case OP_LSTORE_1: case OP_LSTORE_2: case OP_LSTORE_3:
+        case OP_FSTORE_0: case OP_FSTORE_1: case OP_FSTORE_2: case OP_FSTORE_3:
+        case OP_DSTORE_0: case OP_DSTORE_1: case OP_DSTORE_2: case OP_DSTORE_3:
+        case OP_ASTORE_0: case OP_ASTORE_1: case OP_ASTORE_2: case OP_ASTORE_3:
+        case OP_POP:
+        case OP_DUP:
+        case OP_INEG: case OP_LNEG: case OP_FNEG: case OP_DNEG:
+            return isConcrete(state.topOperand());
+        case OP_IADD: case OP_LADD: case OP_FADD: case OP_DADD:
+        case OP_ISUB: case OP_LSUB: case OP_FSUB: case OP_DSUB:
+        case OP_IMUL: case OP_LMUL: case OP_FMUL: case OP_DMUL:
+        case OP_FDIV: case OP_DDIV:
+        case OP_FREM: case OP_DREM:
+        case OP_ISHL: case OP_LSHL:
+        case OP_ISHR: case OP_LSHR:
+        case OP_IUSHR: case OP_LUSHR:
+        case OP_IAND: case OP_LAND:
+        case OP_IOR: case OP_LOR:
+        case OP_IXOR: case OP_LXOR: {
+            final Value[] operands = state.getCurrentFrame().operands(2);
+            return isConcrete(operands[0]) && isConcrete(operands[1]);
+        }
+        case OP_IDIV: case OP_LDIV:
+        case OP_IREM: case OP_LREM: {
+            //a division by zero would raise an exception
+            final Value[] operands = state.getCurrentFrame().operands(2);
+            return isConcrete(operands[0]) && operands[1] instanceof Simplex &&
+                   isPrimitiveIntegralOpStack(operands[1].getType()) && !((Simplex) operands[1]).isZeroOne(true);
+        }
+        default:
+            return false;
+        }
+    }
+
+    private static boolean isConcrete(Value v) {
+        return (v instanceof Simplex || v instanceof ReferenceConcrete || v instanceof Null);
+    }
+}
@@ -95,6 +95,15 @@ public class Engine implements AutoCloseable {
      */
     private int preStepStackSize;
 
+    /** 
+     * Decides the blocks of concrete bytecodes executed in one step, 
+     * or {@code null} if every bytecode must be executed by its own step.
+     */
+    private ConcreteBlocks concreteBlocks;
+
+    /** The count scope the blocks of concrete bytecodes must not exceed ({@code <= 0} means unlimited). */
+    private int countScope = 0;
+
     //Execution statistics
 
     /** The total number of {@link State}s analyzed by the {@link Engine}. */
@@ -113,6 +122,28 @@ public class Engine implements AutoCloseable {
         this.vom = vom;
     }
 
+    /**
+     * Sets whether the blocks of concrete, nonbranching bytecodes
+     * must be executed in one step. Used by the builder.
+     * 
+     * @param fuseConcreteBlocks a {@code boolean}.
+     */
+    void setFuseConcreteBlocks(boolean fuseConcreteBlocks) {
+        this.concreteBlocks = (fuseConcreteBlocks ? new ConcreteBlocks() : null);
+    }
+
+    /**
+     * Sets the count scope, so that a step that executes a block 
+     * of concrete bytecodes stops at the bytecode where a 
+     * {@link Runner} would stop the trace. Used by the 
+     * {@link RunnerBuilder}.
+     * 
+     * @param countScope an {@code int} ({@code <= 0} means unlimited).
+     */
+    void setCountScope(int countScope) {
+        this.countScope = countScope;
+    }
+
 
     /**
      * Steps the engine in a suitable initial state, either the one stored in 
@@ -206,8 +237,12 @@ public class Engine implements AutoCloseable {
      * @return the {@link BranchPoint} created after the execution of the 
      *         current bytecode, allowing to resume the execution from the states 
      *         produced by it, or {@code null} if the bytecode execution 
-     *         does not produce more than one possible next state.
-     * @throws CannotManageStateException iff the engine is unable to calculate 
+     *         does not produce more than one possible next state. If the
+     *         exploration strategy is not depth-first, after a branch
+     *         the execution resumes from the pending state chosen by the
+     *         strategy as by {@link #backtrack()}, and the returned
+     *         {@link BranchPoint} is the one of that state.
+     * @throws CannotManageStateException iff the engine is unable to calculate
      *         the next state because of some engine limitations.
      * @throws ClasspathException iff the JRE standard libraries are missing from
      *         the classpath or incompatible with the current JBSE.
@@ -236,34 +271,18 @@ public class Engine implements AutoCloseable {
         this.preStepSourceRow = this.currentState.getSourceRow();
         this.preStepStackSize = this.currentState.getStackSize();
 
-        //steps
+        //steps, possibly executing a whole block of concrete bytecodes
         Action action;
-        int continuationCounter = 0;
-        final ArrayDeque<Action[]> continuations = new ArrayDeque<>();
-        final ArrayDeque<Integer> continuationCounters = new ArrayDeque<>();
-        do {
-            action = (continuations.isEmpty() ? 
-                     this.ctx.dispatcher.select(this.currentState.getInstruction()) : 
-                     continuations.peek()[continuationCounter++]);
-            if (!continuations.isEmpty() && continuationCounter == continuations.peek().length) {
-                continuations.pop();
-                continuationCounter = continuationCounters.pop();
+        while (true) {
+            action = execBytecode();
+            if (this.concreteBlocks == null || 
+                !this.concreteBlocks.canExtend(this.currentState, this.ctx, action, this.preStepSourceRow, this.preStepStackSize, this.countScope)) {
+                break;
             }
-            try {
-                action.exec(this.currentState, this.ctx);
-            } catch (ContinuationException e) {
-                continuations.push(e.getContinuation());
-                continuationCounters.push(continuationCounter);
-                continuationCounter = 0;
-            } catch (ClasspathException | CannotManageStateException | 
-                     ThreadStackEmptyException |  ContradictionException | 
-                     DecisionException | FailureException | 
-                     UnexpectedInternalException e) {
-                this.stopCurrentTrace();
-                throw e;
-            } 
-        } while (!continuations.isEmpty() && continuationCounter < continuations.peek().length);
-
+            //the executed bytecode is accounted as it were a step
+            this.currentState.incSequenceNumber();
+            this.currentState.incCount();
+        }
         if (action instanceof Algorithm<?, ?, ?, ?, ?>) {
             final Algorithm<?, ?, ?, ?, ?> algo = (Algorithm<?, ?, ?, ?, ?>) action;
             this.someReferenceNotExpanded = algo.someReferenceNotExpanded();
@@ -273,33 +292,54 @@ public class Engine implements AutoCloseable {
         
         //updates the current state and calculates return value
         final BranchPoint retVal;
+        final boolean resumed;
         if (this.ctx.stateTree.createdBranch()) {
-            retVal = this.ctx.stateTree.nextBranch();
-            this.currentState = this.ctx.stateTree.nextState();
+            if (this.ctx.stateTree.isDepthFirst()) {
+                //continues with a state in the created branch
+                retVal = this.ctx.stateTree.nextBranch();
+                this.currentState = this.ctx.stateTree.nextState();
+                resumed = false;
+            } else {
+                //the exploration strategy may choose any pending 
+                //state, so it is resumed as upon backtrack
+                this.vom.saveObservedVariablesValues(this.ctx.stateTree.lastBranch());
+                try {
+                    retVal = backtrack();
+                } catch (CannotBacktrackException e) {
+                    //this should never happen
+                    throw new UnexpectedInternalException(e);
+                }
+                resumed = true;
+            }
         } else {
             retVal = null;
             this.currentState.incSequenceNumber();
+            resumed = false;
         }
 
-        //updates the counters for depth/count scope
-        if (this.currentState.branchingDecision()) {
-            this.currentState.incDepth();
-            this.currentState.resetCount();
-        } else {
-            this.currentState.incCount();
-        }
+        if (!resumed) {
+            //updates the counters for depth/count scope
+            if (this.currentState.branchingDecision()) {
+                this.currentState.incDepth();
+                this.currentState.resetCount();
+            } else {
+                this.currentState.incCount();
+            }
 
-        //synchronizes the decision procedure with the path condition
-        try {
-            this.ctx.decisionProcedure.addAssumptions(this.currentState.getLastPathConditionPushedClauses());
-        } catch (InvalidInputException e) {
-            //this should never happen
-            throw new UnexpectedInternalException(e);
+            //synchronizes the decision procedure with the path condition
+            try {
+                this.ctx.decisionProcedure.addAssumptions(this.currentState.getLastPathConditionPushedClauses());
+            } catch (InvalidInputException e) {
+                //this should never happen
+                throw new UnexpectedInternalException(e);
+            }
+            this.currentState.resetLastPathConditionClauses();
         }
-        this.currentState.resetLastPathConditionClauses();
-
+        
         //manages variable observation
-        this.vom.notifyObservers(retVal);
+        if (!resumed) {
+            this.vom.notifyObservers(retVal);
+        }
 
         //updates stats
         if (this.analyzedStates < Long.MAX_VALUE) { 
@@ -310,6 +350,45 @@ public class Engine implements AutoCloseable {
         return retVal;
     }
 
+    /**
+     * Executes the current bytecode of the current state, 
+     * together with all the continuations it produces. 
+     * Throws the same exceptions as {@link #step()}.
+     * 
+     * @return the last {@link Action} executed.
+     */
+    private Action execBytecode() 
+    throws CannotManageStateException, ClasspathException, ThreadStackEmptyException, 
+    ContradictionException, DecisionException, FailureException {
+        Action action;
+        int continuationCounter = 0;
+        final ArrayDeque<Action[]> continuations = new ArrayDeque<>();
+        final ArrayDeque<Integer> continuationCounters = new ArrayDeque<>();
+        do {
+            action = (continuations.isEmpty() ? 
+                     this.ctx.dispatcher.select(this.currentState.getInstruction()) : 
+                     continuations.peek()[continuationCounter++]);
+            if (!continuations.isEmpty() && continuationCounter == continuations.peek().length) {
+                continuations.pop();
+                continuationCounter = continuationCounters.pop();
+            }
+            try {
+                action.exec(this.currentState, this.ctx);
+            } catch (ContinuationException e) {
+                continuations.push(e.getContinuation());
+                continuationCounters.push(continuationCounter);
+                continuationCounter = 0;
+            } catch (ClasspathException | CannotManageStateException | 
+                     ThreadStackEmptyException |  ContradictionException | 
+                     DecisionException | FailureException | 
+                     UnexpectedInternalException e) {
+                this.stopCurrentTrace();
+                throw e;
+            } 
+        } while (!continuations.isEmpty() && continuationCounter < continuations.peek().length);
+        return action;
+    }
+
     /**
      * Returns the engine's current JVM state 
      * (<em>not</em> a copy).
@@ -361,6 +440,47 @@ public class Engine implements AutoCloseable {
         this.currentState.setStuckStop();
     }
 
+    /**
+     * Checks whether the engine has some pending state 
+     * that can be detached by {@link #detachPendingState()}.
+     * 
+     * @return {@code true} iff the engine has at least 
+     *         one pending state besides the one it would
+     *         backtrack to.
+     */
+    boolean canDetachPendingState() {
+        return this.ctx.stateTree.canStealState();
+    }
+
+    /**
+     * Removes a pending state from the engine, so it 
+     * will not be backtracked to, and returns it. Used
+     * to hand over subtrees of the symbolic execution 
+     * to other engines.
+     * 
+     * @return a {@link State}.
+     * @throws NoSuchElementException if {@link #canDetachPendingState()}
+     *         {@code == false}.
+     */
+    State detachPendingState() {
+        return this.ctx.stateTree.stealState();
+    }
+
+    /**
+     * Makes this engine share the main thread and 
+     * thread group of another engine. Must be invoked
+     * when this engine starts from a state detached 
+     * from {@code other}, because in this case the 
+     * references to the main thread and thread group
+     * are not set at initialization.
+     * 
+     * @param other an {@link Engine}.
+     */
+    void inheritMainThread(Engine other) {
+        this.ctx.setMainThreadGroup(other.ctx.getMainThreadGroup());
+        this.ctx.setMainThread(other.ctx.getMainThread());
+    }
+
     /**
      * Checks whether the engine can backtrack to some state.
      * 
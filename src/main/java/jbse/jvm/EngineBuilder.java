@@ -59,6 +59,7 @@ public class EngineBuilder {
 
         //creates the engine
         final Engine engine = bootEngineArchitecture(parameters);
+        engine.setFuseConcreteBlocks(parameters.getFuseConcreteBlocks());
         engine.init();
         return engine;
     }
@@ -70,12 +71,14 @@ public class EngineBuilder {
                              parameters.getInitialState(),
                              parameters.getMaxSimpleArrayLength(),
                              parameters.getMaxHeapSize(),
+                             parameters.getCopyOnWriteStates(),
                              parameters.getClasspath(),
                              parameters.getMethodSignature(),
                              parameters.getCalculator(),
                              parameters.getDecisionProcedure(),
                              parameters.getStateIdentificationMode().toInternal(), 
                              parameters.getBreadthMode().toInternal(),
+                             parameters.makeExplorationStrategy(),
                              ClassFileFactoryJavassist.class,          //default
                              parameters.getExpansionBackdoor(), 
                              parameters.getTriggerRulesRepo(),
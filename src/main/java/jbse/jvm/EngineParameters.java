@@ -9,6 +9,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Stream;
 
 import jbse.bc.Classpath;
@@ -17,6 +19,11 @@ import jbse.dec.DecisionProcedureAlgorithms;
 import jbse.mem.State;
 import jbse.mem.exc.ThreadStackEmptyException;
 import jbse.rules.TriggerRulesRepo;
+import jbse.tree.ExplorationStrategy;
+import jbse.tree.ExplorationStrategyBestFirst;
+import jbse.tree.ExplorationStrategyBreadthFirst;
+import jbse.tree.ExplorationStrategyDepthFirst;
+import jbse.tree.ExplorationStrategyRandomRestart;
 import jbse.tree.StateTree;
 import jbse.val.Calculator;
 
@@ -147,6 +154,9 @@ public final class EngineParameters implements Cloneable {
 
     /** The breadth mode. */
     private BreadthMode breadthMode = BreadthMode.MORE_THAN_ONE;
+    
+    /** Creates the {@link ExplorationStrategy} of the state tree. */
+    private Supplier<ExplorationStrategy> explorationStrategyFactory = ExplorationStrategyDepthFirst::new;
 
     /** The path to the JRE. */
     private String jrePath = "";
@@ -202,6 +212,12 @@ public final class EngineParameters implements Cloneable {
     
     /** The maximum size of the heap (number of objects). */
     private long maxHeapSize = 1_000_000;
+    
+    /** Whether states must be cloned with copy-on-write. */
+    private boolean copyOnWriteStates = false;
+    
+    /** Whether the blocks of concrete, nonbranching bytecodes must be executed in one step. */
+    private boolean fuseConcreteBlocks = false;
 
     /**
      * Constructor.
@@ -273,6 +289,62 @@ public final class EngineParameters implements Cloneable {
     public BreadthMode getBreadthMode() {
         return this.breadthMode;
     }
+    
+    /**
+     * Sets the exploration strategy to depth-first, i.e., 
+     * upon backtrack the most recently created pending 
+     * branch is explored. This is the default.
+     */
+    public void setExplorationStrategyDepthFirst() {
+        this.explorationStrategyFactory = ExplorationStrategyDepthFirst::new;
+    }
+    
+    /**
+     * Sets the exploration strategy to breadth-first, i.e., 
+     * upon backtrack the least recently created pending 
+     * branch is explored.
+     */
+    public void setExplorationStrategyBreadthFirst() {
+        this.explorationStrategyFactory = ExplorationStrategyBreadthFirst::new;
+    }
+    
+    /**
+     * Sets the exploration strategy to best-first, i.e., 
+     * upon backtrack the pending branch whose initial state
+     * has the highest score is explored.
+     * 
+     * @param scoring a {@link ToDoubleFunction}{@code <}{@link State}{@code >}
+     *        calculating the score of a state.
+     * @throws NullPointerException if {@code scoring == null}.
+     */
+    public void setExplorationStrategyBestFirst(ToDoubleFunction<State> scoring) {
+        if (scoring == null) {
+            throw new NullPointerException();
+        }
+        this.explorationStrategyFactory = () -> new ExplorationStrategyBestFirst(scoring);
+    }
+    
+    /**
+     * Sets the exploration strategy to random-restart, i.e., 
+     * upon backtrack a pending branch chosen at random is 
+     * explored.
+     * 
+     * @param seed a {@code long}, the seed for the random choices.
+     */
+    public void setExplorationStrategyRandomRestart(long seed) {
+        this.explorationStrategyFactory = () -> new ExplorationStrategyRandomRestart(seed);
+    }
+    
+    /**
+     * Creates an {@link ExplorationStrategy} as set 
+     * by the last call to one of the 
+     * {@code setExplorationStrategyXXX} methods.
+     * 
+     * @return a new {@link ExplorationStrategy}.
+     */
+    public ExplorationStrategy makeExplorationStrategy() {
+        return this.explorationStrategyFactory.get();
+    }
 
     /** 
      * Adds an {@link ExecutionObserver} performing additional
@@ -775,6 +847,64 @@ public final class EngineParameters implements Cloneable {
     public long getMaxHeapSize() {
         return this.maxHeapSize;
     }
+    
+    /**
+     * Sets whether the states must be cloned with 
+     * copy-on-write, i.e., whether the clone of a state
+     * at a branch must share its heap objects, frames
+     * and classes with the cloned state, and copy each 
+     * of them only upon modification. By default states 
+     * are fully copied.
+     * 
+     * @param copyOnWriteStates a {@code boolean}.
+     */
+    public void setCopyOnWriteStates(boolean copyOnWriteStates) {
+        this.copyOnWriteStates = copyOnWriteStates;
+    }
+    
+    /**
+     * Returns whether the states must be cloned with 
+     * copy-on-write.
+     * 
+     * @return a {@code boolean}.
+     */
+    public boolean getCopyOnWriteStates() {
+        return this.copyOnWriteStates;
+    }
+
+    /**
+     * Sets whether the blocks of consecutive bytecodes 
+     * that do not branch and operate on concrete values 
+     * (pushes of constants, loads and stores of local 
+     * variables, arithmetic and logical operations) must be 
+     * executed by the {@link Engine} in one step, rather 
+     * than one bytecode per step. The bytecodes are 
+     * executed by the same algorithms, and the count of 
+     * the states is incremented by each of them. A block 
+     * does not span more than one source code row, nor 
+     * goes beyond the count scope of a {@link Runner}, 
+     * so an {@link Engine} steps through a method at least 
+     * row by row and stops at the same states, but the 
+     * variable observers and the step actions of a 
+     * {@link Runner} are not notified of the intermediate 
+     * states. By default every bytecode is executed by 
+     * its own step.
+     * 
+     * @param fuseConcreteBlocks a {@code boolean}.
+     */
+    public void setFuseConcreteBlocks(boolean fuseConcreteBlocks) {
+        this.fuseConcreteBlocks = fuseConcreteBlocks;
+    }
+    
+    /**
+     * Returns whether the blocks of concrete, nonbranching
+     * bytecodes must be executed in one step.
+     * 
+     * @return a {@code boolean}.
+     */
+    public boolean getFuseConcreteBlocks() {
+        return this.fuseConcreteBlocks;
+    }
 
     @SuppressWarnings("unchecked")
     @Override
@@ -46,6 +46,7 @@ public class RunnerBuilder {
 	throws CannotBuildEngineException, DecisionException, InitializationException, 
 	InvalidClassFileFactoryClassException, NonexistingObservedVariablesException, ClasspathException {
 		this.engine = this.eb.build(parameters.getEngineParameters());
+		this.engine.setCountScope(parameters.getCountScope());
 		return new Runner(this.engine, parameters.getActions(), parameters.getIdentifierSubregion(), 
 				parameters.getTimeout(), parameters.getHeapScope(), parameters.getDepthScope(), 
 				parameters.getCountScope());
@@ -0,0 +1,517 @@
+package jbse.jvm;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import jbse.algo.exc.CannotManageStateException;
+import jbse.bc.exc.InvalidClassFileFactoryClassException;
+import jbse.common.exc.ClasspathException;
+import jbse.common.exc.UnexpectedInternalException;
+import jbse.dec.DecisionProcedureAlgorithms;
+import jbse.dec.exc.DecisionException;
+import jbse.jvm.exc.CannotBacktrackException;
+import jbse.jvm.exc.CannotBuildEngineException;
+import jbse.jvm.exc.EngineStuckException;
+import jbse.jvm.exc.FailureException;
+import jbse.jvm.exc.InitializationException;
+import jbse.jvm.exc.NonexistingObservedVariablesException;
+import jbse.mem.State;
+import jbse.mem.exc.ContradictionException;
+import jbse.mem.exc.ThreadStackEmptyException;
+import jbse.val.Calculator;
+
+/**
+ * Class implementing an algorithm for fully running a Java method
+ * with a pool of worker threads. Each worker drives its own {@link Runner}
+ * and {@link Engine}, with its own {@link DecisionProcedureAlgorithms},
+ * on a subtree of the symbolic execution tree. Work is balanced by
+ * work stealing: Whenever some worker is idle, the busy workers
+ * detach their shallowest pending states and put them in a shared pool,
+ * from which the idle workers take the roots of their next subtrees.
+ * The states at the end of the traces explored by all the workers
+ * are passed, one at a time, to a single {@link Consumer}.
+ *
+ * <p>The {@link Calculator} and the classfiles are shared by all the
+ * workers, thus the {@link Calculator} must be thread-safe, and the
+ * {@link Runner.Actions} set in the {@link RunnerParameters} are ignored.
+ * The timeout is global to the whole run.</p>
+ */
+public final class RunnerParallel {
+    /**
+     * A factory for the decision procedures of the workers.
+     */
+    @FunctionalInterface
+    public interface DecisionProcedureFactory {
+        /**
+         * Creates a new decision procedure. It is invoked
+         * once for each worker, thus the created decision
+         * procedures (and the external solvers they possibly
+         * launch) must not share any state.
+         *
+         * @param calc the {@link Calculator} of the symbolic execution.
+         * @return a {@link DecisionProcedureAlgorithms}.
+         * @throws DecisionException if the creation of the
+         *         decision procedure fails.
+         */
+        DecisionProcedureAlgorithms newDecisionProcedure(Calculator calc) throws DecisionException;
+    }
+
+    /** The {@link RunnerParameters} used to build the workers' {@link Runner}s. */
+    private final RunnerParameters parameters;
+
+    /** The number of workers. */
+    private final int numWorkers;
+
+    /** The factory of the workers' decision procedures. */
+    private final DecisionProcedureFactory decisionProcedureFactory;
+
+    /** The {@link Consumer} of the final states of the traces. */
+    private final Consumer<State> traceConsumer;
+
+    /** Guards {@code pool}, {@code idleWorkers}, {@code failure} and {@code traceConsumer}. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Signaled whenever {@code pool} receives a state or the run ends. */
+    private final Condition poolChanged = this.lock.newCondition();
+
+    /** The pending states stolen from the workers. */
+    private final ArrayDeque<State> pool = new ArrayDeque<>();
+
+    /** The number of workers waiting for a state. */
+    private int idleWorkers;
+
+    /**
+     * Set when the workers must stop stealing states and
+     * terminate (when the run ends, fails or times out).
+     */
+    private volatile boolean stop;
+
+    /**
+     * Set when more workers wait for a state than {@code pool}
+     * contains; read without locking by the busy workers.
+     */
+    private volatile boolean hungry;
+
+    /** The first exception thrown by some worker. */
+    private Exception failure;
+
+    /** The {@link Engine} that executes the root of the tree. */
+    private volatile Engine engineRoot;
+
+    /** Counter for the total number of analyzed traces. */
+    private final AtomicLong tracesTot = new AtomicLong();
+
+    /** Counter for the number of analyzed traces stopped because of scope exhaustion. */
+    private final AtomicLong tracesOutOfScope = new AtomicLong();
+
+    /** Counter for the number of analyzed traces stopped because of an assumption violation. */
+    private final AtomicLong tracesContradicted = new AtomicLong();
+
+    /** Counter for the total number of analyzed states. */
+    private final AtomicLong analyzedStates = new AtomicLong();
+
+    /** Stores the start time. */
+    private long startTime;
+
+    /** Stores the stop time. */
+    private long stopTime;
+
+    /**
+     * Constructor.
+     *
+     * @param parameters the {@link RunnerParameters} for the run.
+     *        They must specify the root method and the {@link Calculator};
+     *        the decision procedure and the {@link Runner.Actions} are ignored.
+     * @param numWorkers an {@code int}, the number of workers.
+     * @param decisionProcedureFactory a {@link DecisionProcedureFactory},
+     *        used to create the decision procedures of the workers.
+     * @param traceConsumer a {@link Consumer}{@code <}{@link State}{@code >},
+     *        that will receive the final state of each trace that
+     *        is not out of scope and does not violate an assumption.
+     *        It is invoked by one worker at a time.
+     * @throws IllegalArgumentException if {@code numWorkers <= 0}.
+     * @throws NullPointerException if some parameter is {@code null}.
+     */
+    public RunnerParallel(RunnerParameters parameters,
+                          int numWorkers,
+                          DecisionProcedureFactory decisionProcedureFactory,
+                          Consumer<State> traceConsumer) {
+        if (parameters == null || decisionProcedureFactory == null || traceConsumer == null) {
+            throw new NullPointerException();
+        }
+        if (numWorkers <= 0) {
+            throw new IllegalArgumentException("The number of workers must be positive.");
+        }
+        this.parameters = parameters.clone();
+        this.numWorkers = numWorkers;
+        this.decisionProcedureFactory = decisionProcedureFactory;
+        this.traceConsumer = traceConsumer;
+    }
+
+    /**
+     * The {@link Runner.Actions} of a worker's {@link Runner}.
+     */
+    private final class ActionsWorker extends Runner.Actions {
+        private boolean contradicted = false;
+        private boolean outOfScope = false;
+
+        @Override
+        public boolean atContradictionException(ContradictionException e) {
+            this.contradicted = true;
+            return false;
+        }
+
+        @Override
+        public boolean atScopeExhaustionHeap() {
+            this.outOfScope = true;
+            return false;
+        }
+
+        @Override
+        public boolean atScopeExhaustionDepth() {
+            return atScopeExhaustionHeap();
+        }
+
+        @Override
+        public boolean atScopeExhaustionCount() {
+            return atScopeExhaustionHeap();
+        }
+
+        @Override
+        public boolean atStepPost() {
+            final Engine engine = getEngine();
+            if (RunnerParallel.this.hungry && engine.canDetachPendingState()) {
+                offer(engine.detachPendingState());
+            }
+            return RunnerParallel.this.stop;
+        }
+
+        @Override
+        public boolean atTraceEnd() {
+            if (this.contradicted) {
+                RunnerParallel.this.tracesContradicted.incrementAndGet();
+            } else if (!this.outOfScope) {
+                consume(getEngine().getCurrentState());
+            }
+            this.contradicted = false;
+            this.outOfScope = false;
+            return RunnerParallel.this.stop;
+        }
+    }
+
+    /**
+     * The body of a worker thread.
+     */
+    private final class Worker implements Runnable {
+        private final boolean runsRoot;
+
+        Worker(boolean runsRoot) {
+            this.runsRoot = runsRoot;
+        }
+
+        @Override
+        public void run() {
+            DecisionProcedureAlgorithms decisionProcedure = null;
+            try {
+                decisionProcedure =
+                    RunnerParallel.this.decisionProcedureFactory.newDecisionProcedure(RunnerParallel.this.parameters.getCalculator());
+                State subtreeRoot = null;
+                if (this.runsRoot) {
+                    explore(decisionProcedure, null);
+                }
+                while ((subtreeRoot = take()) != null) {
+                    explore(decisionProcedure, subtreeRoot);
+                }
+            } catch (Exception e) {
+                fail(e);
+            } finally {
+                if (decisionProcedure != null) {
+                    try {
+                        decisionProcedure.close();
+                    } catch (DecisionException e) {
+                        fail(e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Explores a subtree of the symbolic execution tree.
+     *
+     * @param decisionProcedure the worker's {@link DecisionProcedureAlgorithms}.
+     * @param subtreeRoot the {@link State} at the root of the subtree,
+     *        or {@code null} to explore from the root method.
+     * @throws Exception if the construction of the {@link Runner}
+     *         or the run fails.
+     */
+    private void explore(DecisionProcedureAlgorithms decisionProcedure, State subtreeRoot)
+    throws Exception {
+        final RunnerParameters p = this.parameters.clone();
+        if (subtreeRoot != null) {
+            p.setInitialState(subtreeRoot);
+        }
+        p.setDecisionProcedure(decisionProcedure);
+        p.setActions(new ActionsWorker());
+        final long timeout = this.parameters.getTimeout();
+        if (timeout > 0) {
+            final long remaining = timeout - (System.currentTimeMillis() - this.startTime);
+            if (remaining <= 0) {
+                stop();
+                return;
+            }
+            p.setTimeout(remaining, TimeUnit.MILLISECONDS);
+        }
+
+        final RunnerBuilder rb = new RunnerBuilder();
+        final Runner runner = rb.build(p);
+        final Engine engine = rb.getEngine();
+        if (subtreeRoot == null) {
+            this.engineRoot = engine;
+        } else {
+            engine.inheritMainThread(this.engineRoot);
+        }
+        runner.run();
+
+        this.tracesTot.addAndGet(runner.getTracesTotal());
+        this.tracesOutOfScope.addAndGet(runner.getTracesOutOfScope());
+        this.analyzedStates.addAndGet(engine.getAnalyzedStates());
+        if (timeout > 0 && System.currentTimeMillis() - this.startTime > timeout) {
+            stop();
+        }
+    }
+
+    private void offer(State state) {
+        this.lock.lock();
+        try {
+            this.pool.addLast(state);
+            this.hungry = (this.idleWorkers > this.pool.size());
+            this.poolChanged.signal();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a state from the pool, waiting until some
+     * state is available.
+     *
+     * @return a {@link State}, or {@code null} if the
+     *         run must end, either because {@link #stop}
+     *         is set or because all the workers are idle
+     *         and the pool is empty.
+     * @throws InterruptedException if the worker thread is
+     *         interrupted.
+     */
+    private State take() throws InterruptedException {
+        this.lock.lock();
+        try {
+            ++this.idleWorkers;
+            while (this.pool.isEmpty() && !this.stop) {
+                if (this.idleWorkers == this.numWorkers) {
+                    //no busy worker can feed the pool
+                    this.stop = true;
+                    this.poolChanged.signalAll();
+                    break;
+                }
+                this.hungry = true;
+                this.poolChanged.await();
+            }
+            if (this.stop) {
+                return null;
+            }
+            --this.idleWorkers;
+            final State retVal = this.pool.removeFirst();
+            this.hungry = (this.idleWorkers > this.pool.size());
+            return retVal;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void consume(State state) {
+        this.lock.lock();
+        try {
+            if (!this.stop) {
+                this.traceConsumer.accept(state);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void fail(Exception e) {
+        this.lock.lock();
+        try {
+            if (this.failure == null) {
+                this.failure = e;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        stop();
+    }
+
+    private void stop() {
+        this.lock.lock();
+        try {
+            this.stop = true;
+            this.poolChanged.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the method with all the workers, and waits until
+     * the whole state space is explored, the timeout expires,
+     * or some worker fails.
+     *
+     * @throws CannotBuildEngineException as in {@link RunnerBuilder#build(RunnerParameters)}.
+     * @throws DecisionException as in {@link RunnerBuilder#build(RunnerParameters)}
+     *         or {@link Engine#step()}, or when the creation of a
+     *         decision procedure fails.
+     * @throws InitializationException as in {@link RunnerBuilder#build(RunnerParameters)}.
+     * @throws InvalidClassFileFactoryClassException as in {@link RunnerBuilder#build(RunnerParameters)}.
+     * @throws NonexistingObservedVariablesException as in {@link RunnerBuilder#build(RunnerParameters)}.
+     * @throws ClasspathException as in {@link RunnerBuilder#build(RunnerParameters)}
+     *         or {@link Engine#step()}.
+     * @throws CannotBacktrackException as in {@link Engine#backtrack()}
+     * @throws CannotManageStateException as in {@link Engine#step()}
+     * @throws ThreadStackEmptyException as in {@link Engine#step()}
+     * @throws ContradictionException as in {@link Engine#step()}
+     * @throws EngineStuckException as in {@link Engine#step()}
+     * @throws FailureException as in {@link Engine#step()}
+     * @throws InterruptedException if the invoking thread is interrupted
+     *         while waiting for the workers.
+     */
+    public void run()
+    throws CannotBuildEngineException, DecisionException, InitializationException,
+    InvalidClassFileFactoryClassException, NonexistingObservedVariablesException,
+    ClasspathException, CannotBacktrackException, CannotManageStateException,
+    ThreadStackEmptyException, ContradictionException, EngineStuckException,
+    FailureException, InterruptedException {
+        this.startTime = System.currentTimeMillis();
+        final ArrayList<Thread> threads = new ArrayList<>();
+        try {
+            for (int i = 0; i < this.numWorkers; ++i) {
+                final Thread t = new Thread(new Worker(i == 0), "jbse-worker-" + i);
+                threads.add(t);
+                t.start();
+            }
+            for (Thread t : threads) {
+                t.join();
+            }
+        } catch (InterruptedException e) {
+            stop();
+            for (Thread t : threads) {
+                t.interrupt();
+            }
+            throw e;
+        } finally {
+            this.stopTime = System.currentTimeMillis();
+        }
+
+        final Exception e = this.failure;
+        if (e == null) {
+            return;
+        } else if (e instanceof CannotBuildEngineException) {
+            throw (CannotBuildEngineException) e;
+        } else if (e instanceof DecisionException) {
+            throw (DecisionException) e;
+        } else if (e instanceof InitializationException) {
+            throw (InitializationException) e;
+        } else if (e instanceof InvalidClassFileFactoryClassException) {
+            throw (InvalidClassFileFactoryClassException) e;
+        } else if (e instanceof NonexistingObservedVariablesException) {
+            throw (NonexistingObservedVariablesException) e;
+        } else if (e instanceof ClasspathException) {
+            throw (ClasspathException) e;
+        } else if (e instanceof CannotBacktrackException) {
+            throw (CannotBacktrackException) e;
+        } else if (e instanceof CannotManageStateException) {
+            throw (CannotManageStateException) e;
+        } else if (e instanceof ThreadStackEmptyException) {
+            throw (ThreadStackEmptyException) e;
+        } else if (e instanceof ContradictionException) {
+            throw (ContradictionException) e;
+        } else if (e instanceof EngineStuckException) {
+            throw (EngineStuckException) e;
+        } else if (e instanceof FailureException) {
+            throw (FailureException) e;
+        } else if (e instanceof InterruptedException) {
+            throw (InterruptedException) e;
+        } else if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        } else {
+            throw new UnexpectedInternalException(e);
+        }
+    }
+
+    /**
+     * Returns the start time, i.e., the time when
+     * the method {@link #run()} was invoked.
+     *
+     * @return a {@code long}, {@code 0L} if this
+     * method is invoked before {@link #run()}.
+     */
+    public long getStartTime() {
+        return this.startTime;
+    }
+
+    /**
+     * Returns the stop time, i.e., the time when
+     * the method {@link #run()} returned.
+     *
+     * @return a {@code long}, {@code 0L} if this
+     * method is invoked before {@link #run()} returns.
+     */
+    public long getStopTime() {
+        return this.stopTime;
+    }
+
+    /**
+     * Returns the total number of traces explored
+     * by all the workers.
+     *
+     * @return a {@code long}.
+     */
+    public long getTracesTotal() {
+        return this.tracesTot.get();
+    }
+
+    /**
+     * Returns the total number of out-of-scope traces
+     * explored by all the workers.
+     *
+     * @return a {@code long}.
+     */
+    public long getTracesOutOfScope() {
+        return this.tracesOutOfScope.get();
+    }
+
+    /**
+     * Returns the total number of traces explored by 
+     * all the workers that violate some assumption.
+     *
+     * @return a {@code long}.
+     */
+    public long getTracesContradicted() {
+        return this.tracesContradicted.get();
+    }
+
+    /**
+     * Returns the total number of states analyzed
+     * by all the workers.
+     *
+     * @return a {@code long}.
+     */
+    public long getAnalyzedStates() {
+        return this.analyzedStates.get();
+    }
+}
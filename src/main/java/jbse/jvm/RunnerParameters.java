@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 
 import jbse.bc.Classpath;
 import jbse.bc.Signature;
@@ -146,6 +147,89 @@ public final class RunnerParameters implements Cloneable {
 	public BreadthMode getBreadthMode() {
 		return this.engineParameters.getBreadthMode();
 	}
+	
+	/**
+	 * Sets the exploration strategy to depth-first. 
+	 * This is the default.
+	 * 
+	 * @see EngineParameters#setExplorationStrategyDepthFirst()
+	 */
+	public void setExplorationStrategyDepthFirst() {
+		this.engineParameters.setExplorationStrategyDepthFirst();
+	}
+	
+	/**
+	 * Sets the exploration strategy to breadth-first.
+	 * 
+	 * @see EngineParameters#setExplorationStrategyBreadthFirst()
+	 */
+	public void setExplorationStrategyBreadthFirst() {
+		this.engineParameters.setExplorationStrategyBreadthFirst();
+	}
+	
+	/**
+	 * Sets the exploration strategy to best-first.
+	 * 
+	 * @param scoring a {@link ToDoubleFunction}{@code <}{@link State}{@code >}
+	 *        calculating the score of a state.
+	 * @throws NullPointerException if {@code scoring == null}.
+	 * @see EngineParameters#setExplorationStrategyBestFirst(ToDoubleFunction)
+	 */
+	public void setExplorationStrategyBestFirst(ToDoubleFunction<State> scoring) {
+		this.engineParameters.setExplorationStrategyBestFirst(scoring);
+	}
+	
+	/**
+	 * Sets the exploration strategy to random-restart.
+	 * 
+	 * @param seed a {@code long}, the seed for the random choices.
+	 * @see EngineParameters#setExplorationStrategyRandomRestart(long)
+	 */
+	public void setExplorationStrategyRandomRestart(long seed) {
+		this.engineParameters.setExplorationStrategyRandomRestart(seed);
+	}
+	
+	/**
+	 * Sets whether the states must be cloned with 
+	 * copy-on-write.
+	 * 
+	 * @param copyOnWriteStates a {@code boolean}.
+	 * @see EngineParameters#setCopyOnWriteStates(boolean)
+	 */
+	public void setCopyOnWriteStates(boolean copyOnWriteStates) {
+		this.engineParameters.setCopyOnWriteStates(copyOnWriteStates);
+	}
+	
+	/**
+	 * Gets whether the states must be cloned with 
+	 * copy-on-write.
+	 * 
+	 * @return a {@code boolean}.
+	 */
+	public boolean getCopyOnWriteStates() {
+		return this.engineParameters.getCopyOnWriteStates();
+	}
+	
+	/**
+	 * Sets whether the blocks of concrete, nonbranching 
+	 * bytecodes must be executed in one step.
+	 * 
+	 * @param fuseConcreteBlocks a {@code boolean}.
+	 * @see EngineParameters#setFuseConcreteBlocks(boolean)
+	 */
+	public void setFuseConcreteBlocks(boolean fuseConcreteBlocks) {
+		this.engineParameters.setFuseConcreteBlocks(fuseConcreteBlocks);
+	}
+	
+	/**
+	 * Gets whether the blocks of concrete, nonbranching 
+	 * bytecodes must be executed in one step.
+	 * 
+	 * @return a {@code boolean}.
+	 */
+	public boolean getFuseConcreteBlocks() {
+		return this.engineParameters.getFuseConcreteBlocks();
+	}
 
 	/**
 	 * Sets the initial state of the symbolic execution, and cancels the 
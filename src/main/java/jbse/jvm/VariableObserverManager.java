@@ -168,13 +168,13 @@ class VariableObserverManager {
 		if (this.engine.getCurrentState().getStackSize() > 0) {
 			//if the state is not stuck because of a return 
 			//from the root method, looks in the root object
-			final Instance rootObject = (Instance) this.engine.getCurrentState().getObject(this.rootObjectReference);
+			final Instance rootObject = (Instance) this.engine.getCurrentState().getObjectReadOnly(this.rootObjectReference);
 			retVal = rootObject.getFieldValue(obsVarSignature);
 		}
 		if (retVal == null) {
 			//not in the root object? Let's see if it is a static variable 
 			//in the root class 
-			final Klass rootKlass = this.engine.getCurrentState().getKlass(rootClassName);
+			final Klass rootKlass = this.engine.getCurrentState().getKlassReadOnly(rootClassName);
 			retVal = rootKlass.getFieldValue(obsVarSignature);
 		}
 		return retVal;
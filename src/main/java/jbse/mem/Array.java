@@ -11,6 +11,7 @@ import java.util.LinkedList;
 import java.util.NoSuchElementException;
 import java.util.function.Consumer;
 
+import jbse.bc.FieldLayout;
 import jbse.bc.Signature;
 import jbse.common.Type;
 import jbse.common.exc.UnexpectedInternalException;
@@ -480,7 +481,7 @@ public final class Array extends Objekt {
      */
     public Array(Calculator calc, boolean initSymbolic, Value initValue, Primitive length, String type, MemoryPath origin, Epoch epoch, boolean isInitial, int maxSimpleArrayLength) 
     throws InvalidTypeException {
-        super(calc, type, origin, epoch, false, 0, new Signature(type, "" + Type.INT, "length"));
+        super(calc, type, origin, epoch, false, new FieldLayout(0, new Signature(type, "" + Type.INT, "length")));
         if (isIllFormed(type)) {
             throw new InvalidTypeException("attempted creation of an array with type " + type);
         }
@@ -514,7 +515,7 @@ public final class Array extends Objekt {
      * @throws NullPointerException if {@code otherArray == null}.
      */
     public Array(Reference referenceToOtherArray, Array otherArray) throws InvalidOperandException {
-        super(otherArray.calc, otherArray.type, otherArray.getOrigin(), Epoch.EPOCH_BEFORE_START, false, 0, new Signature(otherArray.type, "" + Type.INT, "length"));
+        super(otherArray.calc, otherArray.type, otherArray.getOrigin(), Epoch.EPOCH_BEFORE_START, false, new FieldLayout(0, otherArray.lengthSignature));
         //TODO assert other is an initial symbolic array
         this.isInitial = false;
         this.lengthSignature = new Signature(this.type, "" + Type.INT, "length");
@@ -525,7 +526,7 @@ public final class Array extends Objekt {
             //this should never happen
             throw new UnexpectedInternalException(e);
         }
-        this.fields.get(this.lengthSignature.toString()).setValue(otherArray.getLength());  //toString() is necessary, type erasure doesn't play well
+        setFieldValue(this.lengthSignature, otherArray.getLength());
         try {
             final Expression indexGreaterThanZero = (Expression) INDEX.ge(this.calc.valInt(0));
             final Expression indexLessThanLength = (Expression) INDEX.lt(getLength());
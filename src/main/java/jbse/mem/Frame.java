@@ -20,8 +20,19 @@ public abstract class Frame implements Cloneable {
      */
     public final static int UNKNOWN_PC = -1;
 
-    /** The bytecode of the frame's method. */
-    private byte[] bytecode; //not final to implement clone method (bytecode may be patched)
+    /** 
+     * The bytecode of the frame's method. It is shared with 
+     * the {@link jbse.bc.ClassFile} the frame's method comes from 
+     * and with the clones of the frame, and it is copied before
+     * being patched.
+     */
+    private byte[] bytecode; //not final because it is copied upon patching
+
+    /** 
+     * {@code true} iff {@code bytecode} is not shared, and 
+     * thus can be patched without copying it.
+     */
+    private boolean bytecodeOwned;
 
     /** The program counter for the frame's method. */
     private int programCounter;
@@ -33,9 +44,12 @@ public abstract class Frame implements Cloneable {
      * Constructor.
      * 
      * @param bytecode a {@code byte[]}, the bytecode to be executed.
+     *        It is not copied, and it must not be modified 
+     *        after the invocation of the constructor.
      */
     public Frame(byte[] bytecode) {
-        this.bytecode = bytecode.clone();
+        this.bytecode = bytecode;
+        this.bytecodeOwned = false;
         this.programCounter = 0;
         this.returnProgramCounter = UNKNOWN_PC;
     }
@@ -103,6 +117,16 @@ public abstract class Frame implements Cloneable {
         return this.bytecode.clone();
     }
     
+    /**
+     * Returns the code of this frame without copying it.
+     * 
+     * @return code a {@code byte[]}, the (possibly patched)
+     *         frame code. It must not be modified.
+     */
+    final byte[] getCodeShared() {
+        return this.bytecode;
+    }
+    
     /**
      * Patches the bytecode at the current program counter.
      * 
@@ -112,6 +136,10 @@ public abstract class Frame implements Cloneable {
      *        Note that the action is destructive.
      */
     public final void patchCode(byte bytecode) {
+        if (!this.bytecodeOwned) {
+            this.bytecode = this.bytecode.clone();
+            this.bytecodeOwned = true;
+        }
         this.bytecode[this.programCounter] = bytecode;
     }
 
@@ -315,7 +343,9 @@ public abstract class Frame implements Cloneable {
         } catch (CloneNotSupportedException e) {
             throw new InternalError(e);
         }
-        o.bytecode = this.bytecode.clone();
+        //the clone shares the bytecode
+        this.bytecodeOwned = false;
+        o.bytecodeOwned = false;
         return o;
     }
 }
\ No newline at end of file
@@ -1,19 +1,20 @@
 package jbse.mem;
 
-import java.util.Collections;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 
 import jbse.common.exc.UnexpectedInternalException;
 import jbse.mem.exc.HeapMemoryExhaustedException;
 
 /**
- * Class that implements the heap in the JVM's memory.
+ * Class that implements the heap in the JVM's memory. The
+ * objects are stored in a {@link PersistentLongMap}, so a 
+ * copy-on-write clone of the heap is O(1) and each object
+ * is copied only when it is first accessed for modification
+ * after the clone.
  */
 final class Heap implements Cloneable {
     private final long maxHeapSize;
-    private SortedMap<Long, Objekt> objects; //TODO nonfinal to allow cloning
+    private PersistentLongMap<Objekt> objects; //TODO nonfinal to allow cloning
     private long nextIndex;
 
     /**
@@ -24,7 +25,7 @@ final class Heap implements Cloneable {
      */
     Heap(long maxHeapSize) {
         this.maxHeapSize = maxHeapSize;
-        this.objects = new TreeMap<>();
+        this.objects = new PersistentLongMap<>();
         this.nextIndex = Util.POS_ROOT;
     }
 
@@ -83,10 +84,12 @@ final class Heap implements Cloneable {
     }
 
     /**
-     * Gets an object from the heap.
+     * Gets an object from the heap. The object may be 
+     * shared with another heap, thus it must not be 
+     * modified.
      * 
      * @param pos a {@code long}, the location where the object
-     *        must be stored.
+     *        is stored.
      * @return the {@link Objekt} at position {@code pos}, or 
      *         {@code null} if nothing is stored at {@code pos}.
      **/
@@ -95,7 +98,23 @@ final class Heap implements Cloneable {
     }
 
     /**
-     * Returns the objects in the heap as a {@link Map}.
+     * Gets an object from the heap for modification. If the 
+     * object is shared with another heap it is first copied, 
+     * so the returned object can be safely modified.
+     * 
+     * @param pos a {@code long}, the location where the object
+     *        is stored.
+     * @return the {@link Objekt} at position {@code pos}, or 
+     *         {@code null} if nothing is stored at {@code pos}.
+     **/
+    Objekt getObjectForUpdate(long pos) {
+        return this.objects.getForUpdate(pos, Objekt::clone);
+    }
+
+    /**
+     * Returns the objects in the heap as a {@link Map}. 
+     * The objects in the map may be shared with other
+     * heaps, thus they must not be modified.
      * 
      * @return an unmodifiable 
      * {@link Map}{@code <}{@link Long}{@code , }{@link Objekt}{@code >}
@@ -103,7 +122,7 @@ final class Heap implements Cloneable {
      * in them.
      */
     Map<Long, Objekt> getObjects() {
-        return Collections.unmodifiableMap(this.objects);
+        return this.objects.asMap();
     }    
 
     /**
@@ -120,7 +139,7 @@ final class Heap implements Cloneable {
         final StringBuilder buf = new StringBuilder();
         buf.append("[");
         boolean isFirst = true;
-        for (Map.Entry<Long, Objekt> e : this.objects.entrySet()) {
+        for (Map.Entry<Long, Objekt> e : this.objects.asMap().entrySet()) {
             if (isFirst) {
                 isFirst = false;
             } else {
@@ -143,13 +162,34 @@ final class Heap implements Cloneable {
             throw new InternalError(e);
         }
 
-        final SortedMap<Long, Objekt> objListClone = new TreeMap<>();
+        final PersistentLongMap<Objekt> objListClone = new PersistentLongMap<>();
 
-        for (Map.Entry<Long, Objekt> e : this.objects.entrySet()) {
+        for (Map.Entry<Long, Objekt> e : this.objects.asMap().entrySet()) {
             final Objekt val = e.getValue();
             objListClone.put(e.getKey(), val.clone());
         }
         h.objects = objListClone;
         return h;
     }
+
+    /**
+     * Returns a clone of this {@link Heap} that shares
+     * all its {@link Objekt}s with {@code this}. A shared
+     * {@link Objekt} is copied the first time it is accessed
+     * by {@link #getObjectForUpdate(long)} in either heap. The 
+     * operation is O(1).
+     * 
+     * @return a {@link Heap}.
+     */
+    Heap cloneCopyOnWrite() {
+        final Heap h;
+        try {
+            h = (Heap) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+        
+        h.objects = this.objects.clone();
+        return h;
+    }
 }
\ No newline at end of file
@@ -1,10 +1,10 @@
 package jbse.mem;
 
-import java.util.Map;
-
+import jbse.bc.FieldLayout;
 import jbse.bc.Signature;
 import jbse.val.Calculator;
 import jbse.val.MemoryPath;
+import jbse.val.Value;
 
 /**
  * Class that represent an instance of an object in the heap.
@@ -26,7 +26,25 @@ public class Instance extends Objekt {
      *        fields this instance knows.
      */
     protected Instance(Calculator calc, String className, MemoryPath origin, Epoch epoch, int numOfStaticFields, Signature... fieldSignatures) {
-        super(calc, className, origin, epoch, false, numOfStaticFields, fieldSignatures);
+        this(calc, className, origin, epoch, new FieldLayout(numOfStaticFields, fieldSignatures));
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param calc a {@link Calculator}.
+     * @param className a {@code String}, the name of the class of 
+     *        this {@link Instance} (e.g. {@code "java/lang/Object"}).
+     * @param origin the origin of the {@code Instance}, if symbolic, 
+     *        or {@code null}, if concrete.
+     * @param epoch the creation {@link Epoch} of this {@link Instance}. 
+     *        It can be null when
+     *        {@code epoch == }{@link Epoch#EPOCH_AFTER_START}.
+     * @param layout the {@link FieldLayout} of all the 
+     *        fields this instance knows.
+     */
+    protected Instance(Calculator calc, String className, MemoryPath origin, Epoch epoch, FieldLayout layout) {
+        super(calc, className, origin, epoch, false, layout);
     }
     
     @Override
@@ -36,13 +54,20 @@ public class Instance extends Objekt {
         buf.append(this.type);
         buf.append(", Fields:{");
         boolean isFirst = true;
-        for (Map.Entry<String, Variable> e : this.fields.entrySet()) {
+        for (Signature sig : getStoredFieldSignatures()) {
             if (isFirst) {
                 isFirst = false;
             } else {
                 buf.append(", ");
             }
-            buf.append(e.getValue().toString());
+            final Value value = getFieldValue(sig);
+            buf.append("[Name:");
+            buf.append(sig.getName());
+            buf.append(", Type:");
+            buf.append(sig.getDescriptor());
+            buf.append(", Value:");
+            buf.append(value == null ? "<UNASSIGNED>" : value.toString());
+            buf.append("]");
         }
         buf.append("}]");
         return buf.toString();
@@ -51,7 +76,7 @@ public class Instance extends Objekt {
     @Override
     public Instance clone() {
         final Instance o = (Instance) super.clone();
-        o.fields = fieldsDeepCopy();
+        o.fieldValues = fieldsDeepCopy();
         
         return o;
     }
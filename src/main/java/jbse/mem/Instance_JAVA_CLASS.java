@@ -3,7 +3,7 @@ package jbse.mem;
 import static jbse.bc.Signatures.JAVA_CLASS;
 import static jbse.bc.Signatures.JAVA_CLASS_CLASSLOADER;
 
-import jbse.bc.Signature;
+import jbse.bc.FieldLayout;
 import jbse.val.Calculator;
 import jbse.val.MemoryPath;
 import jbse.val.Null;
@@ -22,8 +22,8 @@ public final class Instance_JAVA_CLASS extends Instance {
      */
     private final boolean isPrimitive;
 
-    protected Instance_JAVA_CLASS(Calculator calc, MemoryPath origin, Epoch epoch, String representedClass, boolean isPrimitive, int numOfStaticFields, Signature... fieldSignatures) {
-        super(calc, JAVA_CLASS, origin, epoch, numOfStaticFields, fieldSignatures);
+    protected Instance_JAVA_CLASS(Calculator calc, MemoryPath origin, Epoch epoch, String representedClass, boolean isPrimitive, FieldLayout layout) {
+        super(calc, JAVA_CLASS, origin, epoch, layout);
         this.representedClass = representedClass;
         this.isPrimitive = isPrimitive;
         setFieldValue(JAVA_CLASS_CLASSLOADER, Null.getInstance()); //possibly pleonastic
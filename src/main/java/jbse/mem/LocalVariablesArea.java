@@ -12,10 +12,8 @@ import static jbse.common.Type.NULLREF;
 import static jbse.common.Type.TYPEEND;
 import static jbse.common.Type.UNKNOWN;
 
-import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.TreeSet;
 
 import jbse.bc.LocalVariableTable;
 import jbse.bc.LocalVariableTable.Row;
@@ -30,8 +28,12 @@ class LocalVariablesArea implements Cloneable {
     /** The local variable table for the method. */
     private final LocalVariableTable lvt;
 
-    /** Values in the memory area, accessible by slot. */
-    private SortedMap<Integer, Value> values = new TreeMap<Integer, Value>();
+    /** 
+     * Values in the memory area, indexed by slot; 
+     * {@code null} for the slots not written.
+     * Not final because of clone(). 
+     */
+    private Value[] values;
 
     /**
      * Constructor.
@@ -40,6 +42,7 @@ class LocalVariablesArea implements Cloneable {
      */
     LocalVariablesArea(LocalVariableTable lvt) {
         this.lvt = lvt;
+        this.values = new Value[lvt.getSlots()];
         //initializes all the local variables by using args
         //until exhaustion, then DefaultValue
     }
@@ -94,7 +97,7 @@ class LocalVariablesArea implements Cloneable {
      */
     void set(int slot, int currentPC, Value val) throws InvalidSlotException {
         final int nslots = (isCat_1(val.getType()) ? 1 : 2);
-        if (slot < 0 || slot > this.lvt.getSlots() - nslots) {
+        if (slot < 0 || slot > this.values.length - nslots) {
             throw new InvalidSlotException("slot number " + slot + " is out of range");
         }
 
@@ -104,11 +107,11 @@ class LocalVariablesArea implements Cloneable {
         }
 
         if (nslots == 2) {
-            this.values.remove(slot + 1);
+            this.values[slot + 1] = null;
         }
 
         //stores val at slot
-        this.values.put(slot, val);
+        this.values[slot] = val;
     }
     
     private static final String REFERENCE_JAVA_OBJECT       = "" + REFERENCE + JAVA_OBJECT + TYPEEND;
@@ -139,7 +142,10 @@ class LocalVariablesArea implements Cloneable {
      * @throws InvalidSlotException 
      */
     Value get(int slot) throws InvalidSlotException {
-        Value retVal = this.values.get(slot);
+        if (slot < 0 || slot >= this.values.length) {
+            throw new InvalidSlotException("slot " + slot + " was not written");
+        }
+        final Value retVal = this.values[slot];
 
         //the next case denotes, e.g., we wrote a cat2 value at slot x
         //and we try to read at slot x+1. 
@@ -173,7 +179,13 @@ class LocalVariablesArea implements Cloneable {
      *         area.
      */
     Set<Integer> slots() {
-        return this.values.keySet();
+        final TreeSet<Integer> retVal = new TreeSet<>();
+        for (int slot = 0; slot < this.values.length; ++slot) {
+            if (this.values[slot] != null) {
+                retVal.add(slot);
+            }
+        }
+        return retVal;
     }
 
     /**
@@ -225,8 +237,7 @@ class LocalVariablesArea implements Cloneable {
             throw new InternalError(e);
         }
 
-        final SortedMap<Integer, Value> valuesCopy = new TreeMap<>(this.values);        
-        o.values = valuesCopy;
+        o.values = this.values.clone();
         return o;
     }
 
@@ -234,15 +245,19 @@ class LocalVariablesArea implements Cloneable {
     public String toString() {
         final StringBuilder buf = new StringBuilder();
         buf.append("[");
-        int j = 0;
-        for (Map.Entry<Integer, Value> e : values.entrySet()) {
-            buf.append(e.getKey());
-            buf.append(":");
-            buf.append(e.getValue());
-            if (j < values.size() - 1) {
+        boolean isFirst = true;
+        for (int slot = 0; slot < this.values.length; ++slot) {
+            if (this.values[slot] == null) {
+                continue;
+            }
+            if (isFirst) {
+                isFirst = false;
+            } else {
                 buf.append(", ");
             }
-            ++j;
+            buf.append(slot);
+            buf.append(":");
+            buf.append(this.values[slot]);
         }
         buf.append("]");
         return buf.toString();
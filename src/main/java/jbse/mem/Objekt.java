@@ -1,12 +1,11 @@
 package jbse.mem;
 
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import jbse.bc.FieldLayout;
 import jbse.bc.Signature;
 import jbse.val.Calculator;
 import jbse.val.MemoryPath;
@@ -46,16 +45,21 @@ public abstract class Objekt implements Cloneable {
      */
     private final boolean staticFields;
 
-    /** The number of static fields. Immutable. */
-    private final int numOfStaticFields;
-
     /** 
-     * All the signatures of all the fields declared by 
+     * The layout of all the fields declared by 
      * this {@link Objekt}'s class (static and nonstatic)
-     * or superclasses (nonstatic). The position of a field
-     * signature in this list is its slot number,
-     * used to support sun.misc.Unsafe. Immutable. */
-    private final List<Signature> fieldSignatures;
+     * or superclasses (nonstatic). The slot numbers of
+     * the fields are used to support sun.misc.Unsafe. 
+     * Immutable and shared. 
+     */
+    private final FieldLayout layout;
+
+    /** 
+     * The slot number of the first field this {@link Objekt}
+     * stores, i.e., the offset of the slot numbers 
+     * in {@code fieldValues}. Immutable.
+     */
+    private final int firstSlot;
 
     /** 
      * The hash code of this {@link Objekt}. Mutable only
@@ -65,12 +69,11 @@ public abstract class Objekt implements Cloneable {
     private Primitive defaultHashCode;
 
     /** 
-     * The fields as a map of signatures (as strings) to variables.
-     * Immutable for arrays, but mutable otherwise (the map
-     * is by itself immutable but the stored Variables may be 
-     * mutable). 
+     * The values of the fields this {@link Objekt} stores, 
+     * indexed by slot number minus {@code firstSlot}.
+     * Immutable for arrays, but mutable otherwise. 
      */
-    protected HashMap<String, Variable> fields;
+    protected Value[] fieldValues;
 
     /**
      * Constructor.
@@ -85,22 +88,17 @@ public abstract class Objekt implements Cloneable {
      * @param staticFields {@code true} if this object stores
      *        the static fields, {@code false} if this object stores
      *        the object (nonstatic) fields.
-     * @param numOfStaticFields an {@code int}, the number of static fields.
-     * @param fieldSignatures varargs of field {@link Signature}s, all the
+     * @param layout the {@link FieldLayout} of all the 
      *        fields this object knows.
      */
-    protected Objekt(Calculator calc, String type, MemoryPath origin, Epoch epoch, boolean staticFields, int numOfStaticFields, Signature... fieldSignatures) {
-        this.fields = new HashMap<>();
+    protected Objekt(Calculator calc, String type, MemoryPath origin, Epoch epoch, boolean staticFields, FieldLayout layout) {
         this.staticFields = staticFields;
-        this.numOfStaticFields = numOfStaticFields;
-        this.fieldSignatures = Arrays.asList(fieldSignatures.clone()); //safety copy
-        int curSlot = 0;
-        for (Signature s : this.fieldSignatures) {
-            if ((staticFields && curSlot < numOfStaticFields) ||
-                (!staticFields && curSlot >= numOfStaticFields)) {
-                this.fields.put(s.toString(), new Variable(calc, s.getDescriptor(), s.getName()));
-            }
-            ++curSlot;
+        this.layout = layout;
+        this.firstSlot = (staticFields ? 0 : layout.numOfStaticFields());
+        final int lastSlot = (staticFields ? layout.numOfStaticFields() : layout.numOfFields());
+        this.fieldValues = new Value[lastSlot - this.firstSlot];
+        for (int slot = this.firstSlot; slot < lastSlot; ++slot) {
+            this.fieldValues[slot - this.firstSlot] = calc.createDefault(layout.getFieldSignature(slot).getDescriptor().charAt(0));
         }
         this.type = type;
         this.origin = origin;
@@ -167,11 +165,7 @@ public abstract class Objekt implements Cloneable {
      *         {@link Collection}{@code <}{@link Signature}{@code >}.
      */
     public final Collection<Signature> getStoredFieldSignatures() {
-        if (this.staticFields) {
-            return Collections.unmodifiableCollection(this.fieldSignatures.subList(0, this.numOfStaticFields));
-        } else {
-            return Collections.unmodifiableCollection(this.fieldSignatures.subList(this.numOfStaticFields, this.fieldSignatures.size()));
-        }
+        return (this.staticFields ? this.layout.getStaticFieldSignatures() : this.layout.getObjectFieldSignatures());
     }
 
     /**
@@ -185,11 +179,7 @@ public abstract class Objekt implements Cloneable {
      */
     //TODO overridden by array, refactor to avoid this
     public boolean hasSlot(int slot) {
-        if (this.staticFields) {
-            return (0 <= slot && slot < this.numOfStaticFields);
-        } else {
-            return (this.numOfStaticFields <= slot && slot < this.fieldSignatures.size());
-        }
+        return (this.firstSlot <= slot && slot < this.firstSlot + this.fieldValues.length);
     }
 
     /**
@@ -203,11 +193,7 @@ public abstract class Objekt implements Cloneable {
      */
     public final Value getFieldValue(Signature sig) {
         //TODO does it work with visibility modifiers???
-        try {
-            return this.fields.get(sig.toString()).getValue();  //toString() is necessary, type erasure doesn't play well
-        } catch (Exception e) {
-            return null;
-        }
+        return getFieldValue(this.layout.slot(sig));
     }
 
     /**
@@ -221,11 +207,11 @@ public abstract class Objekt implements Cloneable {
      * of a field. 
      */
     public final Value getFieldValue(int slot) {
-        try {
-            return getFieldValue(this.fieldSignatures.get(slot));
-        } catch (IndexOutOfBoundsException e) {
-            return null;
-        }
+        return (hasStoredSlot(slot) ? this.fieldValues[slot - this.firstSlot] : null);
+    }
+
+    private boolean hasStoredSlot(int slot) {
+        return (this.firstSlot <= slot && slot < this.firstSlot + this.fieldValues.length);
     }
 
     /**
@@ -238,7 +224,7 @@ public abstract class Objekt implements Cloneable {
      *         if such field does not exist.
      */
     public final int getFieldSlot(Signature field) {
-        return this.fieldSignatures.indexOf(field); //not very efficient but we don't care
+        return this.layout.slot(field);
     }
 
     /**
@@ -251,7 +237,7 @@ public abstract class Objekt implements Cloneable {
      */
     //TODO throw a better exception in the case a field does not exist or is immutable
     public final void setFieldValue(Signature field, Value item) {
-        this.fields.get(field.toString()).setValue(item); //toString() is necessary, type erasure doesn't play well
+        setFieldValue(this.layout.slot(field), item);
     }
 
     /**
@@ -265,19 +251,33 @@ public abstract class Objekt implements Cloneable {
      */
     //TODO throw a better exception in the case a field does not exist or is immutable
     public final void setFieldValue(int slot, Value item) {
-        setFieldValue(this.fieldSignatures.get(slot), item);
+        if (!hasStoredSlot(slot)) {
+            throw new NullPointerException();
+        }
+        this.fieldValues[slot - this.firstSlot] = item;
     }
 
     /**
-     * Returns an immutable view of this 
-     * {@link Objekt}'s fields.
+     * Returns an immutable copy of this 
+     * {@link Objekt}'s fields. It creates a 
+     * {@link Variable} for each field at every
+     * invocation; to scan the fields without copying 
+     * them use {@link #getStoredFieldSignatures()}
+     * and {@link #getFieldValue(Signature)}.
      * 
      * @return an immutable 
      *         {@link Map}{@code <}{@link String}{@code , }{@link Variable}{@code <}
-     *         backed by this {@link Objekt}'s fields map.
+     *         mapping the signatures (as strings) of the fields 
+     *         this {@link Objekt} stores to their current values, 
+     *         in slot order.
      */
     public final Map<String, Variable> fields() {
-        return Collections.unmodifiableMap(this.fields);
+        final LinkedHashMap<String, Variable> retVal = new LinkedHashMap<>();
+        for (int i = 0; i < this.fieldValues.length; ++i) {
+            final Signature sig = this.layout.getFieldSignature(this.firstSlot + i);
+            retVal.put(sig.toString(), new Variable(sig.getDescriptor(), sig.getName(), this.fieldValues[i]));
+        }
+        return Collections.unmodifiableMap(retVal);
     }
 
     /**
@@ -291,21 +291,16 @@ public abstract class Objekt implements Cloneable {
      */
     public final Value getFieldValue(String fieldName) {
         //TODO does it work with visibility modifiers???
-        for (Signature sig: this.fieldSignatures) {
-            if (sig.getName().equals(fieldName)) {
-                return getFieldValue(sig);
+        for (int slot = 0; slot < this.layout.numOfFields(); ++slot) {
+            if (this.layout.getFieldSignature(slot).getName().equals(fieldName)) {
+                return getFieldValue(slot);
             }
         }
         return null;
     }
 
-    protected final HashMap<String, Variable> fieldsDeepCopy() {
-        final HashMap<String, Variable> retVal = new HashMap<>();
-        for (String key : this.fields.keySet()) {
-            final Variable variableClone = this.fields.get(key).clone();
-            retVal.put(key, variableClone);
-        }
-        return retVal;
+    protected final Value[] fieldsDeepCopy() {
+        return this.fieldValues.clone();
     }
 
     @Override
@@ -315,7 +310,7 @@ public abstract class Objekt implements Cloneable {
         } catch (CloneNotSupportedException e) {
             throw new InternalError(e);
         }
-        //note that we do not clone this.fields because
+        //note that we do not clone this.fieldValues because
         //it is immutable for arrays and mutable for instances
         //so the two subclasses may either deep-copy it or share;
         //note also that the clone will have same
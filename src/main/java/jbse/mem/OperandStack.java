@@ -1,8 +1,8 @@
 package jbse.mem;
 
-import java.util.ArrayDeque;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 
 import jbse.mem.exc.InvalidNumberOfOperandsException;
 import jbse.val.Value;
@@ -12,15 +12,26 @@ import jbse.val.Value;
  */
 //TODO manage stack maps and possibly raise unexpected internal error
 final class OperandStack implements Cloneable {
-    /** Not final because of clone(). */
-    private ArrayDeque<Value> valueStack;
+    /** The initial capacity of an operand stack. */
+    private static final int INITIAL_CAPACITY = 8;
+    
+    /** 
+     * The values in the operand stack, from the bottom 
+     * (position 0) to the top (position {@code size - 1}).
+     * Not final because of clone() and growth. 
+     */
+    private Value[] valueStack;
+    
+    /** The number of values in the operand stack. */
+    private int size;
     
     /**
      * Constructor of empty operand stack.
      * 
      */
     OperandStack() {
-        this.valueStack = new ArrayDeque<Value>();
+        this.valueStack = new Value[INITIAL_CAPACITY];
+        this.size = 0;
     }
     
     /**
@@ -29,7 +40,10 @@ final class OperandStack implements Cloneable {
      *             of the operand stack.
      */
     void push(Value item) {
-        this.valueStack.push(item);
+        if (this.size == this.valueStack.length) {
+            this.valueStack = Arrays.copyOf(this.valueStack, 2 * this.size);
+        }
+        this.valueStack[this.size++] = item;
     }
     
     /**
@@ -39,10 +53,12 @@ final class OperandStack implements Cloneable {
      * @throws InvalidNumberOfOperandsException if the operand stack is empty.
      */
     Value pop() throws InvalidNumberOfOperandsException {
-    	if (this.valueStack.isEmpty()) {
+    	if (this.size == 0) {
     		throw new InvalidNumberOfOperandsException();
     	}
-    	return this.valueStack.pop();
+    	final Value retVal = this.valueStack[--this.size];
+    	this.valueStack[this.size] = null;
+    	return retVal;
     }
 
     /**
@@ -54,12 +70,11 @@ final class OperandStack implements Cloneable {
      *         if {@code num} is negative.
      */
     void pop(int num) throws InvalidNumberOfOperandsException {
-        if (num < 0 || this.valueStack.size() < num) {
+        if (num < 0 || this.size < num) {
             throw new InvalidNumberOfOperandsException();
         }
-        for (int i = 1; i <= num; ++i) {
-            this.valueStack.pop();
-        }
+        Arrays.fill(this.valueStack, this.size - num, this.size, null);
+        this.size -= num;
     }
     
     /**
@@ -69,10 +84,10 @@ final class OperandStack implements Cloneable {
      * @throws InvalidNumberOfOperandsException if the operand stack is empty.
      */
     Value top() throws InvalidNumberOfOperandsException {
-    	if (this.valueStack.isEmpty()) {
+    	if (this.size == 0) {
     		throw new InvalidNumberOfOperandsException();
     	}
-        return(this.valueStack.peek());
+        return this.valueStack[this.size - 1];
     }
 
     /**
@@ -88,27 +103,38 @@ final class OperandStack implements Cloneable {
      *         or if {@code num} is negative. 
      */
     Value[] operands(int num) throws InvalidNumberOfOperandsException {
-        if (num < 0 || this.valueStack.size() < num) {
+        if (num < 0 || this.size < num) {
             throw new InvalidNumberOfOperandsException();
         }
-        final Value[] retVal = new Value[num];
-        int i = num - 1;
-        for (Value v : this.valueStack) {
-            if (i < 0) {
-                break;
-            }
-            retVal[i] = v;
-            --i;
-        }
-        return retVal;
+        return Arrays.copyOfRange(this.valueStack, this.size - num, this.size);
     }
     
     void clear() {
-    	this.valueStack.clear();
+    	Arrays.fill(this.valueStack, 0, this.size, null);
+    	this.size = 0;
     }
     
+    /**
+     * Returns the values in the operand stack.
+     * 
+     * @return an unmodifiable view of the values in the 
+     *         operand stack, from the topmost to the bottom one.
+     */
     Collection<Value> values() {
-    	return Collections.unmodifiableCollection(this.valueStack);
+    	return new AbstractList<Value>() {
+    		@Override
+    		public Value get(int index) {
+    			if (index < 0 || index >= OperandStack.this.size) {
+    				throw new IndexOutOfBoundsException();
+    			}
+    			return OperandStack.this.valueStack[OperandStack.this.size - 1 - index];
+    		}
+
+    		@Override
+    		public int size() {
+    			return OperandStack.this.size;
+    		}
+    	};
     }
     
     /**
@@ -118,7 +144,7 @@ final class OperandStack implements Cloneable {
         final StringBuilder buf = new StringBuilder();
         buf.append("{");
         boolean isFirst = true;
-        for (Value v : this.valueStack) {
+        for (Value v : values()) {
             if (isFirst) {
                 isFirst = false;
             } else {
@@ -138,7 +164,7 @@ final class OperandStack implements Cloneable {
         } catch (CloneNotSupportedException e) {
             throw new InternalError(e);
         }        
-        o.valueStack = new ArrayDeque<Value>(this.valueStack);
+        o.valueStack = this.valueStack.clone();
         return o;
     }
 }
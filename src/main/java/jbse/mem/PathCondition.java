@@ -1,11 +1,15 @@
 package jbse.mem;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
 
 import jbse.val.Primitive;
 import jbse.val.ReferenceSymbolic;
@@ -16,6 +20,88 @@ import jbse.val.ReferenceSymbolic;
  * suitable {@link Collection}{@code <}{@link Clause}{@code >}. 
  */
 final class PathCondition implements Cloneable {
+	/**
+	 * An append-only array of {@link ClauseAssumeExpands}, shared 
+	 * by all the path conditions that have a prefix of it as their
+	 * list of expansions for some class. A path condition appends
+	 * to it in place when its list is the whole array, otherwise
+	 * it copies its prefix.
+	 */
+	private static final class ExpansionsArray {
+		/** The clauses; only the first {@code size} ones are meaningful. */
+		private volatile ClauseAssumeExpands[] clauses = new ClauseAssumeExpands[4];
+		
+		/** The number of clauses. */
+		private int size = 0;
+		
+		/**
+		 * Appends a clause if this array has a given size.
+		 * 
+		 * @param length an {@code int}.
+		 * @param clause a {@link ClauseAssumeExpands}.
+		 * @return {@code true} iff {@code clause} was appended, 
+		 *         i.e., iff the size of this array was {@code length}.
+		 */
+		synchronized boolean appendIfSize(int length, ClauseAssumeExpands clause) {
+			if (this.size != length) {
+				return false;
+			}
+			if (this.size == this.clauses.length) {
+				this.clauses = Arrays.copyOf(this.clauses, 2 * this.size);
+			}
+			this.clauses[this.size++] = clause;
+			return true;
+		}
+	}
+	
+	/**
+	 * The expansions of a class in a path condition, i.e., 
+	 * a prefix of an {@link ExpansionsArray}. It is immutable,
+	 * so it can be shared by clones.
+	 */
+	private static final class Expansions extends AbstractList<ClauseAssumeExpands> implements RandomAccess {
+		private final ExpansionsArray array;
+		private final int length;
+		
+		Expansions(ExpansionsArray array, int length) {
+			this.array = array;
+			this.length = length;
+		}
+		
+		/**
+		 * Returns the expansions obtained by appending a clause
+		 * to these.
+		 * 
+		 * @param clause a {@link ClauseAssumeExpands}.
+		 * @return an {@link Expansions}.
+		 */
+		Expansions append(ClauseAssumeExpands clause) {
+			if (this.array.appendIfSize(this.length, clause)) {
+				return new Expansions(this.array, this.length + 1);
+			}
+			
+			//another path condition appended first: copies the prefix
+			final ExpansionsArray newArray = new ExpansionsArray();
+			newArray.clauses = Arrays.copyOf(this.array.clauses, Math.max(4, 2 * this.length));
+			newArray.size = this.length;
+			newArray.appendIfSize(this.length, clause);
+			return new Expansions(newArray, this.length + 1);
+		}
+		
+		@Override
+		public ClauseAssumeExpands get(int index) {
+			if (index < 0 || index >= this.length) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.length);
+			}
+			return this.array.clauses[index];
+		}
+		
+		@Override
+		public int size() {
+			return this.length;
+		}
+	}
+	
 	/** {@link ArrayList} of all the {@link Clause}s forming the path condition. */
 	private ArrayList<Clause> clauses;
 	
@@ -30,6 +116,30 @@ final class PathCondition implements Cloneable {
 	 * It is just a cache of information already contained in {@code clauses}.
 	 */
 	private HashMap<String, Integer> objectCounters;
+	
+	/**
+	 * Maps the heap position of each object assumed by expansion
+	 * with the clause that assumes it.
+	 * It is just a cache of information already contained in {@code clauses}.
+	 */
+	private HashMap<Long, ClauseAssumeExpands> expansions;
+	
+	/**
+	 * Maps each class with the clauses that assume objects with that 
+	 * class by expansion, in the order they were added. The
+	 * {@link Expansions} are immutable and share their storage with
+	 * those of the clones, so the map is copied shallowly.
+	 * It is just a cache of information already contained in {@code clauses}.
+	 */
+	private HashMap<String, Expansions> expansionsByClass;
+	
+	/**
+	 * {@code true} iff the members of this path condition are 
+	 * shared with another path condition because of a 
+	 * {@link #cloneCopyOnWrite()}, and must be copied before 
+	 * being modified.
+	 */
+	private boolean shared;
 
     /**
      * Constructor.
@@ -38,6 +148,9 @@ final class PathCondition implements Cloneable {
     	this.clauses = new ArrayList<>();
     	this.referenceResolutionMap = new HashMap<>();
     	this.objectCounters = new HashMap<>();
+    	this.expansions = new HashMap<>();
+    	this.expansionsByClass = new HashMap<>();
+    	this.shared = false;
     }
     
     /**
@@ -47,6 +160,7 @@ final class PathCondition implements Cloneable {
      * @param condition the additional condition as a {@link Primitive}.
      */
     void addClauseAssume(Primitive condition) {
+    	possiblyUnshare();
 		this.clauses.add(new ClauseAssume(condition));
     }
 
@@ -62,9 +176,17 @@ final class PathCondition implements Cloneable {
      *        is expanded.
      */
     void addClauseAssumeExpands(ReferenceSymbolic reference, long heapPosition, Objekt object) {
-    	this.clauses.add(new ClauseAssumeExpands(reference, heapPosition, object));
+    	possiblyUnshare();
+    	final ClauseAssumeExpands clause = new ClauseAssumeExpands(reference, heapPosition, object);
+    	this.clauses.add(clause);
     	this.referenceResolutionMap.put(reference.getId(), heapPosition);
     	
+    	//indexes the expansion
+    	this.expansions.put(heapPosition, clause);
+    	final Expansions expansionsOfClass = this.expansionsByClass.get(object.getType());
+    	this.expansionsByClass.put(object.getType(), 
+    	                           (expansionsOfClass == null ? new Expansions(new ExpansionsArray(), 0) : expansionsOfClass).append(clause));
+    	
     	//increments objectCounters
     	if (!this.objectCounters.containsKey(object.getType())) {
     		this.objectCounters.put(object.getType(), 0);
@@ -85,6 +207,7 @@ final class PathCondition implements Cloneable {
 	 *        at the time of its assumption.
      */
     void addClauseAssumeAliases(ReferenceSymbolic reference, long heapPosition, Objekt object) {
+    	possiblyUnshare();
     	this.clauses.add(new ClauseAssumeAliases(reference, heapPosition, object));
     	this.referenceResolutionMap.put(reference.getId(), heapPosition);
     }
@@ -96,6 +219,7 @@ final class PathCondition implements Cloneable {
      * @param reference the {@link ReferenceSymbolic} which is resolved. 
      */
     void addClauseAssumeNull(ReferenceSymbolic reference) {
+    	possiblyUnshare();
 		this.clauses.add(new ClauseAssumeNull(reference));
 		this.referenceResolutionMap.put(reference.getId(), Util.POS_NULL);
     }
@@ -109,6 +233,7 @@ final class PathCondition implements Cloneable {
      * is resolved.
      */
     void addClauseAssumeClassInitialized(String className, Klass klass) {
+    	possiblyUnshare();
    		this.clauses.add(new ClauseAssumeClassInitialized(className, klass));
     }
 
@@ -119,9 +244,21 @@ final class PathCondition implements Cloneable {
      * @param className the concrete class name as a {@link String}.
      */
     void addClauseAssumeClassNotInitialized(String className) {
+    	possiblyUnshare();
    		this.clauses.add(new ClauseAssumeClassNotInitialized(className));
     }
 
+    private void possiblyUnshare() {
+    	if (this.shared) {
+    		this.clauses = new ArrayList<>(this.clauses);
+    		this.referenceResolutionMap = new HashMap<>(this.referenceResolutionMap);
+    		this.objectCounters = new HashMap<>(this.objectCounters);
+    		this.expansions = new HashMap<>(this.expansions);
+    		this.expansionsByClass = new HashMap<>(this.expansionsByClass);
+    		this.shared = false;
+    	}
+    }
+
 	/**
 	 * Tests whether a symbolic reference is resolved.
 	 * 
@@ -187,6 +324,34 @@ final class PathCondition implements Cloneable {
     	return 0;
     }
     
+    /**
+     * Returns the object assumed by expansion at a given
+     * heap position.
+     * 
+     * @param heapPosition a {@code long}.
+     * @return the {@link Objekt} at position {@code heapPosition}
+     *         as it was at the time of its assumption, or {@code null} 
+     *         if this path condition does not assume by expansion 
+     *         an object at {@code heapPosition}.
+     */
+    Objekt getObjectExpanded(long heapPosition) {
+    	final ClauseAssumeExpands clause = this.expansions.get(heapPosition);
+    	return (clause == null ? null : clause.getObjekt());
+    }
+    
+    /**
+     * Returns the clauses assuming objects by expansion, 
+     * grouped by the class of the assumed objects.
+     * 
+     * @return a read-only {@link Map}{@code <}{@link String}{@code , }{@link List}{@code <}{@link ClauseAssumeExpands}{@code >>}
+     * mapping each class name with the {@link ClauseAssumeExpands} in 
+     * {@code this} that assume objects with that class, in their
+     * order in {@code this}. It is valid until {@code this} is modified.
+     */
+    Map<String, List<ClauseAssumeExpands>> getExpansionsByClass() {
+    	return Collections.unmodifiableMap(this.expansionsByClass);
+    }
+    
     /**
      * Returns all the {@link Clause}s of the path condition.
      *  
@@ -232,6 +397,30 @@ final class PathCondition implements Cloneable {
         o.clauses = new ArrayList<Clause>(this.clauses);
         o.referenceResolutionMap = new HashMap<>(this.referenceResolutionMap);
         o.objectCounters = new HashMap<>(this.objectCounters);
+        o.expansions = new HashMap<>(this.expansions);
+        o.expansionsByClass = new HashMap<>(this.expansionsByClass);
+        o.shared = false;
+        
+        return o;
+    }
+    
+    /**
+     * Returns a clone of this {@link PathCondition} that
+     * shares its members with {@code this}. The members are
+     * copied the first time either path condition is modified.
+     * 
+     * @return a {@link PathCondition}.
+     */
+    PathCondition cloneCopyOnWrite() {
+        final PathCondition o;
+        try {
+            o = (PathCondition) super.clone();
+        } catch (CloneNotSupportedException e) {
+        	throw new InternalError(e);
+        }
+        
+        this.shared = true;
+        o.shared = true;
         
         return o;
     }
@@ -0,0 +1,356 @@
+package jbse.mem;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import jbse.common.exc.UnexpectedInternalException;
+
+/**
+ * A map from nonnegative {@code long} keys to values, implemented
+ * as a persistent radix tree with {@value #WIDTH} children per node.
+ * {@link #clone()} is O(1), because the clone shares all the
+ * nodes with {@code this}; a node is copied the first time
+ * it is modified by either map, so a write is O(log n). Also
+ * the values can be shared: The {@link #getForUpdate(long, UnaryOperator)}
+ * method copies a value the first time it is accessed after a
+ * {@link #clone()}. Iteration is by increasing key.
+ *
+ * @param <V> the type of the values.
+ */
+final class PersistentLongMap<V> implements Cloneable {
+    /** The number of key bits consumed at each level of the tree. */
+    private static final int BITS = 5;
+
+    /** The number of children of a node. */
+    private static final int WIDTH = 1 << BITS;
+
+    /** The mask to extract a child index from a (shifted) key. */
+    private static final int MASK = WIDTH - 1;
+
+    /** The maximum value for {@code shift}. */
+    private static final int MAX_SHIFT = (Long.SIZE / BITS) * BITS;
+
+    /**
+     * A node of the tree. An inner node stores its children
+     * in {@code slots}, a leaf node stores the values, and
+     * for each value the owner token of the map that stored
+     * or copied it. A node, and a value, can be modified
+     * in place only by the map with the same owner token.
+     */
+    private static final class Node {
+        final Object owner;
+        final Object[] slots;
+        final Object[] valueOwners; //null for inner nodes
+
+        Node(Object owner, boolean leaf) {
+            this.owner = owner;
+            this.slots = new Object[WIDTH];
+            this.valueOwners = (leaf ? new Object[WIDTH] : null);
+        }
+
+        Node(Object owner, Node toCopy) {
+            this.owner = owner;
+            this.slots = toCopy.slots.clone();
+            this.valueOwners = (toCopy.valueOwners == null ? null : toCopy.valueOwners.clone());
+        }
+    }
+
+    /**
+     * The owner token of this map. It is replaced by
+     * {@link #clone()}, that this way releases the
+     * ownership of all the nodes and values.
+     */
+    private Object owner;
+
+    /** The root {@link Node}. */
+    private Node root;
+
+    /**
+     * The shift of the root level; the tree stores
+     * the keys in the range {@code [0, 1 << (shift + BITS))}.
+     */
+    private int shift;
+
+    /** The number of mappings. */
+    private int size;
+
+    /**
+     * Constructor. Builds an empty map.
+     */
+    PersistentLongMap() {
+        this.owner = new Object();
+        this.root = new Node(this.owner, true);
+        this.shift = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Returns the number of mappings.
+     *
+     * @return a nonnegative {@code int}.
+     */
+    int size() {
+        return this.size;
+    }
+
+    private boolean inRange(long key) {
+        return key >= 0 && (this.shift + BITS >= Long.SIZE - 1 || key < (1L << (this.shift + BITS)));
+    }
+
+    private Node leaf(long key) {
+        if (!inRange(key)) {
+            return null;
+        }
+        Node node = this.root;
+        for (int s = this.shift; s > 0; s -= BITS) {
+            node = (Node) node.slots[(int) ((key >>> s) & MASK)];
+            if (node == null) {
+                return null;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Checks whether a key is mapped.
+     *
+     * @param key a {@code long}.
+     * @return {@code true} iff {@code key} is mapped
+     *         to a value.
+     */
+    boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Gets the value mapped to a key. The returned value
+     * might be shared with other maps.
+     *
+     * @param key a {@code long}.
+     * @return the value mapped to {@code key}, or
+     *         {@code null} if {@code key} is not mapped.
+     */
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        final Node leaf = leaf(key);
+        return (leaf == null ? null : (V) leaf.slots[(int) (key & MASK)]);
+    }
+
+    /**
+     * Gets the value mapped to a key, copying it if it is
+     * shared with other maps, so the returned value can be
+     * safely modified.
+     *
+     * @param key a {@code long}.
+     * @param copier a {@link UnaryOperator}{@code <V>} that
+     *        produces a copy of a value.
+     * @return the value mapped to {@code key}, or
+     *         {@code null} if {@code key} is not mapped.
+     */
+    @SuppressWarnings("unchecked")
+    V getForUpdate(long key, UnaryOperator<V> copier) {
+        final Node leaf = leaf(key);
+        if (leaf == null) {
+            return null;
+        }
+        final int index = (int) (key & MASK);
+        final V value = (V) leaf.slots[index];
+        if (value == null || leaf.valueOwners[index] == this.owner) {
+            return value;
+        }
+        final V valueCopy = copier.apply(value);
+        final Node leafEditable = editableLeaf(key);
+        leafEditable.slots[index] = valueCopy;
+        leafEditable.valueOwners[index] = this.owner;
+        return valueCopy;
+    }
+
+    /**
+     * Maps a key to a value.
+     *
+     * @param key a nonnegative {@code long}.
+     * @param value a {@code V}. It must not be {@code null}.
+     * @throws UnexpectedInternalException if {@code key < 0}.
+     */
+    void put(long key, V value) {
+        if (key < 0) {
+            throw new UnexpectedInternalException("Negative key " + key + " in persistent map.");
+        }
+        while (!inRange(key)) {
+            final Node newRoot = new Node(this.owner, false);
+            newRoot.slots[0] = this.root;
+            this.root = newRoot;
+            this.shift += BITS;
+            if (this.shift > MAX_SHIFT) {
+                throw new UnexpectedInternalException("Persistent map key range exhausted.");
+            }
+        }
+        final Node leaf = editableLeaf(key);
+        final int index = (int) (key & MASK);
+        if (leaf.slots[index] == null) {
+            ++this.size;
+        }
+        leaf.slots[index] = value;
+        leaf.valueOwners[index] = this.owner;
+    }
+
+    /**
+     * Returns the leaf node for a key, copying all the
+     * nodes not owned by this map along the path from
+     * the root, and creating the missing ones. The key
+     * must be in range.
+     *
+     * @param key a {@code long}.
+     * @return a {@link Node} owned by this map.
+     */
+    private Node editableLeaf(long key) {
+        if (this.root.owner != this.owner) {
+            this.root = new Node(this.owner, this.root);
+        }
+        Node node = this.root;
+        for (int s = this.shift; s > 0; s -= BITS) {
+            final int index = (int) ((key >>> s) & MASK);
+            Node child = (Node) node.slots[index];
+            if (child == null) {
+                child = new Node(this.owner, s == BITS);
+                node.slots[index] = child;
+            } else if (child.owner != this.owner) {
+                child = new Node(this.owner, child);
+                node.slots[index] = child;
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * Returns an unmodifiable {@link Map} view of this map.
+     * The values in the view might be shared with other maps,
+     * thus they must not be modified.
+     *
+     * @return a {@link Map}{@code <}{@link Long}{@code , V>},
+     *         whose iteration order is by increasing key.
+     */
+    Map<Long, V> asMap() {
+        return new AbstractMap<Long, V>() {
+            @Override
+            public int size() {
+                return PersistentLongMap.this.size;
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return get(key) != null;
+            }
+
+            @Override
+            public V get(Object key) {
+                return (key instanceof Long ? PersistentLongMap.this.get((Long) key) : null);
+            }
+
+            @Override
+            public Set<Map.Entry<Long, V>> entrySet() {
+                return new AbstractSet<Map.Entry<Long, V>>() {
+                    @Override
+                    public int size() {
+                        return PersistentLongMap.this.size;
+                    }
+
+                    @Override
+                    public Iterator<Map.Entry<Long, V>> iterator() {
+                        return new EntryIterator();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Iterates the entries of the map in increasing
+     * key order by a depth-first visit of the tree.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<Long, V>> {
+        private final ArrayDeque<Node> nodes = new ArrayDeque<>();
+        private final ArrayDeque<Integer> indices = new ArrayDeque<>();
+        private final ArrayDeque<Long> prefixes = new ArrayDeque<>();
+        private Map.Entry<Long, V> next;
+
+        EntryIterator() {
+            this.nodes.push(PersistentLongMap.this.root);
+            this.indices.push(0);
+            this.prefixes.push(0L);
+            moveForward();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void moveForward() {
+            this.next = null;
+            while (!this.nodes.isEmpty()) {
+                final Node node = this.nodes.peek();
+                final int index = this.indices.pop();
+                final long prefix = this.prefixes.peek();
+                if (index == WIDTH) {
+                    this.nodes.pop();
+                    this.prefixes.pop();
+                    continue;
+                }
+                this.indices.push(index + 1);
+                final Object slot = node.slots[index];
+                if (slot == null) {
+                    continue;
+                }
+                final long key = (prefix << BITS) | index;
+                if (node.valueOwners == null) {
+                    this.nodes.push((Node) slot);
+                    this.indices.push(0);
+                    this.prefixes.push(key);
+                } else {
+                    this.next = new AbstractMap.SimpleImmutableEntry<>(key, (V) slot);
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public Map.Entry<Long, V> next() {
+            if (this.next == null) {
+                throw new NoSuchElementException();
+            }
+            final Map.Entry<Long, V> retVal = this.next;
+            moveForward();
+            return retVal;
+        }
+    }
+
+    /**
+     * Returns a clone of this map in O(1). The clone
+     * shares all the nodes and values with {@code this}.
+     *
+     * @return a {@link PersistentLongMap}{@code <V>}.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public PersistentLongMap<V> clone() {
+        final PersistentLongMap<V> o;
+        try {
+            o = (PersistentLongMap<V>) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+
+        this.owner = new Object();
+        o.owner = new Object();
+        return o;
+    }
+}
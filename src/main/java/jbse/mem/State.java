@@ -24,6 +24,7 @@ import jbse.bc.ClassHierarchy;
 import jbse.bc.Classpath;
 import jbse.bc.ExceptionTable;
 import jbse.bc.ExceptionTableEntry;
+import jbse.bc.FieldLayout;
 import jbse.bc.Signature;
 import jbse.bc.Snippet;
 import jbse.bc.SnippetFactory;
@@ -156,6 +157,23 @@ public final class State implements Cloneable {
      */
     private HashMap<Signature, ReferenceConcrete> linkAppendices = new HashMap<>();
     
+    /**
+     * {@code true} iff {@code stringLiterals}, {@code classes}, 
+     * {@code classesPrimitive}, {@code methodTypes}, {@code linkInvokers}
+     * and {@code linkAppendices} are shared with another state 
+     * because of a copy-on-write {@link #clone()}, and must be 
+     * copied before being modified.
+     */
+    private boolean mapsShared = false;
+    
+    /** 
+     * {@code true} iff {@link #clone()} must produce a copy-on-write
+     * clone, that shares the components of the state (heap objects, 
+     * frames, {@link Klass}es...) with the original one and copies 
+     * each of them only the first time it is accessed for modification.
+     */
+    private final boolean copyOnWrite;
+    
     /** The maximum length an array may have to be granted simple representation. */
     private final int maxSimpleArrayLength;
 
@@ -186,6 +204,8 @@ public final class State implements Cloneable {
      *        is used in place of the class hierarchy to perform expansion.
      * @param calc a {@link Calculator}. It will be used to do all kinds of calculations
      *        on concrete and symbolic values.
+     * @param copyOnWrite a {@code boolean}, {@code true} iff the state and 
+     *        all its clones must be cloned with copy-on-write (see {@link #clone()}).
      * @throws InvalidClassFileFactoryClassException in the case {@link fClass}
      *         has not the expected features (missing constructor, unaccessible 
      *         constructor...).
@@ -195,13 +215,15 @@ public final class State implements Cloneable {
                  Classpath cp, 
                  Class<? extends ClassFileFactory> fClass, 
                  Map<String, Set<String>> expansionBackdoor, 
-                 Calculator calc) 
+                 Calculator calc, 
+                 boolean copyOnWrite) 
                  throws InvalidClassFileFactoryClassException {
         this.heap = new Heap(maxHeapSize);
         this.classHierarchy = new ClassHierarchy(cp, fClass, expansionBackdoor);
         this.maxSimpleArrayLength = maxSimpleArrayLength;
         this.calc = calc;
         this.symbolFactory = new SymbolFactory(this.calc);
+        this.copyOnWrite = copyOnWrite;
     }
 
     /**
@@ -456,7 +478,12 @@ public final class State implements Cloneable {
     }
 
     /**
-     * Gets an object from the heap.
+     * Gets an object from the heap for modification. If 
+     * the object is shared with another state because of
+     * a copy-on-write {@link #clone()}, it is first copied, 
+     * so the returned object can be safely modified. Use 
+     * {@link #getObjectReadOnly(Reference)} when the 
+     * object must only be read.
      * 
      * @param ref a {@link Reference}.
      * @return the {@link Objekt} referred to by {@code ref}, or 
@@ -470,21 +497,34 @@ public final class State implements Cloneable {
      * @throws NullPointerException if {@code ref == null}.
      */
     public Objekt getObject(Reference ref) {
-        final Objekt retVal;
+        final long pos = heapPosition(ref);
+        return (pos == jbse.mem.Util.POS_UNKNOWN ? null : this.heap.getObjectForUpdate(pos));
+    }
+
+    /**
+     * Gets an object from the heap for reading. Differently
+     * from {@link #getObject(Reference)} the object is never 
+     * copied, thus it must not be modified.
+     * 
+     * @param ref a {@link Reference}.
+     * @return the {@link Objekt} referred to by {@code ref}, or 
+     *         {@code null} if {@code ref} does not refer to 
+     *         an object in the heap (see {@link #getObject(Reference)}).
+     * @throws NullPointerException if {@code ref == null}.
+     */
+    public Objekt getObjectReadOnly(Reference ref) {
+        final long pos = heapPosition(ref);
+        return (pos == jbse.mem.Util.POS_UNKNOWN ? null : this.heap.getObject(pos));
+    }
+
+    private long heapPosition(Reference ref) {
         if (ref.isSymbolic()) {
             final ReferenceSymbolic refSymbolic = (ReferenceSymbolic) ref;
-            if (resolved(refSymbolic)) {
-                final long pos = getResolution(refSymbolic);
-                retVal = this.heap.getObject(pos);
-            } else {
-                retVal = null;
-            }
+            return (resolved(refSymbolic) ? getResolution(refSymbolic) : jbse.mem.Util.POS_UNKNOWN);
         } else {
             final ReferenceConcrete refConcrete = (ReferenceConcrete) ref;
-            final long pos = refConcrete.getHeapPosition();
-            retVal = this.heap.getObject(pos);
+            return refConcrete.getHeapPosition();
         }
-        return retVal;
     }
 
     /**
@@ -514,16 +554,7 @@ public final class State implements Cloneable {
             pos = refConcrete.getHeapPosition();
         }
 
-        //TODO extract this code and share with DecisionProcedureAlgorithms.getPossibleAliases
-        for (Clause c : this.pathCondition.getClauses()) {
-            if (c instanceof ClauseAssumeExpands) {
-                final ClauseAssumeExpands cExpands = (ClauseAssumeExpands) c;
-                if (cExpands.getHeapPosition() == pos) {
-                    return cExpands.getObjekt();
-                }
-            }
-        }
-        return null;
+        return this.pathCondition.getObjectExpanded(pos);
     }
 
     /**
@@ -548,6 +579,22 @@ public final class State implements Cloneable {
     public Klass getKlass(String className) {
         return this.staticMethodArea.get(className);
     }
+
+    /**
+     * Returns the {@link Klass} object corresponding to 
+     * a given class name for reading. Differently from 
+     * {@link #getKlass(String)} the object is never 
+     * copied, thus it must not be modified.
+     * 
+     * @param className the name of the class.
+     * @return the {@link Klass} object corresponding to 
+     *         the memory representation of the class 
+     *         {@code className}, or {@code null} 
+     *         if the class has not been initialized.
+     */
+    public Klass getKlassReadOnly(String className) {
+        return this.staticMethodArea.getReadOnly(className);
+    }
     
     /**
      * Checks whether a {@link Signature} is linked to an 
@@ -582,6 +629,7 @@ public final class State implements Cloneable {
         if (signature == null || invoker == null || appendix == null) {
             throw new NullPointerException(); //TODO throw better exception
         }
+        possiblyUnshareMaps();
         this.linkInvokers.put(signature, invoker);
         this.linkAppendices.put(signature, appendix);
     }
@@ -682,15 +730,13 @@ public final class State implements Cloneable {
             //use createInstance_JAVA_CLASS instead
             throw new RuntimeException(); //TODO better exception
         }
-        final Signature[] fieldsSignatures;
-        final int numOfStaticFields;
+        final FieldLayout layout;
         try {
-            numOfStaticFields = this.classHierarchy.numOfStaticFields(className);
-            fieldsSignatures = this.classHierarchy.getAllFields(className);
+            layout = this.classHierarchy.getFieldLayout(className);
         } catch (BadClassFileException e) {
             throw new UnexpectedInternalException(e); //TODO do something better
         }
-        return new Instance(this.calc, className, null, Epoch.EPOCH_AFTER_START, numOfStaticFields, fieldsSignatures);
+        return new Instance(this.calc, className, null, Epoch.EPOCH_AFTER_START, layout);
     }
 
     /**
@@ -708,15 +754,13 @@ public final class State implements Cloneable {
      */
     private ReferenceConcrete createInstance_JAVA_CLASS(String representedClass, boolean isPrimitive) 
     throws HeapMemoryExhaustedException {
-        final int numOfStaticFields;
-        final Signature[] fieldsSignatures;
+        final FieldLayout layout;
         try {
-            numOfStaticFields = this.classHierarchy.numOfStaticFields(JAVA_CLASS);
-            fieldsSignatures = this.classHierarchy.getAllFields(JAVA_CLASS);
+            layout = this.classHierarchy.getFieldLayout(JAVA_CLASS);
         } catch (BadClassFileException e) {
             throw new UnexpectedInternalException(e); //TODO do something better
         }
-        final Instance myObj = new Instance_JAVA_CLASS(this.calc, null, Epoch.EPOCH_AFTER_START, representedClass, isPrimitive, numOfStaticFields, fieldsSignatures);
+        final Instance myObj = new Instance_JAVA_CLASS(this.calc, null, Epoch.EPOCH_AFTER_START, representedClass, isPrimitive, layout);
         final ReferenceConcrete retVal = new ReferenceConcrete(this.heap.addNew(myObj));
         initDefaultHashCodeConcrete(myObj, retVal);
         return retVal;
@@ -739,9 +783,8 @@ public final class State implements Cloneable {
         if (existsKlass(className)) {
             return;
         }
-        final int numOfStaticFields = this.classHierarchy.numOfStaticFields(className);
-        final Signature[] fieldsSignatures = this.classHierarchy.getAllFields(className);
-        final Klass k = new Klass(State.this.calc, null, Objekt.Epoch.EPOCH_AFTER_START, numOfStaticFields, fieldsSignatures);
+        final FieldLayout layout = this.classHierarchy.getFieldLayout(className);
+        final Klass k = new Klass(State.this.calc, null, Objekt.Epoch.EPOCH_AFTER_START, layout);
         k.setObjektDefaultHashCode(this.calc.valInt(0)); //doesn't care because it is not used
         this.staticMethodArea.set(className, k);
     }
@@ -763,9 +806,8 @@ public final class State implements Cloneable {
         if (existsKlass(className)) {
             return;
         }
-        final int numOfStaticFields = this.classHierarchy.numOfStaticFields(className);
-        final Signature[] fieldsSignatures = this.classHierarchy.getAllFields(className);
-        final Klass k = new Klass(this.calc, MemoryPath.mkStatic(className), Objekt.Epoch.EPOCH_BEFORE_START, numOfStaticFields, fieldsSignatures);
+        final FieldLayout layout = this.classHierarchy.getFieldLayout(className);
+        final Klass k = new Klass(this.calc, MemoryPath.mkStatic(className), Objekt.Epoch.EPOCH_BEFORE_START, layout);
         initWithSymbolicValues(k);
         k.setObjektDefaultHashCode(this.calc.valInt(0)); //doesn't care because it is not used
         this.staticMethodArea.set(className, k);
@@ -817,15 +859,13 @@ public final class State implements Cloneable {
     }
 
     private Instance newInstanceSymbolic(String className, MemoryPath origin) {
-        final int numOfStaticFields;
-        final Signature[] fieldsSignatures;
+        final FieldLayout layout;
         try {
-            numOfStaticFields = this.classHierarchy.numOfStaticFields(className);
-            fieldsSignatures = this.classHierarchy.getAllFields(className);
+            layout = this.classHierarchy.getFieldLayout(className);
         } catch (BadClassFileException e) {
             throw new UnexpectedInternalException(e); //TODO do something better
         }
-        final Instance obj = new Instance(this.calc, className, origin, Epoch.EPOCH_BEFORE_START, numOfStaticFields, fieldsSignatures);
+        final Instance obj = new Instance(this.calc, className, origin, Epoch.EPOCH_BEFORE_START, layout);
         initWithSymbolicValues(obj);
         initDefaultHashCodeSymbolic(obj);
         return obj;
@@ -913,17 +953,37 @@ public final class State implements Cloneable {
         if (hasStringLiteral(stringLit)) {
             return;
         }
-        final ReferenceConcrete value = createArrayOfChars(stringLit);
+        final ReferenceConcrete retVal = createString(stringLit);
         final Simplex hash = this.calc.valInt(stringLit.hashCode());
-
-        final ReferenceConcrete retVal = createInstance(JAVA_STRING);
         final Instance i = (Instance) this.getObject(retVal);
-        i.setFieldValue(JAVA_STRING_VALUE,  value);
         i.setFieldValue(JAVA_STRING_HASH,   hash);
 
+        possiblyUnshareMaps();
         this.stringLiterals.put(stringLit, retVal);
     }
 
+    /**
+     * Creates a new {@link Instance} of class {@code java.lang.String} 
+     * in this state's heap with a given content, sidestepping the 
+     * constructors of {@code java.lang.String}. Differently from 
+     * {@link #ensureStringLiteral(String)}, the created object is not 
+     * a string literal, and its hash code is not cached, as for a string
+     * created by a constructor. Does not manage the creation of the 
+     * {@link Klass} for {@code java.lang.String} and for the classes 
+     * of the members of the created object. 
+     * 
+     * @param value a {@link String}, the content of the created object.
+     * @return a {@link ReferenceConcrete} to the created {@link Instance}.
+     * @throws HeapMemoryExhaustedException if the heap is full.
+     */
+    public ReferenceConcrete createString(String value) throws HeapMemoryExhaustedException {
+        final ReferenceConcrete chars = createArrayOfChars(value);
+        final ReferenceConcrete retVal = createInstance(JAVA_STRING);
+        final Instance i = (Instance) this.getObject(retVal);
+        i.setFieldValue(JAVA_STRING_VALUE,  chars);
+        return retVal;
+    }
+
     /**
      * Creates an array of characters in this state and initializes
      * it with some text.
@@ -1038,6 +1098,7 @@ public final class State implements Cloneable {
         this.classHierarchy.resolveClass(accessor, className);
         //TODO resolve JAVA_CLASS
         final ReferenceConcrete retVal = createInstance_JAVA_CLASS(className, false);
+        possiblyUnshareMaps();
         this.classes.put(className, retVal);
     }
 
@@ -1060,6 +1121,7 @@ public final class State implements Cloneable {
         }
         if (isPrimitiveCanonicalName(typeName)) {
             final ReferenceConcrete retVal = createInstance_JAVA_CLASS(typeName, true);
+            possiblyUnshareMaps();
             this.classesPrimitive.put(typeName, retVal);
         } else {
             throw new ClassFileNotFoundException(typeName + " is not the canonical name of a primitive type or void");
@@ -1105,6 +1167,7 @@ public final class State implements Cloneable {
      *         {@code descriptor}, but this is not checked.
      */
     public void setReferenceToInstance_JAVA_METHODTYPE(String descriptor, ReferenceConcrete ref) {
+        possiblyUnshareMaps();
         this.methodTypes.put(descriptor, ref);
     }
 
@@ -1124,7 +1187,7 @@ public final class State implements Cloneable {
     public void unwindStack(Reference exceptionToThrow) 
     throws InvalidIndexException, InvalidProgramCounterException {
         //TODO check that exceptionToThrow is resolved/concrete
-        final Objekt myException = getObject(exceptionToThrow);
+        final Objekt myException = getObjectReadOnly(exceptionToThrow);
         //TODO check that Objekt is Throwable
 
         //fills a vector with all the superclass names of the exception
@@ -1834,6 +1897,20 @@ public final class State implements Cloneable {
         return this.pathCondition.getClauses();
     }
 
+    /**
+     * Returns the path condition clauses that assume objects
+     * by expansion, grouped by the class of the assumed objects.
+     * 
+     * @return a read-only {@link Map}{@code <}{@link String}{@code , }{@link List}{@code <}{@link ClauseAssumeExpands}{@code >>}
+     * mapping each class name with the {@link ClauseAssumeExpands} 
+     * in the path condition that assume objects with that class, 
+     * in their order in the path condition. 
+     * It is valid until {@code this} is modified.
+     */
+    public Map<String, List<ClauseAssumeExpands>> getPathConditionExpansionsByClass() {
+        return this.pathCondition.getExpansionsByClass();
+    }
+
     /**
      * Returns the path condition clauses that have been pushed since
      * the last call of {@link #resetLastPathConditionClauses()}. Used to determine
@@ -2189,6 +2266,29 @@ public final class State implements Cloneable {
         return(tmp);
     }
 
+    private void possiblyUnshareMaps() {
+        if (this.mapsShared) {
+            this.stringLiterals = new HashMap<>(this.stringLiterals);
+            this.classes = new HashMap<>(this.classes);
+            this.classesPrimitive = new HashMap<>(this.classesPrimitive);
+            this.methodTypes = new HashMap<>(this.methodTypes);
+            this.linkInvokers = new HashMap<>(this.linkInvokers);
+            this.linkAppendices = new HashMap<>(this.linkAppendices);
+            this.mapsShared = false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>If this state was created in copy-on-write mode the clone 
+     * shares the heap objects, the frames, the {@link Klass}es and 
+     * the path condition with {@code this}, and each of them is copied 
+     * the first time it is accessed for modification in either state.
+     * In this case the heap objects, frames and {@link Klass}es 
+     * obtained from {@code this} before the clone must not be 
+     * modified after the clone.</p>
+     */
     @Override
     public State clone() {
         final State o;
@@ -2197,6 +2297,37 @@ public final class State implements Cloneable {
         } catch (CloneNotSupportedException e) {
             throw new InternalError(e);
         }
+        
+        if (this.copyOnWrite) {
+            //stringLiterals, classes, classesPrimitive, 
+            //methodTypes, linkInvokers, linkAppendices
+            this.mapsShared = true;
+            o.mapsShared = true;
+
+            //stack
+            o.stack = this.stack.cloneCopyOnWrite();
+
+            //heap
+            o.heap = this.heap.cloneCopyOnWrite();
+
+            //classHierarchy
+            o.classHierarchy = o.classHierarchy.clone();
+
+            //staticStore
+            o.staticMethodArea = this.staticMethodArea.cloneCopyOnWrite();
+
+            //pathCondition
+            o.pathCondition = this.pathCondition.cloneCopyOnWrite();
+
+            //exc and val are values, so they are immutable
+
+            //symbolFactory
+            o.symbolFactory = o.symbolFactory.clone();
+
+            //all other members are immutable
+
+            return o;
+        }
 
         //stringLiterals
         o.stringLiterals = new HashMap<>(o.stringLiterals);
@@ -2235,6 +2366,7 @@ public final class State implements Cloneable {
         
         //linkAppendices
         o.linkAppendices = new HashMap<>(o.linkAppendices);
+        o.mapsShared = false;
         
         //all other members are immutable
 
@@ -1,6 +1,7 @@
 package jbse.mem;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -14,22 +15,71 @@ import java.util.Set;
 public final class StaticMethodArea implements Cloneable {
 	private HashMap<String, Klass> objTable;
 	
+	/** 
+	 * The names of the classes whose {@link Klass} objects are 
+	 * owned by this static method area, i.e., are not shared 
+	 * with other static method areas because of a 
+	 * {@link #cloneCopyOnWrite()}; {@code null} means that 
+	 * all the {@link Klass} objects are owned.
+	 */
+	private HashSet<String> owned;
+	
 	public StaticMethodArea() {
 		this.objTable = new HashMap<String, Klass>();
+		this.owned = null;
 	}
 	
 	public boolean contains(String className) { 
 		return this.objTable.containsKey(className); 
 	}
 
+	/**
+	 * Returns the {@link Klass} object of a class. If it is 
+	 * shared with another static method area it is first 
+	 * copied, so the returned object can be safely modified.
+	 * 
+	 * @param className the name of the class.
+	 * @return the {@link Klass} of {@code className}, or 
+	 *         {@code null} if there is none.
+	 */
 	public Klass get(String className) {
-    	return this.objTable.get(className);
+		final Klass retVal = this.objTable.get(className);
+		if (retVal == null || this.owned == null || this.owned.contains(className)) {
+			return retVal;
+		}
+		final Klass retValCopy = retVal.clone();
+		this.objTable.put(className, retValCopy);
+		this.owned.add(className);
+		return retValCopy;
     }
 
+	/**
+	 * Returns the {@link Klass} object of a class without
+	 * copying it. It may be shared with other static method 
+	 * areas, thus it must not be modified.
+	 * 
+	 * @param className the name of the class.
+	 * @return the {@link Klass} of {@code className}, or 
+	 *         {@code null} if there is none.
+	 */
+	public Klass getReadOnly(String className) {
+		return this.objTable.get(className);
+	}
+
 	public Klass set(String className, Klass k) {
+		if (this.owned != null) {
+			this.owned.add(className);
+		}
     	return this.objTable.put(className, k);
     }
 	
+	/**
+	 * Returns all the {@link Klass} objects. They may be 
+	 * shared with other static method areas, thus they
+	 * must not be modified.
+	 * 
+	 * @return a {@link Map}{@code <}{@link String}{@code , }{@link Klass}{@code >}.
+	 */
     public Map<String, Klass> getObjects() {
         return this.objTable;
     }
@@ -74,6 +124,31 @@ public final class StaticMethodArea implements Cloneable {
 			objTableClone.put(e.getKey(), val.clone());
 		}
 		o.objTable = objTableClone;
+		o.owned = null;
+		
+		return o;
+	}
+	
+	/**
+	 * Returns a clone of this {@link StaticMethodArea} that
+	 * shares all its {@link Klass} objects with {@code this}.
+	 * A shared {@link Klass} is copied the first time it is
+	 * accessed by {@link #get(String)} in either static
+	 * method area.
+	 * 
+	 * @return a {@link StaticMethodArea}.
+	 */
+	StaticMethodArea cloneCopyOnWrite() {
+		final StaticMethodArea o;
+		try {
+			o = (StaticMethodArea) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new InternalError(e);
+		}
+		
+		o.objTable = new HashMap<>(this.objTable);
+		this.owned = new HashSet<>();
+		o.owned = new HashSet<>();
 		
 		return o;
 	}
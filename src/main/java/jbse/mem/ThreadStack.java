@@ -16,11 +16,19 @@ class ThreadStack implements Cloneable {
     /** The actual stack of {@link Frame}s. */
     private ArrayList<Frame> frameStack;
 
+    /** 
+     * The number of {@link Frame}s, from the bottom of {@code frameStack},
+     * that are shared with other {@link ThreadStack}s because of a 
+     * {@link #cloneCopyOnWrite()}, and must be copied before being modified.
+     */
+    private int nShared;
+
     /**
      * Constructor of stack.
      */
     ThreadStack() {
         this.frameStack = new ArrayList<Frame>();
+        this.nShared = 0;
     }
 
     /**
@@ -46,7 +54,16 @@ class ThreadStack implements Cloneable {
         if (isEmpty()) {
             throw new ThreadStackEmptyException();
         }
-        return this.frameStack.remove(this.frameStack.size() - 1);
+        final int top = this.frameStack.size() - 1;
+        final Frame retVal;
+        if (top < this.nShared) {
+            //the caller might modify the popped frame
+            retVal = this.frameStack.remove(top).clone();
+            this.nShared = top;
+        } else {
+            retVal = this.frameStack.remove(top);
+        }
+        return retVal;
     }
 
     /**
@@ -63,6 +80,7 @@ class ThreadStack implements Cloneable {
      */
     void clear() {
         this.frameStack.clear();
+        this.nShared = 0;
     }
 
     /**
@@ -77,11 +95,18 @@ class ThreadStack implements Cloneable {
         if (isEmpty()) {
             throw new ThreadStackEmptyException();
         }
-        return this.frameStack.get(this.frameStack.size() - 1);
+        final int top = this.frameStack.size() - 1;
+        if (top < this.nShared) {
+            this.frameStack.set(top, this.frameStack.get(top).clone());
+            this.nShared = top;
+        }
+        return this.frameStack.get(top);
     }
 
     /**
-     * Returns the root frame.
+     * Returns the root frame. The returned frame
+     * may be shared with other {@link ThreadStack}s, 
+     * thus it must not be modified.
      * 
      * @return the current {@link Frame}, i.e., the 
      *         one on the bottom of the stack.
@@ -97,7 +122,9 @@ class ThreadStack implements Cloneable {
 
     /**
      * Returns an unmodifiable list of all the frames
-     * in the stack.
+     * in the stack. The frames in the list may be 
+     * shared with other {@link ThreadStack}s, thus 
+     * they must not be modified.
      * 
      * @return a {@link List}{@code <}{@link Frame}{@code >} 
      *         of the frames in the stack, in their push order.
@@ -139,6 +166,29 @@ class ThreadStack implements Cloneable {
             frameStackClone.add(this.frameStack.get(i).clone());
         }
         o.frameStack = frameStackClone;
+        o.nShared = 0;
+        return o;
+    }
+
+    /**
+     * Returns a clone of this {@link ThreadStack} that 
+     * shares all its {@link Frame}s with {@code this}. 
+     * A shared frame is copied the first time it becomes 
+     * the current frame of either stack and is accessed.
+     * 
+     * @return a {@link ThreadStack}.
+     */
+    ThreadStack cloneCopyOnWrite() {
+        final ThreadStack o;
+        try {
+            o = (ThreadStack) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+
+        o.frameStack = new ArrayList<>(this.frameStack);
+        this.nShared = this.frameStack.size();
+        o.nShared = this.nShared;
         return o;
-    }   
+    }
 }
\ No newline at end of file
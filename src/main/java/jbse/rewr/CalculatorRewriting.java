@@ -2,7 +2,12 @@ package jbse.rewr;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
+import jbse.common.Type;
 import jbse.common.exc.UnexpectedInternalException;
 import jbse.rewr.exc.NoResultException;
 import jbse.val.Calculator;
@@ -11,6 +16,7 @@ import jbse.val.FunctionApplication;
 import jbse.val.NarrowingConversion;
 import jbse.val.Operator;
 import jbse.val.Primitive;
+import jbse.val.Simplex;
 import jbse.val.WideningConversion;
 import jbse.val.exc.InvalidOperandException;
 import jbse.val.exc.InvalidOperatorException;
@@ -18,19 +24,116 @@ import jbse.val.exc.InvalidTypeException;
 
 
 /**
- * A {@link Calculator} based on {@link Rewriter}s.
+ * A {@link Calculator} based on {@link Rewriter}s. Since 
+ * {@link Rewriter}s are stateful, each thread rewrites with
+ * its own {@link Rewriter#copy() copies} of the registered 
+ * {@link Rewriter}s, so the calculator can be shared by many 
+ * threads without serializing them. The calculator may memoize 
+ * the results of rewriting with the registered {@link Rewriter}s, 
+ * that therefore must rewrite equal {@link Primitive}s to equal 
+ * {@link Primitive}s; Each thread has its own memo.
  * 
  * @author Pietro Braione
  *
  */
 public class CalculatorRewriting extends Calculator {
+    /** 
+     * The state of rewriting that is confined to a thread.
+     */
+    private static final class Worker {
+        /** The {@code rewritersVersion} when this worker was created. */
+        final int version;
+
+        /** The copies of the registered {@link Rewriter}s. */
+        final Rewriter[] rewriters;
+
+        /** 
+         * Maps the rewritten {@link Primitive}s to the results
+         * of rewriting them with {@code rewriters}, in access 
+         * order. The results are also mapped to themselves, to
+         * mark them as normalized. It is {@code null} iff 
+         * {@code rewriteCacheSize == 0}.
+         */
+        final LinkedHashMap<Primitive, Primitive> rewriteCache;
+
+        Worker(int version, Rewriter[] rewriters, int rewriteCacheSize) {
+            this.version = version;
+            this.rewriters = rewriters;
+            this.rewriteCache = (rewriteCacheSize == 0 ? null : 
+                new LinkedHashMap<Primitive, Primitive>(16, 0.75f, true) {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Primitive, Primitive> eldest) {
+                        return size() > rewriteCacheSize;
+                    }
+                });
+        }
+    }
+
+    /** The registered {@link Rewriter}s, never used to rewrite. */
     private final ArrayList<Rewriter> rewriters = new ArrayList<Rewriter>();
 
+    /** 
+     * Incremented whenever a {@link Rewriter} is registered, 
+     * so the {@link Worker}s created before are discarded. 
+     */
+    private volatile int rewritersVersion = 0;
+
+    /** 
+     * The maximum number of memoized rewritings; 
+     * {@code 0} for no memoization.
+     */
+    private final int rewriteCacheSize;
+
+    /** 
+     * Maps each thread that rewrote with this calculator to 
+     * its {@link Worker}. It is not a {@link ThreadLocal}, 
+     * that would keep the calculator alive as long as the
+     * thread, because the {@link Worker}s refer to it.
+     */
+    private final ConcurrentHashMap<Thread, Worker> workers = new ConcurrentHashMap<>();
+
     /**
-     * Constructor.
+     * Whether the {@link Rewriter}s calculate the operations on
+     * {@link Simplex} operands as {@link RewriterOperationOnSimplex}
+     * does, so these operations can be calculated without building
+     * and rewriting an {@link Expression}. It is the case when 
+     * the first {@link Rewriter} {@link Rewriter#foldsOperationsOnSimplex() folds}
+     * the operations on {@link Simplex} operands, and no {@link Rewriter} 
+     * {@link Rewriter#rewritesSimplex() rewrites} {@link Simplex} values.
+     */
+    private volatile boolean foldsSimplex = false;
+
+    /** The number of rewritings answered by the {@link Worker}s' memos. */
+    private final LongAdder rewriteCacheHits = new LongAdder();
+
+    /** The number of rewritings not answered by the {@link Worker}s' memos. */
+    private final LongAdder rewriteCacheMisses = new LongAdder();
+
+    /**
+     * Constructor. The resulting calculator 
+     * does not memoize rewriting.
      */
     public CalculatorRewriting() {
+        this(0);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param rewriteCacheSize a nonnegative {@code int}, 
+     *        the maximum number of results of rewriting 
+     *        that the calculator memoizes; {@code 0} 
+     *        for no memoization.
+     * @throws IllegalArgumentException if {@code rewriteCacheSize < 0}.
+     */
+    public CalculatorRewriting(int rewriteCacheSize) {
         super();
+        if (rewriteCacheSize < 0) {
+            throw new IllegalArgumentException("The size of a rewrite cache must be nonnegative.");
+        }
+        this.rewriteCacheSize = rewriteCacheSize;
     }
 
     /**
@@ -39,6 +142,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive add(Primitive firstOperand, Primitive secondOperand) 
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(firstOperand, Operator.ADD, secondOperand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionBinary(this, firstOperand, Operator.ADD, secondOperand));
         } catch (InvalidOperatorException e) {
@@ -53,6 +160,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive mul(Primitive firstOperand, Primitive secondOperand)
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(firstOperand, Operator.MUL, secondOperand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionBinary(this, firstOperand, Operator.MUL, secondOperand));
         } catch (InvalidOperatorException e) {
@@ -67,6 +178,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive sub(Primitive firstOperand, Primitive secondOperand)
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(firstOperand, Operator.SUB, secondOperand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionBinary(this, firstOperand, Operator.SUB, secondOperand));
         } catch (InvalidOperatorException e) {
@@ -81,6 +196,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive div(Primitive firstOperand, Primitive secondOperand)
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(firstOperand, Operator.DIV, secondOperand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionBinary(this, firstOperand, Operator.DIV, secondOperand));
         } catch (InvalidOperatorException e) {
@@ -95,6 +214,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive rem(Primitive firstOperand, Primitive secondOperand)
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(firstOperand, Operator.REM, secondOperand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionBinary(this, firstOperand, Operator.REM, secondOperand));
         } catch (InvalidOperatorException e) {
@@ -109,6 +232,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive neg(Primitive operand)
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(null, Operator.NEG, operand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionUnary(this, Operator.NEG, operand));
         } catch (InvalidOperatorException e) {
@@ -123,6 +250,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive andBitwise(Primitive firstOperand, Primitive secondOperand) 
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(firstOperand, Operator.ANDBW, secondOperand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionBinary(this, firstOperand, Operator.ANDBW, secondOperand));
         } catch (InvalidOperatorException e) {
@@ -137,6 +268,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive orBitwise(Primitive firstOperand, Primitive secondOperand) 
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(firstOperand, Operator.ORBW, secondOperand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionBinary(this, firstOperand, Operator.ORBW, secondOperand));
         } catch (InvalidOperatorException e) {
@@ -151,6 +286,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive xorBitwise(Primitive first, Primitive param) 
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(first, Operator.XORBW, param);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionBinary(this, first, Operator.XORBW, param));
         } catch (InvalidOperatorException e) {
@@ -165,6 +304,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive and(Primitive firstOperand, Primitive secondOperand) 
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(firstOperand, Operator.AND, secondOperand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionBinary(this, firstOperand, Operator.AND, secondOperand));
         } catch (InvalidOperatorException e) {
@@ -179,6 +322,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive or(Primitive firstOperand, Primitive secondOperand) 
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(firstOperand, Operator.OR, secondOperand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionBinary(this, firstOperand, Operator.OR, secondOperand));
         } catch (InvalidOperatorException e) {
@@ -193,6 +340,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive not(Primitive operand)
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(null, Operator.NOT, operand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionUnary(this, Operator.NOT, operand));
         } catch (InvalidOperatorException e) {
@@ -207,6 +358,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive shl(Primitive firstOperand, Primitive secondOperand)
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(firstOperand, Operator.SHL, secondOperand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionBinary(this, firstOperand, Operator.SHL, secondOperand));
         } catch (InvalidOperatorException e) {
@@ -222,6 +377,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive shr(Primitive firstOperand, Primitive secondOperand)
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(firstOperand, Operator.SHR, secondOperand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionBinary(this, firstOperand, Operator.SHR, secondOperand));
         } catch (InvalidOperatorException e) {
@@ -236,6 +395,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive ushr(Primitive firstOperand, Primitive secondOperand)
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(firstOperand, Operator.USHR, secondOperand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionBinary(this, firstOperand, Operator.USHR, secondOperand));
         } catch (InvalidOperatorException e) {
@@ -250,6 +413,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive eq(Primitive firstOperand, Primitive secondOperand)
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(firstOperand, Operator.EQ, secondOperand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionBinary(this, firstOperand, Operator.EQ, secondOperand));
         } catch (InvalidOperatorException e) {
@@ -264,6 +431,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive ne(Primitive firstOperand, Primitive secondOperand)
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(firstOperand, Operator.NE, secondOperand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionBinary(this, firstOperand, Operator.NE, secondOperand));
         } catch (InvalidOperatorException e) {
@@ -278,6 +449,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive le(Primitive firstOperand, Primitive secondOperand)
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(firstOperand, Operator.LE, secondOperand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionBinary(this, firstOperand, Operator.LE, secondOperand));
         } catch (InvalidOperatorException e) {
@@ -292,6 +467,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive lt(Primitive firstOperand, Primitive secondOperand)
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(firstOperand, Operator.LT, secondOperand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionBinary(this, firstOperand, Operator.LT, secondOperand));
         } catch (InvalidOperatorException e) {
@@ -306,6 +485,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive ge(Primitive firstOperand, Primitive secondOperand)
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(firstOperand, Operator.GE, secondOperand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionBinary(this, firstOperand, Operator.GE, secondOperand));
         } catch (InvalidOperatorException e) {
@@ -320,6 +503,10 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive gt(Primitive firstOperand, Primitive secondOperand)
     throws InvalidOperandException, InvalidTypeException {
+        final Simplex folded = fold(firstOperand, Operator.GT, secondOperand);
+        if (folded != null) {
+            return folded;
+        }
         try {
             return applyRewriters(Expression.makeExpressionBinary(this, firstOperand, Operator.GT, secondOperand));
         } catch (InvalidOperatorException e) {
@@ -334,7 +521,7 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive applyFunction(char type, String operator, Primitive... args) 
     throws InvalidOperandException, InvalidTypeException {
-        return applyRewriters(new FunctionApplication(type, this, operator, args));
+        return applyRewriters(FunctionApplication.make(type, this, operator, args));
     }
 
     /**
@@ -343,6 +530,9 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive widen(char type, Primitive arg) 
     throws InvalidTypeException, InvalidOperandException {
+        if (this.foldsSimplex && arg instanceof Simplex && Type.widens(type, arg.getType())) {
+            return (type == arg.getType() ? arg : SimplexFolding.convert(this, (Simplex) arg, type));
+        }
         return applyRewriters(WideningConversion.make(type, this, arg));
     }
 
@@ -352,20 +542,52 @@ public class CalculatorRewriting extends Calculator {
     @Override
     public Primitive narrow(char type, Primitive arg) 
     throws InvalidTypeException, InvalidOperandException {
+        if (this.foldsSimplex && arg instanceof Simplex && Type.narrows(type, arg.getType())) {
+            return (type == arg.getType() ? arg : SimplexFolding.convert(this, (Simplex) arg, type));
+        }
         return applyRewriters(NarrowingConversion.make(type, this, arg));
     }
 
     /**
-     * Adds a rewriter.
+     * Adds a rewriter. It invalidates all the memoized
+     * results of rewriting.
      * 
      * @param r the {@link Rewriter} to add.
      */
-    public void addRewriter(Rewriter r) {
+    public synchronized void addRewriter(Rewriter r) {
         this.rewriters.add(r);
+        ++this.rewritersVersion;
+        this.foldsSimplex = (this.rewriters.get(0).foldsOperationsOnSimplex() && 
+                             (this.foldsSimplex || this.rewriters.size() == 1) && 
+                             !r.rewritesSimplex());
+    }
+
+    /**
+     * Calculates an operation on {@link Simplex} operands 
+     * without building an {@link Expression}, when the 
+     * {@link Rewriter}s would calculate it.
+     * 
+     * @param firstOperand a {@link Primitive}, or {@code null}
+     *        if {@code operator} is unary.
+     * @param operator an {@link Operator}.
+     * @param secondOperand a {@link Primitive}.
+     * @return the {@link Simplex} result, or {@code null} if 
+     *         the operation must be calculated by rewriting.
+     */
+    private Simplex fold(Primitive firstOperand, Operator operator, Primitive secondOperand) {
+        if (this.foldsSimplex && 
+            (firstOperand == null || firstOperand instanceof Simplex) && 
+            secondOperand instanceof Simplex) {
+            return SimplexFolding.fold(this, (Simplex) firstOperand, operator, (Simplex) secondOperand);
+        }
+        return null;
     }
 
     /**
      * Applies a sequence of rewriters to a {@link Primitive}.
+     * When {@code rewriters} is empty the result may be memoized, 
+     * otherwise it is not, because the {@link Rewriter}s in
+     * {@code rewriters} may depend on some external state.
      * 
      * @param p a {@link Primitive}.
      * @param rewriters a {@link Rewriter}{@code []}.
@@ -376,9 +598,57 @@ public class CalculatorRewriting extends Calculator {
      *         in their invocation order.
      */
     public Primitive applyRewriters(Primitive p, Rewriter...rewriters) {
+        final Worker w = worker();
+        if (w.rewriteCache == null || rewriters.length > 0 || p == null) {
+            return doApplyRewriters(w, p, rewriters);
+        }
+        final Primitive cached = w.rewriteCache.get(p);
+        if (cached != null) {
+            this.rewriteCacheHits.increment();
+            return cached;
+        }
+        this.rewriteCacheMisses.increment();
+        final Primitive retVal = doApplyRewriters(w, p, rewriters);
+        w.rewriteCache.put(p, retVal);
+        if (retVal != p) {
+            //retVal is normalized, rewriting it again is the identity
+            w.rewriteCache.put(retVal, retVal);
+        }
+        return retVal;
+    }
+
+    /**
+     * Returns the {@link Worker} of the current thread, 
+     * possibly creating it.
+     * 
+     * @return a {@link Worker}.
+     */
+    private Worker worker() {
+        final Thread current = Thread.currentThread();
+        final Worker w = this.workers.get(current);
+        if (w != null && w.version == this.rewritersVersion) {
+            return w;
+        }
+        final Worker retVal;
+        synchronized (this) {
+            final Rewriter[] copies = new Rewriter[this.rewriters.size()];
+            for (int i = 0; i < copies.length; ++i) {
+                copies[i] = this.rewriters.get(i).copy();
+            }
+            retVal = new Worker(this.rewritersVersion, copies, this.rewriteCacheSize);
+        }
+        if (w == null) {
+            //a new thread: discards the workers of the terminated ones
+            this.workers.keySet().removeIf(t -> !t.isAlive());
+        }
+        this.workers.put(current, retVal);
+        return retVal;
+    }
+
+    private Primitive doApplyRewriters(Worker w, Primitive p, Rewriter...rewriters) {
         Primitive retVal = p;
         final ArrayList<Rewriter> toApply = new ArrayList<Rewriter>(Arrays.asList(rewriters));
-        toApply.addAll(this.rewriters);
+        toApply.addAll(Arrays.asList(w.rewriters));
         for (Rewriter r : toApply) {
             try {
                 r.setCalculator(this);
@@ -390,4 +660,25 @@ public class CalculatorRewriting extends Calculator {
         }
         return retVal;
     }
+
+    /**
+     * Returns the number of rewritings whose
+     * results were memoized.
+     * 
+     * @return a {@code long}.
+     */
+    public long getRewriteCacheHits() {
+        return this.rewriteCacheHits.sum();
+    }
+
+    /**
+     * Returns the number of rewritings whose
+     * results were not memoized, and that were
+     * therefore calculated.
+     * 
+     * @return a {@code long}.
+     */
+    public long getRewriteCacheMisses() {
+        return this.rewriteCacheMisses.sum();
+    }
 }
@@ -71,7 +71,7 @@ class Monomial implements Comparable<Monomial> {
 	}
 	
 	private static Map<Primitive, Integer> makeRep() {
-		return new HashMap<Primitive, Integer>(512);
+		return new HashMap<Primitive, Integer>();
 	}
 
 	public static Monomial of(CalculatorRewriting calc, Primitive p) {
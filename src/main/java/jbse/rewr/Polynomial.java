@@ -1,11 +1,9 @@
 package jbse.rewr;
 
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
-import java.util.TreeSet;
 
 import jbse.common.Type;
 import jbse.common.exc.UnexpectedInternalException;
@@ -24,6 +22,13 @@ import jbse.val.exc.InvalidOperandException;
 import jbse.val.exc.InvalidOperatorException;
 import jbse.val.exc.InvalidTypeException;
 
+/**
+ * Class for polynomials, i.e., sums of {@link Monomial}s. A polynomial
+ * is represented by parallel arrays of bases (i.e., monomials with 
+ * scale set to 1) and of their multipliers, sorted by the hash codes 
+ * of the bases, so the sum of two polynomials is calculated by merging
+ * their representations.
+ */
 class Polynomial {
 	/** {@link CalculatorRewriting} for the {@link Primitive} it represents. */
 	private final CalculatorRewriting calc;
@@ -32,37 +37,54 @@ class Polynomial {
 	private final char type;
 
 	/** 
-	 * The representation of the polynomial as a map from bases (i.e., monomials
-	 * with scale set to 1) to their multipliers as {@link Simplex}. 
+	 * The bases (i.e., monomials with scale set to 1) of the polynomial,
+	 * sorted by hash code. 
 	 */
-	private final Map<Monomial, Simplex> rep;
+	private final Monomial[] bases;
 
-	private Polynomial(CalculatorRewriting calc, char type, Map<Monomial, Simplex> rep) {
+	/** The multipliers of {@code bases}. */
+	private final Simplex[] multipliers;
+
+	/** The hash codes of {@code bases}, in ascending order. */
+	private final int[] hashes;
+
+	private Polynomial(CalculatorRewriting calc, char type, Monomial[] bases, Simplex[] multipliers, int[] hashes) {
 		this.calc = calc;
 		this.type = type;
-		this.rep = rep;
+		this.bases = bases;
+		this.multipliers = multipliers;
+		this.hashes = hashes;
 	}
 
 	public static Polynomial of(CalculatorRewriting calc, Primitive p) {
-		return new PolynomialBuilder(calc, makeRep()).of(p).make();
-	}
-
-	private static Map<Monomial, Simplex> makeRep() {
-		return new HashMap<Monomial, Simplex>(512);
+		return new PolynomialBuilder(calc).of(p).make();
 	}
 
 	public static PolynomialBuilder build(CalculatorRewriting calc) {
-		return new PolynomialBuilder(calc, makeRep());
+		return new PolynomialBuilder(calc);
 	}
 
 	public static class PolynomialBuilder {
 		private final CalculatorRewriting calc;
 		private char type = Type.UNKNOWN;
-		private final Map<Monomial, Simplex> rep;
 
-		private PolynomialBuilder(CalculatorRewriting calc, Map<Monomial, Simplex> rep) {
+		/* 
+		 * The pending updates to the polynomial, as parallel arrays 
+		 * of bases, multipliers, hash codes of the bases, and whether 
+		 * the update replaces the multiplier of the base rather
+		 * than adding to it. They are applied in order by make().
+		 */
+		private Monomial[] bases = new Monomial[8];
+		private Simplex[] multipliers = new Simplex[8];
+		private int[] hashes = new int[8];
+		private boolean[] puts = new boolean[8];
+		private int size = 0;
+
+		/** Whether the updates are sorted by hash code. */
+		private boolean sorted = true;
+
+		private PolynomialBuilder(CalculatorRewriting calc) {
 			this.calc = calc;
-			this.rep = rep;
 		}
 
 		public PolynomialBuilder of(Primitive p) {
@@ -81,8 +103,11 @@ class Polynomial {
 
 		public PolynomialBuilder as(Polynomial p) {
 			this.type = p.type;
-			this.rep.clear();
-			this.rep.putAll(p.rep);
+			this.size = 0;
+			this.sorted = true;
+			for (int i = 0; i < p.bases.length; ++i) {
+				update(p.bases[i], p.multipliers[i], p.hashes[i], true);
+			}
 			return this;
 		}
 
@@ -90,7 +115,112 @@ class Polynomial {
 			if (this.type == Type.UNKNOWN || this.type == Type.ERROR) {
 				throw new UnexpectedInternalException();
 			}
-			return new Polynomial(this.calc, this.type, Collections.unmodifiableMap(this.rep));
+			if (!this.sorted) {
+				sort();
+			}
+			
+			//applies the updates, one run of equal hash codes at a time
+			final Monomial[] basesNew = new Monomial[this.size];
+			final Simplex[] multipliersNew = new Simplex[this.size];
+			final int[] hashesNew = new int[this.size];
+			int sizeNew = 0;
+			for (int i = 0; i < this.size; ++i) {
+				final int runStart = (i > 0 && this.hashes[i] == this.hashes[i - 1] ? runStart(hashesNew, sizeNew, this.hashes[i]) : sizeNew);
+				int j = runStart;
+				while (j < sizeNew && !basesNew[j].equals(this.bases[i])) {
+					++j;
+				}
+				final Simplex multiplier;
+				if (j == sizeNew) {
+					//new base
+					if (!this.puts[i] && this.multipliers[i].isZeroOne(true)) {
+						continue;
+					}
+					multiplier = this.multipliers[i];
+					++sizeNew;
+				} else if (this.puts[i]) {
+					multiplier = this.multipliers[i];
+				} else {
+					try {
+						multiplier = (Simplex) multipliersNew[j].add(this.multipliers[i]);
+					} catch (InvalidOperandException | InvalidTypeException e) {
+						//this should never happen
+						throw new UnexpectedInternalException(e);
+					}
+					if (multiplier.isZeroOne(true)) {
+						//removes the base
+						--sizeNew;
+						System.arraycopy(basesNew, j + 1, basesNew, j, sizeNew - j);
+						System.arraycopy(multipliersNew, j + 1, multipliersNew, j, sizeNew - j);
+						System.arraycopy(hashesNew, j + 1, hashesNew, j, sizeNew - j);
+						continue;
+					}
+				}
+				basesNew[j] = this.bases[i];
+				multipliersNew[j] = multiplier;
+				hashesNew[j] = this.hashes[i];
+			}
+			return new Polynomial(this.calc, this.type, 
+					Arrays.copyOf(basesNew, sizeNew), 
+					Arrays.copyOf(multipliersNew, sizeNew), 
+					Arrays.copyOf(hashesNew, sizeNew));
+		}
+
+		private static int runStart(int[] hashes, int size, int hash) {
+			int retVal = size;
+			while (retVal > 0 && hashes[retVal - 1] == hash) {
+				--retVal;
+			}
+			return retVal;
+		}
+
+		/**
+		 * Stably sorts the updates by hash code, so the
+		 * updates to a same base are still applied in order.
+		 * Each update is sorted as a {@code long} key with the
+		 * hash code in the high half and the position in the 
+		 * low half, so equal hash codes keep their order.
+		 */
+		private void sort() {
+			final long[] keys = new long[this.size];
+			for (int i = 0; i < this.size; ++i) {
+				keys[i] = (((long) this.hashes[i]) << 32) | i;
+			}
+			Arrays.sort(keys);
+			final Monomial[] basesSorted = new Monomial[this.bases.length];
+			final Simplex[] multipliersSorted = new Simplex[this.bases.length];
+			final int[] hashesSorted = new int[this.bases.length];
+			final boolean[] putsSorted = new boolean[this.bases.length];
+			for (int i = 0; i < this.size; ++i) {
+				final int j = (int) keys[i];
+				basesSorted[i] = this.bases[j];
+				multipliersSorted[i] = this.multipliers[j];
+				hashesSorted[i] = this.hashes[j];
+				putsSorted[i] = this.puts[j];
+			}
+			this.bases = basesSorted;
+			this.multipliers = multipliersSorted;
+			this.hashes = hashesSorted;
+			this.puts = putsSorted;
+			this.sorted = true;
+		}
+
+		private void update(Monomial base, Simplex multiplier, int hash, boolean put) {
+			if (this.size == this.bases.length) {
+				final int capacity = this.size * 2;
+				this.bases = Arrays.copyOf(this.bases, capacity);
+				this.multipliers = Arrays.copyOf(this.multipliers, capacity);
+				this.hashes = Arrays.copyOf(this.hashes, capacity);
+				this.puts = Arrays.copyOf(this.puts, capacity);
+			}
+			if (this.size > 0 && this.hashes[this.size - 1] > hash) {
+				this.sorted = false;
+			}
+			this.bases[this.size] = base;
+			this.multipliers[this.size] = multiplier;
+			this.hashes[this.size] = hash;
+			this.puts[this.size] = put;
+			++this.size;
 		}
 
 		public PolynomialBuilder addMonomial(Monomial m) 
@@ -98,29 +228,12 @@ class Polynomial {
 			if (m == null) {
 				throw new InvalidOperandException("tried to add a null monomial to a polynomial");
 			}
-			try {
-				addMonomial(m.createBase(), m.getMultiplier());
-			} catch (InvalidOperandException e) {
-				//this should never happen after the previous null check
-				throw new UnexpectedInternalException(e);
-			}
+			addMonomial(m.createBase(), m.getMultiplier());
 			return this;
 		}
 
-		private void addMonomial(Monomial base, Simplex multiplier) 
-		throws InvalidOperandException, InvalidTypeException {
-			if (this.rep.containsKey(base)) {
-				Simplex multiplierNew = (Simplex) this.rep.get(base).add(multiplier);
-				if (multiplierNew.isZeroOne(true)) {
-					this.rep.remove(base);
-				} else {
-					this.rep.put(base, (Simplex) multiplierNew);
-				}
-			} else if (multiplier.isZeroOne(true)) {
-				return; //do nothing
-			} else {
-				this.rep.put(base, multiplier);
-			}
+		private void addMonomial(Monomial base, Simplex multiplier) {
+			update(base, multiplier, base.hashCode(), false);
 		}
 
 		public PolynomialBuilder mul(Polynomial first, Polynomial other) 
@@ -130,12 +243,12 @@ class Polynomial {
 			}
 			Operator.typeCheck(Operator.MUL, first.type, other.type);
 			this.type = first.type;
-			for (Entry<Monomial, Simplex> eThis : first.rep.entrySet()) {
-				for (Entry<Monomial, Simplex> eOther : other.rep.entrySet()) {
-					final Monomial base = eThis.getKey().mul(eOther.getKey());
+			for (int i = 0; i < first.bases.length; ++i) {
+				for (int j = 0; j < other.bases.length; ++j) {
+					final Monomial base = first.bases[i].mul(other.bases[j]);
 					final Simplex multiplier;
 					try {
-						multiplier = (Simplex) eThis.getValue().mul(eOther.getValue());
+						multiplier = (Simplex) first.multipliers[i].mul(other.multipliers[j]);
 					} catch (InvalidOperandException e) {
 						//this should never happen
 						throw new UnexpectedInternalException(e);
@@ -153,15 +266,8 @@ class Polynomial {
 			}
 			Operator.typeCheck(Operator.NEG, p.type);
 			this.type = p.type;
-			for (Entry<Monomial, Simplex> eThis : p.rep.entrySet()) {
-				final Monomial base = eThis.getKey();
-				final Simplex multiplier = (Simplex) eThis.getValue().neg();
-				try {
-					addMonomial(base, multiplier);
-				} catch (InvalidOperandException | InvalidTypeException exc) {
-					//this should never happen
-					throw new UnexpectedInternalException(exc);
-				}
+			for (int i = 0; i < p.bases.length; ++i) {
+				update(p.bases[i], (Simplex) p.multipliers[i].neg(), p.hashes[i], false);
 			}
 			return this;
 		}
@@ -173,13 +279,16 @@ class Polynomial {
 			}
 			Operator.typeCheck(Operator.ADD, first.type, other.type);
 			this.type = first.type;
-			this.rep.putAll(first.rep);
-			for (Entry<Monomial, Simplex> eOther : other.rep.entrySet()) {
-				try {
-					addMonomial(eOther.getKey(), eOther.getValue());
-				} catch (InvalidOperandException | InvalidTypeException exc) {
-					//this should never happen
-					throw new UnexpectedInternalException(exc);
+			
+			//merges the representations, so the updates remain sorted
+			int i = 0, j = 0;
+			while (i < first.bases.length || j < other.bases.length) {
+				if (j == other.bases.length || (i < first.bases.length && first.hashes[i] <= other.hashes[j])) {
+					update(first.bases[i], first.multipliers[i], first.hashes[i], true);
+					++i;
+				} else {
+					update(other.bases[j], other.multipliers[j], other.hashes[j], false);
+					++j;
 				}
 			}
 			return this;
@@ -193,18 +302,20 @@ class Polynomial {
 			Operator.typeCheck(Operator.DIV, first.type, other.type);
 			this.type = first.type;
 			final Monomial gcd = first.gcdMonomials().gcd(other.gcdMonomials());
-			final boolean allMultipliersEqual = allMultipliersEqual(first.rep, other.rep);
+			final boolean allMultipliersEqual = allMultipliersEqual(first, other);
 			final Primitive otherPrimitive = other.toPrimitive();
 			final boolean otherIsSimplexFloat = Type.isPrimitiveFloating(other.type) && otherPrimitive instanceof Simplex;
 			final boolean allMultipliersDivisibleByOther = Type.isPrimitiveIntegral(other.type) && otherPrimitive instanceof Simplex
-					&& allMultipliersDivisibleBy(first.rep, (Simplex) otherPrimitive);
+					&& allMultipliersDivisibleBy(first, (Simplex) otherPrimitive);
 			final Simplex one = (Simplex) this.calc.valInt(1).to(this.type);
-			for (Entry<Monomial, Simplex> e : first.rep.entrySet()) {
+			for (int i = 0; i < first.bases.length; ++i) {
 				try {
-					this.rep.put(e.getKey().div(gcd)[0], 
+					final Monomial base = first.bases[i].div(gcd)[0];
+					update(base, 
 							(allMultipliersEqual ? one :
-								(otherIsSimplexFloat || allMultipliersDivisibleByOther) ? (Simplex) e.getValue().div(otherPrimitive) :
-									e.getValue()));
+								(otherIsSimplexFloat || allMultipliersDivisibleByOther) ? (Simplex) first.multipliers[i].div(otherPrimitive) :
+									first.multipliers[i]), 
+							base.hashCode(), true);
 				} catch (InvalidOperandException | InvalidTypeException exc) {
 					//this should never happen
 					throw new UnexpectedInternalException(exc);
@@ -221,29 +332,31 @@ class Polynomial {
 			Operator.typeCheck(Operator.DIV, first.type, other.type);
 			this.type = first.type;
 			final Monomial gcd = first.gcdMonomials().gcd(other.gcdMonomials());
-			final boolean allMultipliersEqual = allMultipliersEqual(first.rep, other.rep);
+			final boolean allMultipliersEqual = allMultipliersEqual(first, other);
 			final Primitive otherPrimitive = other.toPrimitive();
 			final boolean otherIsSimplexFloat = Type.isPrimitiveFloating(other.type) && otherPrimitive instanceof Simplex;
 			final boolean allMultipliersDivisibleByOther = Type.isPrimitiveIntegral(other.type) && otherPrimitive instanceof Simplex
-					&& allMultipliersDivisibleBy(first.rep, (Simplex) otherPrimitive);
+					&& allMultipliersDivisibleBy(first, (Simplex) otherPrimitive);
 			final Simplex one = (Simplex) this.calc.valInt(1).to(this.type);
-			for (Entry<Monomial, Simplex> e : other.rep.entrySet()) {
-				this.rep.put(e.getKey().div(gcd)[0], 
+			for (int i = 0; i < other.bases.length; ++i) {
+				final Monomial base = other.bases[i].div(gcd)[0];
+				update(base, 
 						((allMultipliersEqual || otherIsSimplexFloat || allMultipliersDivisibleByOther) ? one : 
-						e.getValue()));
+						other.multipliers[i]), 
+						base.hashCode(), true);
 			}
 			return this;
 		}
 
-		private static boolean allMultipliersEqual(Map<Monomial, Simplex> firstRep, Map<Monomial, Simplex> otherRep) {
+		private static boolean allMultipliersEqual(Polynomial first, Polynomial other) {
 			Simplex previous = null;
-			for (Simplex s : firstRep.values()) {
+			for (Simplex s : first.multipliers) {
 				if (previous != null && !previous.equals(s)) {
 					return false;
 				}
 				previous = s;
 			}
-			for (Simplex s : otherRep.values()) {
+			for (Simplex s : other.multipliers) {
 				if (previous != null && !previous.equals(s)) {
 					return false;
 				}
@@ -252,11 +365,11 @@ class Polynomial {
 			return true;
 		}
 		
-		private boolean allMultipliersDivisibleBy(Map<Monomial, Simplex> rep, Simplex otherPrimitive) 
+		private boolean allMultipliersDivisibleBy(Polynomial p, Simplex otherPrimitive) 
 		throws InvalidOperandException, InvalidTypeException {
 			Simplex previous = null;
 			final Simplex zero = (Simplex) this.calc.valInt(0).to(otherPrimitive.getType()); 
-			for (Simplex s : rep.values()) {
+			for (Simplex s : p.multipliers) {
 				if (previous != null && ((Boolean) ((Simplex) previous.rem(otherPrimitive).ne(zero)).getActualValue())) {
 					return false;
 				}
@@ -337,12 +450,12 @@ class Polynomial {
 		}
 	}
 
-	private Primitive makePrimitive(boolean normalized, Set<Monomial> bases) {
+	private Primitive makePrimitive(boolean normalized, Monomial[] bases) {
 		try {
 			final Primitive zero = this.calc.valInt(0).to(this.type);
 			Primitive retVal = zero;
 			for (Monomial base : bases) {
-				Monomial m = base.mul(Monomial.of(this.calc, this.rep.get(base).to(this.type)));
+				Monomial m = base.mul(Monomial.of(this.calc, getMultiplier(base).to(this.type)));
 				Primitive mPrimitive = (normalized ? m.toPrimitiveNormalized() : m.toPrimitive()); 
 				if (retVal.equals(zero)) {
 					retVal = mPrimitive;
@@ -362,7 +475,7 @@ class Polynomial {
 	public Primitive toPrimitive() {
 		Primitive retVal = this.toPrimitive;
 		if (retVal == null) {
-			this.toPrimitive = makePrimitive(false, this.rep.keySet());
+			this.toPrimitive = makePrimitive(false, this.bases);
 			retVal = this.toPrimitive;
 		}
 		return retVal;
@@ -373,17 +486,43 @@ class Polynomial {
 	public Primitive toPrimitiveNormalized() {
 		Primitive retVal = this.toPrimitiveNormalized;
 		if (retVal == null) {
-			final TreeSet<Monomial> keysSorted = new TreeSet<Monomial>();
-			keysSorted.addAll(this.rep.keySet());
-			this.toPrimitiveNormalized = makePrimitive(true, keysSorted);
+			final Monomial[] basesSorted = this.bases.clone();
+			Arrays.sort(basesSorted);
+			this.toPrimitiveNormalized = makePrimitive(true, basesSorted);
 			retVal = this.toPrimitiveNormalized;
 		}
 		return retVal;
 	}
 
+	/**
+	 * Returns the position of a base in the representation.
+	 * 
+	 * @param base a {@link Monomial}.
+	 * @param hash the hash code of {@code base}.
+	 * @return the position of {@code base} in {@code this.bases}, 
+	 *         or {@code -1} if it is not there.
+	 */
+	private int indexOf(Monomial base, int hash) {
+		int i = Arrays.binarySearch(this.hashes, hash);
+		if (i < 0) {
+			return -1;
+		}
+		//goes back to the start of the run with same hash code
+		while (i > 0 && this.hashes[i - 1] == hash) {
+			--i;
+		}
+		for (; i < this.hashes.length && this.hashes[i] == hash; ++i) {
+			if (this.bases[i].equals(base)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
 	public Simplex getMultiplier(Monomial m) {
-		if (this.rep.containsKey(m)) {
-			return this.rep.get(m);
+		final int i = indexOf(m, m.hashCode());
+		if (i >= 0) {
+			return this.multipliers[i];
 		} else {
 			try {
 				return (Simplex) this.calc.valInt(0).to(this.type);
@@ -404,51 +543,53 @@ class Polynomial {
 		}
 	}
 	
+	/**
+	 * Returns the representation of this polynomial as a map.
+	 * 
+	 * @return an unmodifiable {@link Map} from the bases (i.e., 
+	 *         monomials with scale set to 1) to their multipliers. 
+	 *         It is built at each invocation.
+	 */
 	public Map<Monomial, Simplex> representation() {
-		return this.rep;
+		final LinkedHashMap<Monomial, Simplex> retVal = new LinkedHashMap<>();
+		for (int i = 0; i < this.bases.length; ++i) {
+			retVal.put(this.bases[i], this.multipliers[i]);
+		}
+		return Collections.unmodifiableMap(retVal);
 	}	
 
 	public Polynomial mul(Polynomial other) 
 	throws InvalidOperandException, InvalidTypeException {
-		return new PolynomialBuilder(this.calc, makeRep()).mul(this, other).make();
+		return new PolynomialBuilder(this.calc).mul(this, other).make();
 	}
 
 	public Polynomial neg() 
 			throws InvalidOperandException, InvalidTypeException {
-		return new PolynomialBuilder(this.calc, makeRep()).neg(this).make();
+		return new PolynomialBuilder(this.calc).neg(this).make();
 	}
 
 	public boolean isZeroOne(boolean zero) {
 		if (zero) {
-			for (Entry<Monomial, Simplex> e : this.rep.entrySet()) {
-				if (e.getValue().isZeroOne(zero)) { //NB: the monomial (key) can't be zero!
+			for (Simplex multiplier : this.multipliers) {
+				if (multiplier.isZeroOne(zero)) { //NB: the monomial can't be zero!
 					continue;
 				}
 				return false;
 			}
 			return true;
 		} else {
-			if (this.rep.entrySet().size() == 1) {
-				final Entry<Monomial, Simplex> e = this.rep.entrySet().iterator().next();
-				if (e.getKey().isZeroOne(false) && e.getValue().isZeroOne(false)) {
-					return true;
-				} else {
-					return false;
-				}
-			} else {
-				return false;
-			}
+			return (this.bases.length == 1 && this.bases[0].isZeroOne(false) && this.multipliers[0].isZeroOne(false));
 		}
 	}
 
 	public Polynomial add(Polynomial other) 
 			throws InvalidOperandException, InvalidTypeException {
-		return new PolynomialBuilder(this.calc, makeRep()).add(this, other).make();
+		return new PolynomialBuilder(this.calc).add(this, other).make();
 	}
 
 	public Monomial gcdMonomials() throws InvalidTypeException {
 		Monomial retVal = null;
-		for (Monomial m : this.rep.keySet()) {
+		for (Monomial m : this.bases) {
 			if (retVal == null) {
 				retVal = m;
 			} else {
@@ -460,8 +601,8 @@ class Polynomial {
 
 	public Polynomial[] div(Polynomial other) 
 	throws InvalidOperandException, InvalidTypeException {
-		final Polynomial denom = new PolynomialBuilder(this.calc, makeRep()).divDenom(this, other).make();
-		final Polynomial numer = new PolynomialBuilder(this.calc, makeRep()).divNumer(this, other).make();
+		final Polynomial denom = new PolynomialBuilder(this.calc).divDenom(this, other).make();
+		final Polynomial numer = new PolynomialBuilder(this.calc).divNumer(this, other).make();
 		if (numer.isZeroOne(true) || denom.isZeroOne(false)) {
 			return new Polynomial[] { numer, null };
 		}
@@ -483,14 +624,13 @@ class Polynomial {
 		
 		try {
 			//if this polynomial is a monomial, pack
-			if (this.rep.size() == 1) {
-				final Entry<Monomial, Simplex> e = this.rep.entrySet().iterator().next();
-				Monomial rebuiltMonomial = e.getKey().mul(Monomial.of(this.calc, e.getValue()));
+			if (this.bases.length == 1) {
+				Monomial rebuiltMonomial = this.bases[0].mul(Monomial.of(this.calc, this.multipliers[0]));
 				final Monomial[] sqrtMonomial = rebuiltMonomial.sqrt();
-				final PolynomialBuilder sqrt = new PolynomialBuilder(this.calc, makeRep());
+				final PolynomialBuilder sqrt = new PolynomialBuilder(this.calc);
 				sqrt.type = this.type;
 				sqrt.addMonomial(sqrtMonomial[0]);
-				final PolynomialBuilder etc = new PolynomialBuilder(this.calc, makeRep());
+				final PolynomialBuilder etc = new PolynomialBuilder(this.calc);
 				etc.type = this.type;
 				etc.addMonomial(sqrtMonomial[1]);
 				return new Polynomial[] { sqrt.make(), etc.make() };
@@ -504,7 +644,7 @@ class Polynomial {
 			final Polynomial[] sameAsInput = new Polynomial[] { one, this };
 
 			//if it is not the sum of three monomials, it is not a square
-			if (this.rep.size() != 3) {
+			if (this.bases.length != 3) {
 				return sameAsInput;
 			}
 
@@ -515,14 +655,14 @@ class Polynomial {
 			int twosCount = 0;
 			Monomial a = null, b = null, c = null;
 			boolean cPositive = true;
-			for (Entry<Monomial, Simplex> e : this.rep.entrySet()) {
-				final Simplex value = e.getValue();
+			for (int i = 0; i < this.bases.length; ++i) {
+				final Simplex value = this.multipliers[i];
 				if (value.isZeroOne(false)) {
 					++onesCount;
 					if (a == null) {
-						a = e.getKey();
+						a = this.bases[i];
 					} else {
-						b = e.getKey();
+						b = this.bases[i];
 					}
 				} else {
 					if (Type.isPrimitiveIntegral(value.getType())) {
@@ -530,7 +670,7 @@ class Polynomial {
 						final long l = n.longValue();
 						if (l == 2 || l == -2) {
 							++twosCount;
-							c = e.getKey();
+							c = this.bases[i];
 							if (l < 0) {
 								cPositive = false;
 							}
@@ -540,7 +680,7 @@ class Polynomial {
 						final double d = n.doubleValue();
 						if (d == 2.0 || d == -2.0) {
 							++twosCount;
-							c = e.getKey();
+							c = this.bases[i];
 							if (d < 0) {
 								cPositive = false;
 							}
@@ -568,7 +708,7 @@ class Polynomial {
 			}
 
 			//if everything has succeeds, returns the square root
-			final PolynomialBuilder sqrt = new PolynomialBuilder(this.calc, makeRep());
+			final PolynomialBuilder sqrt = new PolynomialBuilder(this.calc);
 			sqrt.type = this.type;
 			sqrt.addMonomial(aSqrt[0], this.calc.valDouble(1));
 			sqrt.addMonomial(bSqrt[0], this.calc.valDouble(cPositive ? 1 : -1));
@@ -581,9 +721,11 @@ class Polynomial {
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + ((rep == null) ? 0 : rep.hashCode());
+		//order-independent, as the bases with same hash code may be in any order
+		int result = 0;
+		for (int i = 0; i < this.bases.length; ++i) {
+			result += this.hashes[i] ^ this.multipliers[i].hashCode();
+		}
 		return result;
 	}
 
@@ -598,33 +740,32 @@ class Polynomial {
 		if (getClass() != obj.getClass()) {
 			return false;
 		}
-		Polynomial other = (Polynomial) obj;
-		if (rep == null) {
-			if (other.rep != null) {
+		final Polynomial other = (Polynomial) obj;
+		if (this.bases.length != other.bases.length || !Arrays.equals(this.hashes, other.hashes)) {
+			return false;
+		}
+		for (int i = 0; i < this.bases.length; ++i) {
+			final int j = (this.bases[i].equals(other.bases[i]) ? i : other.indexOf(this.bases[i], this.hashes[i]));
+			if (j < 0 || !this.multipliers[i].equals(other.multipliers[j])) {
 				return false;
 			}
-		} else if (!rep.equals(other.rep)) {
-			return false;
 		}
 		return true;
 	}
 
 	@Override
 	public String toString() {
-		if (this.rep.isEmpty()) {
+		if (this.bases.length == 0) {
 			return (Type.isPrimitiveIntegral(this.type) ? "0" : "0.0");
 		}
 		final StringBuilder sb = new StringBuilder();
-		boolean firstDone = false;
-		for (Entry<Monomial, Simplex> e : this.rep.entrySet()) {
-			if (firstDone) {
+		for (int i = 0; i < this.bases.length; ++i) {
+			if (i > 0) {
 				sb.append(" + ");
-			} else {
-				firstDone = true;
 			}
-			sb.append(e.getValue().toString());
+			sb.append(this.multipliers[i].toString());
 			sb.append("*");
-			sb.append(e.getKey().toString());
+			sb.append(this.bases[i].toString());
 		}
 		return sb.toString();
 	}
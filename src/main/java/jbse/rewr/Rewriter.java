@@ -22,7 +22,7 @@ import jbse.val.exc.InvalidTypeException;
  * 
  * @author Pietro Braione
  */
-public class Rewriter {
+public class Rewriter implements Cloneable {
 	private Primitive value;
 	private RewriteVisitor visitor;
 	
@@ -38,6 +38,26 @@ public class Rewriter {
 		this.calc = calc;
 	}
 
+	/**
+	 * Returns a copy of this rewriter, that a {@link CalculatorRewriting} 
+	 * uses in place of this rewriter in a thread. The default 
+	 * implementation is a shallow copy: Subclasses with mutable
+	 * state should override it.
+	 * 
+	 * @return a {@link Rewriter}.
+	 */
+	protected Rewriter copy() {
+		final Rewriter o;
+		try {
+			o = (Rewriter) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new InternalError(e);
+		}
+		o.clear();
+		o.visitor = o.new RewriteVisitor();
+		return o;
+	}
+
 	protected final Primitive rewrite(Primitive p) throws NoResultException {
 		if (p == null || this.calc == null) {
 			throw new NoResultException();
@@ -71,6 +91,30 @@ public class Rewriter {
 		}
 	}
 		
+	/**
+	 * Returns whether this rewriter calculates the operations 
+	 * on {@link Simplex} operands as {@link RewriterOperationOnSimplex}
+	 * does. The default implementation returns {@code false}.
+	 * 
+	 * @return a {@code boolean}.
+	 */
+	protected boolean foldsOperationsOnSimplex() {
+		return false;
+	}
+	
+	/**
+	 * Returns whether this rewriter may rewrite a {@link Simplex}
+	 * to a different {@link Primitive}. Must be overridden to 
+	 * return {@code true} by the subclasses whose 
+	 * {@link #rewriteSimplex(Simplex)} does so. The default 
+	 * implementation returns {@code false}.
+	 * 
+	 * @return a {@code boolean}.
+	 */
+	protected boolean rewritesSimplex() {
+		return false;
+	}
+	
 	protected void rewriteAny(Any x) throws NoResultException {
 		setResult(x);
 	}
@@ -96,7 +140,7 @@ public class Rewriter {
 		}
 		final FunctionApplication result;
 		try {
-			result = new FunctionApplication(x.getType(), this.calc, x.getOperator(), args);
+			result = FunctionApplication.make(x.getType(), this.calc, x.getOperator(), args);
 		} catch (InvalidTypeException | InvalidOperandException e) {
 			throw new NoResultException(e);
 		}
@@ -25,6 +25,17 @@ import jbse.val.exc.InvalidTypeException;
 public class RewriterOperationOnSimplex extends Rewriter {
     public RewriterOperationOnSimplex() { }
 
+    /**
+     * {@inheritDoc}
+     * A subclass that changes how the operations on 
+     * {@link Simplex} operands are calculated must 
+     * override it to return {@code false}.
+     */
+    @Override
+    protected boolean foldsOperationsOnSimplex() {
+        return true;
+    }
+
     @Override
     protected void rewriteFunctionApplication(FunctionApplication x) 
     throws NoResultException {
@@ -391,6 +402,13 @@ public class RewriterOperationOnSimplex extends Rewriter {
 
     private void applyOperator(Simplex firstOp, Operator operation, Simplex secondOp)
     throws NoResultException {
+        //fast path for operands with same type
+        final Simplex result = SimplexFolding.fold(this.calc, firstOp, operation, secondOp);
+        if (result != null) {
+            setResult(result);
+            return;
+        }
+        
         boolean unary = (firstOp == null);
         int sOpType = secondOp.getType();
         Object sOp = ((Simplex) secondOp).getActualValue();
@@ -745,35 +763,6 @@ public class RewriterOperationOnSimplex extends Rewriter {
 
     private void applyConversion(Simplex toConvert, char to) 
     throws NoResultException {
-        final char from = toConvert.getType();
-        final Number n;
-        if (from == Type.CHAR) {
-            final char c = ((Character) toConvert.getActualValue()).charValue();
-            n = Integer.valueOf((int) c);
-        } else if (from == Type.BOOLEAN) {
-            final boolean b = ((Boolean) toConvert.getActualValue()).booleanValue();
-            n = Integer.valueOf(b ? 1 : 0);
-        } else {
-            n = (Number) toConvert.getActualValue();
-        }
-        if (to == Type.BOOLEAN) {
-            setResult(this.calc.val_((n.intValue() == 0 ? false : true)));
-        } else if (to == Type.BYTE) {
-            setResult(this.calc.val_(n.byteValue()));
-        } else if (to == Type.SHORT) {
-            setResult(this.calc.val_(n.shortValue()));
-        } else if (to == Type.INT) {
-            setResult(this.calc.val_(n.intValue()));
-        } else if (to == Type.LONG) {
-            setResult(this.calc.val_(n.longValue()));
-        } else if (to == Type.CHAR) {
-            setResult(this.calc.val_((char) n.intValue()));
-        } else if (to == Type.FLOAT) {
-            setResult(this.calc.val_(n.floatValue()));
-        } else if (to == Type.DOUBLE) {
-            setResult(this.calc.val_(n.doubleValue()));
-        } else {
-            throw new NoResultException();
-        }
+        setResult(SimplexFolding.convert(this.calc, toConvert, to));
     }
 }
@@ -0,0 +1,211 @@
+package jbse.rewr;
+
+import jbse.common.Type;
+import jbse.val.Calculator;
+import jbse.val.Operator;
+import jbse.val.Simplex;
+
+/**
+ * Calculates the operations on {@link Simplex} operands with
+ * same type, the ones that the bytecodes perform, on the unboxed
+ * values. It does not calculate the operations with operands
+ * of different types, nor the integral divisions by zero, that
+ * are left to {@link RewriterOperationOnSimplex}.
+ */
+final class SimplexFolding {
+    /**
+     * Calculates an operation on {@link Simplex} operands.
+     *
+     * @param calc a {@link Calculator}.
+     * @param firstOp a {@link Simplex}, or {@code null} if
+     *        {@code operator} is unary.
+     * @param operator an {@link Operator}.
+     * @param secondOp a {@link Simplex}.
+     * @return the {@link Simplex} result of the operation, or
+     *         {@code null} if this class does not calculate it.
+     */
+    static Simplex fold(Calculator calc, Simplex firstOp, Operator operator, Simplex secondOp) {
+        if (firstOp == null) {
+            return foldUnary(calc, operator, secondOp);
+        }
+        final char type = firstOp.getType();
+        if (operator == Operator.SHL || operator == Operator.SHR || operator == Operator.USHR) {
+            return (secondOp.getType() == Type.INT ? foldShift(calc, firstOp, operator, secondOp.intValue()) : null);
+        }
+        if (type != secondOp.getType()) {
+            return null;
+        }
+        switch (type) {
+        case Type.INT:
+            return foldInt(calc, firstOp.intValue(), operator, secondOp.intValue());
+        case Type.LONG:
+            return foldLong(calc, firstOp.longValue(), operator, secondOp.longValue());
+        case Type.FLOAT:
+            return foldFloat(calc, firstOp.floatValue(), operator, secondOp.floatValue());
+        case Type.DOUBLE:
+            return foldDouble(calc, firstOp.doubleValue(), operator, secondOp.doubleValue());
+        case Type.BOOLEAN:
+            return foldBoolean(calc, firstOp.booleanValue(), operator, secondOp.booleanValue());
+        default:
+            return null;
+        }
+    }
+
+    private static Simplex foldUnary(Calculator calc, Operator operator, Simplex op) {
+        final char type = op.getType();
+        if (operator == Operator.NOT && type == Type.BOOLEAN) {
+            return calc.valBoolean(!op.booleanValue());
+        } else if (operator == Operator.NEG) {
+            switch (type) {
+            case Type.INT:
+                return calc.valInt(-op.intValue());
+            case Type.LONG:
+                return calc.valLong(-op.longValue());
+            case Type.FLOAT:
+                return calc.valFloat(-op.floatValue());
+            case Type.DOUBLE:
+                return calc.valDouble(-op.doubleValue());
+            default:
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static Simplex foldShift(Calculator calc, Simplex firstOp, Operator operator, int distance) {
+        if (firstOp.getType() == Type.INT) {
+            final int value = firstOp.intValue();
+            return calc.valInt(operator == Operator.SHL ? value << distance :
+                               operator == Operator.SHR ? value >> distance :
+                               value >>> distance);
+        } else if (firstOp.getType() == Type.LONG) {
+            final long value = firstOp.longValue();
+            return calc.valLong(operator == Operator.SHL ? value << distance :
+                                operator == Operator.SHR ? value >> distance :
+                                value >>> distance);
+        }
+        return null;
+    }
+
+    private static Simplex foldInt(Calculator calc, int first, Operator operator, int second) {
+        switch (operator) {
+        case ADD:   return calc.valInt(first + second);
+        case SUB:   return calc.valInt(first - second);
+        case MUL:   return calc.valInt(first * second);
+        case DIV:   return (second == 0 ? null : calc.valInt(first / second));
+        case REM:   return (second == 0 ? null : calc.valInt(first % second));
+        case ANDBW: return calc.valInt(first & second);
+        case ORBW:  return calc.valInt(first | second);
+        case XORBW: return calc.valInt(first ^ second);
+        case EQ:    return calc.valBoolean(first == second);
+        case NE:    return calc.valBoolean(first != second);
+        case GT:    return calc.valBoolean(first > second);
+        case GE:    return calc.valBoolean(first >= second);
+        case LT:    return calc.valBoolean(first < second);
+        case LE:    return calc.valBoolean(first <= second);
+        default:    return null;
+        }
+    }
+
+    private static Simplex foldLong(Calculator calc, long first, Operator operator, long second) {
+        switch (operator) {
+        case ADD:   return calc.valLong(first + second);
+        case SUB:   return calc.valLong(first - second);
+        case MUL:   return calc.valLong(first * second);
+        case DIV:   return (second == 0 ? null : calc.valLong(first / second));
+        case REM:   return (second == 0 ? null : calc.valLong(first % second));
+        case ANDBW: return calc.valLong(first & second);
+        case ORBW:  return calc.valLong(first | second);
+        case XORBW: return calc.valLong(first ^ second);
+        case EQ:    return calc.valBoolean(first == second);
+        case NE:    return calc.valBoolean(first != second);
+        case GT:    return calc.valBoolean(first > second);
+        case GE:    return calc.valBoolean(first >= second);
+        case LT:    return calc.valBoolean(first < second);
+        case LE:    return calc.valBoolean(first <= second);
+        default:    return null;
+        }
+    }
+
+    private static Simplex foldFloat(Calculator calc, float first, Operator operator, float second) {
+        switch (operator) {
+        case ADD:   return calc.valFloat(first + second);
+        case SUB:   return calc.valFloat(first - second);
+        case MUL:   return calc.valFloat(first * second);
+        case DIV:   return calc.valFloat(first / second);
+        case REM:   return calc.valFloat(first % second);
+        case EQ:    return calc.valBoolean(first == second);
+        case NE:    return calc.valBoolean(first != second);
+        case GT:    return calc.valBoolean(first > second);
+        case GE:    return calc.valBoolean(first >= second);
+        case LT:    return calc.valBoolean(first < second);
+        case LE:    return calc.valBoolean(first <= second);
+        default:    return null;
+        }
+    }
+
+    private static Simplex foldDouble(Calculator calc, double first, Operator operator, double second) {
+        switch (operator) {
+        case ADD:   return calc.valDouble(first + second);
+        case SUB:   return calc.valDouble(first - second);
+        case MUL:   return calc.valDouble(first * second);
+        case DIV:   return calc.valDouble(first / second);
+        case REM:   return calc.valDouble(first % second);
+        case EQ:    return calc.valBoolean(first == second);
+        case NE:    return calc.valBoolean(first != second);
+        case GT:    return calc.valBoolean(first > second);
+        case GE:    return calc.valBoolean(first >= second);
+        case LT:    return calc.valBoolean(first < second);
+        case LE:    return calc.valBoolean(first <= second);
+        default:    return null;
+        }
+    }
+
+    private static Simplex foldBoolean(Calculator calc, boolean first, Operator operator, boolean second) {
+        switch (operator) {
+        case AND:   return calc.valBoolean(first && second);
+        case OR:    return calc.valBoolean(first || second);
+        default:    return null;
+        }
+    }
+
+    /**
+     * Converts a {@link Simplex} to another primitive type,
+     * as the Java primitive conversions do. A {@code boolean}
+     * is converted as the value {@code 0} or {@code 1}, and
+     * a value is converted to {@code boolean} by comparing
+     * its {@code int} conversion with {@code 0}.
+     *
+     * @param calc a {@link Calculator}.
+     * @param toConvert the {@link Simplex} to convert.
+     * @param to a {@code char}, the type to convert to.
+     * @return the converted {@link Simplex}, or {@code null}
+     *         if {@code to} is not a primitive type.
+     */
+    static Simplex convert(Calculator calc, Simplex toConvert, char to) {
+        switch (to) {
+        case Type.BOOLEAN:
+            return calc.valBoolean(toConvert.intValue() != 0);
+        case Type.BYTE:
+            return calc.valByte((byte) toConvert.intValue());
+        case Type.SHORT:
+            return calc.valShort((short) toConvert.intValue());
+        case Type.CHAR:
+            return calc.valChar((char) toConvert.intValue());
+        case Type.INT:
+            return calc.valInt(toConvert.intValue());
+        case Type.LONG:
+            return calc.valLong(toConvert.longValue());
+        case Type.FLOAT:
+            return calc.valFloat(toConvert.floatValue());
+        case Type.DOUBLE:
+            return calc.valDouble(toConvert.doubleValue());
+        default:
+            return null;
+        }
+    }
+
+    private SimplexFolding() {
+        //do not instantiate!
+    }
+}
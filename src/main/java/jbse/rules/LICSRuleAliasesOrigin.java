@@ -1,9 +1,5 @@
 package jbse.rules;
 
-import static jbse.rules.Util.makePatternRelative;
-import static jbse.rules.Util.findAny;
-import static jbse.rules.Util.specializeAny;
-
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -38,9 +34,7 @@ public class LICSRuleAliasesOrigin extends LICSRuleAliases {
 	@Override
 	public boolean satisfies(ReferenceSymbolic ref, Objekt o) {
 		//builds the pattern
-		final String valueForAny = findAny(this.originExp, ref.getOrigin());
-		final String specializedPathAllowedExp = specializeAny(this.pathAllowedExp, valueForAny);
-		final Pattern p = makePatternRelative(specializedPathAllowedExp, ref.getOrigin());
+		final Pattern p = makeRelativePattern(this.pathAllowedExp, ref.getOrigin());
 		//checks if the origin of o matches the pattern
 		final Matcher m = p.matcher(o.getOrigin().toString());
 		final boolean retVal = m.matches();
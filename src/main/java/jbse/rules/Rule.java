@@ -1,16 +1,23 @@
 package jbse.rules;
 
 import static jbse.rules.Util.makeOriginPattern;
+import static jbse.rules.Util.makePatternRelative;
+import static jbse.rules.Util.specializeAny;
 
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import jbse.val.MemoryPath;
 import jbse.val.ReferenceSymbolic;
 
 /**
  * A rule predicating on the origin of a symbolic reference
  * by means of an extended regular expression language.
- * Rules are immutable.
+ * Rules are immutable. The pattern for the origin is compiled
+ * once, upon construction, and the last pattern made relative
+ * to the origin of a reference is remembered, so that checking
+ * a rule against many candidate objects for the same reference
+ * does not compile patterns.
  * 
  * @author Pietro Braione
  *
@@ -18,6 +25,27 @@ import jbse.val.ReferenceSymbolic;
 public abstract class Rule {
 	protected final String originExp;
 	
+	/** The compiled {@link #originExp}. */
+	private final Pattern originPattern;
+	
+	/**
+	 * A pattern made relative to the origin of a reference.
+	 */
+	private static final class RelativePattern {
+		final String exp;
+		final MemoryPath origin;
+		final Pattern pattern;
+	
+		RelativePattern(String exp, MemoryPath origin, Pattern pattern) {
+			this.exp = exp;
+			this.origin = origin;
+			this.pattern = pattern;
+		}
+	}
+	
+	/** The last pattern made by {@link #makeRelativePattern(String, MemoryPath)}. */
+	private volatile RelativePattern lastRelativePattern = null;
+	
 	/**
 	 * Constructor.
 	 * 
@@ -26,6 +54,7 @@ public abstract class Rule {
 	 */
 	public Rule(String originExp) { 
 		this.originExp = (originExp == null ? Util.ANY : originExp);
+		this.originPattern = makeOriginPattern(this.originExp);
 	}
 	
 	/**
@@ -37,10 +66,49 @@ public abstract class Rule {
 	 */
 	public final boolean matches(ReferenceSymbolic ref) {
 		// checks ref's origin matches the pattern
-		final Pattern p = makeOriginPattern(this.originExp);
 		final String originReference = ref.getOrigin().toString();
-		final Matcher m = p.matcher(originReference);
+		final Matcher m = this.originPattern.matcher(originReference);
 		final boolean retVal = m.matches();
 		return retVal;
 	}
+	
+	/**
+	 * Returns the part of an origin that matches the
+	 * leading {ANY} in the origin expression of this rule.
+	 * 
+	 * @param origin a {@link MemoryPath}.
+	 * @return a {@link String}, or {@code null} if the origin
+	 *         expression of this rule does not start with {ANY}
+	 *         or {@code origin} does not match it.
+	 */
+	final String findAny(MemoryPath origin) {
+		final Matcher m = this.originPattern.matcher(origin.toString());
+		if (m.matches() && this.originPattern.pattern().startsWith("(.*)") && m.groupCount() >= 1) {
+			final String valueForAny = m.group(1).replace(".","/");
+			return valueForAny;
+		} else {
+			return null;
+		}
+	}
+	
+	/**
+	 * Makes a pattern from an expression in this rule, by
+	 * specializing its {ANY} with the value matched
+	 * in the origin of a reference and by resolving its
+	 * {REF} and {UP} w.r.t. the origin of the reference.
+	 * 
+	 * @param exp a {@link String}, an expression in this rule.
+	 * @param origin the {@link MemoryPath} of the reference.
+	 * @return a {@link Pattern}.
+	 */
+	final Pattern makeRelativePattern(String exp, MemoryPath origin) {
+		final RelativePattern last = this.lastRelativePattern;
+		if (last != null && last.exp.equals(exp) && last.origin.equals(origin)) {
+			return last.pattern;
+		}
+		final String specializedExp = specializeAny(exp, findAny(origin));
+		final Pattern retVal = makePatternRelative(specializedExp, origin);
+		this.lastRelativePattern = new RelativePattern(exp, origin, retVal);
+		return retVal;
+	}
 }
@@ -1,9 +1,5 @@
 package jbse.rules;
 
-import static jbse.rules.Util.findAny;
-import static jbse.rules.Util.makePatternRelative;
-import static jbse.rules.Util.specializeAny;
-
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -47,14 +43,7 @@ public abstract class TriggerRule extends Rule {
 		}
 		
 		//makes the pattern
-		final String specializedTriggerExp;
-		if (this.originExp == null) {
-			specializedTriggerExp = this.getTriggerMethodParameter();
-		} else {
-			final String valueForAny = findAny(this.originExp, ref.getOrigin());
-			specializedTriggerExp = specializeAny(this.getTriggerMethodParameter(), valueForAny);
-		}
-		final Pattern p = makePatternRelative(specializedTriggerExp, ref.getOrigin());
+		final Pattern p = makeRelativePattern(this.getTriggerMethodParameter(), ref.getOrigin());
 
 		// checks o's origin matches the resulting pattern
 		final Matcher m = p.matcher(o.getOrigin().toString());
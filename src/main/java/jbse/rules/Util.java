@@ -1,7 +1,6 @@
 package jbse.rules;
 
 import java.util.Map;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import jbse.mem.Objekt;
@@ -75,17 +74,6 @@ public final class Util {
 		return retVal;
 	}
 	
-	static String findAny(String pattern, MemoryPath origin) {
-		final Pattern p = makeOriginPattern(pattern);
-		final Matcher m = p.matcher(origin.toString());
-		if (m.matches() && m.pattern().pattern().startsWith("(.*)") && m.groupCount() >= 1) {
-			final String valueForAny = m.group(1).replace(".","/");
-			return valueForAny;
-		} else {
-			return null;
-		}
-	}
-	
 	static String specializeAny(String expression, String valueForAny) {
 		return (valueForAny == null ? expression : expression.replace(ANY, valueForAny));	
 	}
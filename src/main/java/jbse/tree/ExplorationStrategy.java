@@ -0,0 +1,65 @@
+package jbse.tree;
+
+import java.util.NoSuchElementException;
+
+import jbse.mem.State;
+
+/**
+ * The frontier of a {@link StateTree}, i.e., the set of the pending
+ * {@link State}s that will be explored upon backtrack. Each 
+ * implementation determines the order in which the pending states 
+ * are explored, and thus the exploration strategy of the symbolic
+ * execution.
+ */
+public interface ExplorationStrategy {
+    /**
+     * Adds a pending state to the frontier.
+     * 
+     * @param state a {@link State}.
+     */
+    void add(State state);
+    
+    /**
+     * Checks whether the frontier is empty.
+     * 
+     * @return {@code true} iff the frontier has no pending states.
+     */
+    boolean isEmpty();
+    
+    /**
+     * Returns the number of pending states in the frontier.
+     * 
+     * @return a nonnegative {@code int}.
+     */
+    int size();
+    
+    /**
+     * Returns the next state to be explored, without 
+     * removing it from the frontier.
+     * 
+     * @return the {@link State} that the next call to 
+     *         {@link #remove()} would return.
+     * @throws NoSuchElementException if {@link #isEmpty()}. 
+     */
+    State peek();
+    
+    /**
+     * Removes the next state to be explored from the frontier
+     * and returns it.
+     * 
+     * @return a {@link State}.
+     * @throws NoSuchElementException if {@link #isEmpty()}. 
+     */
+    State remove();
+    
+    /**
+     * Removes a pending state from the frontier so it can be
+     * explored elsewhere (e.g., by another engine), and returns it.
+     * Implementations should pick the state that roots the largest
+     * unexplored subtree, that is usually the least recently added.
+     * 
+     * @return a {@link State}.
+     * @throws NoSuchElementException if {@link #isEmpty()}. 
+     */
+    State steal();
+}
@@ -0,0 +1,88 @@
+package jbse.tree;
+
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+
+import jbse.mem.State;
+
+/**
+ * An {@link ExplorationStrategy} that explores the state with 
+ * the highest score first. The score of a state is calculated 
+ * by a user-supplied function when the state is added to the 
+ * frontier (e.g., it might be the number of uncovered bytecodes
+ * reachable from the state, or the opposite of the size of its
+ * path condition). States with the same score are explored 
+ * most recent first.
+ */
+public final class ExplorationStrategyBestFirst implements ExplorationStrategy {
+    private static final class Entry implements Comparable<Entry> {
+        final State state;
+        final double score;
+        final long order;
+        
+        Entry(State state, double score, long order) {
+            this.state = state;
+            this.score = score;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            final int byScore = Double.compare(other.score, this.score);
+            return (byScore == 0 ? Long.compare(other.order, this.order) : byScore);
+        }
+    }
+    
+    private final ToDoubleFunction<State> scoring;
+    private final PriorityQueue<Entry> frontier = new PriorityQueue<>();
+    private long counter = 0;
+
+    /**
+     * Constructor.
+     * 
+     * @param scoring a {@link ToDoubleFunction}{@code <}{@link State}{@code >}, 
+     *        the function that calculates the score of a state.
+     * @throws NullPointerException if {@code scoring == null}.
+     */
+    public ExplorationStrategyBestFirst(ToDoubleFunction<State> scoring) {
+        if (scoring == null) {
+            throw new NullPointerException();
+        }
+        this.scoring = scoring;
+    }
+    
+    @Override
+    public void add(State state) {
+        this.frontier.add(new Entry(state, this.scoring.applyAsDouble(state), this.counter++));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.frontier.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return this.frontier.size();
+    }
+
+    @Override
+    public State peek() {
+        final Entry e = this.frontier.peek();
+        if (e == null) {
+            throw new NoSuchElementException();
+        }
+        return e.state;
+    }
+
+    @Override
+    public State remove() {
+        return this.frontier.remove().state;
+    }
+
+    @Override
+    public State steal() {
+        return remove();
+    }
+}
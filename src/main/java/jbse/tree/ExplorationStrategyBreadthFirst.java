@@ -0,0 +1,46 @@
+package jbse.tree;
+
+import java.util.ArrayDeque;
+
+import jbse.mem.State;
+
+/**
+ * An {@link ExplorationStrategy} that explores the least recently 
+ * added state first. Since a state is added to the frontier when the
+ * branch it starts is created, this strategy backtracks to the 
+ * shallowest pending branches first, yielding a breadth-first 
+ * exploration of the pending branches.
+ */
+public final class ExplorationStrategyBreadthFirst implements ExplorationStrategy {
+    private final ArrayDeque<State> frontier = new ArrayDeque<>();
+
+    @Override
+    public void add(State state) {
+        this.frontier.addLast(state);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.frontier.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return this.frontier.size();
+    }
+
+    @Override
+    public State peek() {
+        return this.frontier.element();
+    }
+
+    @Override
+    public State remove() {
+        return this.frontier.removeFirst();
+    }
+
+    @Override
+    public State steal() {
+        return this.frontier.removeFirst();
+    }
+}
@@ -0,0 +1,44 @@
+package jbse.tree;
+
+import java.util.ArrayDeque;
+
+import jbse.mem.State;
+
+/**
+ * An {@link ExplorationStrategy} that explores the most recently 
+ * added state first, yielding a depth-first exploration. This is 
+ * the default.
+ */
+public final class ExplorationStrategyDepthFirst implements ExplorationStrategy {
+    private final ArrayDeque<State> frontier = new ArrayDeque<>();
+
+    @Override
+    public void add(State state) {
+        this.frontier.push(state);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.frontier.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return this.frontier.size();
+    }
+
+    @Override
+    public State peek() {
+        return this.frontier.element();
+    }
+
+    @Override
+    public State remove() {
+        return this.frontier.pop();
+    }
+
+    @Override
+    public State steal() {
+        return this.frontier.removeLast();
+    }
+}
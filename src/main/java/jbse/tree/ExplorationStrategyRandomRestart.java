@@ -0,0 +1,78 @@
+package jbse.tree;
+
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import jbse.mem.State;
+
+/**
+ * An {@link ExplorationStrategy} that, upon each backtrack, restarts
+ * the exploration from a pending state chosen at random, so time-boxed
+ * explorations are not confined in a single deep subtree.
+ */
+public final class ExplorationStrategyRandomRestart implements ExplorationStrategy {
+    private final ArrayList<State> frontier = new ArrayList<>();
+    private final Random random;
+    
+    /** The index in {@code frontier} of the next state, or -1 if not chosen yet. */
+    private int next = -1;
+
+    /**
+     * Constructor.
+     * 
+     * @param seed a {@code long}, the seed for the random choices, 
+     *        so explorations are replicable.
+     */
+    public ExplorationStrategyRandomRestart(long seed) {
+        this.random = new Random(seed);
+    }
+    
+    @Override
+    public void add(State state) {
+        this.frontier.add(state);
+        this.next = -1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.frontier.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return this.frontier.size();
+    }
+    
+    private void chooseNext() {
+        if (this.frontier.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        if (this.next < 0) {
+            this.next = this.random.nextInt(this.frontier.size());
+        }
+    }
+
+    @Override
+    public State peek() {
+        chooseNext();
+        return this.frontier.get(this.next);
+    }
+
+    @Override
+    public State remove() {
+        chooseNext();
+        //swaps the chosen state with the last one, and removes it
+        final int last = this.frontier.size() - 1;
+        final State retVal = this.frontier.get(this.next);
+        this.frontier.set(this.next, this.frontier.get(last));
+        this.frontier.remove(last);
+        this.next = -1;
+        return retVal;
+    }
+
+    @Override
+    public State steal() {
+        return remove();
+    }
+}
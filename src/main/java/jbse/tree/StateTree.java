@@ -1,13 +1,20 @@
 package jbse.tree;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.NoSuchElementException;
 
 import jbse.common.exc.UnexpectedInternalException;
 import jbse.mem.State;
 
 /**
  * Class storing the {@link State}s in the symbolic execution
- * tree which have been discovered but not yet analyzed.
+ * tree which have been discovered but not yet analyzed. The 
+ * order in which they are explored is determined by an 
+ * {@link ExplorationStrategy}. When it is an 
+ * {@link ExplorationStrategyDepthFirst}, after a branch is created 
+ * the execution continues with the last state added to it without
+ * passing through the strategy.
  * 
  * @author Pietro Braione
  * @author unknown
@@ -130,11 +137,30 @@ public class StateTree {
 	/** Breadth mode. */
 	private final BreadthMode breadthMode;
 
-	/** Buffer of the inserted {@link State}s. */
-	private final LinkedList<State> stateBuffer = new LinkedList<State>();
+	/** 
+	 * The {@link ExplorationStrategy} storing the inserted {@link State}s
+	 * that will be emitted upon backtrack.
+	 */
+	private final ExplorationStrategy frontier;
+	
+	/** 
+	 * Whether {@code frontier} is an {@link ExplorationStrategyDepthFirst}. 
+	 */
+	private final boolean depthFirst;
+	
+	/** 
+	 * The inserted {@link State}s that were not yet passed to 
+	 * {@code frontier}, in their insertion order. Used only when
+	 * {@code depthFirst}, otherwise the states are directly 
+	 * passed to {@code frontier}. 
+	 */
+	private final ArrayList<State> statesNew = new ArrayList<>();
 
-	/** Buffer of the inserted {@link BranchInfo}s. */
-	private final LinkedList<BranchInfo> branchList = new LinkedList<BranchInfo>();
+	/** Maps each inserted {@link State} to the {@link BranchInfo} of its branch. */
+	private final IdentityHashMap<State, BranchInfo> branchOf = new IdentityHashMap<>();
+	
+	/** The {@link BranchInfo} of the last created branch. */
+	private BranchInfo branchCurrent;
 
 	/** 
 	 * Flag indicating whether the tree level has been increased 
@@ -149,12 +175,29 @@ public class StateTree {
 	private boolean nextIsInitialState = true;
 	
 	/**
-	 * Constructor.
+	 * Constructor. The built {@link StateTree} explores 
+	 * depth-first.
+	 * 
+	 * @param stateIdMode a {@link StateIdentificationMode}.
+	 * @param breadthMode a {@link BreadthMode}.
 	 */
     public StateTree(StateIdentificationMode stateIdMode, BreadthMode breadthMode) {
+    	this(stateIdMode, breadthMode, new ExplorationStrategyDepthFirst());
+    }
+    
+	/**
+	 * Constructor.
+	 * 
+	 * @param stateIdMode a {@link StateIdentificationMode}.
+	 * @param breadthMode a {@link BreadthMode}.
+	 * @param explorationStrategy an empty {@link ExplorationStrategy}. 
+	 */
+    public StateTree(StateIdentificationMode stateIdMode, BreadthMode breadthMode, ExplorationStrategy explorationStrategy) {
     	this.stateIdMode = stateIdMode;
     	this.breadthMode = breadthMode;
-		this.branchList.addFirst(new BranchInfo());
+    	this.frontier = explorationStrategy;
+    	this.depthFirst = (explorationStrategy instanceof ExplorationStrategyDepthFirst);
+		this.branchCurrent = new BranchInfo();
     }
     
     /**
@@ -165,19 +208,38 @@ public class StateTree {
     public StateIdentificationMode getBranchIdentificationMode() {
     	return this.stateIdMode;
     }
+    
+    /**
+     * Checks whether, after a branch is created, the next state
+     * is always the last one added to the branch.
+     * 
+     * @return {@code true} iff the {@link ExplorationStrategy} 
+     *         of this {@link StateTree} is an 
+     *         {@link ExplorationStrategyDepthFirst}; otherwise, 
+     *         the next state may be any pending state.
+     */
+    public boolean isDepthFirst() {
+    	return this.depthFirst;
+    }
 	
     /**
-     * Adds the initial state to the store. 
+     * Adds the initial state to the store. If the state
+     * has already an identifier (e.g., because it was
+     * obtained by {@link #stealState()} from another 
+     * {@link StateTree}) its identifier, depth and count
+     * are preserved.
      * 
      * @param s the {@link State} to be added.
      */
     public void addInitialState(State s) {
     	this.add(s);
     	if (this.nextIsInitialState) {
-    		s.appendToIdentifier((this.stateIdMode == StateIdentificationMode.COMPACT) ? 
-    						IDENTIFIER_DEFAULT_COMPACT : IDENTIFIER_DEFAULT_LONG);
-            s.resetDepth();
-            s.resetCount();
+    		if ("".equals(s.getIdentifier())) {
+    			s.appendToIdentifier((this.stateIdMode == StateIdentificationMode.COMPACT) ? 
+    							IDENTIFIER_DEFAULT_COMPACT : IDENTIFIER_DEFAULT_LONG);
+    			s.resetDepth();
+    			s.resetCount();
+    		}
 	    } else {
 	    	throw new UnexpectedInternalException(); //TODO define a better exception
     	}
@@ -214,7 +276,7 @@ public class StateTree {
      *              to emit.
      */
     public boolean hasStates() {
-        return !this.stateBuffer.isEmpty();
+        return !this.statesNew.isEmpty() || !this.frontier.isEmpty();
     }
     
     /**
@@ -225,29 +287,89 @@ public class StateTree {
      * @throws NoSuchElementException if {@link #hasStates()} {@code == false}.
      */
     public boolean nextIsLastInCurrentBranch() {
-        final BranchInfo b = this.branchList.getFirst();
+        final BranchInfo b = this.branchOf.get(peekState());
         return (b.emittedStates == b.totalStates - 1);
     }
     
     /**
-     * Removes the next state from the store and emits it.
+     * Returns the next state, without removing it.
+     * 
+     * @return the {@link State} that would be returned by 
+     *         {@link #nextState()}.
+     * @throws NoSuchElementException if {@link #hasStates()} {@code == false}.
+     */
+    private State peekState() {
+        if (this.statesNew.isEmpty()) {
+            return this.frontier.peek();
+        } else {
+            return this.statesNew.get(this.statesNew.size() - 1);
+        }
+    }
+    
+    /**
+     * Removes the next state from the store and emits it. It 
+     * is the one chosen by the {@link ExplorationStrategy}, 
+     * except when {@link #isDepthFirst()} and some states 
+     * were added since the previous invocation of this method: 
+     * In this case, the next state is the last added one, and 
+     * all the others are passed to the {@link ExplorationStrategy}.
      * 
      * @return the {@link State} removed from the store.
      * @throws NoSuchElementException if {@link #hasStates()} {@code == false}.
      */
     public State nextState() {
-        final State s = this.stateBuffer.getFirst();
-        final BranchInfo b = this.branchList.getFirst();
+        final State s;
+        if (this.statesNew.isEmpty()) {
+            s = this.frontier.remove();
+        } else {
+            s = this.statesNew.remove(this.statesNew.size() - 1);
+            for (State sNew : this.statesNew) {
+                this.frontier.add(sNew);
+            }
+            this.statesNew.clear();
+        }
+        final BranchInfo b = this.branchOf.remove(s);
         ++b.emittedStates;
         if (this.stateIdMode == StateIdentificationMode.COMPACT && !this.nextIsInitialState) {
         	s.appendToIdentifier(IDENTIFIER_SEPARATOR_COMPACT + String.valueOf(b.emittedStates));
         } //else, the identifier has been already set by addState
         this.nextIsInitialState = false;
         s.resetSequenceNumber();
-        if (b.emittedStates == b.totalStates) {
-            this.branchList.removeFirst();
+        return s;
+    }
+    
+    /**
+     * Checks whether some {@link State} can be stolen.
+     * 
+     * @return {@code true} iff {@link #stealState()} can
+     *         be invoked, i.e., iff some state, besides the 
+     *         one that would be returned by {@link #nextState()}, 
+     *         is pending.
+     */
+    public boolean canStealState() {
+        return this.statesNew.isEmpty() && this.frontier.size() > 1;
+    }
+    
+    /**
+     * Removes a pending state from the store, so it can be
+     * explored in another {@link StateTree}. The state is chosen
+     * by {@link ExplorationStrategy#steal()}, and its identifier
+     * is completed as if it were emitted by {@link #nextState()}.
+     * 
+     * @return the {@link State} removed from the store.
+     * @throws NoSuchElementException if {@link #canStealState()} {@code == false}.
+     */
+    public State stealState() {
+        if (!this.statesNew.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        final State s = this.frontier.steal();
+        final BranchInfo b = this.branchOf.remove(s);
+        ++b.emittedStates;
+        if (this.stateIdMode == StateIdentificationMode.COMPACT) {
+            s.appendToIdentifier(IDENTIFIER_SEPARATOR_COMPACT + String.valueOf(b.emittedStates));
         }
-        return stateBuffer.removeFirst();
+        return s;
     }
     
     /**
@@ -309,7 +431,7 @@ public class StateTree {
      * will crash the engine.
      */
     private void addBranchPoint() {
-		this.branchList.addFirst(new BranchInfo());
+		this.branchCurrent = new BranchInfo();
 		this.createdBranch = true;
     }
     
@@ -328,6 +450,18 @@ public class StateTree {
         this.createdBranch = false;
         return retval;
     }
+
+    /**
+     * Checks whether a new level of the tree has been created 
+     * since the last invocation of {@link #createdBranch()}, 
+     * without resetting it.
+     * 
+     * @return {@code true} iff the next invocation of 
+     *         {@link #createdBranch()} would return {@code true}.
+     */
+    public boolean hasCreatedBranch() {
+        return this.createdBranch;
+    }
     
     /**
      * Returns the next branch point.
@@ -338,13 +472,23 @@ public class StateTree {
      *         or {@code null} in the case such state exists.  
      */
     public BranchPoint nextBranch() {
-        if (this.branchList.isEmpty()) {
-            return null;
+        if (hasStates()) {
+            return this.branchOf.get(peekState()).branch;
         } else {
-            return this.branchList.getFirst().branch;
+            return null;
         }
     }    
 
+    /**
+     * Returns the last created branch point.
+     * 
+     * @return the {@link BranchPoint} of the last 
+     *         branch created.
+     */
+    public BranchPoint lastBranch() {
+        return this.branchCurrent.branch;
+    }
+
     /**
      * Adds a state to the buffer and increases the 
      * total count of states in the branch.
@@ -352,7 +496,12 @@ public class StateTree {
      * @param s the {@link State} to be added.
      */
     private void add(State s) {
-    	this.stateBuffer.addFirst(s);
-        ++(this.branchList.getFirst().totalStates);
+    	if (this.depthFirst) {
+    		this.statesNew.add(s);
+    	} else {
+    		this.frontier.add(s);
+    	}
+    	this.branchOf.put(s, this.branchCurrent);
+        ++(this.branchCurrent.totalStates);
     }
 }
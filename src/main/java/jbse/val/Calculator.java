@@ -14,7 +14,6 @@ import static jbse.common.Type.REFERENCE;
 import static jbse.common.Type.SHORT;
 import static jbse.common.Type.widens;
 
-import jbse.common.exc.UnexpectedInternalException;
 import jbse.val.exc.InvalidOperandException;
 import jbse.val.exc.InvalidOperatorException;
 import jbse.val.exc.InvalidTypeException;
@@ -29,8 +28,45 @@ public abstract class Calculator {
     /** The boolean {@code false} value. */
     private final Simplex FALSE;
 
-    /** The int 0 value. */
-    private final Simplex INT_ZERO;
+    /** The smallest integral value with a cached {@link Simplex}. */
+    private static final int CACHE_LOW = -128;
+
+    /** The greatest byte, short, char or long value with a cached {@link Simplex}. */
+    private static final int CACHE_HIGH = 127;
+
+    /** 
+     * The greatest int value with a cached {@link Simplex}; it 
+     * is greater than {@code CACHE_HIGH} because the array indices 
+     * are ints.
+     */
+    private static final int CACHE_HIGH_INT = 1023;
+
+    /** The cached byte values, from {@code CACHE_LOW} to {@code CACHE_HIGH}, built lazily. */
+    private final Simplex[] cacheByte = new Simplex[CACHE_HIGH - CACHE_LOW + 1];
+
+    /** The cached short values, from {@code CACHE_LOW} to {@code CACHE_HIGH}, built lazily. */
+    private final Simplex[] cacheShort = new Simplex[CACHE_HIGH - CACHE_LOW + 1];
+
+    /** The cached char values, from {@code 0} to {@code CACHE_HIGH}, built lazily. */
+    private final Simplex[] cacheChar = new Simplex[CACHE_HIGH + 1];
+
+    /** The cached int values, from {@code CACHE_LOW} to {@code CACHE_HIGH_INT}, built lazily. */
+    private final Simplex[] cacheInt = new Simplex[CACHE_HIGH_INT - CACHE_LOW + 1];
+
+    /** The cached long values, from {@code CACHE_LOW} to {@code CACHE_HIGH}, built lazily. */
+    private final Simplex[] cacheLong = new Simplex[CACHE_HIGH - CACHE_LOW + 1];
+
+    /** The float 0 value. */
+    private final Simplex FLOAT_ZERO;
+
+    /** The float 1 value. */
+    private final Simplex FLOAT_ONE;
+
+    /** The double 0 value. */
+    private final Simplex DOUBLE_ZERO;
+
+    /** The double 1 value. */
+    private final Simplex DOUBLE_ONE;
 
     /** Default value for primitive type {@code boolean}. */
     private final Simplex DEFAULT_BOOL;
@@ -59,16 +95,21 @@ public abstract class Calculator {
     /** Default value for reference types. */
     private final ReferenceConcrete DEFAULT_REFERENCE;
 
+    /** 
+     * The canonical {@link Expression}s, {@link FunctionApplication}s,
+     * {@link WideningConversion}s and {@link NarrowingConversion}s 
+     * built by this calculator.
+     */
+    private final InternTable internTable = new InternTable();
+
     public Calculator() {
-        try {
-            this.ANY = Any.make(this);
-            this.TRUE = Simplex.make(this, Boolean.valueOf(true));
-            this.FALSE = Simplex.make(this, Boolean.valueOf(false));
-            this.INT_ZERO = Simplex.make(this, Integer.valueOf(0));
-        } catch (InvalidOperandException | InvalidTypeException e) {
-            //this should never happen
-            throw new UnexpectedInternalException(e);
-        }
+        this.ANY = Any.make(this);
+        this.TRUE = Simplex.make(BOOLEAN, this, 1L);
+        this.FALSE = Simplex.make(BOOLEAN, this, 0L);
+        this.FLOAT_ZERO = Simplex.make(FLOAT, this, Float.floatToRawIntBits(0.0f));
+        this.FLOAT_ONE = Simplex.make(FLOAT, this, Float.floatToRawIntBits(1.0f));
+        this.DOUBLE_ZERO = Simplex.make(DOUBLE, this, Double.doubleToRawLongBits(0.0d));
+        this.DOUBLE_ONE = Simplex.make(DOUBLE, this, Double.doubleToRawLongBits(1.0d));
         this.DEFAULT_BOOL      = valBoolean(false);
         this.DEFAULT_BYTE      = valByte((byte) 0);
         this.DEFAULT_SHORT     = valShort((short) 0);
@@ -80,6 +121,19 @@ public abstract class Calculator {
         this.DEFAULT_REFERENCE = Null.getInstance();
     }
 
+    /**
+     * Returns the canonical {@link Primitive} built by this
+     * calculator that is structurally equal to a given one.
+     * 
+     * @param p a {@link Primitive}, freshly built.
+     * @return the canonical {@link Primitive} structurally 
+     *         equal to {@code p}; it is {@code p} if 
+     *         no such {@link Primitive} was built before.
+     */
+    <P extends Primitive> P intern(P p) {
+        return this.internTable.intern(p);
+    }
+
     /**
      * Factory method for values with type {@link Any}.
      * 
@@ -106,12 +160,10 @@ public abstract class Calculator {
      * @return a {@link Simplex} representing {@code value}. 
      */
     public Simplex valByte(byte value) {
-        try {
-            return Simplex.make(this, Byte.valueOf(value));
-        } catch (InvalidOperandException | InvalidTypeException e) {
-            //this should never happen
-            throw new UnexpectedInternalException(e);
+        if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+            return cached(this.cacheByte, value - CACHE_LOW, BYTE, value);
         }
+        return Simplex.make(BYTE, this, value);
     }
 
     /**
@@ -121,12 +173,10 @@ public abstract class Calculator {
      * @return a {@link Simplex} representing {@code value}. 
      */
     public Simplex valShort(short value) {
-        try {
-            return Simplex.make(this, Short.valueOf(value));
-        } catch (InvalidOperandException | InvalidTypeException e) {
-            //this should never happen
-            throw new UnexpectedInternalException(e);
+        if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+            return cached(this.cacheShort, value - CACHE_LOW, SHORT, value);
         }
+        return Simplex.make(SHORT, this, value);
     }
 
     /**
@@ -136,15 +186,10 @@ public abstract class Calculator {
      * @return a {@link Simplex} representing {@code value}. 
      */
     public Simplex valInt(int value) {
-        if (value == 0) {
-            return INT_ZERO;
-        }
-        try {
-            return Simplex.make(this, Integer.valueOf(value));
-        } catch (InvalidOperandException | InvalidTypeException e) {
-            //this should never happen
-            throw new UnexpectedInternalException(e);
+        if (value >= CACHE_LOW && value <= CACHE_HIGH_INT) {
+            return cached(this.cacheInt, value - CACHE_LOW, INT, value);
         }
+        return Simplex.make(INT, this, value);
     }
 
     /**
@@ -154,12 +199,10 @@ public abstract class Calculator {
      * @return a {@link Simplex} representing {@code value}. 
      */
     public Simplex valLong(long value) {
-        try {
-            return Simplex.make(this, Long.valueOf(value));
-        } catch (InvalidOperandException | InvalidTypeException e) {
-            //this should never happen
-            throw new UnexpectedInternalException(e);
+        if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+            return cached(this.cacheLong, (int) value - CACHE_LOW, LONG, value);
         }
+        return Simplex.make(LONG, this, value);
     }
 
     /**
@@ -169,12 +212,13 @@ public abstract class Calculator {
      * @return a {@link Simplex} representing {@code value}. 
      */
     public Simplex valFloat(float value) {
-        try {
-            return Simplex.make(this, Float.valueOf(value));
-        } catch (InvalidOperandException | InvalidTypeException e) {
-            //this should never happen
-            throw new UnexpectedInternalException(e);
+        final int bits = Float.floatToRawIntBits(value);
+        if (bits == Float.floatToRawIntBits(0.0f)) {
+            return FLOAT_ZERO;
+        } else if (bits == Float.floatToRawIntBits(1.0f)) {
+            return FLOAT_ONE;
         }
+        return Simplex.make(FLOAT, this, bits);
     }
 
     /**
@@ -184,12 +228,13 @@ public abstract class Calculator {
      * @return a {@link Simplex} representing {@code value}. 
      */
     public Simplex valDouble(double value) {
-        try {
-            return Simplex.make(this, Double.valueOf(value));
-        } catch (InvalidOperandException | InvalidTypeException e) {
-            //this should never happen
-            throw new UnexpectedInternalException(e);
+        final long bits = Double.doubleToRawLongBits(value);
+        if (bits == Double.doubleToRawLongBits(0.0d)) {
+            return DOUBLE_ZERO;
+        } else if (bits == Double.doubleToRawLongBits(1.0d)) {
+            return DOUBLE_ONE;
         }
+        return Simplex.make(DOUBLE, this, bits);
     }
 
     /**
@@ -199,12 +244,30 @@ public abstract class Calculator {
      * @return a {@link Simplex} representing {@code value}. 
      */
     public Simplex valChar(char value) {
-        try {
-            return Simplex.make(this, Character.valueOf(value));
-        } catch (InvalidOperandException | InvalidTypeException e) {
-            //this should never happen
-            throw new UnexpectedInternalException(e);
+        if (value <= CACHE_HIGH) {
+            return cached(this.cacheChar, value, CHAR, value);
         }
+        return Simplex.make(CHAR, this, value);
+    }
+
+    /**
+     * Returns a cached {@link Simplex}, building it if
+     * it is not yet in the cache.
+     * 
+     * @param cache the cache, a {@link Simplex}{@code []}.
+     * @param index the position of the {@link Simplex} in {@code cache}.
+     * @param type the type of the {@link Simplex}.
+     * @param bits the value of the {@link Simplex}. 
+     * @return a {@link Simplex}.
+     */
+    private Simplex cached(Simplex[] cache, int index, char type, long bits) {
+        Simplex retVal = cache[index];
+        if (retVal == null) {
+            //benign race: all the threads build equal objects
+            retVal = Simplex.make(type, this, bits);
+            cache[index] = retVal;
+        }
+        return retVal;
     }
 
     /**
@@ -11,7 +11,11 @@ import jbse.val.exc.InvalidTypeException;
 import jbse.val.exc.ValueDoesNotSupportNativeException;
 
 /**
- * Class that represent a unary or binary expression.
+ * Class that represent a unary or binary expression. The 
+ * expressions are interned by their {@link Calculator}, so 
+ * two structurally equal expressions built by the same 
+ * {@link Calculator} are the same object, and their string 
+ * representation is calculated only upon request.
  */
 public final class Expression extends Primitive {
 	/** The operator. */
@@ -26,8 +30,8 @@ public final class Expression extends Primitive {
 	/** The hash code of this object. */
     private final int hashCode;
     
-    /** The string representation of this object. */
-	private final String toString;
+    /** The string representation of this object (lazily calculated). */
+	private String toString = null;
 	    
     /**
      * Factory method for verbatim expressions (binary).
@@ -62,7 +66,7 @@ public final class Expression extends Primitive {
         //calculates the default type
         final char defaultType = operator.returnType(firstOperand.getType(), secondOperand.getType()); 
 
-        return new Expression(defaultType, calc, firstOperand, operator, secondOperand);
+        return intern(calc, new Expression(defaultType, calc, firstOperand, operator, secondOperand));
     }
     
     /**
@@ -93,7 +97,11 @@ public final class Expression extends Primitive {
         //calculates the default type
         final char defaultType = (operator.returnsBoolean() ? Type.BOOLEAN : operand.getType());
         
-    	return new Expression(defaultType, calc, null, operator, operand);
+    	return intern(calc, new Expression(defaultType, calc, null, operator, operand));
+    }
+    
+    private static Expression intern(Calculator calc, Expression e) {
+        return (calc == null ? e : calc.intern(e));
     }
 
 	/**
@@ -116,42 +124,6 @@ public final class Expression extends Primitive {
     	tmpHashCode = prime * tmpHashCode + secondOp.hashCode();
     	this.hashCode = tmpHashCode;
 
-    	//calculates toString
-		String tmpToString = "";
-        boolean parentheses = false;
-        if (firstOp != null) {
-        	if (firstOp instanceof Expression) {
-        		parentheses = true; //default
-    			final Operator firstOpOperator = ((Expression) firstOp).operator;
-        		if (firstOpOperator.precedence() >= operator.precedence()) {
-        			parentheses = false;
-        		} 
-        	}
-    		tmpToString += (parentheses ? "(" : "") + firstOp.toString() + (parentheses ? ")" : "");
-        }
-        tmpToString += " " + operator.toString() + " ";
-        parentheses = false;
-		if (secondOp instanceof Expression) {
-			parentheses = true; //default
-			Operator secondOpOperator = ((Expression) secondOp).operator;
-			if (secondOpOperator.precedence() > operator.precedence()) {
-				parentheses = false;
-			} else if (secondOpOperator.precedence() == operator.precedence()) {
-				if (secondOpOperator == operator) {
-					if (operator == Operator.ADD || operator == Operator.SUB || operator == Operator.MUL) {
-						parentheses = false;
-					}
-				} else if (operator == Operator.MUL && secondOpOperator == Operator.DIV) {
-					parentheses = false;
-				}
-			} else if (operator == Operator.ADD && secondOpOperator == Operator.SUB) {
-				parentheses = false;
-			} else if (operator == Operator.SUB && secondOpOperator == Operator.ADD) {
-				parentheses = false;
-			}
-		}		
-		tmpToString += (parentheses ? "(" : "") + secondOp.toString() + (parentheses ? ")" : "");
-        this.toString = tmpToString;
     }
     
     /**
@@ -331,7 +303,72 @@ public final class Expression extends Primitive {
 	 */
     @Override
     public String toString() {
-    	return this.toString;
+        String retVal = this.toString;
+        if (retVal == null) {
+            final StringBuilder buf = new StringBuilder();
+            formatTo(buf);
+            retVal = buf.toString();
+            this.toString = retVal;
+        }
+    	return retVal;
+    }
+
+    /**
+     * Appends the string representation of this expression
+     * to a {@link StringBuilder}. The string representations 
+     * of the operands are not cached, so rendering a deep 
+     * expression takes linear space.
+     * 
+     * @param buf a {@link StringBuilder}.
+     */
+    private void formatTo(StringBuilder buf) {
+        boolean parentheses = false;
+        if (this.firstOp != null) {
+        	if (this.firstOp instanceof Expression) {
+        		parentheses = true; //default
+    			final Operator firstOpOperator = ((Expression) this.firstOp).operator;
+        		if (firstOpOperator.precedence() >= this.operator.precedence()) {
+        			parentheses = false;
+        		} 
+        	}
+        	formatOperandTo(buf, this.firstOp, parentheses);
+        }
+        buf.append(" ").append(this.operator.toString()).append(" ");
+        parentheses = false;
+		if (this.secondOp instanceof Expression) {
+			parentheses = true; //default
+			final Operator secondOpOperator = ((Expression) this.secondOp).operator;
+			if (secondOpOperator.precedence() > this.operator.precedence()) {
+				parentheses = false;
+			} else if (secondOpOperator.precedence() == this.operator.precedence()) {
+				if (secondOpOperator == this.operator) {
+					if (this.operator == Operator.ADD || this.operator == Operator.SUB || this.operator == Operator.MUL) {
+						parentheses = false;
+					}
+				} else if (this.operator == Operator.MUL && secondOpOperator == Operator.DIV) {
+					parentheses = false;
+				}
+			} else if (this.operator == Operator.ADD && secondOpOperator == Operator.SUB) {
+				parentheses = false;
+			} else if (this.operator == Operator.SUB && secondOpOperator == Operator.ADD) {
+				parentheses = false;
+			}
+		}
+		formatOperandTo(buf, this.secondOp, parentheses);
+    }
+
+    private static void formatOperandTo(StringBuilder buf, Primitive operand, boolean parentheses) {
+        if (parentheses) {
+            buf.append("(");
+        }
+        if (operand instanceof Expression && ((Expression) operand).toString == null) {
+            ((Expression) operand).formatTo(buf);
+        } else {
+            buf.append(operand.toString());
+        }
+        if (parentheses) {
+            buf.append(")");
+        }
     }
 	
 	/**
@@ -356,24 +393,33 @@ public final class Expression extends Primitive {
 		if (getClass() != obj.getClass()) {
 			return false;
 		}
-		Expression other = (Expression) obj;
-		if (firstOp == null) {
-			if (other.firstOp != null) {
-				return false;
-			}
-		} else if (!firstOp.equals(other.firstOp)) {
+		final Expression other = (Expression) obj;
+		if (this.interned && other.interned && this.calc == other.calc) {
+			//canonical expressions are equal iff they are the same object
+			return false;
+		}
+		if (this.hashCode != other.hashCode) {
 			return false;
 		}
-		if (operator != other.operator) {
+		return equalsStructurally(other);
+	}
+
+	@Override
+	boolean equalsStructurally(Primitive obj) {
+		final Expression other = (Expression) obj;
+		if (getType() != other.getType()) {
 			return false;
 		}
-		if (secondOp == null) {
-			if (other.secondOp != null) {
+		if (this.operator != other.operator) {
+			return false;
+		}
+		if (this.firstOp == null) {
+			if (other.firstOp != null) {
 				return false;
 			}
-		} else if (!secondOp.equals(other.secondOp)) {
+		} else if (!this.firstOp.equals(other.firstOp)) {
 			return false;
 		}
-		return true;
+		return this.secondOp.equals(other.secondOp);
 	}
 }
\ No newline at end of file
@@ -63,11 +63,33 @@ public final class FunctionApplication extends Primitive {
 	/** The hash code of this object. */
     private final int hashCode;
 
-    /** The string representation of this object. */
-	private final String toString;
+    /** The string representation of this object (lazily calculated). */
+	private String toString = null;
 	
 	/**
-	 * Constructor. 
+	 * Factory method. The returned {@link FunctionApplication}
+	 * is canonical, i.e., it is the same object for all the 
+	 * structurally equal function applications built by 
+	 * {@code calc}.
+	 * 
+     * @param type a {@code char}, the type of this {@link FunctionApplication}. 
+     * @param calc a {@link Calculator}.
+     * @param operator the name of the function.
+     * @param args the {@link Primitive} arguments to which the function is applied.
+     * @return a {@link FunctionApplication}.
+	 * @throws InvalidOperandException if any of {@code args} is null. 
+	 * @throws InvalidTypeException if {@code type} is not primitive.
+	 */
+	public static FunctionApplication make(char type, Calculator calc, String operator, Primitive... args) 
+	throws InvalidTypeException, InvalidOperandException {
+		final FunctionApplication retVal = new FunctionApplication(type, calc, operator, args);
+		return (calc == null ? retVal : calc.intern(retVal));
+	}
+	
+	/**
+	 * Constructor. Builds a {@link FunctionApplication} that 
+	 * is not canonical, use {@link #make(char, Calculator, String, Primitive...) make}
+	 * to get the canonical one.
 	 * 
      * @param type a {@code char}, the type of this {@link FunctionApplication}. 
      * @param calc a {@link Calculator}.
@@ -95,17 +117,6 @@ public final class FunctionApplication extends Primitive {
 		tmpHashCode = prime * tmpHashCode + Arrays.hashCode(args);
 		tmpHashCode = prime * tmpHashCode + ((operator == null) ? 0 : operator.hashCode());
 		this.hashCode = tmpHashCode;
-		
-		//calculates toString
-		final StringBuilder buf = new StringBuilder();
-		buf.append(this.operator + "(");
-		boolean first = true;
-		for (Primitive p : this.args) {
-			buf.append((first ? "" : ",") + p.toString());
-			first = false;
-		}
-		buf.append(")");
-		this.toString = buf.toString();
 	}
 
 	public String getOperator() {
@@ -194,7 +205,20 @@ public final class FunctionApplication extends Primitive {
 	 */
 	@Override
 	public String toString() {
-		return this.toString;
+		String retVal = this.toString;
+		if (retVal == null) {
+			final StringBuilder buf = new StringBuilder();
+			buf.append(this.operator).append("(");
+			boolean first = true;
+			for (Primitive p : this.args) {
+				buf.append(first ? "" : ",").append(p.toString());
+				first = false;
+			}
+			buf.append(")");
+			retVal = buf.toString();
+			this.toString = retVal;
+		}
+		return retVal;
 	}
 
 	/**
@@ -220,6 +244,22 @@ public final class FunctionApplication extends Primitive {
 			return false;
 		}
 		final FunctionApplication other = (FunctionApplication) obj;
+		if (this.interned && other.interned && this.calc == other.calc) {
+			//canonical function applications are equal iff they are the same object
+			return false;
+		}
+		if (this.hashCode != other.hashCode) {
+			return false;
+		}
+		return equalsStructurally(other);
+	}
+
+	@Override
+	boolean equalsStructurally(Primitive obj) {
+		final FunctionApplication other = (FunctionApplication) obj;
+		if (getType() != other.getType()) {
+			return false;
+		}
 		if (!Arrays.equals(args, other.args))
 			return false;
 		if (operator == null) {
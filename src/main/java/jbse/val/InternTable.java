@@ -0,0 +1,151 @@
+package jbse.val;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * A table of canonical {@link Primitive}s, that holds them
+ * by weak references, so a canonical {@link Primitive} is
+ * evicted as soon as it is no longer used. It is owned by
+ * a {@link Calculator}, so the canonical {@link Primitive}s
+ * of different {@link Calculator}s are distinct. The table
+ * is split in stripes, each with its own lock, so the threads
+ * sharing the {@link Calculator} seldom wait for each other.
+ */
+final class InternTable {
+    /** The base 2 logarithm of the number of stripes. */
+    private static final int STRIPES_LOG2 = 5;
+
+    /** The number of stripes. */
+    private static final int STRIPES = 1 << STRIPES_LOG2;
+
+    /** The initial number of buckets of a stripe; must be a power of 2. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final class Entry extends WeakReference<Primitive> {
+        final int hash;
+        Entry next;
+
+        Entry(Primitive referent, int hash, Entry next, ReferenceQueue<Primitive> queue) {
+            super(referent, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    /**
+     * A stripe, holding the canonical {@link Primitive}s
+     * whose hash codes select it.
+     */
+    private static final class Stripe {
+        /** Receives the entries whose {@link Primitive} was collected. */
+        private final ReferenceQueue<Primitive> queue = new ReferenceQueue<>();
+
+        /** The buckets, each a linked list of {@link Entry}s. */
+        private Entry[] buckets = new Entry[INITIAL_CAPACITY];
+
+        /** The number of entries. */
+        private int size = 0;
+
+        @SuppressWarnings("unchecked")
+        synchronized <P extends Primitive> P intern(P candidate, int hash) {
+            expunge();
+            final int index = hash & (this.buckets.length - 1);
+            for (Entry e = this.buckets[index]; e != null; e = e.next) {
+                if (e.hash == hash) {
+                    final Primitive p = e.get();
+                    if (p != null && p.getClass() == candidate.getClass() && candidate.equalsStructurally(p)) {
+                        return (P) p;
+                    }
+                }
+            }
+            this.buckets[index] = new Entry(candidate, hash, this.buckets[index], this.queue);
+            candidate.interned = true;
+            if (++this.size > this.buckets.length - (this.buckets.length >> 2)) {
+                resize();
+            }
+            return candidate;
+        }
+
+        synchronized int size() {
+            expunge();
+            return this.size;
+        }
+
+        private void expunge() {
+            for (Reference<? extends Primitive> r = this.queue.poll(); r != null; r = this.queue.poll()) {
+                final Entry dead = (Entry) r;
+                final int index = dead.hash & (this.buckets.length - 1);
+                Entry prev = null;
+                for (Entry e = this.buckets[index]; e != null; prev = e, e = e.next) {
+                    if (e == dead) {
+                        if (prev == null) {
+                            this.buckets[index] = e.next;
+                        } else {
+                            prev.next = e.next;
+                        }
+                        --this.size;
+                        break;
+                    }
+                }
+            }
+        }
+
+        private void resize() {
+            final Entry[] newBuckets = new Entry[this.buckets.length * 2];
+            for (Entry head : this.buckets) {
+                Entry e = head;
+                while (e != null) {
+                    final Entry next = e.next;
+                    final int index = e.hash & (newBuckets.length - 1);
+                    e.next = newBuckets[index];
+                    newBuckets[index] = e;
+                    e = next;
+                }
+            }
+            this.buckets = newBuckets;
+        }
+    }
+
+    /** The stripes. */
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    InternTable() {
+        for (int i = 0; i < STRIPES; ++i) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Returns the canonical {@link Primitive} structurally
+     * equal to a given one. If there is none, the given
+     * {@link Primitive} becomes canonical.
+     *
+     * @param candidate a {@link Primitive}. Its operands
+     *        must be canonical, when they can be.
+     * @return the canonical {@link Primitive} structurally
+     *         equal to {@code candidate}.
+     */
+    <P extends Primitive> P intern(P candidate) {
+        final int hash = candidate.hashCode();
+        //the buckets of a stripe are selected by the low bits
+        //of the hash code, the stripe by the high bits of its
+        //product with the golden ratio, that spreads them
+        final int stripe = (hash * 0x9E3779B9) >>> (Integer.SIZE - STRIPES_LOG2);
+        return this.stripes[stripe].intern(candidate, hash);
+    }
+
+    /**
+     * Returns the number of canonical {@link Primitive}s.
+     *
+     * @return an {@code int}.
+     */
+    int size() {
+        int retVal = 0;
+        for (Stripe s : this.stripes) {
+            retVal += s.size();
+        }
+        return retVal;
+    }
+}
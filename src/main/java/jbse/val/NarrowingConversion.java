@@ -14,7 +14,7 @@ import jbse.val.exc.ValueDoesNotSupportNativeException;
  */
 public final class NarrowingConversion extends Primitive {
     private final Primitive arg;
-    private final String toString;
+    private String toString = null; //lazily calculated
     private final int hashCode;
 
     private NarrowingConversion(char type, Calculator calc, Primitive arg) 
@@ -36,14 +36,12 @@ public final class NarrowingConversion extends Primitive {
         result = prime * result + arg.hashCode();
         result = prime * result + type;
         this.hashCode = result;
-
-        //calculates toString
-        this.toString = "NARROW-"+ this.getType() + "(" + arg.toString() + ")";
     }
 
     public static NarrowingConversion make(char type, Calculator calc, Primitive arg) 
     throws InvalidOperandException, InvalidTypeException {
-        return new NarrowingConversion(type, calc, arg);
+        final NarrowingConversion retVal = new NarrowingConversion(type, calc, arg);
+        return (calc == null ? retVal : calc.intern(retVal));
     }
 
     public Primitive getArg() {
@@ -77,7 +75,12 @@ public final class NarrowingConversion extends Primitive {
 
     @Override
     public String toString() {
-        return this.toString;
+        String retVal = this.toString;
+        if (retVal == null) {
+            retVal = "NARROW-" + this.getType() + "(" + this.arg.toString() + ")";
+            this.toString = retVal;
+        }
+        return retVal;
     }
 
     @Override
@@ -97,6 +100,22 @@ public final class NarrowingConversion extends Primitive {
             return false;
         }
         final NarrowingConversion other = (NarrowingConversion) obj;
+        if (this.interned && other.interned && this.calc == other.calc) {
+            //canonical conversions are equal iff they are the same object
+            return false;
+        }
+        if (this.hashCode != other.hashCode) {
+            return false;
+        }
+        return equalsStructurally(other);
+    }
+
+    @Override
+    boolean equalsStructurally(Primitive obj) {
+        final NarrowingConversion other = (NarrowingConversion) obj;
+        if (getType() != other.getType()) {
+            return false;
+        }
         if (arg == null) {
             if (other.arg != null) {
                 return false;
@@ -13,6 +13,13 @@ public abstract class Primitive extends Value implements Cloneable {
     /** {@link Calculator} to perform operation on primitives. */
     protected final Calculator calc;
 
+    /** 
+     * Whether this object is the canonical one among the
+     * structurally equal ones built by {@code calc}; set 
+     * by {@link InternTable}.
+     */
+    boolean interned = false;
+
     /**
      * Constructor. 
      * 
@@ -36,6 +43,23 @@ public abstract class Primitive extends Value implements Cloneable {
      */
     public abstract void accept(PrimitiveVisitor v) throws Exception;
 
+    /**
+     * Checks whether this {@link Primitive} has the same 
+     * structure as another one of the same class. Used 
+     * by {@link InternTable}, and must be overridden by the
+     * subclasses whose objects are interned. The default
+     * implementation invokes {@link #equals(Object)}.
+     * 
+     * @param other a {@link Primitive} with the same class
+     *        as {@code this}.
+     * @return {@code true} iff {@code this} and {@code other}
+     *         have same type, and their operators and operands
+     *         are equal.
+     */
+    boolean equalsStructurally(Primitive other) {
+        return equals(other);
+    }
+
     /**
      * Checks whether this value denotes the primitive true value.
      *  
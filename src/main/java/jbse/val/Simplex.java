@@ -1,57 +1,58 @@
 package jbse.val;
 
 import jbse.common.Type;
+import jbse.common.exc.UnexpectedInternalException;
 import jbse.val.exc.InvalidOperandException;
 import jbse.val.exc.InvalidTypeException;
 
 /**
- * Class for concrete primitive values.
+ * Class for concrete primitive values. The value is stored unboxed,
+ * and it is boxed only when it is requested as an {@link Object}.
  */
 public final class Simplex extends Primitive implements Cloneable {	
-    /** The primitive value this object represents. */
-    private final Object value;
+    /** 
+     * The primitive value this object represents: The {@code boolean}
+     * values as {@code 0} and {@code 1}, the integral values (including
+     * {@code char}s) sign extended, and the floating point values as 
+     * their raw bits. 
+     */
+    private final long bits;
+
+    /** The boxed value this object represents, built lazily. */
+    private Object value;
 
     /** The hash code. */
     private final int hashCode;
 
-    /** The string representation of this object. */
-    private final String toString;
+    /** The string representation of this object, built lazily. */
+    private String toString;
 
-    private Simplex(char type, Calculator calc, Object value) 
-    throws InvalidOperandException, InvalidTypeException {
+    private Simplex(char type, Calculator calc, long bits, Object value) 
+    throws InvalidTypeException {
         super(type, calc);
-        //checks on parameters
-        if (value == null || !(
-            value instanceof Boolean || 
-            value instanceof Byte || 
-            value instanceof Character ||
-            value instanceof Double ||
-            value instanceof Float || 
-            value instanceof Integer ||
-            value instanceof Long ||
-            value instanceof Short)) {
-            throw new InvalidOperandException("no operand in simplex construction");
-        }
-        if ((type == Type.BOOLEAN && !(value instanceof Boolean)) ||
-            (type == Type.BYTE && !(value instanceof Byte)) ||
-            (type == Type.CHAR && !(value instanceof Character)) ||
-            (type == Type.DOUBLE && !(value instanceof Double)) ||
-            (type == Type.FLOAT && !(value instanceof Float)) ||
-            (type == Type.INT && !(value instanceof Integer)) ||
-            (type == Type.LONG && !(value instanceof Long)) ||
-            (type == Type.SHORT && !(value instanceof Short))) {
-            throw new InvalidTypeException("type does not agree with value in simplex construction");
-        }
+        this.bits = bits;
         this.value = value;
 
-        //calculates hashCode
+        //calculates hashCode, with the same value as 31 + getActualValue().hashCode()
         final int prime = 31;
-        int result = 1;
-        result = prime + result * this.value.hashCode();
-        this.hashCode = result;
-
-        //calculates toString
-        this.toString = this.value.toString();
+        final int valueHashCode;
+        switch (type) {
+        case Type.BOOLEAN:
+            valueHashCode = Boolean.hashCode(bits != 0);
+            break;
+        case Type.FLOAT:
+            valueHashCode = Float.hashCode(Float.intBitsToFloat((int) bits));
+            break;
+        case Type.DOUBLE:
+            valueHashCode = Double.hashCode(Double.longBitsToDouble(bits));
+            break;
+        case Type.LONG:
+            valueHashCode = Long.hashCode(bits);
+            break;
+        default: //byte, short, char, int
+            valueHashCode = (int) bits;
+        }
+        this.hashCode = prime + valueHashCode;
     }
 
     /**
@@ -65,21 +66,45 @@ public final class Simplex extends Primitive implements Cloneable {
     public static Simplex make(Calculator calc, Object n) 
     throws InvalidTypeException, InvalidOperandException {
         if (n instanceof Boolean) {
-            return new Simplex(Type.BOOLEAN, calc, n);
+            return new Simplex(Type.BOOLEAN, calc, (((Boolean) n).booleanValue() ? 1L : 0L), n);
         } else if (n instanceof Byte) {
-            return new Simplex(Type.BYTE, calc, n);
+            return new Simplex(Type.BYTE, calc, ((Byte) n).byteValue(), n);
         } else if (n instanceof Character) {
-            return new Simplex(Type.CHAR, calc, n);
+            return new Simplex(Type.CHAR, calc, ((Character) n).charValue(), n);
         } else if (n instanceof Double) {
-            return new Simplex(Type.DOUBLE, calc, n);
+            return new Simplex(Type.DOUBLE, calc, Double.doubleToRawLongBits(((Double) n).doubleValue()), n);
         } else if (n instanceof Float) {
-            return new Simplex(Type.FLOAT, calc, n);
+            return new Simplex(Type.FLOAT, calc, Float.floatToRawIntBits(((Float) n).floatValue()), n);
         } else if (n instanceof Integer) {
-            return new Simplex(Type.INT, calc, n);
+            return new Simplex(Type.INT, calc, ((Integer) n).intValue(), n);
         } else if (n instanceof Long) {
-            return new Simplex(Type.LONG, calc, n);
+            return new Simplex(Type.LONG, calc, ((Long) n).longValue(), n);
+        } else if (n instanceof Short) {
+            return new Simplex(Type.SHORT, calc, ((Short) n).shortValue(), n);
         } else {
-            return new Simplex(Type.SHORT, calc, n);
+            throw new InvalidOperandException("no operand in simplex construction");
+        }
+    }
+
+    /**
+     * Factory method for {@link Simplex} values that
+     * does not box the value.
+     * 
+     * @param type a {@code char}, the type of the value. It must
+     *        be a primitive type.
+     * @param calc a {@link Calculator}.
+     * @param bits a {@code long}, the value: {@code 0} or 
+     *        {@code 1} for {@code boolean}s, the sign extended 
+     *        value for the integral types, and the raw bits 
+     *        for the floating point types.
+     * @return a {@link Simplex}.
+     */
+    static Simplex make(char type, Calculator calc, long bits) {
+        try {
+            return new Simplex(type, calc, bits, null);
+        } catch (InvalidTypeException e) {
+            //this should never happen
+            throw new UnexpectedInternalException(e);
         }
     }
 
@@ -90,8 +115,98 @@ public final class Simplex extends Primitive implements Cloneable {
      *         {@link Byte}, {@link Short}, {@link Integer}, {@link Long},
      *         {@link Float}, {@link Double}, or {@link Character}. 
      */
-    public Object getActualValue(){
-        return this.value;
+    public Object getActualValue() {
+        Object retVal = this.value;
+        if (retVal == null) {
+            switch (getType()) {
+            case Type.BOOLEAN:
+                retVal = Boolean.valueOf(this.bits != 0);
+                break;
+            case Type.BYTE:
+                retVal = Byte.valueOf((byte) this.bits);
+                break;
+            case Type.CHAR:
+                retVal = Character.valueOf((char) this.bits);
+                break;
+            case Type.SHORT:
+                retVal = Short.valueOf((short) this.bits);
+                break;
+            case Type.INT:
+                retVal = Integer.valueOf((int) this.bits);
+                break;
+            case Type.LONG:
+                retVal = Long.valueOf(this.bits);
+                break;
+            case Type.FLOAT:
+                retVal = Float.valueOf(Float.intBitsToFloat((int) this.bits));
+                break;
+            default: //Type.DOUBLE
+                retVal = Double.valueOf(Double.longBitsToDouble(this.bits));
+            }
+            this.value = retVal;
+        }
+        return retVal;
+    }
+
+    /**
+     * Returns the value of this object as a {@code boolean}.
+     * 
+     * @return {@code true} iff this object has not
+     *         a floating point type, and its value
+     *         is not zero.
+     */
+    public boolean booleanValue() {
+        return (!Type.isPrimitiveFloating(getType()) && this.bits != 0);
+    }
+
+    /**
+     * Returns the value of this object as an {@code int}, 
+     * as the Java primitive conversions do. A {@code boolean}
+     * is converted to {@code 0} or {@code 1}.
+     * 
+     * @return an {@code int}.
+     */
+    public int intValue() {
+        return (Type.isPrimitiveFloating(getType()) ? (int) doubleValue() : (int) this.bits);
+    }
+
+    /**
+     * Returns the value of this object as a {@code long}, 
+     * as the Java primitive conversions do. A {@code boolean}
+     * is converted to {@code 0} or {@code 1}.
+     * 
+     * @return a {@code long}.
+     */
+    public long longValue() {
+        return (Type.isPrimitiveFloating(getType()) ? (long) doubleValue() : this.bits);
+    }
+
+    /**
+     * Returns the value of this object as a {@code float}, 
+     * as the Java primitive conversions do. A {@code boolean}
+     * is converted to {@code 0} or {@code 1}.
+     * 
+     * @return a {@code float}.
+     */
+    public float floatValue() {
+        final char type = getType();
+        return (type == Type.FLOAT ? Float.intBitsToFloat((int) this.bits) :
+                type == Type.DOUBLE ? (float) Double.longBitsToDouble(this.bits) :
+                (float) this.bits);
+    }
+
+    /**
+     * Returns the value of this object as a {@code double}, 
+     * as the Java primitive conversions do. A {@code boolean}
+     * is converted to {@code 0} or {@code 1}.
+     * 
+     * @return a {@code double}.
+     */
+    public double doubleValue() {
+        final char type = getType();
+        return (type == Type.DOUBLE ? Double.longBitsToDouble(this.bits) :
+                type == Type.FLOAT ? (double) Float.intBitsToFloat((int) this.bits) :
+                (double) this.bits);
     }
 
     /**
@@ -106,45 +221,16 @@ public final class Simplex extends Primitive implements Cloneable {
      *         for its type.
      */
     public boolean isZeroOne(boolean zero) {
-        byte b;
-        char c;
-        int i;
-        long l;
-        float f;
-        double d;
-
-        if (zero) {
-            b = 0;
-            c = 0;
-            i = 0;
-            l = 0L;
-            f = 0F; //TODO negative zero
-            d = 0D; //TODO negative zero
+        final char type = getType();
+        if (type == Type.BOOLEAN || type == Type.SHORT) {
+            return false;
+        } else if (type == Type.FLOAT) {
+            return (floatValue() == (zero ? 0F : 1F)); //TODO negative zero
+        } else if (type == Type.DOUBLE) {
+            return (doubleValue() == (zero ? 0D : 1D)); //TODO negative zero
         } else {
-            b = 1;
-            c = 1;
-            i = 1;
-            l = 1L;
-            f = 1F;
-            d = 1D;
-        }
-
-        boolean retVal = false;
-        if (this.getType() == Type.BYTE) {
-            retVal = (((Byte) this.getActualValue()) == b);
-        } else if (this.getType() == Type.CHAR) {
-            retVal = (((Character) this.getActualValue()) == c);
-        } else if (this.getType() == Type.INT) {
-            retVal = (((Integer) this.getActualValue()) == i);
-        } else if (this.getType() == Type.LONG) {
-            retVal = (((Long) this.getActualValue()) == l);
-        } else if (this.getType() == Type.FLOAT) {
-            retVal = (((Float) this.getActualValue()) == f);
-        } else if (this.getType() == Type.DOUBLE) {
-            retVal = (((Double) this.getActualValue()) == d);
+            return (this.bits == (zero ? 0L : 1L));
         }
-
-        return retVal;
     }
 
     /**
@@ -155,7 +241,7 @@ public final class Simplex extends Primitive implements Cloneable {
      */
     @Override
     public boolean surelyTrue() {
-        return (this.getType() == Type.BOOLEAN && ((Boolean) this.value).booleanValue());
+        return (this.getType() == Type.BOOLEAN && this.bits != 0);
     }
 
     /**
@@ -166,7 +252,7 @@ public final class Simplex extends Primitive implements Cloneable {
      */
     @Override
     public boolean surelyFalse() {
-        return (this.getType() == Type.BOOLEAN && !((Boolean) this.value).booleanValue());
+        return (this.getType() == Type.BOOLEAN && this.bits == 0);
     }
 
     /**
@@ -191,12 +277,17 @@ public final class Simplex extends Primitive implements Cloneable {
      */
     @Override
     public Object getValueForNative() {
-        return this.value;
+        return getActualValue();
     }
 
     @Override
     public String toString() {
-        return this.toString;
+        String retVal = this.toString;
+        if (retVal == null) {
+            retVal = getActualValue().toString();
+            this.toString = retVal;
+        }
+        return retVal;
     }
 
     @Override
@@ -215,16 +306,17 @@ public final class Simplex extends Primitive implements Cloneable {
         if (getClass() != obj.getClass()) {
             return false;
         }
-        Simplex other = (Simplex) obj;
-        if (this.value == null) {
-            if (other.value != null) {
-                return false;
-            }
-        } else { 
-            if (!this.value.equals(other.value)) {
-                return false;
-            }
+        final Simplex other = (Simplex) obj;
+        if (this.getType() != other.getType()) {
+            return false;
+        }
+        //compares as the boxed values do, so NaNs are equal
+        if (this.getType() == Type.FLOAT) {
+            return Float.floatToIntBits(floatValue()) == Float.floatToIntBits(other.floatValue());
+        } else if (this.getType() == Type.DOUBLE) {
+            return Double.doubleToLongBits(doubleValue()) == Double.doubleToLongBits(other.doubleValue());
+        } else {
+            return this.bits == other.bits;
         }
-        return true;
     }
 }
\ No newline at end of file
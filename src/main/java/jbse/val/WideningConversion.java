@@ -14,7 +14,7 @@ import jbse.val.exc.ValueDoesNotSupportNativeException;
  */
 public final class WideningConversion extends Primitive {
     private final Primitive arg;
-    private final String toString;
+    private String toString = null; //lazily calculated
     private final int hashCode;
 
     private WideningConversion(char type, Calculator calc, Primitive arg) 
@@ -36,14 +36,12 @@ public final class WideningConversion extends Primitive {
         result = prime * result + arg.hashCode();
         result = prime * result + type;
         this.hashCode = result;
-
-        //calculates toString
-        this.toString = "WIDEN-"+ this.getType() + "(" + arg.toString() + ")";
     }
 
     public static WideningConversion make(char type, Calculator calc, Primitive arg) 
     throws InvalidOperandException, InvalidTypeException {
-        return new WideningConversion(type, calc, arg);
+        final WideningConversion retVal = new WideningConversion(type, calc, arg);
+        return (calc == null ? retVal : calc.intern(retVal));
     }
 
     public Primitive getArg() {
@@ -77,7 +75,12 @@ public final class WideningConversion extends Primitive {
 
     @Override
     public String toString() {
-        return this.toString;
+        String retVal = this.toString;
+        if (retVal == null) {
+            retVal = "WIDEN-" + this.getType() + "(" + this.arg.toString() + ")";
+            this.toString = retVal;
+        }
+        return retVal;
     }
 
     @Override
@@ -97,6 +100,22 @@ public final class WideningConversion extends Primitive {
             return false;
         }
         final WideningConversion other = (WideningConversion) obj;
+        if (this.interned && other.interned && this.calc == other.calc) {
+            //canonical conversions are equal iff they are the same object
+            return false;
+        }
+        if (this.hashCode != other.hashCode) {
+            return false;
+        }
+        return equalsStructurally(other);
+    }
+
+    @Override
+    boolean equalsStructurally(Primitive obj) {
+        final WideningConversion other = (WideningConversion) obj;
+        if (getType() != other.getType()) {
+            return false;
+        }
         if (arg == null) {
             if (other.arg != null) {
                 return false;
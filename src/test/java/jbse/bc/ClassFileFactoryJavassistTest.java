@@ -0,0 +1,132 @@
+package jbse.bc;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.*;
+
+public class ClassFileFactoryJavassistTest {
+    private static final String RT_JAR = "src/test/resources/jbse/bc/testdata/rt.jar";
+    private static final String TESTDATA = "src/test/resources/jbse/bc/testdata";
+    private static final String CLASS = "tsafe/engine/EngineCalculator";
+
+    private Path tmp;
+
+    @Before
+    public void setUp() throws Exception {
+        this.tmp = Files.createTempDirectory("jbse");
+        final Path dir = this.tmp.resolve("tsafe/engine");
+        Files.createDirectories(dir);
+        Files.copy(new File(TESTDATA, CLASS + ".class").toPath(), dir.resolve("EngineCalculator.class"));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.delete(this.tmp.resolve(CLASS + ".class"));
+        Files.delete(this.tmp.resolve("tsafe/engine"));
+        Files.delete(this.tmp.resolve("tsafe"));
+        Files.delete(this.tmp);
+    }
+
+    private static ClassFileFactory factory(String... paths) {
+        return new ClassFileFactoryJavassist(null, new Classpath(paths));
+    }
+
+    @Test
+    public void testSameClasspathSharesClassFiles() throws Exception {
+        final ClassFile c1 = factory(RT_JAR, TESTDATA).newClassFile("java/lang/String");
+        final ClassFile c2 = factory(RT_JAR, TESTDATA).newClassFile("java/lang/String");
+        assertSame(c1, c2);
+        final ClassFile c3 = factory(RT_JAR).newClassFile("java/lang/String");
+        assertNotSame(c1, c3);
+        assertEquals(c1.getClassName(), c3.getClassName());
+    }
+
+    @Test
+    public void testChangedEntryIsReloaded() throws Exception {
+        final String dir = this.tmp.toString();
+        final ClassFile c1 = factory(RT_JAR, dir).newClassFile(CLASS);
+        assertSame(c1, factory(RT_JAR, dir).newClassFile(CLASS));
+
+        //touches the classfile
+        final File f = this.tmp.resolve(CLASS + ".class").toFile();
+        assertTrue(f.setLastModified(f.lastModified() + 10_000));
+        final ClassFile c2 = factory(RT_JAR, dir).newClassFile(CLASS);
+        assertNotSame(c1, c2);
+        assertEquals(CLASS, c2.getClassName());
+        assertSame(c2, factory(RT_JAR, dir).newClassFile(CLASS));
+    }
+
+    @Test
+    public void testCacheIsBounded() throws Exception {
+        final String dir = this.tmp.toString();
+        final ClassFile c1 = factory(dir).newClassFile(CLASS);
+        for (int i = 0; i < ClassFileFactoryJavassist.MAX_SHARED; ++i) {
+            final String[] paths = new String[i + 2];
+            Arrays.fill(paths, dir);
+            factory(paths).newClassFile(CLASS);
+        }
+        assertNotSame(c1, factory(dir).newClassFile(CLASS));
+    }
+
+    @Test
+    public void testSharedClassFilesOnManyThreads() throws Exception {
+        final String[] classes = {
+            "java/lang/String", "java/util/ArrayList", "java/util/HashMap", "java/util/LinkedList",
+            "java/util/concurrent/ConcurrentHashMap", "java/lang/Thread", "java/lang/Class", CLASS
+        };
+        final String dir = this.tmp.toString();
+
+        //expected results, from a factory with a classpath of its own
+        final List<String> expected = new ArrayList<>();
+        for (String className : classes) {
+            expected.add(describe(factory(RT_JAR, dir, dir).newClassFile(className)));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final ArrayList<Future<List<String>>> results = new ArrayList<>();
+            for (int t = 0; t < 8; ++t) {
+                final int offset = t;
+                results.add(executor.submit(() -> {
+                    final String[] retVal = new String[classes.length];
+                    for (int i = 0; i < classes.length; ++i) {
+                        final int j = (i + offset) % classes.length;
+                        retVal[j] = describe(factory(RT_JAR, dir).newClassFile(classes[j]));
+                    }
+                    return Arrays.asList(retVal);
+                }));
+            }
+            for (Future<List<String>> result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static String describe(ClassFile c) throws Exception {
+        final StringBuilder retVal = new StringBuilder();
+        retVal.append(c.getClassName()).append(' ').append(c.getSuperclassName()).append(' ')
+              .append(c.getSuperInterfaceNames()).append(' ').append(c.getModifiers());
+        for (Signature f : c.getDeclaredFields()) {
+            retVal.append(' ').append(f).append(c.getFieldModifiers(f));
+        }
+        for (Signature m : c.getDeclaredMethods()) {
+            retVal.append(' ').append(m).append(c.getMethodModifiers(m)).append(c.getMethodGenericSignatureType(m));
+            if (c.hasMethodImplementation(m) && !c.isMethodNative(m)) {
+                retVal.append(c.getLocalVariableLength(m)).append(c.getExceptionTable(m).getLength());
+            }
+        }
+        return retVal.toString();
+    }
+}
@@ -0,0 +1,212 @@
+package jbse.bc;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import org.junit.*;
+
+import javassist.ClassPool;
+import javassist.CtBehavior;
+import javassist.CtClass;
+import javassist.CtConstructor;
+import javassist.CtField;
+import javassist.bytecode.CodeAttribute;
+import javassist.bytecode.LineNumberAttribute;
+import javassist.bytecode.LocalVariableAttribute;
+
+/**
+ * Checks that the lookups of {@link ClassFileJavassist} through its
+ * method and field indices return the same answers as the direct
+ * lookups on the Javassist declarations.
+ */
+public class ClassFileJavassistTest {
+    private static final String[] CLASSES = {
+        "java/lang/String",                             //overloaded methods and constructors, <clinit>
+        "java/util/concurrent/ConcurrentHashMap",       //exception tables
+        "tsafe/engine/EngineCalculator",                //local variable tables
+        "jsymba/jvm/Engine"
+    };
+
+    ClassFileFactory f;
+    ClassPool pool;
+
+    @Before
+    public void setUp() throws Exception {
+        Classpath env = new Classpath("src/test/resources/jbse/bc/testdata/rt.jar", "src/test/resources/jbse/bc/testdata");
+        this.f = new ClassFileFactoryJavassist(null, env);
+        this.pool = new ClassPool();
+        for (String path : env.classPath()) {
+            this.pool.appendClassPath(path);
+        }
+    }
+
+    private static String internalName(CtBehavior b) {
+        if (b instanceof CtConstructor) {
+            return (((CtConstructor) b).isClassInitializer() ? "<clinit>" : "<init>");
+        }
+        return b.getName();
+    }
+
+    private CtClass direct(String className) throws Exception {
+        return this.pool.get(className.replace('/', '.'));
+    }
+
+    @Test
+    public void testMethodsMatchDeclarations() throws Exception {
+        int overloaded = 0;
+        boolean someClinit = false, someInit = false;
+        for (String className : CLASSES) {
+            final ClassFile c = this.f.newClassFile(className);
+            final HashMap<String, Integer> overloads = new HashMap<>();
+            for (CtBehavior b : direct(className).getDeclaredBehaviors()) {
+                final Signature sig = new Signature(className, b.getSignature(), internalName(b));
+                someClinit |= "<clinit>".equals(sig.getName());
+                someInit |= "<init>".equals(sig.getName());
+                overloads.merge(sig.getName(), 1, Integer::sum);
+                assertTrue(sig.toString(), c.hasMethodDeclaration(sig));
+                assertEquals(sig.toString(), b.getModifiers(), c.getMethodModifiers(sig));
+                assertEquals(sig.toString(), b.getGenericSignature(), c.getMethodGenericSignatureType(sig));
+                final CodeAttribute ca = b.getMethodInfo().getCodeAttribute();
+                assertEquals(sig.toString(), ca != null || javassist.Modifier.isNative(b.getModifiers()), c.hasMethodImplementation(sig));
+                if (ca == null) {
+                    continue;
+                }
+                assertArrayEquals(sig.toString(), ca.getCode(), c.getMethodCodeBySignature(sig));
+                assertEquals(sig.toString(), ca.getCodeLength(), c.getCodeLength(sig));
+                assertEquals(sig.toString(), ca.getMaxLocals(), c.getLocalVariableLength(sig));
+            }
+            for (int n : overloads.values()) {
+                if (n > 1) {
+                    ++overloaded;
+                }
+            }
+        }
+        assertTrue(someClinit);
+        assertTrue(someInit);
+        assertTrue(overloaded > 0);
+    }
+
+    @Test
+    public void testMethodLookupByNameAndDescriptor() throws Exception {
+        final ClassFile c = this.f.newClassFile("java/lang/String");
+
+        //overloads are told apart by the descriptor, and the class name is ignored
+        assertTrue(c.hasMethodDeclaration(new Signature("java/lang/String", "(I)I", "indexOf")));
+        assertTrue(c.hasMethodDeclaration(new Signature("java/lang/String", "(Ljava/lang/String;)I", "indexOf")));
+        assertTrue(c.hasMethodDeclaration(new Signature("java/lang/Object", "(II)I", "indexOf")));
+        assertFalse(c.hasMethodDeclaration(new Signature("java/lang/String", "(J)I", "indexOf")));
+        assertFalse(c.hasMethodDeclaration(new Signature("java/lang/String", "()V", "noSuchMethod")));
+        assertTrue(c.hasMethodDeclaration(new Signature("java/lang/String", "([C)V", "<init>")));
+        assertFalse(c.hasMethodDeclaration(new Signature("java/lang/String", "(J)V", "<init>")));
+        assertNotEquals(c.getMethodModifiers(new Signature("java/lang/String", "([CII)V", "<init>")),
+                        c.getMethodModifiers(new Signature("java/lang/String", "([CZ)V", "<init>")));
+
+        //the class initializer is matched by name only
+        final Signature clinit = new Signature("java/lang/String", "()V", "<clinit>");
+        final Signature clinitOtherDescriptor = new Signature("java/lang/String", "(I)V", "<clinit>");
+        assertTrue(c.hasMethodDeclaration(clinitOtherDescriptor));
+        assertArrayEquals(c.getMethodCodeBySignature(clinit), c.getMethodCodeBySignature(clinitOtherDescriptor));
+        assertSame(c.getLocalVariableTable(clinitOtherDescriptor), c.getLocalVariableTable(clinit));
+        assertEquals(rows(c.defaultLocalVariableTable(clinit)), rows(c.getLocalVariableTable(clinitOtherDescriptor)));
+    }
+
+    @Test
+    public void testTablesMatchAttributes() throws Exception {
+        boolean someExceptionTable = false, someLocalVariableTable = false, someLineNumberTable = false;
+        for (String className : CLASSES) {
+            final ClassFile c = this.f.newClassFile(className);
+            for (CtBehavior b : direct(className).getDeclaredBehaviors()) {
+                final CodeAttribute ca = b.getMethodInfo().getCodeAttribute();
+                if (ca == null) {
+                    continue;
+                }
+                final Signature sig = new Signature(className, b.getSignature(), internalName(b));
+
+                //exception table
+                final javassist.bytecode.ExceptionTable etJA = ca.getExceptionTable();
+                final ExceptionTable et = c.getExceptionTable(sig);
+                assertEquals(sig.toString(), etJA.size(), et.getLength());
+                for (int i = 0; i < etJA.size(); ++i) {
+                    final String type = (etJA.catchType(i) == 0 ? Signatures.JAVA_THROWABLE : c.getClassSignature(etJA.catchType(i)));
+                    //the first direct entry that covers the start of the i-th one
+                    int expected = i;
+                    for (int j = 0; j < i; ++j) {
+                        final String typeJ = (etJA.catchType(j) == 0 ? Signatures.JAVA_THROWABLE : c.getClassSignature(etJA.catchType(j)));
+                        if (type.equals(typeJ) && etJA.startPc(j) <= etJA.startPc(i) && etJA.startPc(i) < etJA.endPc(j)) {
+                            expected = j;
+                            break;
+                        }
+                    }
+                    final ExceptionTableEntry e = et.getEntry(Arrays.asList(type), etJA.startPc(i));
+                    assertNotNull(sig.toString(), e);
+                    assertEquals(sig.toString(), etJA.startPc(expected), e.getStartPC());
+                    assertEquals(sig.toString(), etJA.endPc(expected), e.getEndPC());
+                    assertEquals(sig.toString(), etJA.handlerPc(expected), e.getPCHandle());
+                    someExceptionTable = true;
+                }
+                assertSame(sig.toString(), et, c.getExceptionTable(sig));
+
+                //local variable table
+                final LocalVariableAttribute lvtJA = (LocalVariableAttribute) ca.getAttribute("LocalVariableTable");
+                final LocalVariableTable lvt = c.getLocalVariableTable(sig);
+                if (lvtJA == null) {
+                    assertEquals(sig.toString(), rows(c.defaultLocalVariableTable(sig)), rows(lvt));
+                } else {
+                    final HashSet<String> expected = new HashSet<>();
+                    for (int i = 0; i < lvtJA.tableLength(); ++i) {
+                        if (lvtJA.index(i) < ca.getMaxLocals()) {
+                            expected.add(new LocalVariableTable.Row(lvtJA.index(i), lvtJA.descriptor(i), lvtJA.variableName(i), lvtJA.startPc(i), lvtJA.codeLength(i)).toString());
+                        }
+                    }
+                    assertEquals(sig.toString(), expected, rows(lvt));
+                    someLocalVariableTable = true;
+                }
+                assertEquals(sig.toString(), ca.getMaxLocals(), lvt.getSlots());
+                assertSame(sig.toString(), lvt, c.getLocalVariableTable(sig));
+
+                //line number table
+                final LineNumberAttribute lnJA = (LineNumberAttribute) ca.getAttribute("LineNumberTable");
+                final LineNumberTable lnt = c.getLineNumberTable(sig);
+                int i = 0;
+                for (LineNumberTable.Row r : lnt) {
+                    assertNotNull(sig.toString(), lnJA);
+                    assertEquals(sig.toString(), lnJA.startPc(i), r.start);
+                    assertEquals(sig.toString(), lnJA.lineNumber(i), r.lineNumber);
+                    ++i;
+                    someLineNumberTable = true;
+                }
+                assertEquals(sig.toString(), (lnJA == null ? 0 : lnJA.tableLength()), i);
+                assertSame(sig.toString(), lnt, c.getLineNumberTable(sig));
+            }
+        }
+        assertTrue(someExceptionTable);
+        assertTrue(someLocalVariableTable);
+        assertTrue(someLineNumberTable);
+    }
+
+    @Test
+    public void testFieldsMatchDeclarations() throws Exception {
+        for (String className : CLASSES) {
+            final ClassFile c = this.f.newClassFile(className);
+            for (CtField fld : direct(className).getDeclaredFields()) {
+                final Signature sig = new Signature(className, fld.getSignature(), fld.getName());
+                assertTrue(sig.toString(), c.hasFieldDeclaration(sig));
+                assertEquals(sig.toString(), fld.getModifiers(), c.getFieldModifiers(sig));
+                assertEquals(sig.toString(), fld.getGenericSignature(), c.getFieldGenericSignatureType(sig));
+                assertFalse(sig.toString(), c.hasFieldDeclaration(new Signature(className, "[" + fld.getSignature(), fld.getName())));
+            }
+        }
+        assertFalse(this.f.newClassFile("java/lang/String").hasFieldDeclaration(new Signature("java/lang/String", "I", "noSuchField")));
+    }
+
+    private static HashSet<String> rows(LocalVariableTable lvt) {
+        final HashSet<String> retVal = new HashSet<>();
+        for (LocalVariableTable.Row r : lvt) {
+            retVal.add(r.toString());
+        }
+        return retVal;
+    }
+}
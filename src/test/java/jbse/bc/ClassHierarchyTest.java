@@ -0,0 +1,193 @@
+package jbse.bc;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import org.junit.*;
+
+/**
+ * Checks that the results of {@link ClassHierarchy} served from
+ * its cache are the same as those calculated by a hierarchy with
+ * an empty cache.
+ */
+public class ClassHierarchyTest {
+    private static final String[] CLASSES = {
+        "java/lang/Object", "java/lang/String", "java/lang/Comparable", "java/lang/CharSequence",
+        "java/io/Serializable", "java/util/Collection", "java/util/List", "java/util/AbstractCollection",
+        "java/util/AbstractList", "java/util/ArrayList", "java/util/LinkedList", "java/util/HashMap"
+    };
+
+    private static final Signature[] METHODS = {
+        new Signature("java/util/ArrayList", "()I", "size"),
+        new Signature("java/util/ArrayList", "()I", "hashCode"),
+        new Signature("java/util/ArrayList", "()Ljava/lang/String;", "toString"),
+        new Signature("java/util/LinkedList", "()Ljava/util/Iterator;", "iterator"),
+        new Signature("java/util/AbstractList", "(Ljava/lang/Object;)Z", "add"),
+        new Signature("java/lang/String", "(Ljava/lang/Object;)I", "compareTo"),
+        new Signature("java/lang/String", "()V", "noSuchMethod")
+    };
+
+    private static final Signature[] INTERFACE_METHODS = {
+        new Signature("java/util/List", "()I", "size"),
+        new Signature("java/util/List", "()Ljava/util/Iterator;", "iterator"),
+        new Signature("java/util/Collection", "(Ljava/lang/Object;)Z", "add"),
+        new Signature("java/lang/CharSequence", "()I", "length"),
+        new Signature("java/util/List", "()I", "hashCode")
+    };
+
+    private static final Signature[] FIELDS = {
+        new Signature("java/util/ArrayList", "I", "modCount"),
+        new Signature("java/util/ArrayList", "I", "size"),
+        new Signature("java/util/LinkedList", "I", "size"),
+        new Signature("java/lang/String", "I", "noSuchField")
+    };
+
+    private static final String[] ACCESSORS = {
+        "java/util/ArrayList", "java/util/AbstractList", "java/lang/Object"
+    };
+
+    private Classpath env;
+
+    @Before
+    public void setUp() {
+        this.env = new Classpath("src/test/resources/jbse/bc/testdata/rt.jar", "src/test/resources/jbse/bc/testdata");
+    }
+
+    private ClassHierarchy newHierarchy() throws Exception {
+        return new ClassHierarchy(this.env, ClassFileFactoryJavassist.class, new HashMap<>());
+    }
+
+    /**
+     * Performs a query on a hierarchy.
+     *
+     * @param query the query.
+     * @param hier the {@link ClassHierarchy}.
+     * @return the result of the query, or the class of
+     *         the exception it raises; class files are
+     *         replaced by their names.
+     */
+    private static Object outcome(Function<ClassHierarchy, Callable<Object>> query, ClassHierarchy hier) {
+        try {
+            final Object retVal = query.apply(hier).call();
+            return (retVal instanceof ClassFile ? ((ClassFile) retVal).getClassName() : retVal);
+        } catch (Exception e) {
+            return e.getClass();
+        }
+    }
+
+    private static List<Function<ClassHierarchy, Callable<Object>>> queries() {
+        final ArrayList<Function<ClassHierarchy, Callable<Object>>> retVal = new ArrayList<>();
+        for (String sub : CLASSES) {
+            for (String sup : CLASSES) {
+                retVal.add(h -> () -> h.isSubclass(sub, sup));
+            }
+        }
+        for (String accessor : ACCESSORS) {
+            for (Signature m : METHODS) {
+                retVal.add(h -> () -> h.resolveMethod(accessor, m, false));
+            }
+            for (Signature m : INTERFACE_METHODS) {
+                retVal.add(h -> () -> h.resolveMethod(accessor, m, true));
+            }
+            for (Signature f : FIELDS) {
+                retVal.add(h -> () -> h.resolveField(accessor, f));
+            }
+        }
+        for (String receiver : new String[] { "java/util/ArrayList", "java/util/LinkedList" }) {
+            for (Signature m : INTERFACE_METHODS) {
+                retVal.add(h -> () -> h.lookupMethodImplInterface(receiver, h.resolveMethod(receiver, m, true)));
+            }
+            for (Signature m : METHODS) {
+                retVal.add(h -> () -> h.lookupMethodImplVirtual(receiver, h.resolveMethod(receiver, m, false)));
+                retVal.add(h -> () -> h.lookupMethodImplSpecial(receiver, h.resolveMethod(receiver, m, false)));
+            }
+        }
+        return retVal;
+    }
+
+    private List<Object> uncachedOutcomes() throws Exception {
+        final ArrayList<Object> retVal = new ArrayList<>();
+        for (Function<ClassHierarchy, Callable<Object>> query : queries()) {
+            retVal.add(outcome(query, newHierarchy()));
+        }
+        return retVal;
+    }
+
+    @Test
+    public void testCachedEqualsUncached() throws Exception {
+        final List<Object> expected = uncachedOutcomes();
+        final ClassHierarchy hier = newHierarchy();
+        final List<Function<ClassHierarchy, Callable<Object>>> queries = queries();
+        for (int round = 0; round < 2; ++round) {
+            for (int i = 0; i < queries.size(); ++i) {
+                assertEquals("query " + i + ", round " + round, expected.get(i), outcome(queries.get(i), hier));
+            }
+        }
+
+        //the clones share the cache
+        final ClassHierarchy clone = hier.clone();
+        for (int i = 0; i < queries.size(); ++i) {
+            assertEquals("query " + i + ", clone", expected.get(i), outcome(queries.get(i), clone));
+        }
+    }
+
+    @Test
+    public void testClonesOnManyThreads() throws Exception {
+        final List<Object> expected = uncachedOutcomes();
+        final List<Function<ClassHierarchy, Callable<Object>>> queries = queries();
+        final ClassHierarchy hier = newHierarchy();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final ArrayList<Future<List<Object>>> results = new ArrayList<>();
+            for (int t = 0; t < 8; ++t) {
+                final ClassHierarchy clone = hier.clone();
+                final int offset = t;
+                results.add(executor.submit(() -> {
+                    //each thread starts from a different query
+                    final Object[] retVal = new Object[queries.size()];
+                    for (int i = 0; i < queries.size(); ++i) {
+                        final int j = (i + offset * 17) % queries.size();
+                        retVal[j] = outcome(queries.get(j), clone);
+                    }
+                    return Arrays.asList(retVal);
+                }));
+            }
+            for (Future<List<Object>> result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testAddClassFileAnonymousKeepsOtherResults() throws Exception {
+        final ClassHierarchy hier = newHierarchy();
+        final byte[] bytecode = Files.readAllBytes(Paths.get("src/test/resources/jbse/bc/testdata/tsafe/engine/EngineCalculator.class"));
+        final ClassFile cf = hier.createClassFileAnonymous(bytecode);
+        final String name = cf.getClassName();
+        final ClassHierarchy clone = hier.clone();
+
+        assertTrue(clone.isSubclass("java/util/ArrayList", "java/util/List"));
+
+        hier.addClassFileAnonymous(cf, "tsafe/engine/TsafeEngine", null);
+        assertTrue(hier.isSubclass(name, "java/lang/Object"));
+        assertFalse(hier.isSubclass(name, "java/util/List"));
+        assertEquals("tsafe/engine/TsafeEngine", hier.getClassFile(name).getHostClass());
+
+        //the results for the other classes are still served
+        assertTrue(hier.isSubclass("java/util/ArrayList", "java/util/List"));
+        assertTrue(clone.isSubclass("java/util/ArrayList", "java/util/List"));
+    }
+}
@@ -0,0 +1,84 @@
+package jbse.bc;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import org.junit.*;
+
+public class MappedJarClassPathTest {
+    private static final String TESTDATA = "src/test/resources/jbse/bc/testdata";
+    private static final String CLASS = "tsafe/engine/EngineCalculator";
+    private static final String OTHER_CLASS = "tsafe/engine/EngineCalculator2";
+
+    private Path jar;
+    private byte[] bytes;
+
+    @Before
+    public void setUp() throws Exception {
+        this.bytes = Files.readAllBytes(new File(TESTDATA, CLASS + ".class").toPath());
+        this.jar = Files.createTempFile("jbse", ".jar");
+        try (final JarOutputStream out = new JarOutputStream(new FileOutputStream(this.jar.toFile()))) {
+            //a deflated entry
+            out.putNextEntry(new JarEntry(CLASS + ".class"));
+            out.write(this.bytes);
+            out.closeEntry();
+
+            //a stored entry
+            final JarEntry stored = new JarEntry(OTHER_CLASS + ".class");
+            final CRC32 crc = new CRC32();
+            crc.update(this.bytes);
+            stored.setMethod(ZipEntry.STORED);
+            stored.setSize(this.bytes.length);
+            stored.setCrc(crc.getValue());
+            out.putNextEntry(stored);
+            out.write(this.bytes);
+            out.closeEntry();
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.delete(this.jar);
+    }
+
+    private static byte[] read(InputStream in) throws Exception {
+        final ByteArrayOutputStream retVal = new ByteArrayOutputStream();
+        final byte[] buf = new byte[4096];
+        for (int n = in.read(buf); n >= 0; n = in.read(buf)) {
+            retVal.write(buf, 0, n);
+        }
+        return retVal.toByteArray();
+    }
+
+    @Test
+    public void testReadsDeflatedAndStoredEntries() throws Exception {
+        final MappedJarClassPath cp = new MappedJarClassPath(this.jar.toString());
+        assertArrayEquals(this.bytes, read(cp.openClassfile("tsafe.engine.EngineCalculator")));
+        assertArrayEquals(this.bytes, read(cp.openClassfile("tsafe.engine.EngineCalculator2")));
+        assertNull(cp.openClassfile("tsafe.engine.Missing"));
+        assertNotNull(cp.find("tsafe.engine.EngineCalculator"));
+        assertNull(cp.find("tsafe.engine.Missing"));
+    }
+
+    @Test
+    public void testFactoryLoadsFromMappedJar() throws Exception {
+        final ClassFile c = new ClassFileFactoryJavassist(null, new Classpath(this.jar.toString())).newClassFile(CLASS);
+        assertEquals(CLASS, c.getClassName());
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotAJar() throws Exception {
+        new MappedJarClassPath(new File(TESTDATA, CLASS + ".class").getPath());
+    }
+}
@@ -0,0 +1,322 @@
+package jbse.dec;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import jbse.bc.ClassFileFactoryJavassist;
+import jbse.bc.ClassHierarchy;
+import jbse.bc.Classpath;
+import jbse.common.Type;
+import jbse.mem.Clause;
+import jbse.mem.ClauseAssume;
+import jbse.mem.Objekt;
+import jbse.rewr.CalculatorRewriting;
+import jbse.rewr.RewriterOperationOnSimplex;
+import jbse.val.Expression;
+import jbse.val.Primitive;
+import jbse.val.ReferenceSymbolic;
+import jbse.val.Simplex;
+import jbse.val.Term;
+
+public class ConstraintIndependenceTest {
+	/**
+	 * A fake external decision procedure that decides the
+	 * satisfiability of linear integer constraints by brute
+	 * force on a small domain, and records the number of
+	 * assumptions of each query.
+	 */
+	static final class ExternalInterfaceBruteForce extends DecisionProcedureExternalInterface {
+		final ArrayList<Primitive> assumptions = new ArrayList<>();
+		final ArrayList<Integer> queriedSizes = new ArrayList<>();
+		Primitive current = null;
+
+		@Override
+		public boolean isWorking() {
+			return true;
+		}
+
+		@Override
+		public void sendClauseAssume(Primitive predicate) {
+			this.current = predicate;
+		}
+
+		@Override
+		public void sendClauseAssumeAliases(ReferenceSymbolic r, long heapPos, Objekt o) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void sendClauseAssumeExpands(ReferenceSymbolic r, String className) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void sendClauseAssumeNull(ReferenceSymbolic r) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void sendClauseAssumeClassInitialized(String className) {
+			this.current = null;
+		}
+
+		@Override
+		public void sendClauseAssumeClassNotInitialized(String className) {
+			this.current = null;
+		}
+
+		@Override
+		public void retractClause() {
+			this.current = null;
+		}
+
+		@Override
+		public boolean checkSat(ClassHierarchy hier, boolean positive) {
+			this.queriedSizes.add(this.assumptions.size());
+			final ArrayList<Primitive> all = new ArrayList<>(this.assumptions);
+			all.add(this.current);
+			final LinkedHashSet<Term> terms = new LinkedHashSet<>();
+			for (Primitive p : all) {
+				collectTerms(p, terms);
+			}
+			return satisfiable(all, new ArrayList<>(terms), 0, new HashMap<>());
+		}
+
+		@Override
+		public void pushAssumption(boolean positive) {
+			this.assumptions.add(this.current);
+			this.current = null;
+		}
+
+		@Override
+		public void popAssumption() {
+			this.assumptions.remove(this.assumptions.size() - 1);
+		}
+
+		@Override
+		public void clear() {
+			this.assumptions.clear();
+		}
+
+		@Override
+		public void quit() {
+			//nothing to do
+		}
+
+		@Override
+		public void fail() {
+			//nothing to do
+		}
+
+		private static final int MIN = -3, MAX = 3;
+
+		private static boolean satisfiable(List<Primitive> all, List<Term> terms, int i, HashMap<Term, Long> values) {
+			if (i == terms.size()) {
+				for (Primitive p : all) {
+					if (p != null && eval(p, values) == 0) {
+						return false;
+					}
+				}
+				return true;
+			}
+			for (long v = MIN; v <= MAX; ++v) {
+				values.put(terms.get(i), v);
+				if (satisfiable(all, terms, i + 1, values)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private static void collectTerms(Primitive p, LinkedHashSet<Term> terms) {
+			if (p instanceof Term) {
+				terms.add((Term) p);
+			} else if (p instanceof Expression) {
+				final Expression e = (Expression) p;
+				if (e.isUnary()) {
+					collectTerms(e.getOperand(), terms);
+				} else {
+					collectTerms(e.getFirstOperand(), terms);
+					collectTerms(e.getSecondOperand(), terms);
+				}
+			}
+		}
+
+		private static long eval(Primitive p, HashMap<Term, Long> values) {
+			if (p instanceof Term) {
+				return values.get(p);
+			} else if (p instanceof Simplex) {
+				final Object v = ((Simplex) p).getActualValue();
+				return (v instanceof Boolean ? (((Boolean) v) ? 1 : 0) : ((Number) v).longValue());
+			}
+			final Expression e = (Expression) p;
+			if (e.isUnary()) {
+				final long x = eval(e.getOperand(), values);
+				switch (e.getOperator()) {
+				case NEG: return -x;
+				case NOT: return (x == 0 ? 1 : 0);
+				default: throw new UnsupportedOperationException();
+				}
+			}
+			final long x = eval(e.getFirstOperand(), values);
+			final long y = eval(e.getSecondOperand(), values);
+			switch (e.getOperator()) {
+			case ADD: return x + y;
+			case SUB: return x - y;
+			case MUL: return x * y;
+			case AND: return (x != 0 && y != 0 ? 1 : 0);
+			case OR:  return (x != 0 || y != 0 ? 1 : 0);
+			case EQ:  return (x == y ? 1 : 0);
+			case NE:  return (x != y ? 1 : 0);
+			case LT:  return (x < y ? 1 : 0);
+			case LE:  return (x <= y ? 1 : 0);
+			case GT:  return (x > y ? 1 : 0);
+			case GE:  return (x >= y ? 1 : 0);
+			default: throw new UnsupportedOperationException();
+			}
+		}
+	}
+
+	static final class DecisionProcedureBruteForce extends DecisionProcedureExternal {
+		DecisionProcedureBruteForce(CalculatorRewriting calc, boolean slicing) throws Exception {
+			super(new DecisionProcedureAlwSat(), calc);
+			this.extIf = new ExternalInterfaceBruteForce();
+			setIndependenceSlicing(slicing);
+		}
+
+		ExternalInterfaceBruteForce extIf() {
+			return (ExternalInterfaceBruteForce) this.extIf;
+		}
+
+		@Override
+		protected boolean canPopAssumptions() {
+			return true;
+		}
+	}
+
+	private final CalculatorRewriting calc;
+	private final ClassHierarchy hier;
+	private final Term A, B, C, D;
+
+	public ConstraintIndependenceTest() throws Exception {
+		this.calc = new CalculatorRewriting();
+		this.calc.addRewriter(new RewriterOperationOnSimplex());
+		this.hier = new ClassHierarchy(new Classpath(), ClassFileFactoryJavassist.class, new HashMap<>());
+		this.A = this.calc.valTerm(Type.INT, "A");
+		this.B = this.calc.valTerm(Type.INT, "B");
+		this.C = this.calc.valTerm(Type.INT, "C");
+		this.D = this.calc.valTerm(Type.INT, "D");
+	}
+
+	private ClauseAssume assume(Primitive p) {
+		return new ClauseAssume(p);
+	}
+
+	@Test
+	public void testUnionAndUndo() throws Exception {
+		final ConstraintIndependence ci = new ConstraintIndependence();
+		final Clause cAB = assume(this.A.gt(this.B));
+		final Clause cC = assume(this.C.lt(this.calc.valInt(0)));
+		final Clause cBC = assume(this.B.eq(this.C));
+		final Clause cD = assume(this.D.ne(this.calc.valInt(1)));
+		ci.push(cAB);
+		ci.push(cC);
+		assertEquals(Arrays.asList(cAB), ci.slice(this.A.gt(this.calc.valInt(0))));
+		assertEquals(Arrays.asList(cC), ci.slice(this.C.gt(this.calc.valInt(0))));
+
+		//cBC joins the partitions of cAB and cC
+		ci.push(cBC);
+		ci.push(cD);
+		assertEquals(Arrays.asList(cAB, cC, cBC), ci.slice(this.A.gt(this.calc.valInt(0))));
+		assertEquals(Arrays.asList(cD), ci.slice(this.D.gt(this.calc.valInt(0))));
+
+		//popping cD and cBC splits them again
+		ci.pop(2);
+		assertEquals(Arrays.asList(cAB), ci.slice(this.A.gt(this.calc.valInt(0))));
+		assertEquals(Arrays.asList(cC), ci.slice(this.C.gt(this.calc.valInt(0))));
+		assertTrue(ci.slice(this.D.gt(this.calc.valInt(0))).isEmpty());
+		assertFalse(ci.isAssumed(this.B.eq(this.C)));
+		assertTrue(ci.isAssumed(this.C.lt(this.calc.valInt(0))));
+
+		//symbols forgotten by the pop are created anew
+		ci.push(cD);
+		ci.push(assume(this.D.eq(this.A)));
+		assertEquals(3, ci.slice(this.A.gt(this.calc.valInt(0))).size());
+		ci.clear();
+		assertTrue(ci.all().isEmpty());
+		assertTrue(ci.slice(this.A.gt(this.calc.valInt(0))).isEmpty());
+	}
+
+	@Test
+	public void testSlicingFollowsPushAndSetAssumptions() throws Exception {
+		final DecisionProcedureBruteForce dec = new DecisionProcedureBruteForce(this.calc, true);
+		final Clause cAB = assume(this.A.gt(this.B));
+		final Clause cC = assume(this.C.lt(this.calc.valInt(0)));
+		final Clause cBC = assume(this.B.eq(this.C));
+		final Expression qA = (Expression) this.A.lt(this.calc.valInt(3));
+
+		dec.pushAssumption(cAB);
+		dec.pushAssumption(cC);
+		assertTrue(dec.isSat(this.hier, qA));
+		assertEquals(1, (int) last(dec.extIf().queriedSizes));
+
+		//cBC links all the assumptions
+		dec.pushAssumption(cBC);
+		assertTrue(dec.isSat(this.hier, qA));
+		assertEquals(3, (int) last(dec.extIf().queriedSizes));
+
+		//going back to a sibling path undoes the union
+		dec.setAssumptions(Arrays.asList(cAB, cC));
+		assertTrue(dec.isSat(this.hier, qA));
+		assertEquals(1, (int) last(dec.extIf().queriedSizes));
+
+		dec.setAssumptions(Arrays.asList(cC, cBC));
+		assertTrue(dec.isSat(this.hier, qA));
+		assertEquals(0, (int) last(dec.extIf().queriedSizes));
+		dec.close();
+	}
+
+	@Test
+	public void testSlicedAnswersEqualFullAnswers() throws Exception {
+		final DecisionProcedureBruteForce sliced = new DecisionProcedureBruteForce(this.calc, true);
+		final DecisionProcedureBruteForce full = new DecisionProcedureBruteForce(this.calc, false);
+		final List<List<Clause>> paths = Arrays.asList(
+			Arrays.asList(assume(this.A.gt(this.B)), assume(this.C.lt(this.calc.valInt(0)))),
+			Arrays.asList(assume(this.A.gt(this.B)), assume(this.C.lt(this.calc.valInt(0))), assume(this.B.eq(this.C))),
+			Arrays.asList(assume(this.A.gt(this.B)), assume(this.B.gt(this.calc.valInt(1))), assume(this.D.eq(this.calc.valInt(0)))),
+			Arrays.asList(assume(this.D.lt(this.A)), assume(this.A.lt(this.B)), assume(this.B.lt(this.C))));
+		final List<Expression> queries = Arrays.asList(
+			(Expression) this.A.lt(this.calc.valInt(0)),
+			(Expression) this.A.eq(this.C),
+			(Expression) this.B.eq(this.calc.valInt(3)),
+			(Expression) this.C.gt(this.D),
+			(Expression) this.D.add(this.A).eq(this.calc.valInt(-3)));
+		boolean someSat = false, someUnsat = false;
+		for (List<Clause> path : paths) {
+			sliced.setAssumptions(path);
+			full.setAssumptions(path);
+			for (Expression q : queries) {
+				final boolean answerSliced = sliced.isSat(this.hier, q);
+				final boolean answerFull = full.isSat(this.hier, q);
+				assertEquals(path + " /\\ " + q, answerFull, answerSliced);
+				someSat |= answerFull;
+				someUnsat |= !answerFull;
+			}
+		}
+		assertTrue(someSat);
+		assertTrue(someUnsat);
+		sliced.close();
+		full.close();
+	}
+
+	private static <T> T last(List<T> list) {
+		return list.get(list.size() - 1);
+	}
+}
@@ -0,0 +1,120 @@
+package jbse.dec;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import jbse.bc.ClassFileFactoryJavassist;
+import jbse.bc.ClassHierarchy;
+import jbse.bc.Classpath;
+import jbse.bc.exc.InvalidClassFileFactoryClassException;
+import jbse.common.Type;
+import jbse.dec.exc.DecisionException;
+import jbse.dec.exc.InvalidInputException;
+import jbse.mem.Clause;
+import jbse.mem.ClauseAssume;
+import jbse.rewr.CalculatorRewriting;
+import jbse.rewr.RewriterOperationOnSimplex;
+import jbse.val.Expression;
+import jbse.val.Term;
+import jbse.val.exc.InvalidOperandException;
+import jbse.val.exc.InvalidTypeException;
+
+public class DecisionProcedureDecoratorCacheTest {
+	final CalculatorRewriting calc;
+	final ClassHierarchy hier;
+	DecisionProcedureCounting counting;
+	DecisionProcedureDecoratorCache dec;
+
+	public DecisionProcedureDecoratorCacheTest() throws InvalidClassFileFactoryClassException {
+		this.calc = new CalculatorRewriting();
+		this.calc.addRewriter(new RewriterOperationOnSimplex());
+		this.hier = new ClassHierarchy(new Classpath(), ClassFileFactoryJavassist.class, new HashMap<>());
+	}
+
+	static class DecisionProcedureCounting extends DecisionProcedureAlwSat {
+		int queries = 0;
+		boolean answer = true;
+
+		@Override
+		public boolean isSat(ClassHierarchy hier, Expression exp) {
+			++this.queries;
+			return this.answer;
+		}
+	}
+
+	@Before
+	public void setUp() {
+		this.counting = new DecisionProcedureCounting();
+		this.dec = new DecisionProcedureDecoratorCache(this.counting, 100);
+	}
+
+	@Test
+	public void testSameQueryOnSiblingPaths() 
+	throws InvalidInputException, DecisionException, InvalidTypeException, InvalidOperandException {
+		final Term A = this.calc.valTerm(Type.INT, "A");
+		final Term B = this.calc.valTerm(Type.INT, "B");
+		final Term C = this.calc.valTerm(Type.INT, "C");
+		final Clause c1 = new ClauseAssume((Expression) A.gt(B));
+		final Clause c2 = new ClauseAssume((Expression) C.lt(this.calc.valInt(10)));
+		final Clause c3 = new ClauseAssume((Expression) C.gt(this.calc.valInt(0)));
+		final Expression q = (Expression) A.eq(this.calc.valInt(5));
+		this.dec.setAssumptions(Arrays.asList(c1, c2));
+		assertTrue(this.dec.isSat(this.hier, q));
+		//the sibling path shares the only relevant assumption c1
+		this.dec.setAssumptions(Arrays.asList(c1, c3));
+		assertTrue(this.dec.isSat(this.hier, q));
+		this.dec.pushAssumption(c2);
+		assertTrue(this.dec.isSat(this.hier, q));
+		assertEquals(1, this.counting.queries);
+		assertEquals(2, this.dec.getHits());
+		assertEquals(1, this.dec.getMisses());
+	}
+
+	@Test
+	public void testSameQueryDifferentRelevantAssumptions() 
+	throws InvalidInputException, DecisionException, InvalidTypeException, InvalidOperandException {
+		final Term A = this.calc.valTerm(Type.INT, "A");
+		final Term B = this.calc.valTerm(Type.INT, "B");
+		final Clause c1 = new ClauseAssume((Expression) A.gt(B));
+		final Clause c2 = new ClauseAssume((Expression) B.lt(this.calc.valInt(10)));
+		final Clause c3 = new ClauseAssume((Expression) B.gt(this.calc.valInt(0)));
+		final Expression q = (Expression) A.eq(this.calc.valInt(5));
+		this.dec.setAssumptions(Arrays.asList(c1, c2));
+		assertTrue(this.dec.isSat(this.hier, q));
+		//c2 and c3 are relevant to q through c1
+		this.dec.setAssumptions(Arrays.asList(c1, c3));
+		assertTrue(this.dec.isSat(this.hier, q));
+		this.dec.setAssumptions(Arrays.asList(c1, c2));
+		assertTrue(this.dec.isSat(this.hier, q));
+		assertEquals(2, this.counting.queries);
+		assertEquals(1, this.dec.getHits());
+		assertEquals(2, this.dec.getMisses());
+	}
+
+	@Test
+	public void testUnsatSubsumption() 
+	throws InvalidInputException, DecisionException, InvalidTypeException, InvalidOperandException {
+		final Term A = this.calc.valTerm(Type.INT, "A");
+		final Term B = this.calc.valTerm(Type.INT, "B");
+		final Clause c1 = new ClauseAssume((Expression) A.gt(B));
+		final Clause c2 = new ClauseAssume((Expression) B.gt(this.calc.valInt(0)));
+		final Expression q = (Expression) A.lt(B);
+		this.counting.answer = false;
+		this.dec.pushAssumption(c1);
+		assertFalse(this.dec.isSat(this.hier, q));
+		this.dec.pushAssumption(c2);
+		assertFalse(this.dec.isSat(this.hier, q));
+		this.dec.setAssumptions(Arrays.asList(c2, c1));
+		assertFalse(this.dec.isSat(this.hier, q));
+		this.dec.clearAssumptions();
+		this.counting.answer = true;
+		assertTrue(this.dec.isSat(this.hier, q));
+		assertEquals(2, this.counting.queries);
+		assertEquals(2, this.dec.getHitsSubsumption());
+	}
+}
@@ -0,0 +1,160 @@
+package jbse.dec;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import jbse.bc.ClassFileFactoryJavassist;
+import jbse.bc.ClassHierarchy;
+import jbse.bc.Classpath;
+import jbse.bc.exc.InvalidClassFileFactoryClassException;
+import jbse.mem.Clause;
+import jbse.mem.ClauseAssume;
+import jbse.rewr.CalculatorRewriting;
+import jbse.rewr.RewriterOperationOnSimplex;
+import jbse.val.Expression;
+import jbse.val.MemoryPath;
+import jbse.val.Primitive;
+import jbse.val.PrimitiveSymbolic;
+import jbse.val.Simplex;
+import jbse.val.SymbolFactory;
+
+public class DecisionProcedureDecoratorModelReuseTest {
+	final CalculatorRewriting calc;
+	final ClassHierarchy hier;
+	final PrimitiveSymbolic a, b;
+	DecisionProcedureCounting counting;
+	DecisionProcedureDecoratorModelReuse dec;
+
+	public DecisionProcedureDecoratorModelReuseTest() throws InvalidClassFileFactoryClassException {
+		this.calc = new CalculatorRewriting();
+		this.calc.addRewriter(new RewriterOperationOnSimplex());
+		this.hier = new ClassHierarchy(new Classpath(), ClassFileFactoryJavassist.class, new HashMap<>());
+		final SymbolFactory symbolFactory = new SymbolFactory(this.calc);
+		this.a = (PrimitiveSymbolic) symbolFactory.createSymbol("I", MemoryPath.mkLocalVariable("a"));
+		this.b = (PrimitiveSymbolic) symbolFactory.createSymbol("I", MemoryPath.mkLocalVariable("b"));
+	}
+
+	/**
+	 * Counts the queries, and produces the same model
+	 * for all the sat queries that ask for one.
+	 */
+	static class DecisionProcedureCounting extends DecisionProcedureAlwSat {
+		int queries = 0;
+		boolean answer = true;
+		final HashMap<PrimitiveSymbolic, Simplex> model = new HashMap<>();
+
+		@Override
+		public boolean isSat(ClassHierarchy hier, Expression exp) {
+			++this.queries;
+			return this.answer;
+		}
+
+		@Override
+		public boolean isSatWithModel(ClassHierarchy hier, Expression exp, Map<PrimitiveSymbolic, Simplex> model) {
+			++this.queries;
+			if (this.answer) {
+				model.putAll(this.model);
+			}
+			return this.answer;
+		}
+	}
+
+	@Before
+	public void setUp() {
+		this.counting = new DecisionProcedureCounting();
+		this.counting.model.put(this.a, (Simplex) this.calc.valInt(5));
+		this.counting.model.put(this.b, (Simplex) this.calc.valInt(0));
+		this.dec = new DecisionProcedureDecoratorModelReuse(this.counting, this.calc, 4);
+	}
+
+	private Expression exp(Primitive p) {
+		return (Expression) p;
+	}
+
+	@Test
+	public void testModelAnswersQuery() throws Exception {
+		this.dec.pushAssumption(new ClauseAssume(this.a.gt(this.calc.valInt(0))));
+		assertTrue(this.dec.isSat(this.hier, exp(this.a.gt(this.calc.valInt(1)))));
+		assertEquals(1, this.counting.queries);
+
+		//the model a = 5 satisfies the assumption and the query
+		assertTrue(this.dec.isSat(this.hier, exp(this.a.lt(this.calc.valInt(10)))));
+		assertEquals(1, this.counting.queries);
+
+		//the model does not satisfy the query
+		assertTrue(this.dec.isSat(this.hier, exp(this.a.gt(this.calc.valInt(7)))));
+		assertEquals(2, this.counting.queries);
+		assertEquals(1, this.dec.getHits());
+		assertEquals(2, this.dec.getMisses());
+	}
+
+	@Test
+	public void testModelViolatingAssumptionIsNotUsed() throws Exception {
+		final Clause c1 = new ClauseAssume(this.a.gt(this.calc.valInt(0)));
+		final Clause c2 = new ClauseAssume(this.a.lt(this.calc.valInt(3)));
+		this.dec.pushAssumption(c1);
+		assertTrue(this.dec.isSat(this.hier, exp(this.b.ge(this.calc.valInt(0)))));
+		assertEquals(1, this.counting.queries);
+
+		//the model a = 5 satisfies the query, but not c2
+		this.dec.pushAssumption(c2);
+		this.counting.answer = false;
+		assertFalse(this.dec.isSat(this.hier, exp(this.b.eq(this.calc.valInt(0)))));
+		assertEquals(2, this.counting.queries);
+
+		//back on a path where the model satisfies all the assumptions
+		this.dec.setAssumptions(Arrays.asList(c1));
+		assertTrue(this.dec.isSat(this.hier, exp(this.b.eq(this.calc.valInt(0)))));
+		assertEquals(2, this.counting.queries);
+		assertEquals(1, this.dec.getHits());
+	}
+
+	@Test
+	public void testNoModelFromUnsatQuery() throws Exception {
+		this.counting.answer = false;
+		assertFalse(this.dec.isSat(this.hier, exp(this.a.gt(this.calc.valInt(0)))));
+		this.counting.answer = true;
+		this.counting.model.clear();
+		assertTrue(this.dec.isSat(this.hier, exp(this.a.gt(this.calc.valInt(0)))));
+		assertTrue(this.dec.isSat(this.hier, exp(this.a.gt(this.calc.valInt(0)))));
+		assertEquals(3, this.counting.queries);
+		assertEquals(0, this.dec.getHits());
+	}
+
+	@Test
+	public void testOverflowingModelIsNotUsed() throws Exception {
+		//the solver encodes ints as unbounded integers, so
+		//X > 0 && X + 1 < 0 is unsat for it, but it is 
+		//satisfied by X = 2147483647 with the Java semantics
+		this.counting.model.put(this.a, (Simplex) this.calc.valInt(Integer.MAX_VALUE));
+		this.dec.pushAssumption(new ClauseAssume(this.a.gt(this.calc.valInt(0))));
+		assertTrue(this.dec.isSat(this.hier, exp(this.a.ge(this.calc.valInt(1)))));
+		assertEquals(1, this.counting.queries);
+		this.counting.answer = false;
+		assertFalse(this.dec.isSat(this.hier, exp(this.a.add(this.calc.valInt(1)).lt(this.calc.valInt(0)))));
+		assertEquals(2, this.counting.queries);
+
+		//without overflow the model still answers
+		this.counting.answer = true;
+		assertTrue(this.dec.isSat(this.hier, exp(this.a.sub(this.calc.valInt(1)).gt(this.calc.valInt(0)))));
+		assertEquals(2, this.counting.queries);
+		assertEquals(1, this.dec.getHits());
+	}
+
+	@Test
+	public void testDivisionIsNotEvaluated() throws Exception {
+		//the solver's div rounds toward negative infinity, Java's / toward zero
+		this.counting.model.put(this.a, (Simplex) this.calc.valInt(-5));
+		assertTrue(this.dec.isSat(this.hier, exp(this.a.lt(this.calc.valInt(0)))));
+		assertEquals(1, this.counting.queries);
+		this.counting.answer = false;
+		assertFalse(this.dec.isSat(this.hier, exp(this.a.div(this.calc.valInt(2)).eq(this.calc.valInt(-2)))));
+		assertEquals(2, this.counting.queries);
+	}
+}
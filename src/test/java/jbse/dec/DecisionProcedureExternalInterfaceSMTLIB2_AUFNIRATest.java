@@ -0,0 +1,154 @@
+package jbse.dec;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.HashMap;
+
+import org.junit.After;
+import org.junit.Test;
+
+import jbse.bc.ClassFileFactoryJavassist;
+import jbse.bc.ClassHierarchy;
+import jbse.bc.Classpath;
+import jbse.common.Type;
+import jbse.dec.exc.ExternalProtocolInterfaceException;
+import jbse.dec.exc.NoModelException;
+import jbse.rewr.CalculatorRewriting;
+import jbse.rewr.RewriterOperationOnSimplex;
+import jbse.val.Primitive;
+import jbse.val.PrimitiveSymbolic;
+import jbse.val.Simplex;
+import jbse.val.Term;
+
+public class DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRATest {
+	/**
+	 * A fake SMT-LIB2 solver that acknowledges each command with
+	 * {@code success}, answers the {@code check-sat}s in turn with
+	 * {@code sat}, {@code unsat}, {@code sat}..., and, if launched
+	 * with argument {@code failpop}, answers the {@code pop}s with
+	 * an error.
+	 */
+	public static final class FakeSolver {
+		public static void main(String[] args) throws IOException {
+			final boolean failPop = (args.length > 0 && "failpop".equals(args[0]));
+			final BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+			final PrintStream out = System.out;
+			boolean sat = true;
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (line.startsWith("(exit")) {
+					break;
+				} else if (line.startsWith("(check-sat")) {
+					out.println(sat ? "sat" : "unsat");
+					sat = !sat;
+				} else if (line.startsWith("(get-value")) {
+					out.println("(error \"no model\")");
+				} else if (failPop && line.startsWith("(pop")) {
+					out.println("(error \"pop failed\")");
+				} else {
+					out.println("success");
+				}
+				out.flush();
+			}
+		}
+	}
+
+	private final CalculatorRewriting calc;
+	private final ClassHierarchy hier;
+	private DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA extIf;
+
+	public DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRATest() throws Exception {
+		this.calc = new CalculatorRewriting();
+		this.calc.addRewriter(new RewriterOperationOnSimplex());
+		this.hier = new ClassHierarchy(new Classpath(), ClassFileFactoryJavassist.class, new HashMap<>());
+	}
+
+	private static String fakeSolverCommandLine(String arg) {
+		return System.getProperty("java.home") + "/bin/java -cp " + System.getProperty("java.class.path") +
+		       " " + FakeSolver.class.getName() + " " + arg;
+	}
+
+	@After
+	public void tearDown() {
+		if (this.extIf != null) {
+			this.extIf.fail();
+		}
+	}
+
+	private boolean query(int bound) throws Exception {
+		final Term A = this.calc.valTerm(Type.INT, "A");
+		final Primitive p = A.gt(this.calc.valInt(bound));
+		this.extIf.sendClauseAssume(p);
+		final boolean retVal = this.extIf.checkSat(this.hier, true);
+		this.extIf.retractClause();
+		return retVal;
+	}
+
+	@Test
+	public void testPipelinedAnswersInOrder() throws Exception {
+		this.extIf = new DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA(this.calc, fakeSolverCommandLine("ok"), true);
+		assertTrue(query(0));
+		assertFalse(query(1));
+		assertTrue(query(2));
+		assertTrue(this.extIf.isWorking());
+	}
+
+	@Test
+	public void testNotPipelinedAnswersInOrder() throws Exception {
+		this.extIf = new DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA(this.calc, fakeSolverCommandLine("ok"), false);
+		assertTrue(query(0));
+		assertFalse(query(1));
+		assertTrue(query(2));
+		assertTrue(this.extIf.isWorking());
+	}
+
+	@Test
+	public void testPipelinedPopErrorIsNotTakenAsAnswer() throws Exception {
+		this.extIf = new DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA(this.calc, fakeSolverCommandLine("failpop"), true);
+		//the answer of the first query is read before
+		//the (failing) pop is even sent
+		assertTrue(query(0));
+		try {
+			query(1);
+			fail("the error of the pop was not detected");
+		} catch (ExternalProtocolInterfaceException e) {
+			assertTrue(e.getMessage().contains("pipelined"));
+			assertTrue(e.getMessage().contains("pop failed"));
+		}
+		assertFalse(this.extIf.isWorking());
+	}
+
+	@Test
+	public void testPipelinedGetValueErrorIsNotAModel() throws Exception {
+		this.extIf = new DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA(this.calc, fakeSolverCommandLine("ok"), true);
+		assertTrue(query(0));
+		this.extIf.sendClauseAssume(this.calc.valTerm(Type.INT, "A").gt(this.calc.valInt(0)));
+		this.extIf.pushAssumption(true);
+		try {
+			this.extIf.getModel();
+			fail("an error was parsed as a model");
+		} catch (NoModelException e) {
+			//expected
+		}
+		//the answers are still in sync
+		assertTrue(query(1));
+		assertTrue(this.extIf.isWorking());
+	}
+
+	@Test
+	public void testModelErrorDoesNotOverrideAnswer() throws Exception {
+		this.extIf = new DecisionProcedureExternalInterfaceSMTLIB2_AUFNIRA(this.calc, fakeSolverCommandLine("ok"), true);
+		final HashMap<PrimitiveSymbolic, Simplex> model = new HashMap<>();
+		this.extIf.sendClauseAssume(this.calc.valTerm(Type.INT, "A").gt(this.calc.valInt(0)));
+		assertTrue(this.extIf.checkSatWithModel(this.hier, true, model));
+		this.extIf.retractClause();
+		assertTrue(model.isEmpty());
+		//the answers are still in sync
+		assertFalse(query(1));
+		assertTrue(this.extIf.isWorking());
+	}
+}
@@ -0,0 +1,113 @@
+package jbse.jvm;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import jbse.dec.DecisionProcedureAlgorithms;
+import jbse.dec.DecisionProcedureAlwSat;
+import jbse.dec.DecisionProcedureClassInit;
+import jbse.mem.State;
+import jbse.mem.exc.ThreadStackEmptyException;
+import jbse.rewr.CalculatorRewriting;
+import jbse.rewr.RewriterOperationOnSimplex;
+import jbse.rewr.RewriterPolynomials;
+import jbse.rules.ClassInitRulesRepo;
+
+/**
+ * Checks that executing the blocks of concrete bytecodes
+ * in one step yields the same final states, with the
+ * same counts, as executing one bytecode per step.
+ */
+public class ConcreteBlocksTest {
+    private static final class Result {
+        final List<String> leaves = new ArrayList<>();
+        int entryCount = -1;
+        long analyzedStates;
+    }
+
+    private static Result run(boolean fuseConcreteBlocks, int countScope) throws Exception {
+        final CalculatorRewriting calc = new CalculatorRewriting();
+        calc.addRewriter(new RewriterOperationOnSimplex());
+        calc.addRewriter(new RewriterPolynomials());
+        //the bootstrap reads static fields of these classes, and would branch if they were pre-initialized
+        final ClassInitRulesRepo rules = new ClassInitRulesRepo();
+        rules.addNotInitializedClass("jdk/internal/util/StaticProperty", "java/nio/charset/CoderResult");
+        final RunnerParameters p = new RunnerParameters();
+        p.setJREPath("src/test/resources/jbse/bc/testdata");
+        p.addClasspath("target/classes", "target/test-classes");
+        p.setMethodSignature("jbse/jvm/testdata/Arithmetic", "(II)J", "compute");
+        p.setCalculator(calc);
+        p.setDecisionProcedure(new DecisionProcedureAlgorithms(new DecisionProcedureClassInit(new DecisionProcedureAlwSat(), calc, rules), calc));
+        p.setFuseConcreteBlocks(fuseConcreteBlocks);
+        p.setCountScope(countScope);
+        final Result retVal = new Result();
+        p.setActions(new Runner.Actions() {
+            @Override
+            public boolean atStepPre() {
+                final State s = getEngine().getCurrentState();
+                try {
+                    if (retVal.entryCount < 0 && s.getStackSize() == 1 && "compute".equals(s.getCurrentMethodSignature().getName())) {
+                        retVal.entryCount = s.getCount();
+                    }
+                } catch (ThreadStackEmptyException e) {
+                    throw new AssertionError(e);
+                }
+                return false;
+            }
+
+            @Override
+            public boolean atTraceEnd() {
+                retVal.leaves.add(describe(getEngine().getCurrentState()));
+                return false;
+            }
+        });
+        final RunnerBuilder rb = new RunnerBuilder();
+        rb.build(p).run();
+        retVal.analyzedStates = rb.getEngine().getAnalyzedStates();
+        rb.getEngine().close();
+        return retVal;
+    }
+
+    private static String describe(State s) {
+        final StringBuilder retVal = new StringBuilder();
+        retVal.append(s.getIdentifier()).append('[').append(s.getSequenceNumber()).append("] depth ")
+              .append(s.getDepth()).append(" count ").append(s.getCount()).append(' ')
+              .append(s.getPathCondition()).append(" -> ").append(s.getStuckReturn());
+        try {
+            retVal.append(' ').append(s.getCurrentMethodSignature()).append(':').append(s.getPC())
+                  .append(' ').append(s.getCurrentFrame().localVariables().values()).append(' ').append(s.getCurrentFrame().values());
+        } catch (ThreadStackEmptyException e) {
+            //the state is stuck
+        }
+        return retVal.toString();
+    }
+
+    @Test
+    public void testSameLeaves() throws Exception {
+        final Result unfused = run(false, 0);
+        final Result fused = run(true, 0);
+        assertEquals(4, unfused.leaves.size());
+        assertEquals(unfused.leaves, fused.leaves);
+        assertTrue(fused.analyzedStates < unfused.analyzedStates);
+    }
+
+    @Test
+    public void testSameLeavesWithCountScope() throws Exception {
+        //the count scopes stop the traces in the concrete
+        //part of the method, that is executed after the
+        //bootstrap without branching
+        final Result unscoped = run(false, 0);
+        assertTrue(unscoped.entryCount > 0);
+        for (int bytecodes : new int[] { 1, 2, 13, 40, 77, 150 }) {
+            final int countScope = unscoped.entryCount + bytecodes;
+            final Result unfused = run(false, countScope);
+            final Result fused = run(true, countScope);
+            assertEquals(1, unfused.leaves.size());
+            assertEquals(unfused.leaves, fused.leaves);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package jbse.jvm;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import jbse.dec.DecisionProcedureAlgorithms;
+import jbse.dec.DecisionProcedureAlwSat;
+import jbse.dec.DecisionProcedureClassInit;
+import jbse.mem.State;
+import jbse.mem.exc.ContradictionException;
+import jbse.rewr.CalculatorRewriting;
+import jbse.rewr.RewriterOperationOnSimplex;
+import jbse.rules.ClassInitRulesRepo;
+
+/**
+ * Checks that a {@link RunnerParallel} reaches the same leaves
+ * as a sequential {@link Runner}.
+ */
+public class RunnerParallelTest {
+    private static RunnerParameters parameters(CalculatorRewriting calc) {
+        final RunnerParameters retVal = new RunnerParameters();
+        retVal.setJREPath("src/test/resources/jbse/bc/testdata");
+        retVal.addClasspath("target/classes", "target/test-classes");
+        retVal.setMethodSignature("jbse/jvm/testdata/Branching", "(IIIII)I", "branches");
+        retVal.setCalculator(calc);
+        return retVal;
+    }
+
+    private static long millisParallel(int numWorkers) throws Exception {
+        final CalculatorRewriting calc = calc();
+        final RunnerParameters p = parameters(calc);
+        p.setMethodSignature("jbse/jvm/testdata/Work", "(IIIIII)I", "work");
+        final RunnerParallel r = new RunnerParallel(p, numWorkers, c -> decisionProcedure(calc), s -> { });
+        final long start = System.nanoTime();
+        r.run();
+        final long retVal = (System.nanoTime() - start) / 1_000_000L;
+        assertTrue(r.getTracesTotal() - r.getTracesContradicted() >= 64);
+        return retVal;
+    }
+
+    private static CalculatorRewriting calc() {
+        final CalculatorRewriting retVal = new CalculatorRewriting();
+        retVal.addRewriter(new RewriterOperationOnSimplex());
+        return retVal;
+    }
+
+    private static DecisionProcedureAlgorithms decisionProcedure(CalculatorRewriting calc) {
+        return new DecisionProcedureAlgorithms(new DecisionProcedureClassInit(new DecisionProcedureAlwSat(), calc, new ClassInitRulesRepo()), calc);
+    }
+
+    private static String leaf(State s) {
+        return s.getPathCondition().toString() + " -> " + s.getStuckReturn();
+    }
+
+    private static List<String> leavesSequential() throws Exception {
+        final CalculatorRewriting calc = calc();
+        final RunnerParameters p = parameters(calc);
+        p.setDecisionProcedure(decisionProcedure(calc));
+        final ArrayList<String> retVal = new ArrayList<>();
+        p.setActions(new Runner.Actions() {
+            private boolean contradicted = false;
+
+            @Override
+            public boolean atContradictionException(ContradictionException e) {
+                this.contradicted = true;
+                return false;
+            }
+
+            @Override
+            public boolean atTraceEnd() {
+                if (!this.contradicted) {
+                    retVal.add(leaf(getEngine().getCurrentState()));
+                }
+                this.contradicted = false;
+                return false;
+            }
+        });
+        final RunnerBuilder rb = new RunnerBuilder();
+        rb.build(p).run();
+        rb.getEngine().close();
+        Collections.sort(retVal);
+        return retVal;
+    }
+
+    private static List<String> leavesParallel(int numWorkers) throws Exception {
+        final CalculatorRewriting calc = calc();
+        final ArrayList<String> retVal = new ArrayList<>();
+        final RunnerParallel r = new RunnerParallel(parameters(calc), numWorkers, c -> decisionProcedure(calc), s -> retVal.add(leaf(s)));
+        r.run();
+        assertEquals(retVal.size(), r.getTracesTotal() - r.getTracesContradicted());
+        assertEquals(0, r.getTracesOutOfScope());
+        Collections.sort(retVal);
+        return retVal;
+    }
+
+    @Test
+    public void testSameLeaves() throws Exception {
+        final List<String> expected = leavesSequential();
+        assertTrue(expected.size() >= 32);
+        for (int numWorkers : new int[] { 1, 4 }) {
+            assertEquals("workers: " + numWorkers, expected, leavesParallel(numWorkers));
+        }
+    }
+
+    @Test
+    public void testSpeedup() throws Exception {
+        final int numWorkers = Math.min(4, Runtime.getRuntime().availableProcessors());
+        assumeTrue(numWorkers > 1);
+        millisParallel(1); //warms up
+        final long millisSequential = millisParallel(1);
+        final long millisParallel = millisParallel(numWorkers);
+        assertTrue("1 worker: " + millisSequential + " ms, " + numWorkers + " workers: " + millisParallel + " ms", 
+                   millisParallel < millisSequential);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoWorkers() {
+        new RunnerParallel(parameters(calc()), 0, c -> decisionProcedure(calc()), s -> { });
+    }
+}
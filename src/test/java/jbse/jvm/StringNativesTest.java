@@ -0,0 +1,175 @@
+package jbse.jvm;
+
+import static jbse.algo.Util.continueWithBaseLevelImpl;
+import static jbse.algo.Util.valueString;
+import static jbse.bc.Signatures.JAVA_STRING_HASH;
+import static jbse.common.Type.parametersNumber;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import jbse.algo.Algo_INVOKEMETA_Nonbranching;
+import jbse.algo.InterruptException;
+import jbse.dec.DecisionProcedureAlgorithms;
+import jbse.dec.DecisionProcedureAlwSat;
+import jbse.dec.DecisionProcedureClassInit;
+import jbse.jvm.testdata.Strings;
+import jbse.mem.Array;
+import jbse.mem.Instance;
+import jbse.mem.State;
+import jbse.rewr.CalculatorRewriting;
+import jbse.rewr.RewriterOperationOnSimplex;
+import jbse.rewr.RewriterPolynomials;
+import jbse.rules.ClassInitRulesRepo;
+import jbse.val.Reference;
+import jbse.val.Simplex;
+import jbse.val.Value;
+
+/**
+ * Checks that the meta-level implementations of {@code String.equals},
+ * {@code String.hashCode}, {@code Integer.toString} and 
+ * {@code StringBuilder.append} with a primitive parameter yield the 
+ * same strings and cached hash codes as the execution of the 
+ * base-level bytecode.
+ */
+public class StringNativesTest {
+    /**
+     * A meta-level implementation that always executes
+     * the base-level implementation of the invoked method.
+     */
+    public static final class BaseLevel extends Algo_INVOKEMETA_Nonbranching {
+        @Override
+        protected Supplier<Integer> numOperands() {
+            return () -> parametersNumber(this.data.signature().getDescriptor(), this.isStatic);
+        }
+
+        @Override
+        protected void cookMore(State state) throws InterruptException {
+            continueWithBaseLevelImpl(state, this.isInterface, this.isSpecial, this.isStatic);
+        }
+
+        @Override
+        protected void update(State state) {
+            //never used
+        }
+    }
+
+    private static final String[][] OVERRIDDEN = {
+        { "java/lang/String", "(Ljava/lang/Object;)Z", "equals" },
+        { "java/lang/String", "()I", "hashCode" },
+        { "java/lang/StringBuilder", "(Z)Ljava/lang/StringBuilder;", "append" },
+        { "java/lang/StringBuilder", "(C)Ljava/lang/StringBuilder;", "append" },
+        { "java/lang/StringBuilder", "(I)Ljava/lang/StringBuilder;", "append" },
+        { "java/lang/StringBuilder", "(J)Ljava/lang/StringBuilder;", "append" },
+        { "java/lang/StringBuilder", "(F)Ljava/lang/StringBuilder;", "append" },
+        { "java/lang/StringBuilder", "(D)Ljava/lang/StringBuilder;", "append" },
+        { "java/lang/Integer", "(I)Ljava/lang/String;", "toString" }
+    };
+
+    private static final class Result {
+        final List<String> strings = new ArrayList<>();
+        final List<Value> hashes = new ArrayList<>();
+        long analyzedStates;
+    }
+
+    private static Result run(String methodName, boolean baseLevel) throws Exception {
+        return run(methodName, (baseLevel ? OVERRIDDEN : new String[0][]));
+    }
+
+    private static Result run(String methodName, String[][] baseLevel) throws Exception {
+        final CalculatorRewriting calc = new CalculatorRewriting();
+        calc.addRewriter(new RewriterOperationOnSimplex());
+        calc.addRewriter(new RewriterPolynomials());
+        //the bootstrap reads static fields of these classes, and would branch if they were pre-initialized
+        final ClassInitRulesRepo rules = new ClassInitRulesRepo();
+        rules.addNotInitializedClass("jdk/internal/util/StaticProperty", "java/nio/charset/CoderResult");
+        final RunnerParameters p = new RunnerParameters();
+        p.setJREPath("src/test/resources/jbse/bc/testdata");
+        p.addClasspath("target/classes", "target/test-classes");
+        p.setMethodSignature("jbse/jvm/testdata/Strings", "()[Ljava/lang/String;", methodName);
+        p.setCalculator(calc);
+        p.setDecisionProcedure(new DecisionProcedureAlgorithms(new DecisionProcedureClassInit(new DecisionProcedureAlwSat(), calc, rules), calc));
+        for (String[] m : baseLevel) {
+            p.addMetaOverridden(m[0], m[1], m[2], BaseLevel.class.getName().replace('.', '/'));
+        }
+        final Result retVal = new Result();
+        p.setActions(new Runner.Actions() {
+            @Override
+            public boolean atTraceEnd() {
+                try {
+                    final State s = getEngine().getCurrentState();
+                    if (s.getStuckReturn() == null) {
+                        //the trace ended with an exception
+                        return false;
+                    }
+                    final Array strings = (Array) s.getObject((Reference) s.getStuckReturn());
+                    final int length = ((Integer) ((Simplex) strings.getLength()).getActualValue()).intValue();
+                    for (int i = 0; i < length; ++i) {
+                        final Reference string = (Reference) ((Array.AccessOutcomeInValue) strings.getFast(s.getCalculator().valInt(i))).getValue();
+                        retVal.strings.add(valueString(s, string));
+                        retVal.hashes.add(((Instance) s.getObject(string)).getFieldValue(JAVA_STRING_HASH));
+                    }
+                } catch (Exception e) {
+                    throw new AssertionError(e);
+                }
+                return false;
+            }
+        });
+        final RunnerBuilder rb = new RunnerBuilder();
+        rb.build(p).run();
+        retVal.analyzedStates = rb.getEngine().getAnalyzedStates();
+        return retVal;
+    }
+
+    @Test
+    public void testSameAsBaseLevel() throws Exception {
+        final Result meta = run("strings", false);
+        final Result base = run("strings", true);
+        assertEquals(4, meta.strings.size());
+        assertEquals(base.strings, meta.strings);
+        assertEquals(base.hashes, meta.hashes);
+
+        //the meta-level implementations spare the execution of some bytecode
+        assertTrue(meta.analyzedStates < base.analyzedStates);
+
+        //the strings are those calculated by the JVM, and the hash
+        //code is cached only in the string whose hash code was calculated
+        final String[] expected = Strings.strings();
+        assertEquals(Arrays.asList(expected), meta.strings);
+        final CalculatorRewriting calc = new CalculatorRewriting();
+        assertEquals(calc.valInt(0), meta.hashes.get(0));
+        assertEquals(calc.valInt(expected[1].hashCode()), meta.hashes.get(1));
+        assertEquals(calc.valInt(0), meta.hashes.get(2));
+        assertEquals(calc.valInt(0), meta.hashes.get(3));
+    }
+
+    @Test
+    public void testIntegerToStringSameAsBaseLevel() throws Exception {
+        final Result meta = run("integers", false);
+        final Result base = run("integers", true);
+        assertEquals(7, meta.strings.size());
+        assertEquals(base.strings, meta.strings);
+        assertEquals(base.hashes, meta.hashes);
+        assertTrue(meta.analyzedStates < base.analyzedStates);
+
+        //the strings are those calculated by the JVM, and 
+        //every invocation of Integer.toString yields a new string
+        assertEquals(Arrays.asList(Strings.integers()), meta.strings);
+        assertEquals("false", meta.strings.get(6));
+    }
+
+    @Test
+    public void testFloatingLeftToBaseLevel() throws Exception {
+        //the conversion of concrete floating point values
+        //is not done at the meta level
+        final Result meta = run("floats", false);
+        final Result base = run("floats", Arrays.copyOfRange(OVERRIDDEN, 6, 8));
+        assertEquals(base.strings, meta.strings);
+        assertEquals(base.analyzedStates, meta.analyzedStates);
+    }
+}
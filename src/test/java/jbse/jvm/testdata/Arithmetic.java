@@ -0,0 +1,14 @@
+package jbse.jvm.testdata;
+
+public class Arithmetic {
+    public static long compute(int a, int b) {
+        int i = 3; long l = 1L; float f = 0.25f; double d = 0.5;
+        for (int k = 0; k < 4; ++k) {
+            i = i * 7 % 1000 ^ k; l = l * 31L + k << 1; f = -f * 3.0f + k; d = d / 1.5 - k % 3;
+        }
+        int r = (int) (l >>> 3) + i / 2 - (int) d + (int) f;
+        if (a > r) { r += a * 2; } else { r -= b; }
+        if (b > i) { r = r * i + 5; i += b; } else { r = -r; i -= 10; }
+        return l + r + i;
+    }
+}
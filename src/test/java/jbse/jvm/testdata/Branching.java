@@ -0,0 +1,13 @@
+package jbse.jvm.testdata;
+
+public class Branching {
+    public static int branches(int a, int b, int c, int d, int e) {
+        int r = 0;
+        if (a > 0) { r += 1; } else { r -= 1; }
+        if (b > a) { r += 2; } else { r -= 2; }
+        if (c > 0) { r += 4; } else { r -= 4; }
+        if (d > c) { r += 8; } else { r -= 8; }
+        if (e > d) { r += 16; } else { r -= 16; }
+        return r;
+    }
+}
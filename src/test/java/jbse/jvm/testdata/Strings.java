@@ -0,0 +1,39 @@
+package jbse.jvm.testdata;
+
+public class Strings {
+    public static String[] strings() {
+        final String hello = "hello";
+        final String helloCopy = new String(new char[] { 'h', 'e', 'l', 'l', 'o' });
+        final String empty = new String();
+        final String notHashed = new String(new char[] { 'w', 'o', 'r', 'l', 'd' });
+        final StringBuilder sb = new StringBuilder();
+        sb.append(hello.equals(helloCopy)).append(' ');
+        sb.append(hello.equals(notHashed)).append(' ');
+        sb.append(hello.equals("help")).append(' ');
+        sb.append(hello.equals(null)).append(' ');
+        sb.append(hello.equals(sb)).append(' ');
+        sb.append(helloCopy.hashCode()).append(' ');
+        sb.append(helloCopy.hashCode()).append(' ');
+        sb.append(empty.hashCode()).append(' ');
+        sb.append(true).append(false).append('c').append('\u00e8').append(' ');
+        sb.append(0).append(-42).append(Integer.MIN_VALUE).append(Integer.MAX_VALUE).append(' ');
+        sb.append(0L).append(-42L).append(Long.MIN_VALUE).append(Long.MAX_VALUE);
+        return new String[] { sb.toString(), helloCopy, empty, notHashed };
+    }
+
+    public static String[] integers() {
+        final String five = Integer.toString(5);
+        final String fiveAgain = Integer.toString(5);
+        return new String[] { 
+            Integer.toString(0), Integer.toString(-42), Integer.toString(Integer.MIN_VALUE), 
+            Integer.toString(Integer.MAX_VALUE), String.valueOf(7), five, String.valueOf(five == fiveAgain) 
+        };
+    }
+
+    public static String[] floats() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(0.0f).append(-1.5f).append(1e10f).append(Float.MIN_VALUE).append(Float.NaN).append(' ');
+        sb.append(-0.0d).append(0.1d).append(1e-7d).append(Double.MAX_VALUE).append(Double.NEGATIVE_INFINITY);
+        return new String[] { sb.toString() };
+    }
+}
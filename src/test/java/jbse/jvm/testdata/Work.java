@@ -0,0 +1,17 @@
+package jbse.jvm.testdata;
+
+public class Work {
+    public static int work(int a, int b, int c, int d, int e, int f) {
+        int r = 0;
+        if (a > 0) { r += 1; } else { r -= 1; }
+        if (b > 0) { r += 2; } else { r -= 2; }
+        if (c > 0) { r += 4; } else { r -= 4; }
+        if (d > 0) { r += 8; } else { r -= 8; }
+        if (e > 0) { r += 16; } else { r -= 16; }
+        if (f > 0) { r += 32; } else { r -= 32; }
+        for (int i = 0; i < 300; ++i) {
+            r = r * 31 + i;
+        }
+        return r;
+    }
+}
@@ -0,0 +1,142 @@
+package jbse.mem;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import jbse.bc.ClassFileFactoryJavassist;
+import jbse.bc.ClassHierarchy;
+import jbse.bc.Classpath;
+import jbse.bc.FieldLayout;
+import jbse.bc.Signature;
+import jbse.common.Type;
+import jbse.mem.Objekt.Epoch;
+import jbse.rewr.CalculatorRewriting;
+import jbse.rewr.RewriterOperationOnSimplex;
+import jbse.val.ReferenceConcrete;
+import jbse.val.Value;
+
+/**
+ * Checks that the fields of the {@link Objekt}s keep their
+ * slot numbers and values across clones, and that the
+ * {@link Array}s that share their fields do not alter them.
+ */
+public class ObjektTest {
+	private static final String CLASS = "java/lang/String";
+
+	private ClassHierarchy hier;
+	private CalculatorRewriting calc = new CalculatorRewriting();
+
+	@Before
+	public void setUp() throws Exception {
+		final Classpath env = new Classpath("src/test/resources/jbse/bc/testdata/rt.jar", "src/test/resources/jbse/bc/testdata");
+		this.hier = new ClassHierarchy(env, ClassFileFactoryJavassist.class, new HashMap<>());
+		this.calc.addRewriter(new RewriterOperationOnSimplex());
+	}
+
+	@Test
+	public void testLayoutIsShared() throws Exception {
+		final FieldLayout layout = this.hier.getFieldLayout(CLASS);
+		assertSame(layout, this.hier.getFieldLayout(CLASS));
+		assertSame(layout, this.hier.clone().getFieldLayout(CLASS));
+		assertArrayEquals(this.hier.getAllFields(CLASS), layout.getFieldSignatures());
+		assertEquals(this.hier.numOfStaticFields(CLASS), layout.numOfStaticFields());
+		for (int slot = 0; slot < layout.numOfFields(); ++slot) {
+			assertEquals(slot, layout.slot(layout.getFieldSignature(slot)));
+		}
+		assertEquals(-1, layout.slot(new Signature(CLASS, "I", "noSuchField")));
+	}
+
+	@Test
+	public void testInstanceClone() throws Exception {
+		final FieldLayout layout = this.hier.getFieldLayout(CLASS);
+		final Instance i = new Instance(this.calc, CLASS, null, Epoch.EPOCH_AFTER_START, layout);
+		assertTrue(layout.numOfStaticFields() > 0);
+		assertEquals(layout.getObjectFieldSignatures(), new ArrayList<>(i.getStoredFieldSignatures()));
+		checkSlotsAndValuesSurviveClone(i, layout, layout.numOfStaticFields(), layout.numOfFields());
+	}
+
+	@Test
+	public void testKlassClone() throws Exception {
+		final FieldLayout layout = this.hier.getFieldLayout(CLASS);
+		final Klass k = new Klass(this.calc, null, Epoch.EPOCH_AFTER_START, layout);
+		assertEquals(layout.getStaticFieldSignatures(), new ArrayList<>(k.getStoredFieldSignatures()));
+		checkSlotsAndValuesSurviveClone(k, layout, 0, layout.numOfStaticFields());
+	}
+
+	private void checkSlotsAndValuesSurviveClone(Objekt o, FieldLayout layout, int firstSlot, int lastSlot) throws Exception {
+		//gives each stored field a different value
+		final Value[] values = new Value[layout.numOfFields()];
+		for (int slot = firstSlot; slot < lastSlot; ++slot) {
+			final Signature sig = layout.getFieldSignature(slot);
+			values[slot] = (Type.isPrimitive(sig.getDescriptor()) ?
+							this.calc.valInt(slot).to(sig.getDescriptor().charAt(0)) :
+							new ReferenceConcrete(slot));
+			o.setFieldValue(sig, values[slot]);
+		}
+		final Objekt oClone = o.clone();
+
+		//the clone has the same slots and values
+		for (int slot = 0; slot < layout.numOfFields(); ++slot) {
+			final Signature sig = layout.getFieldSignature(slot);
+			assertEquals(o.getFieldSlot(sig), oClone.getFieldSlot(sig));
+			assertEquals(values[slot], oClone.getFieldValue(sig));
+			assertEquals(values[slot], oClone.getFieldValue(slot));
+			assertEquals(firstSlot <= slot && slot < lastSlot, oClone.hasSlot(slot));
+		}
+		assertEquals(o.fields().keySet(), oClone.fields().keySet());
+
+		//updating the original does not affect the clone, and vice versa
+		for (int slot = firstSlot; slot < lastSlot; ++slot) {
+			final Signature sig = layout.getFieldSignature(slot);
+			o.setFieldValue(slot, null);
+			assertEquals(values[slot], oClone.getFieldValue(sig));
+			oClone.setFieldValue(sig, null);
+		}
+		final Objekt oCloneClone = oClone.clone();
+		o.setFieldValue(firstSlot, values[firstSlot]);
+		assertNull(oCloneClone.getFieldValue(firstSlot));
+	}
+
+	@Test
+	public void testArrayClone() throws Exception {
+		final Array a = new Array(this.calc, false, null, this.calc.valInt(3), "[I", null, Epoch.EPOCH_AFTER_START, false, 100);
+		final Signature length = new Signature("[I", "" + Type.INT, "length");
+		final Array aClone = a.clone();
+
+		//the length field is shared, and keeps its slot and value
+		assertEquals(0, a.getFieldSlot(length));
+		assertEquals(0, aClone.getFieldSlot(length));
+		assertEquals(this.calc.valInt(3), aClone.getLength());
+		assertEquals(this.calc.valInt(3), aClone.getFieldValue(length));
+		assertEquals(a.getStoredFieldSignatures(), aClone.getStoredFieldSignatures());
+
+		//updating the entries of the clone does not affect the length or the original
+		aClone.setFast(this.calc.valInt(1), this.calc.valInt(42));
+		assertEquals(this.calc.valInt(3), a.getLength());
+		assertEquals(this.calc.valInt(3), aClone.getLength());
+		assertEquals(this.calc.valInt(0), ((Array.AccessOutcomeInValue) a.getFast(this.calc.valInt(1))).getValue());
+		assertEquals(this.calc.valInt(42), ((Array.AccessOutcomeInValue) aClone.getFast(this.calc.valInt(1))).getValue());
+
+		//an array backed by another one has its length
+		final Array aBacked = new Array(new ReferenceConcrete(1), a);
+		assertEquals(0, aBacked.getFieldSlot(length));
+		assertEquals(a.getLength(), aBacked.getLength());
+		assertEquals(a.getLength(), aBacked.clone().getFieldValue(0));
+	}
+
+	@Test
+	public void testInstanceOfClassWithoutLayout() throws Exception {
+		//the constructor with the field signatures builds a layout of its own
+		final Instance i = new Instance(this.calc, CLASS, null, Epoch.EPOCH_AFTER_START, this.hier.numOfStaticFields(CLASS), this.hier.getAllFields(CLASS));
+		final FieldLayout layout = this.hier.getFieldLayout(CLASS);
+		assertEquals(layout.getObjectFieldSignatures(), new ArrayList<>(i.getStoredFieldSignatures()));
+		for (int slot = 0; slot < layout.numOfFields(); ++slot) {
+			assertEquals(slot, i.getFieldSlot(layout.getFieldSignature(slot)));
+		}
+	}
+}
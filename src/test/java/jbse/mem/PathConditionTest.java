@@ -0,0 +1,179 @@
+package jbse.mem;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import jbse.bc.ClassFileFactoryJavassist;
+import jbse.bc.Classpath;
+import jbse.dec.DecisionProcedureAlgorithms;
+import jbse.dec.DecisionProcedureAlwSat;
+import jbse.rewr.CalculatorRewriting;
+import jbse.rewr.RewriterOperationOnSimplex;
+import jbse.val.MemoryPath;
+import jbse.val.ReferenceConcrete;
+import jbse.val.ReferenceSymbolic;
+
+/**
+ * Checks that the indices of the expanded objects in the
+ * path condition stay in sync with its clauses.
+ */
+public class PathConditionTest {
+	private static final String CLASS_1 = "tsafe/main/SimpleCalculator";
+	private static final String CLASS_2 = "java/lang/Object";
+
+	private final CalculatorRewriting calc = new CalculatorRewriting();
+
+	public PathConditionTest() {
+		this.calc.addRewriter(new RewriterOperationOnSimplex());
+	}
+
+	private State newState(boolean copyOnWrite) throws Exception {
+		final Classpath env = new Classpath("src/test/resources/jbse/bc/testdata/rt.jar", "src/test/resources/jbse/bc/testdata");
+		return new State(100, 100_000, env, ClassFileFactoryJavassist.class, new HashMap<>(), this.calc, copyOnWrite);
+	}
+
+	private static ReferenceSymbolic ref(State s, String className, String var) {
+		return (ReferenceSymbolic) s.createSymbol("L" + className + ";", MemoryPath.mkLocalVariable(var));
+	}
+
+	/**
+	 * Expands some references, and resolves others by alias and to null.
+	 */
+	private static void assume(State s, String prefix) throws Exception {
+		final ReferenceSymbolic a = ref(s, CLASS_1, prefix + "a");
+		final ReferenceSymbolic b = ref(s, CLASS_2, prefix + "b");
+		final ReferenceSymbolic c = ref(s, CLASS_1, prefix + "c");
+		s.assumeExpands(a, CLASS_1);
+		s.assumeExpands(b, CLASS_2);
+		s.assumeAliases(ref(s, CLASS_1, prefix + "d"), s.getResolution(a), s.getObjectReadOnly(a));
+		s.assumeNull(ref(s, CLASS_1, prefix + "e"));
+		s.assume(s.getCalculator().valBoolean(true));
+		s.assumeExpands(c, CLASS_1);
+	}
+
+	/**
+	 * Checks that the indices of the expanded objects of a state
+	 * are the same as those calculated from its path condition.
+	 * 
+	 * @return the number of the expanded objects.
+	 */
+	private static int assertInSync(State s) {
+		final HashMap<String, List<ClauseAssumeExpands>> expected = new HashMap<>();
+		int retVal = 0;
+		for (Clause c : s.getPathCondition()) {
+			if (c instanceof ClauseAssumeExpands) {
+				final ClauseAssumeExpands cExp = (ClauseAssumeExpands) c;
+				expected.computeIfAbsent(cExp.getObjekt().getType(), k -> new ArrayList<>()).add(cExp);
+				final Objekt initial = s.getObjectInitial(new ReferenceConcrete(cExp.getHeapPosition()));
+				assertNotNull(initial);
+				assertEquals(cExp.getObjekt().getType(), initial.getType());
+				assertEquals(cExp.getObjekt().getOrigin(), initial.getOrigin());
+				++retVal;
+			}
+		}
+		final Map<String, List<ClauseAssumeExpands>> actual = s.getPathConditionExpansionsByClass();
+		assertEquals(expected.keySet(), actual.keySet());
+		for (Map.Entry<String, List<ClauseAssumeExpands>> e : expected.entrySet()) {
+			final List<ClauseAssumeExpands> actualClauses = actual.get(e.getKey());
+			assertEquals(e.getValue().size(), actualClauses.size());
+			for (int i = 0; i < actualClauses.size(); ++i) {
+				assertSame(e.getValue().get(i), actualClauses.get(i));
+			}
+		}
+		return retVal;
+	}
+
+	@Test
+	public void testInSyncAfterAssumptions() throws Exception {
+		final State s = newState(true);
+		assume(s, "x");
+		assertEquals(3, assertInSync(s));
+		assertEquals(2, s.getPathConditionExpansionsByClass().get(CLASS_1).size());
+		assertEquals(1, s.getPathConditionExpansionsByClass().get(CLASS_2).size());
+	}
+
+	private void checkClones(boolean copyOnWrite) throws Exception {
+		final State s = newState(copyOnWrite);
+		assume(s, "x");
+		final State clone = s.clone();
+		assertEquals(3, assertInSync(clone));
+
+		//the clone and the original expand different references at the same heap positions
+		assume(clone, "y");
+		assertEquals(3, assertInSync(s));
+		assertEquals(6, assertInSync(clone));
+		assume(s, "z");
+		assertEquals(6, assertInSync(s));
+		assertEquals(6, assertInSync(clone));
+
+		//a clone of a clone
+		final State cloneOfClone = clone.clone();
+		assume(cloneOfClone, "w");
+		assertEquals(6, assertInSync(clone));
+		assertEquals(9, assertInSync(cloneOfClone));
+	}
+
+	@Test
+	public void testInSyncAfterCopyOnWriteClone() throws Exception {
+		checkClones(true);
+	}
+
+	@Test
+	public void testInSyncAfterClone() throws Exception {
+		checkClones(false);
+	}
+
+	@Test
+	public void testClonesShareExpansionsPrefix() throws Exception {
+		for (boolean copyOnWrite : new boolean[] { true, false }) {
+			final State s = newState(copyOnWrite);
+			assume(s, "x");
+			final State clone = s.clone();
+			final List<ClauseAssumeExpands> expansions = s.getPathConditionExpansionsByClass().get(CLASS_1);
+			assertSame(expansions, clone.getPathConditionExpansionsByClass().get(CLASS_1));
+			
+			//both append to the shared prefix
+			assume(clone, "y");
+			assume(s, "z");
+			assertEquals(2, expansions.size());
+			assertEquals(4, s.getPathConditionExpansionsByClass().get(CLASS_1).size());
+			assertEquals(4, clone.getPathConditionExpansionsByClass().get(CLASS_1).size());
+			assertEquals(6, assertInSync(s));
+			assertEquals(6, assertInSync(clone));
+		}
+	}
+
+	@Test
+	public void testInSyncAfterRefine() throws Exception {
+		final State s = newState(true);
+		assume(s, "x");
+		final State refined = s.clone();
+		assume(s, "y");
+		refined.refine(s);
+		assertEquals(6, assertInSync(refined));
+		assume(refined, "z");
+		assertEquals(9, assertInSync(refined));
+		assertEquals(6, assertInSync(s));
+	}
+
+	@Test
+	public void testInSyncAfterSetAssumptions() throws Exception {
+		final State s = newState(true);
+		assume(s, "x");
+		final DecisionProcedureAlgorithms dec = new DecisionProcedureAlgorithms(new DecisionProcedureAlwSat(), this.calc);
+		dec.setAssumptions(s.getPathCondition());
+		final State clone = s.clone();
+		assume(clone, "y");
+		dec.setAssumptions(clone.getPathCondition());
+		assertEquals(clone.getPathCondition().size(), dec.getAssumptions().size());
+		assertEquals(3, assertInSync(s));
+		assertEquals(6, assertInSync(clone));
+		dec.close();
+	}
+}
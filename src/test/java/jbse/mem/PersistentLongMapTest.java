@@ -0,0 +1,76 @@
+package jbse.mem;
+
+import static org.junit.Assert.*;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class PersistentLongMapTest {
+	@Test
+	public void testPutGet() {
+		final PersistentLongMap<String> m = new PersistentLongMap<>();
+		for (long i = 0; i < 2000; ++i) {
+			m.put(i, "v" + i);
+		}
+		m.put(1L << 40, "far");
+		assertEquals(2001, m.size());
+		assertEquals("v0", m.get(0));
+		assertEquals("v1999", m.get(1999));
+		assertEquals("far", m.get(1L << 40));
+		assertNull(m.get(2000));
+		assertNull(m.get(-1));
+		assertTrue(m.containsKey(1500));
+		assertFalse(m.containsKey(5000));
+	}
+
+	@Test
+	public void testIterationOrder() {
+		final PersistentLongMap<String> m = new PersistentLongMap<>();
+		m.put(1000, "c");
+		m.put(3, "a");
+		m.put(40, "b");
+		final Iterator<Map.Entry<Long, String>> it = m.asMap().entrySet().iterator();
+		assertEquals(Long.valueOf(3), it.next().getKey());
+		assertEquals(Long.valueOf(40), it.next().getKey());
+		assertEquals(Long.valueOf(1000), it.next().getKey());
+		assertFalse(it.hasNext());
+		assertEquals("b", m.asMap().get(40L));
+	}
+
+	@Test
+	public void testCloneIsolation() {
+		final PersistentLongMap<String> m = new PersistentLongMap<>();
+		for (long i = 0; i < 100; ++i) {
+			m.put(i, "v" + i);
+		}
+		final PersistentLongMap<String> c = m.clone();
+		c.put(5, "changed");
+		c.put(100, "new");
+		m.put(6, "other");
+		assertEquals("v5", m.get(5));
+		assertEquals("changed", c.get(5));
+		assertEquals("v6", c.get(6));
+		assertEquals("other", m.get(6));
+		assertNull(m.get(100));
+		assertEquals(100, m.size());
+		assertEquals(101, c.size());
+	}
+
+	@Test
+	public void testGetForUpdateCopiesSharedValuesOnce() {
+		final PersistentLongMap<StringBuilder> m = new PersistentLongMap<>();
+		m.put(7, new StringBuilder("a"));
+		final PersistentLongMap<StringBuilder> c = m.clone();
+		final StringBuilder inClone = c.getForUpdate(7, sb -> new StringBuilder(sb));
+		inClone.append("b");
+		assertSame(inClone, c.getForUpdate(7, sb -> new StringBuilder(sb)));
+		assertEquals("ab", c.get(7).toString());
+		assertEquals("a", m.get(7).toString());
+		final StringBuilder inOriginal = m.getForUpdate(7, sb -> new StringBuilder(sb));
+		inOriginal.append("c");
+		assertEquals("ac", m.get(7).toString());
+		assertEquals("ab", c.get(7).toString());
+	}
+}
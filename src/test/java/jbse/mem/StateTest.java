@@ -0,0 +1,167 @@
+package jbse.mem;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import jbse.bc.ClassFileFactoryJavassist;
+import jbse.bc.Classpath;
+import jbse.bc.Opcodes;
+import jbse.bc.Signature;
+import jbse.dec.DecisionProcedureAlgorithms;
+import jbse.dec.DecisionProcedureAlwSat;
+import jbse.dec.DecisionProcedureClassInit;
+import jbse.jvm.Runner;
+import jbse.jvm.RunnerBuilder;
+import jbse.jvm.RunnerParameters;
+import jbse.mem.exc.ThreadStackEmptyException;
+import jbse.rewr.CalculatorRewriting;
+import jbse.rewr.RewriterOperationOnSimplex;
+import jbse.rewr.RewriterPolynomials;
+import jbse.rules.ClassInitRulesRepo;
+import jbse.val.ReferenceConcrete;
+
+public class StateTest {
+	private static final String CLASS = "tsafe/main/SimpleCalculator";
+	private static final Signature FIELD = new Signature(CLASS, "D", "minLat");
+	private static final Signature METHOD = new Signature("tsafe/engine/TsafeEngine", "()V", "start");
+
+	private CalculatorRewriting calc;
+	private State state;
+	private ReferenceConcrete ref;
+
+	@Before
+	public void setUp() throws Exception {
+		this.calc = new CalculatorRewriting();
+		this.calc.addRewriter(new RewriterOperationOnSimplex());
+		final Classpath env = new Classpath("src/test/resources/jbse/bc/testdata/rt.jar", "src/test/resources/jbse/bc/testdata");
+		this.state = new State(100, 100_000, env, ClassFileFactoryJavassist.class, new HashMap<>(), this.calc, true);
+		this.ref = this.state.createInstance(CLASS);
+		this.state.pushFrameSymbolic(METHOD);
+		this.state.pushOperand(this.calc.valInt(1));
+		this.state.assume(this.calc.valBoolean(true));
+	}
+
+	@Test
+	public void testCopyOnWriteCloneMutationDoesNotAffectOriginal() throws Exception {
+		final int heapSize = this.state.getHeap().size();
+		final int pathConditionSize = this.state.getPathCondition().size();
+		final int stackSize = this.state.getStack().size();
+
+		final State clone = this.state.clone();
+		clone.getObject(this.ref).setFieldValue(FIELD, this.calc.valDouble(1.0d));
+		clone.createInstance(CLASS);
+		clone.assume(this.calc.valBoolean(true));
+		clone.popOperand();
+		clone.pushOperand(this.calc.valInt(2));
+		clone.pushFrameSymbolic(METHOD);
+
+		assertEquals(this.calc.valDouble(0), this.state.getObjectReadOnly(this.ref).getFieldValue(FIELD));
+		assertEquals(heapSize, this.state.getHeap().size());
+		assertEquals(pathConditionSize, this.state.getPathCondition().size());
+		assertEquals(stackSize, this.state.getStack().size());
+		assertEquals(this.calc.valInt(1), this.state.topOperand());
+
+		assertEquals(this.calc.valDouble(1.0d), clone.getObjectReadOnly(this.ref).getFieldValue(FIELD));
+		assertTrue(clone.getHeap().size() > heapSize);
+		assertTrue(clone.getPathCondition().size() > pathConditionSize);
+		assertEquals(stackSize + 1, clone.getStack().size());
+	}
+
+	@Test
+	public void testCopyOnWriteOriginalMutationDoesNotAffectClone() throws Exception {
+		final State clone = this.state.clone();
+		this.state.getObject(this.ref).setFieldValue(FIELD, this.calc.valDouble(1.0d));
+		this.state.popOperand();
+		this.state.assume(this.calc.valBoolean(true));
+
+		assertEquals(this.calc.valDouble(0), clone.getObjectReadOnly(this.ref).getFieldValue(FIELD));
+		assertEquals(this.calc.valInt(1), clone.topOperand());
+		assertEquals(this.state.getPathCondition().size() - 1, clone.getPathCondition().size());
+	}
+
+	@Test
+	public void testCopyOnWriteReadDoesNotCopy() throws Exception {
+		final State clone = this.state.clone();
+		final Objekt original = this.state.getObjectReadOnly(this.ref);
+		assertSame(original, clone.getObjectReadOnly(this.ref));
+		assertNotSame(original, clone.getObject(this.ref));
+		assertSame(original, this.state.getObjectReadOnly(this.ref));
+	}
+
+	@Test
+	public void testEagerClone() throws Exception {
+		final Classpath env = new Classpath("src/test/resources/jbse/bc/testdata/rt.jar", "src/test/resources/jbse/bc/testdata");
+		final State eager = new State(100, 100_000, env, ClassFileFactoryJavassist.class, new HashMap<>(), this.calc, false);
+		final ReferenceConcrete eagerRef = eager.createInstance(CLASS);
+		final State clone = eager.clone();
+		clone.getObject(eagerRef).setFieldValue(FIELD, this.calc.valDouble(1.0d));
+		assertNotSame(eager.getObjectReadOnly(eagerRef), clone.getObjectReadOnly(eagerRef));
+		assertEquals(this.calc.valDouble(0), eager.getObjectReadOnly(eagerRef).getFieldValue(FIELD));
+	}
+
+	@Test
+	public void testCopyOnWriteGetfieldGetstaticXaloadDoNotCopy() throws Exception {
+		final CalculatorRewriting calc = new CalculatorRewriting();
+		calc.addRewriter(new RewriterOperationOnSimplex());
+		calc.addRewriter(new RewriterPolynomials());
+		//the bootstrap reads static fields of these classes, and would branch if they were pre-initialized
+		final ClassInitRulesRepo rules = new ClassInitRulesRepo();
+		rules.addNotInitializedClass("jdk/internal/util/StaticProperty", "java/nio/charset/CoderResult");
+		final RunnerParameters p = new RunnerParameters();
+		p.setJREPath("src/test/resources/jbse/bc/testdata");
+		p.addClasspath("target/classes", "target/test-classes");
+		p.setMethodSignature("jbse/mem/testdata/Reads", "()I", "read");
+		p.setCalculator(calc);
+		p.setDecisionProcedure(new DecisionProcedureAlgorithms(new DecisionProcedureClassInit(new DecisionProcedureAlwSat(), calc, rules), calc));
+		p.setCopyOnWriteStates(true);
+		final int[] reads = new int[3];
+		p.setActions(new Runner.Actions() {
+			private State before;
+			private byte opcode;
+
+			@Override
+			public boolean atStepPre() {
+				final State s = getEngine().getCurrentState();
+				this.before = null;
+				try {
+					if (s.getStackSize() == 1 && "read".equals(s.getCurrentMethodSignature().getName())) {
+						this.opcode = s.getInstruction();
+						if (this.opcode == Opcodes.OP_GETFIELD || this.opcode == Opcodes.OP_GETSTATIC || this.opcode == Opcodes.OP_IALOAD) {
+							//shares all the objects and classes between the two states
+							this.before = s.clone();
+						}
+					}
+				} catch (ThreadStackEmptyException e) {
+					throw new AssertionError(e);
+				}
+				return false;
+			}
+
+			@Override
+			public boolean atStepPost() {
+				if (this.before == null) {
+					return false;
+				}
+				final State s = getEngine().getCurrentState();
+				for (Map.Entry<Long, Objekt> e : this.before.getHeap().entrySet()) {
+					assertSame(e.getValue(), s.getObjectReadOnly(new ReferenceConcrete(e.getKey())));
+				}
+				final String className = "jbse/mem/testdata/Reads";
+				assertSame(this.before.getKlassReadOnly(className), s.getKlassReadOnly(className));
+				++reads[this.opcode == Opcodes.OP_GETFIELD ? 0 : this.opcode == Opcodes.OP_GETSTATIC ? 1 : 2];
+				return false;
+			}
+		});
+		final RunnerBuilder rb = new RunnerBuilder();
+		rb.build(p).run();
+		rb.getEngine().close();
+		assertEquals(2, reads[0]);
+		assertEquals(1, reads[1]);
+		assertEquals(1, reads[2]);
+	}
+}
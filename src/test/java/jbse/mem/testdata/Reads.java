@@ -0,0 +1,12 @@
+package jbse.mem.testdata;
+
+public class Reads {
+    private static int s = 1;
+    private int f = 2;
+    private int[] a = { 3 };
+
+    public static int read() {
+        final Reads r = new Reads();
+        return s + r.f + r.a[0];
+    }
+}
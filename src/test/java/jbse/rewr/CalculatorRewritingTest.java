@@ -0,0 +1,163 @@
+package jbse.rewr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import jbse.common.Type;
+import jbse.rewr.exc.NoResultException;
+import jbse.val.Primitive;
+import jbse.val.Simplex;
+import jbse.val.Term;
+import jbse.val.exc.InvalidOperandException;
+import jbse.val.exc.InvalidTypeException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CalculatorRewritingTest {
+	CalculatorRewriting calc;
+	CalculatorRewriting calcNoCache;
+
+	@Before
+	public void before() {
+		calc = new CalculatorRewriting(100);
+		calc.addRewriter(new RewriterOperationOnSimplex());
+		calc.addRewriter(new RewriterPolynomials());
+		calcNoCache = new CalculatorRewriting();
+		calcNoCache.addRewriter(new RewriterOperationOnSimplex());
+		calcNoCache.addRewriter(new RewriterPolynomials());
+	}
+
+	@Test
+	public void testSameResult() throws InvalidOperandException, InvalidTypeException {
+		//(A + B) * (A + B) rewritten twice
+		final Term A = calc.valTerm(Type.INT, "A");
+		final Term B = calc.valTerm(Type.INT, "B");
+		final Primitive p1 = A.add(B).mul(A.add(B));
+		final Primitive p2 = A.add(B).mul(A.add(B));
+		final Term A_ = calcNoCache.valTerm(Type.INT, "A");
+		final Term B_ = calcNoCache.valTerm(Type.INT, "B");
+		final Primitive p3 = A_.add(B_).mul(A_.add(B_));
+		assertSame(p1, p2);
+		assertEquals(p3, p1);
+	}
+
+	@Test
+	public void testHits() throws InvalidOperandException, InvalidTypeException {
+		final Term A = calc.valTerm(Type.INT, "A");
+		final Term B = calc.valTerm(Type.INT, "B");
+		A.add(B);
+		final long hits = calc.getRewriteCacheHits();
+		final long misses = calc.getRewriteCacheMisses();
+		final Primitive p = A.add(B);
+		assertEquals(hits + 1, calc.getRewriteCacheHits());
+		assertEquals(misses, calc.getRewriteCacheMisses());
+
+		//already normalized
+		assertSame(p, calc.applyRewriters(p));
+		assertEquals(hits + 2, calc.getRewriteCacheHits());
+		assertEquals(misses, calc.getRewriteCacheMisses());
+	}
+
+	@Test
+	public void testAddRewriterInvalidates() throws InvalidOperandException, InvalidTypeException {
+		final Term A = calc.valTerm(Type.INT, "A");
+		final Term B = calc.valTerm(Type.INT, "B");
+		A.add(B);
+		calc.addRewriter(new RewriterNormalize());
+		final long misses = calc.getRewriteCacheMisses();
+		A.add(B);
+		assertTrue(calc.getRewriteCacheMisses() > misses);
+	}
+
+	@Test
+	public void testSmallConstantsShared() throws InvalidOperandException, InvalidTypeException {
+		assertSame(calc.valInt(5), calc.valInt(2).add(calc.valInt(3)));
+		assertSame(calc.valBoolean(true), calc.valInt(2).lt(calc.valInt(3)));
+		assertEquals(calc.valInt(100000), calc.valInt(99999).add(calc.valInt(1)));
+	}
+
+	@Test
+	public void testFoldingSameAsBoxed() throws InvalidOperandException, InvalidTypeException {
+		final Simplex x = (Simplex) calc.valLong(-7L).div(calc.valLong(2L));
+		assertEquals(Long.valueOf(-3L), x.getActualValue());
+		assertEquals(Simplex.make(calc, Long.valueOf(-3L)), x);
+		final Simplex c = (Simplex) calc.narrow(Type.CHAR, calc.valInt(-1));
+		assertEquals(Character.valueOf((char) 65535), c.getActualValue());
+		assertEquals(65535, c.intValue());
+	}
+
+	@Test
+	public void testRewriterOfSimplexDisablesFolding() throws InvalidOperandException, InvalidTypeException {
+		//rewrites 2 to 42
+		final Rewriter twoToFortyTwo = new Rewriter() {
+			@Override
+			protected boolean rewritesSimplex() {
+				return true;
+			}
+
+			@Override
+			protected void rewriteSimplex(Simplex x) throws NoResultException {
+				setResult(x.equals(calc.valInt(2)) ? calc.valInt(42) : x);
+			}
+		};
+		assertEquals(calc.valInt(2), calc.valInt(1).add(calc.valInt(1)));
+		calc.addRewriter(twoToFortyTwo);
+		assertEquals(calc.valInt(42), calc.valInt(1).add(calc.valInt(1)));
+	}
+
+	@Test
+	public void testRewriterNotOfSimplexKeepsFolding() throws InvalidOperandException, InvalidTypeException {
+		//does not declare that it rewrites Simplex values,
+		//so the operations on Simplex are folded and never reach it 
+		final Rewriter twoToFortyTwo = new Rewriter() {
+			@Override
+			protected void rewriteSimplex(Simplex x) throws NoResultException {
+				setResult(x.equals(calc.valInt(2)) ? calc.valInt(42) : x);
+			}
+		};
+		calc.addRewriter(twoToFortyTwo);
+		assertEquals(calc.valInt(2), calc.valInt(1).add(calc.valInt(1)));
+	}
+
+	@Test
+	public void testThreadsRewriteConcurrently() throws Exception {
+		//blocks the rewriting of W until the main thread rewrites
+		final CountDownLatch otherRewriting = new CountDownLatch(1);
+		final CountDownLatch mainRewrote = new CountDownLatch(1);
+		final boolean[] released = new boolean[1];
+		calc.addRewriter(new Rewriter() {
+			@Override
+			protected void rewriteTerm(Term x) throws NoResultException {
+				if ("W".equals(x.getValue())) {
+					otherRewriting.countDown();
+					try {
+						released[0] = mainRewrote.await(5, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						throw new NoResultException(e);
+					}
+				}
+				setResult(x);
+			}
+		});
+		final Term W = calc.valTerm(Type.INT, "W");
+		final Thread blocked = new Thread(() -> {
+			try {
+				W.add(calc.valInt(1));
+			} catch (InvalidOperandException | InvalidTypeException e) {
+				throw new AssertionError(e);
+			}
+		});
+		blocked.start();
+		assertTrue(otherRewriting.await(5, TimeUnit.SECONDS));
+		final Term A = calc.valTerm(Type.INT, "A");
+		A.add(calc.valInt(1));
+		mainRewrote.countDown();
+		blocked.join();
+		assertTrue(released[0]);
+	}
+}
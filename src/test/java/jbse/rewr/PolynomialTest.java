@@ -0,0 +1,82 @@
+package jbse.rewr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import jbse.common.Type;
+import jbse.val.Primitive;
+import jbse.val.Term;
+import jbse.val.exc.InvalidOperandException;
+import jbse.val.exc.InvalidTypeException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PolynomialTest {
+	CalculatorRewriting calc;
+	
+	@Before
+	public void before() {
+		calc = new CalculatorRewriting();
+		calc.addRewriter(new RewriterOperationOnSimplex());
+	}
+	
+	@Test
+	public void testAddCancels() throws InvalidTypeException, InvalidOperandException {
+		//(A + 2 * B) + (-A + C) -> 2 * B + C
+		final Term A = calc.valTerm(Type.INT, "A");
+		final Term B = calc.valTerm(Type.INT, "B");
+		final Term C = calc.valTerm(Type.INT, "C");
+		final Polynomial p1 = Polynomial.of(calc, A.add(calc.valInt(2).mul(B)));
+		final Polynomial p2 = Polynomial.of(calc, A.neg().add(C));
+		final Polynomial sum = p1.add(p2);
+		assertEquals(Polynomial.of(calc, calc.valInt(2).mul(B).add(C)), sum);
+		assertEquals(calc.valInt(0), sum.getMultiplier(Monomial.of(calc, A)));
+		assertEquals(calc.valInt(2), sum.getMultiplier(Monomial.of(calc, B)));
+	}
+	
+	@Test
+	public void testMulOrderIndependent() throws InvalidTypeException, InvalidOperandException {
+		//(A + B) * (A - B) = (A - B) * (A + B) = A * A - B * B
+		final Term A = calc.valTerm(Type.INT, "A");
+		final Term B = calc.valTerm(Type.INT, "B");
+		final Polynomial p1 = Polynomial.of(calc, A.add(B));
+		final Polynomial p2 = Polynomial.of(calc, A.sub(B));
+		final Polynomial expected = Polynomial.of(calc, A.mul(A).sub(B.mul(B)));
+		assertEquals(expected, p1.mul(p2));
+		assertEquals(expected, p2.mul(p1));
+		assertEquals(expected.hashCode(), p2.mul(p1).hashCode());
+	}
+	
+	@Test
+	public void testZero() throws InvalidTypeException, InvalidOperandException {
+		final Term A = calc.valTerm(Type.INT, "A");
+		final Polynomial p = Polynomial.of(calc, A);
+		assertTrue(p.add(p.neg()).isZeroOne(true));
+		final Primitive zero = p.add(p.neg()).toPrimitive();
+		assertEquals(calc.valInt(0), zero);
+	}
+	
+	@Test
+	public void testManyTermsOrderIndependent() throws InvalidTypeException, InvalidOperandException {
+		//the terms have hash codes of both signs, in no particular order
+		final int n = 200;
+		final Term[] terms = new Term[n];
+		for (int i = 0; i < n; ++i) {
+			terms[i] = calc.valTerm(Type.INT, "T" + i);
+		}
+		Primitive forward = calc.valInt(0);
+		Primitive backward = calc.valInt(0);
+		for (int i = 0; i < n; ++i) {
+			forward = forward.add(calc.valInt(i + 1).mul(terms[i]));
+			backward = backward.add(calc.valInt(n - i).mul(terms[n - 1 - i]));
+		}
+		final Polynomial pForward = Polynomial.of(calc, forward);
+		final Polynomial pBackward = Polynomial.of(calc, backward);
+		assertEquals(pForward, pBackward);
+		for (int i = 0; i < n; ++i) {
+			assertEquals(calc.valInt(i + 1), pForward.getMultiplier(Monomial.of(calc, terms[i])));
+		}
+		assertTrue(pForward.add(pBackward.neg()).isZeroOne(true));
+	}
+}
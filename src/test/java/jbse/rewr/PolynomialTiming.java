@@ -0,0 +1,37 @@
+package jbse.rewr;
+
+import jbse.common.Type;
+import jbse.val.Primitive;
+import jbse.val.Term;
+
+/**
+ * A simple timing harness for the construction of 
+ * {@link Polynomial}s with many terms, that exercises
+ * their sorting. It is not a test; run it with 
+ * {@code java -cp <test classpath> jbse.rewr.PolynomialTiming [terms [repetitions]]}.
+ */
+public final class PolynomialTiming {
+	public static void main(String[] args) throws Exception {
+		final int nTerms = (args.length > 0 ? Integer.parseInt(args[0]) : 1000);
+		final int nRepetitions = (args.length > 1 ? Integer.parseInt(args[1]) : 200);
+		final CalculatorRewriting calc = new CalculatorRewriting();
+		calc.addRewriter(new RewriterOperationOnSimplex());
+		Primitive sum = calc.valInt(0);
+		for (int i = nTerms - 1; i >= 0; --i) {
+			final Term t = calc.valTerm(Type.INT, "T" + i);
+			sum = sum.add(calc.valInt(i + 1).mul(t));
+		}
+
+		//warmup
+		for (int i = 0; i < nRepetitions; ++i) {
+			Polynomial.of(calc, sum);
+		}
+
+		final long start = System.nanoTime();
+		for (int i = 0; i < nRepetitions; ++i) {
+			Polynomial.of(calc, sum);
+		}
+		final long elapsed = System.nanoTime() - start;
+		System.out.println(nTerms + " terms: " + (elapsed / nRepetitions / 1000) + " us per polynomial");
+	}
+}
@@ -0,0 +1,122 @@
+package jbse.rules;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import jbse.rewr.CalculatorRewriting;
+import jbse.val.MemoryPath;
+import jbse.val.ReferenceSymbolic;
+import jbse.val.SymbolFactory;
+
+/**
+ * Checks that the precompiled origin pattern and the memoized
+ * relative patterns of a {@link Rule} behave as the patterns
+ * compiled anew at each check.
+ */
+public class RuleTest {
+	private static final String[] ORIGIN_EXPS = {
+		null,
+		"{ROOT}:this/list/header",
+		"{ROOT}:this/{ANY}",
+		"{ANY}/next",
+		"{ROOT}:this/list/header/{ANY}/value",
+		"{R_ANY}"
+	};
+
+	private static final String ALIAS_EXP = "{REF}/{UP}/{UP}/{ANY}";
+
+	private final SymbolFactory symbolFactory = new SymbolFactory(new CalculatorRewriting());
+
+	private static MemoryPath[] origins() {
+		final MemoryPath root = MemoryPath.mkLocalVariable("this");
+		return new MemoryPath[] {
+			root,
+			root.thenField("list"),
+			root.thenField("list").thenField("header"),
+			root.thenField("list").thenField("header").thenField("next"),
+			root.thenField("list").thenField("header").thenField("next").thenField("value"),
+			root.thenField("list").thenField("header").thenField("next").thenField("next"),
+			MemoryPath.mkStatic("java/util/Collections").thenField("EMPTY_LIST")
+		};
+	}
+
+	private static Pattern uncached(Rule r, String exp, MemoryPath origin) {
+		return Util.makePatternRelative(Util.specializeAny(exp, r.findAny(origin)), origin);
+	}
+
+	@Test
+	public void testMatchesAsUncompiled() {
+		for (String originExp : ORIGIN_EXPS) {
+			final Rule r = new LICSRuleAliasesOrigin(originExp, ALIAS_EXP);
+			final Pattern p = Util.makeOriginPattern(originExp == null ? Util.ANY : originExp);
+			for (int round = 0; round < 2; ++round) {
+				for (MemoryPath origin : origins()) {
+					final ReferenceSymbolic ref = (ReferenceSymbolic) this.symbolFactory.createSymbol("Ljava/lang/Object;", origin);
+					assertEquals(originExp + " " + origin, p.matcher(origin.toString()).matches(), r.matches(ref));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testRelativePatternIsMemoized() {
+		final Rule r = new LICSRuleAliasesOrigin("{ROOT}:this/{ANY}", ALIAS_EXP);
+		final MemoryPath[] origins = origins();
+		final MemoryPath origin = origins[4];
+
+		//the same expression and an equal origin give the same pattern
+		final Pattern p = r.makeRelativePattern(ALIAS_EXP, origin);
+		assertEquals(uncached(r, ALIAS_EXP, origin).pattern(), p.pattern());
+		assertSame(p, r.makeRelativePattern(ALIAS_EXP, origin));
+		assertSame(p, r.makeRelativePattern(ALIAS_EXP, origins()[4]));
+
+		//another origin or another expression give a pattern of their own
+		final Pattern q = r.makeRelativePattern(ALIAS_EXP, origins[2]);
+		assertEquals(uncached(r, ALIAS_EXP, origins[2]).pattern(), q.pattern());
+		assertNotEquals(p.pattern(), q.pattern());
+		final Pattern t = r.makeRelativePattern("{REF}/{UP}", origins[2]);
+		assertEquals(uncached(r, "{REF}/{UP}", origins[2]).pattern(), t.pattern());
+		assertNotEquals(q.pattern(), t.pattern());
+
+		//going back to the first origin does not return a stale pattern
+		assertEquals(p.pattern(), r.makeRelativePattern(ALIAS_EXP, origin).pattern());
+	}
+
+	@Test
+	public void testRelativePatternsOnManyThreads() throws Exception {
+		final Rule r = new LICSRuleAliasesOrigin("{ROOT}:this/{ANY}", ALIAS_EXP);
+		final MemoryPath[] origins = origins();
+		final String[] expected = new String[origins.length];
+		for (int i = 0; i < origins.length; ++i) {
+			expected[i] = uncached(r, ALIAS_EXP, origins[i]).pattern();
+		}
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final ArrayList<Future<Boolean>> results = new ArrayList<>();
+			for (int t = 0; t < 8; ++t) {
+				final int offset = t;
+				results.add(executor.submit(() -> {
+					for (int i = 0; i < 1000; ++i) {
+						final int j = (i + offset) % origins.length;
+						if (!expected[j].equals(r.makeRelativePattern(ALIAS_EXP, origins[j]).pattern())) {
+							return false;
+						}
+					}
+					return true;
+				}));
+			}
+			for (Future<Boolean> result : results) {
+				assertTrue(result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
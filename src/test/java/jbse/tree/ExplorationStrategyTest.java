@@ -0,0 +1,114 @@
+package jbse.tree;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import jbse.bc.ClassFileFactoryJavassist;
+import jbse.bc.Classpath;
+import jbse.mem.State;
+import jbse.rewr.CalculatorRewriting;
+
+public class ExplorationStrategyTest {
+	private State[] states;
+
+	@Before
+	public void setUp() throws Exception {
+		final CalculatorRewriting calc = new CalculatorRewriting();
+		this.states = new State[5];
+		for (int i = 0; i < this.states.length; ++i) {
+			this.states[i] = new State(100, 100, new Classpath(), ClassFileFactoryJavassist.class, new HashMap<>(), calc, false);
+		}
+	}
+
+	private List<State> drain(ExplorationStrategy strategy) {
+		final ArrayList<State> retVal = new ArrayList<>();
+		while (!strategy.isEmpty()) {
+			final State peeked = strategy.peek();
+			final State removed = strategy.remove();
+			assertSame(peeked, removed);
+			retVal.add(removed);
+		}
+		return retVal;
+	}
+
+	private void addAll(ExplorationStrategy strategy) {
+		for (State s : this.states) {
+			strategy.add(s);
+		}
+	}
+
+	@Test
+	public void testDepthFirstOrder() {
+		final ExplorationStrategy strategy = new ExplorationStrategyDepthFirst();
+		addAll(strategy);
+		final List<State> visited = drain(strategy);
+		for (int i = 0; i < this.states.length; ++i) {
+			assertSame(this.states[this.states.length - 1 - i], visited.get(i));
+		}
+	}
+
+	@Test
+	public void testDepthFirstStealsOldest() {
+		final ExplorationStrategy strategy = new ExplorationStrategyDepthFirst();
+		addAll(strategy);
+		assertSame(this.states[0], strategy.steal());
+		assertSame(this.states[this.states.length - 1], strategy.remove());
+	}
+
+	@Test
+	public void testBreadthFirstOrder() {
+		final ExplorationStrategy strategy = new ExplorationStrategyBreadthFirst();
+		addAll(strategy);
+		final List<State> visited = drain(strategy);
+		for (int i = 0; i < this.states.length; ++i) {
+			assertSame(this.states[i], visited.get(i));
+		}
+	}
+
+	@Test
+	public void testBestFirstOrder() {
+		final IdentityHashMap<State, Double> scores = new IdentityHashMap<>();
+		scores.put(this.states[0], 1.0);
+		scores.put(this.states[1], 3.0);
+		scores.put(this.states[2], 2.0);
+		scores.put(this.states[3], 3.0);
+		scores.put(this.states[4], 0.0);
+		final ExplorationStrategy strategy = new ExplorationStrategyBestFirst(scores::get);
+		addAll(strategy);
+		final List<State> visited = drain(strategy);
+		//highest score first, ties most recent first
+		assertSame(this.states[3], visited.get(0));
+		assertSame(this.states[1], visited.get(1));
+		assertSame(this.states[2], visited.get(2));
+		assertSame(this.states[0], visited.get(3));
+		assertSame(this.states[4], visited.get(4));
+	}
+
+	@Test
+	public void testRandomRestartVisitsAllOnceAndIsReplicable() {
+		final ExplorationStrategy strategy1 = new ExplorationStrategyRandomRestart(42L);
+		final ExplorationStrategy strategy2 = new ExplorationStrategyRandomRestart(42L);
+		addAll(strategy1);
+		addAll(strategy2);
+		final List<State> visited1 = drain(strategy1);
+		final List<State> visited2 = drain(strategy2);
+		assertEquals(this.states.length, visited1.size());
+		for (State s : this.states) {
+			assertTrue(visited1.contains(s));
+		}
+		assertEquals(visited1, visited2);
+	}
+
+	@Test(expected=NoSuchElementException.class)
+	public void testPeekEmpty() {
+		new ExplorationStrategyDepthFirst().peek();
+	}
+}
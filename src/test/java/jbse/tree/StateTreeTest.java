@@ -0,0 +1,71 @@
+package jbse.tree;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+
+import org.junit.Test;
+
+import jbse.bc.ClassFileFactoryJavassist;
+import jbse.bc.Classpath;
+import jbse.mem.State;
+import jbse.rewr.CalculatorRewriting;
+import jbse.tree.StateTree.BreadthMode;
+import jbse.tree.StateTree.StateIdentificationMode;
+
+public class StateTreeTest {
+	private final CalculatorRewriting calc = new CalculatorRewriting();
+
+	private State newState() throws Exception {
+		return new State(100, 100, new Classpath(), ClassFileFactoryJavassist.class, new HashMap<>(), this.calc, false);
+	}
+
+	/**
+	 * Emulates the engine stepping from the current state
+	 * to a bytecode that creates a branch with two states.
+	 */
+	private State[] branch(StateTree tree) throws Exception {
+		final State[] retVal = { newState(), newState() };
+		assertTrue(tree.possiblyAddBranchPoint(true, false, false, false));
+		tree.addState(retVal[0], 1, "1");
+		tree.addState(retVal[1], 2, "2");
+		assertTrue(tree.createdBranch());
+		return retVal;
+	}
+
+	@Test
+	public void testBreadthFirstVisitsDepthOneBeforeDepthTwo() throws Exception {
+		final StateTree tree = new StateTree(StateIdentificationMode.COMPACT, BreadthMode.MORE_THAN_ONE, new ExplorationStrategyBreadthFirst());
+		assertFalse(tree.isDepthFirst());
+		final State root = newState();
+		tree.addInitialState(root);
+		assertSame(root, tree.nextState());
+
+		final State[] depth1 = branch(tree);
+		assertSame(depth1[0], tree.nextState());
+		final State[] depth2First = branch(tree);
+		assertSame(depth1[1], tree.nextState());
+		final State[] depth2Second = branch(tree);
+		assertSame(depth2First[0], tree.nextState());
+		assertSame(depth2First[1], tree.nextState());
+		assertSame(depth2Second[0], tree.nextState());
+		assertSame(depth2Second[1], tree.nextState());
+		assertFalse(tree.hasStates());
+	}
+
+	@Test
+	public void testDepthFirstContinuesWithLastAdded() throws Exception {
+		final StateTree tree = new StateTree(StateIdentificationMode.COMPACT, BreadthMode.MORE_THAN_ONE);
+		assertTrue(tree.isDepthFirst());
+		tree.addInitialState(newState());
+		tree.nextState();
+
+		final State[] depth1 = branch(tree);
+		assertSame(depth1[1], tree.nextState());
+		final State[] depth2 = branch(tree);
+		assertSame(depth2[1], tree.nextState());
+		assertSame(depth2[0], tree.nextState());
+		assertSame(depth1[0], tree.nextState());
+		assertFalse(tree.hasStates());
+	}
+}
@@ -0,0 +1,154 @@
+package jbse.val;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import jbse.bc.ClassFileFactoryJavassist;
+import jbse.bc.Classpath;
+import jbse.common.Type;
+import jbse.mem.Clause;
+import jbse.mem.ClauseAssume;
+import jbse.mem.State;
+import jbse.rewr.CalculatorRewriting;
+
+public class InternTableTest {
+	private final CalculatorRewriting calc = new CalculatorRewriting();
+
+	@Test
+	public void testInternedAreIdentical() throws Exception {
+		final Term A = this.calc.valTerm(Type.INT, "A");
+		final Term B = this.calc.valTerm(Type.INT, "B");
+		final Primitive e1 = A.add(B).mul(A);
+		final Primitive e2 = A.add(B).mul(A);
+		assertSame(e1, e2);
+		assertSame(this.calc.narrow(Type.BYTE, A), this.calc.narrow(Type.BYTE, A));
+		assertSame(this.calc.widen(Type.LONG, A), this.calc.widen(Type.LONG, A));
+		assertSame(this.calc.applyFunction(Type.INT, "f", A, B), this.calc.applyFunction(Type.INT, "f", A, B));
+		assertSame(A.neg(), A.neg());
+	}
+
+	@Test
+	public void testConcurrentInterningYieldsSameObjects() throws Exception {
+		final int numThreads = 4;
+		final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		try {
+			final List<Future<List<Primitive>>> futures = new ArrayList<>();
+			for (int t = 0; t < numThreads; ++t) {
+				futures.add(executor.submit(() -> {
+					final List<Primitive> retVal = new ArrayList<>();
+					final Term A = this.calc.valTerm(Type.INT, "A");
+					for (int i = 0; i < 1000; ++i) {
+						retVal.add(A.mul(this.calc.valInt(i)).add(A));
+					}
+					return retVal;
+				}));
+			}
+			final List<Primitive> first = futures.get(0).get();
+			for (Future<List<Primitive>> f : futures) {
+				final List<Primitive> other = f.get();
+				for (int i = 0; i < first.size(); ++i) {
+					assertSame(first.get(i), other.get(i));
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testDifferentTypesAreDistinct() throws Exception {
+		final Term Aint = this.calc.valTerm(Type.INT, "A");
+		final Term Along = this.calc.valTerm(Type.LONG, "A");
+		final Primitive negInt = Expression.makeExpressionUnary(this.calc, Operator.NEG, Aint);
+		final Primitive negLong = Expression.makeExpressionUnary(this.calc, Operator.NEG, Along);
+		assertNotSame(negInt, negLong);
+		assertNotEquals(negInt, negLong);
+		assertEquals(Type.INT, negInt.getType());
+		assertEquals(Type.LONG, negLong.getType());
+
+		final Primitive toByte = this.calc.narrow(Type.BYTE, Aint);
+		final Primitive toShort = this.calc.narrow(Type.SHORT, Aint);
+		assertNotSame(toByte, toShort);
+		assertNotEquals(toByte, toShort);
+
+		final Primitive toLong = this.calc.widen(Type.LONG, Aint);
+		final Primitive toDouble = this.calc.widen(Type.DOUBLE, Aint);
+		assertNotSame(toLong, toDouble);
+		assertNotEquals(toLong, toDouble);
+
+		final Primitive fInt = this.calc.applyFunction(Type.INT, "f", Aint);
+		final Primitive fLong = this.calc.applyFunction(Type.LONG, "f", Aint);
+		assertNotSame(fInt, fLong);
+		assertNotEquals(fInt, fLong);
+	}
+
+	@Test
+	public void testNotInternedEqualsInterned() throws Exception {
+		final Term A = this.calc.valTerm(Type.INT, "A");
+		final Term B = this.calc.valTerm(Type.INT, "B");
+		final Expression interned = Expression.makeExpressionBinary(this.calc, A, Operator.ADD, B);
+		final Expression notInterned = Expression.makeExpressionBinary(null, A, Operator.ADD, B);
+		assertNotSame(interned, notInterned);
+		assertEquals(interned, notInterned);
+		assertEquals(notInterned, interned);
+		assertEquals(interned.hashCode(), notInterned.hashCode());
+		assertEquals(interned.toString(), notInterned.toString());
+	}
+
+	@Test
+	public void testDifferentCalculators() throws Exception {
+		final CalculatorRewriting otherCalc = new CalculatorRewriting();
+		final Primitive e1 = this.calc.valTerm(Type.INT, "A").add(this.calc.valInt(1));
+		final Primitive e2 = otherCalc.valTerm(Type.INT, "A").add(otherCalc.valInt(1));
+		assertNotSame(e1, e2);
+		assertEquals(e1, e2);
+		assertEquals(e1.hashCode(), e2.hashCode());
+	}
+
+	@Test
+	public void testToString() throws Exception {
+		final Term A = this.calc.valTerm(Type.INT, "A");
+		final Term B = this.calc.valTerm(Type.INT, "B");
+		final Primitive e = A.sub(B.add(this.calc.valInt(1))).mul(A);
+		assertEquals("(A - (B + 1)) * A", e.toString());
+		//the representation of a shared operand is unaffected
+		assertEquals("B + 1", B.add(this.calc.valInt(1)).toString());
+		assertEquals(e.toString(), e.toString());
+	}
+
+	@Test
+	public void testStateCloneSharesInterned() throws Exception {
+		final Classpath env = new Classpath("src/test/resources/jbse/bc/testdata/rt.jar", "src/test/resources/jbse/bc/testdata");
+		final State state = new State(100, 100, env, ClassFileFactoryJavassist.class, new HashMap<>(), this.calc, false);
+		final Term A = this.calc.valTerm(Type.INT, "A");
+		final Primitive condition = A.gt(this.calc.valInt(0));
+		state.assume(condition);
+		final State clone = state.clone();
+		final Clause cOriginal = last(state.getPathCondition());
+		final Clause cClone = last(clone.getPathCondition());
+		assertEquals(cOriginal, cClone);
+		assertSame(condition, ((ClauseAssume) cClone).getCondition());
+
+		//a condition built anew after cloning is the same object
+		clone.assume(A.gt(this.calc.valInt(0)));
+		final Clause cNew = last(clone.getPathCondition());
+		assertSame(condition, ((ClauseAssume) cNew).getCondition());
+	}
+
+	private static Clause last(Collection<Clause> clauses) {
+		Clause retVal = null;
+		for (Clause c : clauses) {
+			retVal = c;
+		}
+		return retVal;
+	}
+}